@@ -0,0 +1,43 @@
+package ai;
+
+import interfaces.IBoard;
+import interfaces.ICommand;
+
+/**
+ * Decides when a bot thinks and delegates the decision to the {@link SearchEngine}.
+ * Decisions are spaced on the game clock, so a bot acts at a human-like rate
+ * both in real time and on simulated time.
+ */
+public class BotController {
+    private final SearchEngine engine;
+    private final long budgetNanos;
+    private final long intervalNanos;
+    private long nextDecisionNanos = Long.MIN_VALUE;
+
+    /**
+     * Constructs a controller.
+     * @param engine The search engine
+     * @param budgetNanos Wall-clock search budget per decision
+     * @param intervalNanos Game time between two decisions
+     */
+    public BotController(SearchEngine engine, long budgetNanos, long intervalNanos) {
+        this.engine = engine;
+        this.budgetNanos = budgetNanos;
+        this.intervalNanos = intervalNanos;
+    }
+
+    /**
+     * Returns the bot's command for this moment, or null if it waits.
+     * @param board The game board
+     * @param playerId The bot's player id
+     * @return The command or null
+     * @throws IllegalArgumentException if the game has more players than the search handles
+     */
+    public ICommand decide(IBoard board, int playerId) {
+        long now = board.getBoardConfig().clock.nanoTime();
+        if (now < nextDecisionNanos)
+            return null;
+        nextDecisionNanos = now + intervalNanos;
+        return engine.decide(board, playerId, budgetNanos);
+    }
+}
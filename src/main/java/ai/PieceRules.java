@@ -0,0 +1,107 @@
+package ai;
+
+import interfaces.*;
+import pieces.EPieceType;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Timing and move tables of each piece type for each player, read from the
+ * pieces' loaded states ({@code speed_m_per_sec}, rest and jump animation lengths).
+ */
+public class PieceRules {
+    /** Move deltas per piece type, indexed by player id. */
+    private final List<Map<EPieceType, int[]>> moves;
+    /** Speed, rest and jump timing per piece type, indexed by player id. */
+    private final List<Map<EPieceType, double[]>> timing;
+    private final double tileSize;
+
+    private static final int SPEED = 0;
+    private static final int LONG_REST = 1;
+    private static final int SHORT_REST = 2;
+    private static final int JUMP = 3;
+
+    private PieceRules(double tileSize, int players) {
+        this.tileSize = tileSize;
+        this.moves = new ArrayList<>(players);
+        this.timing = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) {
+            moves.add(new EnumMap<>(EPieceType.class));
+            timing.add(new EnumMap<>(EPieceType.class));
+        }
+    }
+
+    /**
+     * Reads the rules from the pieces currently on the board.
+     * @param board The live board
+     * @return The rules
+     */
+    public static PieceRules of(IBoard board) {
+        PieceRules rules = new PieceRules(board.getBoardConfig().tileSize, board.getPlayers().length);
+        for (IPlayer player : board.getPlayers()) {
+            Map<EPieceType, int[]> moves = rules.moves.get(player.getId());
+            Map<EPieceType, double[]> timing = rules.timing.get(player.getId());
+            for (IPiece p : player.getPieces()) {
+                if (p == null || moves.containsKey(p.getType()))
+                    continue;
+                moves.put(p.getType(), p.getMoves().getDeltas());
+                timing.put(p.getType(), new double[]{
+                        speedOf(p.getStates().get(EState.MOVE)),
+                        durationOf(p.getStates().get(EState.LONG_REST)),
+                        durationOf(p.getStates().get(EState.SHORT_REST)),
+                        durationOf(p.getStates().get(EState.JUMP))
+                });
+            }
+        }
+        return rules;
+    }
+
+    private static double speedOf(IState st) {
+        return st == null ? 0 : st.getPhysics().getSpeedMetersPerSec();
+    }
+
+    private static double durationOf(IState st) {
+        if (st == null || st.getGraphics() == null || st.getGraphics().getFramesPerSec() <= 0)
+            return 0;
+        return (st.getGraphics().getTotalFrames() - 1) / st.getGraphics().getFramesPerSec();
+    }
+
+    int[] moves(EPieceType t, int player) {
+        return moves.get(player).getOrDefault(t, new int[0]);
+    }
+
+    double travelSeconds(EPieceType t, int player, double cells) {
+        double speed = timing.get(player).get(t)[SPEED];
+        return speed <= 0 ? Double.MAX_VALUE : cells * tileSize / speed;
+    }
+
+    double longRest(EPieceType t, int player) {
+        return timing.get(player).get(t)[LONG_REST];
+    }
+
+    double shortRest(EPieceType t, int player) {
+        return timing.get(player).get(t)[SHORT_REST];
+    }
+
+    double jumpSeconds(EPieceType t, int player) {
+        return timing.get(player).get(t)[JUMP];
+    }
+
+    /**
+     * Material value used by the search (the king is worth more than everything else together).
+     */
+    static int value(EPieceType t) {
+        switch (t) {
+            case P: return 100;
+            case N: return 300;
+            case B: return 300;
+            case R: return 500;
+            case Q: return 900;
+            case K: return 20000;
+            default: return 0;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package ai;
+
+import board.Zobrist;
+import interfaces.*;
+import pieces.EPieceType;
+
+import java.util.Arrays;
+
+/**
+ * Compact copy of a board used by the search engine.
+ * <p>
+ * Squares are indexed {@code row * cols + col}. Real-time rules are reduced to
+ * timing: every piece carries the number of seconds until it can act again
+ * (travel, {@code LONG_REST} after a move, jump plus {@code SHORT_REST}) and,
+ * while airborne, the time until it lands. Moves are applied instantly at the
+ * destination so the search can reason about who arrives and who can dodge.
+ */
+public class SearchBoard {
+    /** Marker for an empty square in {@link #owner}. */
+    public static final byte EMPTY = -1;
+    /** Players the search handles: it plays one side against a single opponent. */
+    public static final int MAX_PLAYERS = 2;
+
+    final int rows;
+    final int cols;
+    final byte[] owner;
+    final EPieceType[] type;
+    /** Seconds until the piece may act again. */
+    final double[] readyIn;
+    /** Seconds until a jumping piece lands, 0 when on the ground. */
+    final double[] airborne;
+    /** Timing and move tables, shared between copies. */
+    final PieceRules rules;
+    private final Zobrist zobrist;
+    /** Zobrist hash over (square, type, owner, ready/resting/airborne). */
+    long hash;
+    /** Material won by the move that produced this copy (negative if the mover was lost). */
+    int gained;
+
+    SearchBoard(int rows, int cols, int players, PieceRules rules) {
+        this.rows = rows;
+        this.cols = cols;
+        int n = rows * cols;
+        this.owner = new byte[n];
+        this.type = new EPieceType[n];
+        this.readyIn = new double[n];
+        this.airborne = new double[n];
+        this.rules = rules;
+        this.zobrist = Zobrist.forSize(rows, cols, players);
+        Arrays.fill(owner, EMPTY);
+    }
+
+    private SearchBoard(SearchBoard other) {
+        this.rows = other.rows;
+        this.cols = other.cols;
+        this.owner = other.owner.clone();
+        this.type = other.type.clone();
+        this.readyIn = other.readyIn.clone();
+        this.airborne = other.airborne.clone();
+        this.rules = other.rules;
+        this.zobrist = other.zobrist;
+        this.hash = other.hash;
+    }
+
+    /**
+     * Returns an independent copy (the rules are shared).
+     */
+    public SearchBoard copy() {
+        return new SearchBoard(this);
+    }
+
+    /**
+     * Builds a search board from the live board.
+     * Moving pieces are placed on their target square with their remaining travel time.
+     * @param board The live board
+     * @return The search board
+     * @throws IllegalArgumentException if the game has more than {@link #MAX_PLAYERS} players
+     */
+    public static SearchBoard of(IBoard board) {
+        int players = board.getPlayers().length;
+        if (players > MAX_PLAYERS)
+            throw new IllegalArgumentException("The search plays " + MAX_PLAYERS + " player games, not " + players);
+        PieceRules rules = PieceRules.of(board);
+        SearchBoard sb = new SearchBoard(board.getROWS(), board.getCOLS(), players, rules);
+        double tile = board.getBoardConfig().tileSize;
+
+        for (IPlayer player : board.getPlayers()) {
+            for (IPiece p : player.getPieces()) {
+                if (p == null || p.isCaptured())
+                    continue;
+                IState st = p.getCurrentState();
+                EState name = p.getCurrentStateName();
+                int row = p.getRow();
+                int col = p.getCol();
+                int pid = player.getId();
+                double ready = 0;
+                double air = 0;
+
+                switch (name) {
+                    case MOVE: {
+                        row = st.getTargetRow();
+                        col = st.getTargetCol();
+                        double dx = col * tile - st.getPhysics().getCurrentX();
+                        double dy = row * tile - st.getPhysics().getCurrentY();
+                        double speed = st.getPhysics().getSpeedMetersPerSec();
+                        double left = speed > 0 ? Math.sqrt(dx * dx + dy * dy) / speed : 0;
+                        ready = left + rules.longRest(p.getType(), pid);
+                        break;
+                    }
+                    case JUMP:
+                        air = remainingAnimation(st);
+                        ready = air + rules.shortRest(p.getType(), pid);
+                        break;
+                    case LONG_REST:
+                    case SHORT_REST:
+                        ready = remainingAnimation(st);
+                        break;
+                    default:
+                        break;
+                }
+
+                int sq = row * sb.cols + col;
+                sb.owner[sq] = (byte) pid;
+                sb.type[sq] = p.getType();
+                sb.readyIn[sq] = ready;
+                sb.airborne[sq] = air;
+            }
+        }
+        sb.rehash();
+        return sb;
+    }
+
+    /**
+     * Recomputes the hash from scratch.
+     */
+    void rehash() {
+        hash = 0;
+        for (int sq = 0; sq < owner.length; sq++)
+            hash ^= keyAt(sq);
+    }
+
+    /**
+     * Gets the Zobrist key of the square's content, 0 for an empty square.
+     * Timers are reduced to the state they correspond to: airborne is a jump,
+     * waiting is a rest, otherwise the piece is idle.
+     */
+    private long keyAt(int sq) {
+        if (owner[sq] == EMPTY)
+            return 0;
+        EState state = airborne[sq] > 0 ? EState.JUMP : readyIn[sq] > 0 ? EState.LONG_REST : EState.IDLE;
+        return zobrist.key(sq / cols, sq % cols, type[sq], owner[sq], state);
+    }
+
+    private static double remainingAnimation(IState st) {
+        IGraphicsData g = st.getGraphics();
+        if (g == null || g.getFramesPerSec() <= 0)
+            return 0;
+        int left = Math.max(0, g.getTotalFrames() - 1 - g.getCurrentNumFrame());
+        return left / g.getFramesPerSec();
+    }
+
+    /**
+     * Lets time pass: decreases every timer by the given amount.
+     * @param seconds Elapsed seconds
+     */
+    void elapse(double seconds) {
+        for (int i = 0; i < owner.length; i++) {
+            if (owner[i] == EMPTY)
+                continue;
+            long before = keyAt(i);
+            readyIn[i] = Math.max(0, readyIn[i] - seconds);
+            airborne[i] = Math.max(0, airborne[i] - seconds);
+            hash ^= before ^ keyAt(i);
+        }
+    }
+
+    /**
+     * Checks whether a piece on {@code from} may move by (dr, dc), mirroring {@code Board.isMoveLegal}.
+     */
+    boolean canMove(int from, int dr, int dc) {
+        int r = from / cols + dr;
+        int c = from % cols + dc;
+        if (r < 0 || r >= rows || c < 0 || c >= cols)
+            return false;
+        int to = r * cols + c;
+        if (owner[to] == owner[from])
+            return false;
+        if (!type[from].isCanSkip()) {
+            int sr = Integer.signum(dr), sc = Integer.signum(dc);
+            int cr = from / cols + sr, cc = from % cols + sc;
+            while (cr != r || cc != c) {
+                int sq = cr * cols + cc;
+                // Idle and airborne pieces block the path, moving and resting ones do not
+                if (owner[sq] != EMPTY && (readyIn[sq] <= 0 || airborne[sq] > 0))
+                    return false;
+                cr += sr;
+                cc += sc;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Applies a move. If the target is an enemy that can still dodge (ready and
+     * the travel is longer than the reaction time) or is airborne on arrival,
+     * the mover is lost instead, as in {@code Board}'s capture rules.
+     * @return Value of material removed from the mover's opponent (negative if the mover was lost)
+     */
+    int applyMove(int from, int to, double reactionSeconds) {
+        byte me = owner[from];
+        EPieceType t = type[from];
+        double dist = Math.hypot(to / cols - from / cols, to % cols - from % cols);
+        double travel = rules.travelSeconds(t, me, dist);
+
+        int gained = 0;
+        if (owner[to] != EMPTY) {
+            boolean dodges = airborne[to] > travel
+                    || (readyIn[to] <= 0 && travel > reactionSeconds);
+            if (dodges) {
+                hash ^= keyAt(from);
+                owner[from] = EMPTY;
+                type[from] = null;
+                return -PieceRules.value(t);
+            }
+            gained = PieceRules.value(type[to]);
+        }
+
+        hash ^= keyAt(from) ^ keyAt(to);
+        owner[to] = me;
+        type[to] = t;
+        readyIn[to] = travel + rules.longRest(t, me);
+        airborne[to] = 0;
+        owner[from] = EMPTY;
+        type[from] = null;
+        readyIn[from] = 0;
+        airborne[from] = 0;
+        hash ^= keyAt(to);
+        return gained;
+    }
+
+    /**
+     * Applies a jump in place.
+     */
+    void applyJump(int sq) {
+        double air = rules.jumpSeconds(type[sq], owner[sq]);
+        hash ^= keyAt(sq);
+        airborne[sq] = air;
+        readyIn[sq] = air + rules.shortRest(type[sq], owner[sq]);
+        hash ^= keyAt(sq);
+    }
+
+    /**
+     * Material balance from the point of view of the given player.
+     */
+    int material(int playerId) {
+        int sum = 0;
+        for (int i = 0; i < owner.length; i++) {
+            if (owner[i] == EMPTY)
+                continue;
+            int v = PieceRules.value(type[i]);
+            sum += owner[i] == playerId ? v : -v;
+        }
+        return sum;
+    }
+
+    /**
+     * Returns true if the given player still has a king.
+     */
+    boolean hasKing(int playerId) {
+        for (int i = 0; i < owner.length; i++)
+            if (owner[i] == playerId && type[i] == EPieceType.K)
+                return true;
+        return false;
+    }
+
+    /**
+     * Gets the move table for the piece on a square as packed (dr, dc) pairs.
+     */
+    int[] movesOf(int sq) {
+        return rules.moves(type[sq], owner[sq]);
+    }
+}
@@ -0,0 +1,330 @@
+package ai;
+
+import command.JumpCommand;
+import command.MoveCommand;
+import interfaces.IBoard;
+import interfaces.ICommand;
+import pieces.Position;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Real-time aware game tree search.
+ * <p>
+ * Plies alternate between players; each ply lets {@link #PLY_SECONDS} pass, so pieces
+ * only get to act again once their travel, rest and jump timers allow it. A player
+ * may also pass, which matters in a game without turns. The root moves are split
+ * across a fork/join pool and searched with iterative deepening until the time
+ * budget runs out; the result of the deepest completed iteration is used.
+ */
+public class SearchEngine {
+    /** Encoded "do nothing" action. */
+    public static final int PASS = -1;
+    /** Game time assumed between two decisions of the same side. */
+    static final double PLY_SECONDS = 0.5;
+    /** Time an opponent needs to notice an incoming piece and jump. */
+    static final double REACTION_SECONDS = 0.3;
+
+    /** Cost of waiting, so a gain now is preferred over the same gain later. */
+    static final int PASS_PENALTY = 3;
+    /** Bonus per piece that can act (and dodge) right now. */
+    static final int READY_BONUS = 5;
+    /**
+     * Gains are worth {@code value * remainingDepth >> TEMPO_SHIFT} extra, so capturing
+     * now beats capturing the same piece a few plies later.
+     */
+    static final int TEMPO_SHIFT = 8;
+
+    private static final int WIN = 1_000_000;
+    private static final int MAX_DEPTH = 8;
+    /** Root moves searched sequentially by one fork/join leaf. */
+    private static final int SPLIT_THRESHOLD = 4;
+
+    /** Entries in the shared transposition table. */
+    private static final int TABLE_ENTRIES = 1 << 18;
+
+    private final ForkJoinPool pool;
+    /** Best moves of visited positions, used to search them first. */
+    private final TranspositionTable table = new TranspositionTable(TABLE_ENTRIES);
+
+    /**
+     * Constructs an engine on the common fork/join pool.
+     */
+    public SearchEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs an engine on the given pool (several bots may share one pool).
+     * @param pool The pool used for parallel search
+     */
+    public SearchEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Picks the best action for a player and turns it into a command.
+     * @param board The live board
+     * @param playerId The player to move
+     * @param budgetNanos Wall-clock budget for the decision
+     * @return The command, or null if waiting is best
+     */
+    public ICommand decide(IBoard board, int playerId, long budgetNanos) {
+        int action = search(SearchBoard.of(board), playerId, budgetNanos);
+        if (action == PASS)
+            return null;
+
+        int cols = board.getCOLS();
+        int from = action >>> 16;
+        int to = action & 0xFFFF;
+        Position fromPos = new Position(from / cols, from % cols);
+        if (from == to)
+            return new JumpCommand(board.getPiece(fromPos), board);
+        Position toPos = new Position(to / cols, to % cols);
+        return board.isMoveLegal(fromPos, toPos) ? new MoveCommand(fromPos, toPos, board) : null;
+    }
+
+    /**
+     * Searches the given position.
+     * @param root The position
+     * @param playerId The player to move
+     * @param budgetNanos Wall-clock budget
+     * @return The encoded best action ({@code from << 16 | to}, from == to for a jump) or {@link #PASS}
+     */
+    public int search(SearchBoard root, int playerId, long budgetNanos) {
+        int[] actions = actions(root, playerId);
+        if (actions.length == 1)
+            return actions[0];
+
+        long deadline = System.nanoTime() + budgetNanos;
+        int best = PASS;
+        for (int depth = 1; depth <= MAX_DEPTH; depth++) {
+            Search s = new Search(playerId, depth, deadline, table);
+            int[] result = pool.invoke(new RootTask(s, root, actions, 0, actions.length));
+            if (s.timedOut)
+                break;
+            best = result[1];
+            if (Math.abs(result[0]) >= WIN / 2)
+                break;
+        }
+        return best;
+    }
+
+    /**
+     * Generates actions for the player: pass, jumps and moves of ready pieces, captures first.
+     */
+    static int[] actions(SearchBoard b, int playerId) {
+        int[] buf = new int[64];
+        int n = 0;
+        buf[n++] = PASS;
+        int captures = 1;
+        for (int sq = 0; sq < b.owner.length; sq++) {
+            if (b.owner[sq] != playerId || b.readyIn[sq] > 0)
+                continue;
+            int[] moves = b.movesOf(sq);
+            for (int i = 0; i < moves.length; i += 2) {
+                if (!b.canMove(sq, moves[i], moves[i + 1]))
+                    continue;
+                int to = sq + moves[i] * b.cols + moves[i + 1];
+                if (n + 2 > buf.length)
+                    buf = Arrays.copyOf(buf, buf.length * 2);
+                int action = sq << 16 | to;
+                if (b.owner[to] != SearchBoard.EMPTY) {
+                    buf[n++] = buf[captures];
+                    buf[captures++] = action;
+                } else {
+                    buf[n++] = action;
+                }
+            }
+            if (n + 1 > buf.length)
+                buf = Arrays.copyOf(buf, buf.length * 2);
+            buf[n++] = sq << 16 | sq;
+        }
+        return Arrays.copyOf(buf, n);
+    }
+
+    static SearchBoard apply(SearchBoard b, int action) {
+        SearchBoard child = b.copy();
+        if (action != PASS) {
+            int from = action >>> 16;
+            int to = action & 0xFFFF;
+            if (from == to)
+                child.applyJump(from);
+            else
+                child.gained = child.applyMove(from, to, REACTION_SECONDS);
+        }
+        child.elapse(PLY_SECONDS);
+        return child;
+    }
+
+    /**
+     * Static evaluation from the point of view of the given player: material, a small
+     * bonus for pieces ready to act, minus a share of the value of pieces that cannot
+     * dodge while an enemy can reach them.
+     */
+    static int evaluate(SearchBoard b, int playerId) {
+        int score = b.material(playerId);
+        for (int sq = 0; sq < b.owner.length; sq++) {
+            if (b.owner[sq] == SearchBoard.EMPTY)
+                continue;
+            if (b.readyIn[sq] <= 0) {
+                score += b.owner[sq] == playerId ? READY_BONUS : -READY_BONUS;
+                continue;
+            }
+            if (b.airborne[sq] > 0)
+                continue;
+            if (isAttacked(b, sq)) {
+                int v = PieceRules.value(b.type[sq]) / 2;
+                score += b.owner[sq] == playerId ? -v : v;
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Bonus for the material won by the move that produced {@code child}, larger the earlier it happens.
+     */
+    static int tempo(SearchBoard child, int depth) {
+        int gained = child.gained;
+        return (gained > 0 ? gained : 0) * depth >> TEMPO_SHIFT;
+    }
+
+    private static boolean isAttacked(SearchBoard b, int target) {
+        byte victim = b.owner[target];
+        for (int sq = 0; sq < b.owner.length; sq++) {
+            if (b.owner[sq] == SearchBoard.EMPTY || b.owner[sq] == victim || b.readyIn[sq] > 0)
+                continue;
+            int dr = target / b.cols - sq / b.cols;
+            int dc = target % b.cols - sq % b.cols;
+            int[] moves = b.movesOf(sq);
+            for (int i = 0; i < moves.length; i += 2)
+                if (moves[i] == dr && moves[i + 1] == dc && b.canMove(sq, dr, dc))
+                    return true;
+        }
+        return false;
+    }
+
+    /**
+     * State of one iterative deepening iteration, shared by all its tasks.
+     */
+    private static class Search {
+        final int playerId;
+        final int depth;
+        final long deadline;
+        final TranspositionTable table;
+        final AtomicInteger alpha = new AtomicInteger(-WIN - 1);
+        volatile boolean timedOut;
+
+        Search(int playerId, int depth, long deadline, TranspositionTable table) {
+            this.playerId = playerId;
+            this.depth = depth;
+            this.deadline = deadline;
+            this.table = table;
+        }
+
+        int negamax(SearchBoard b, int side, int depth, int alpha, int beta) {
+            if (timedOut || System.nanoTime() > deadline) {
+                timedOut = true;
+                return 0;
+            }
+            if (!b.hasKing(side))
+                return -WIN - depth;
+            if (!b.hasKing(1 - side))
+                return WIN + depth;
+            if (depth == 0)
+                return evaluate(b, side);
+
+            int[] actions = actions(b, side);
+            // Timers make the hash approximate, so the table only orders moves, it never cuts off
+            int hint = table.probeMove(b.hash, PASS);
+            for (int i = 1; i < actions.length && hint != PASS; i++) {
+                if (actions[i] == hint) {
+                    actions[i] = actions[0];
+                    actions[0] = hint;
+                    break;
+                }
+            }
+
+            int best = -WIN * 2;
+            int bestAction = PASS;
+            int alpha0 = alpha;
+            for (int action : actions) {
+                SearchBoard child = apply(b, action);
+                int bonus = tempo(child, depth);
+                int score = -negamax(child, 1 - side, depth - 1, bonus - beta, bonus - alpha) + bonus;
+                if (action == PASS)
+                    score -= PASS_PENALTY;
+                if (score > best) {
+                    best = score;
+                    bestAction = action;
+                }
+                if (best > alpha)
+                    alpha = best;
+                if (alpha >= beta)
+                    break;
+            }
+            if (!timedOut) {
+                int bound = best <= alpha0 ? TranspositionTable.UPPER
+                        : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+                table.store(b.hash, bestAction, best, depth, bound);
+            }
+            return best;
+        }
+    }
+
+    /**
+     * Searches a slice of the root actions, forking halves until the slice is small.
+     * Returns {score, action}.
+     */
+    @SuppressWarnings("serial")
+    private static class RootTask extends RecursiveTask<int[]> {
+        private final Search search;
+        private final SearchBoard root;
+        private final int[] actions;
+        private final int lo;
+        private final int hi;
+
+        RootTask(Search search, SearchBoard root, int[] actions, int lo, int hi) {
+            this.search = search;
+            this.root = root;
+            this.actions = actions;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (hi - lo > SPLIT_THRESHOLD) {
+                int mid = (lo + hi) >>> 1;
+                RootTask left = new RootTask(search, root, actions, lo, mid);
+                RootTask right = new RootTask(search, root, actions, mid, hi);
+                left.fork();
+                int[] r = right.compute();
+                int[] l = left.join();
+                return l[0] >= r[0] ? l : r;
+            }
+
+            int[] best = { -WIN * 2, PASS };
+            int side = search.playerId;
+            for (int i = lo; i < hi; i++) {
+                int alpha = search.alpha.get();
+                SearchBoard child = apply(root, actions[i]);
+                int bonus = tempo(child, search.depth);
+                int score = -search.negamax(child, 1 - side, search.depth - 1, -WIN * 2, bonus - alpha) + bonus;
+                if (actions[i] == PASS)
+                    score -= PASS_PENALTY;
+                if (search.timedOut)
+                    break;
+                if (score > best[0]) {
+                    best[0] = score;
+                    best[1] = actions[i];
+                    search.alpha.accumulateAndGet(score, Math::max);
+                }
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package ai;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, lock-free transposition table keyed on a Zobrist hash.
+ * <p>
+ * Each entry is three longs: a check word and two data words. The check word
+ * is {@code key ^ data1 ^ data2}, so an entry torn by concurrent writers simply
+ * fails verification on probe instead of returning mixed data. Writers always
+ * replace (newest wins), which keeps the table bounded with no locking.
+ */
+public class TranspositionTable {
+    /** Bound type of a stored score. */
+    public static final int EXACT = 0;
+    public static final int LOWER = 1;
+    public static final int UPPER = 2;
+
+    private static final int WORDS = 3;
+
+    private final AtomicLongArray table;
+    private final int mask;
+
+    /**
+     * Constructs a table with at least the given number of entries (rounded up to a power of two).
+     * @param entries Requested capacity
+     */
+    public TranspositionTable(int entries) {
+        int size = Integer.highestOneBit(Math.max(1, entries - 1)) << 1;
+        this.table = new AtomicLongArray(size * WORDS);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Stores a search result.
+     * @param key Position hash
+     * @param move Best move found
+     * @param score Score of the position
+     * @param depth Search depth of the score
+     * @param bound One of {@link #EXACT}, {@link #LOWER}, {@link #UPPER}
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        long data1 = (move & 0xFFFFFFFFL) | ((long) (depth & 0xFF) << 32) | ((long) (bound & 0x3) << 40);
+        long data2 = score;
+        int i = index(key);
+        table.set(i + 1, data1);
+        table.set(i + 2, data2);
+        table.set(i, key ^ data1 ^ data2);
+    }
+
+    /**
+     * Looks up a position.
+     * @param key Position hash
+     * @return The entry, or null if absent or overwritten by another position
+     */
+    public Entry probe(long key) {
+        int i = index(key);
+        long check = table.get(i);
+        long data1 = table.get(i + 1);
+        long data2 = table.get(i + 2);
+        if ((check ^ data1 ^ data2) != key)
+            return null;
+        return new Entry((int) data1, (int) data2, (int) (data1 >>> 32) & 0xFF, (int) (data1 >>> 40) & 0x3);
+    }
+
+    /**
+     * Looks up only the best move of a position, without allocating.
+     * @param key Position hash
+     * @param fallback Value returned on a miss
+     * @return The stored move or the fallback
+     */
+    public int probeMove(long key, int fallback) {
+        int i = index(key);
+        long check = table.get(i);
+        long data1 = table.get(i + 1);
+        long data2 = table.get(i + 2);
+        return (check ^ data1 ^ data2) == key ? (int) data1 : fallback;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        for (int i = 0; i < table.length(); i++)
+            table.set(i, 0);
+    }
+
+    /**
+     * Gets the number of entries.
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    private int index(long key) {
+        return ((int) (key ^ (key >>> 32)) & mask) * WORDS;
+    }
+
+    /**
+     * A verified table entry.
+     */
+    public static class Entry {
+        public final int move;
+        public final int score;
+        public final int depth;
+        public final int bound;
+
+        Entry(int move, int score, int depth, int bound) {
+            this.move = move;
+            this.score = score;
+            this.depth = depth;
+            this.bound = bound;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package archive;
+
+import journal.EJournalRecord;
+import journal.GameJournal;
+import replay.GameRecording;
+import replay.ReplayEngine;
+import simulation.HeadlessGame;
+import utils.LogUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Archives finished games and prints balancing statistics over archives.
+ * <p>
+ * Usage: {@code ArchiveMain [--threads T] [--tick-ms MS] [--import JOURNALS --out FILE] [PATH...]}
+ * <p>
+ * {@code --import} replays the finished games journaled in a directory and appends them to the archive
+ * {@code --out}. Each PATH is an archive or a directory of archives; their statistics are printed,
+ * scanning files in parallel.
+ */
+public class ArchiveMain {
+    public static void main(String[] args) throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        long tickMillis = HeadlessGame.DEFAULT_TICK_MILLIS;
+        Path journals = null;
+        Path out = null;
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--tick-ms": tickMillis = Long.parseLong(args[++i]); break;
+                case "--import": journals = Path.of(args[++i]); break;
+                case "--out": out = Path.of(args[++i]); break;
+                default:
+                    if (args[i].startsWith("--"))
+                        throw new IllegalArgumentException("Unknown argument: " + args[i]);
+                    files.addAll(list(Path.of(args[i]), ArchiveWriter.SUFFIX));
+            }
+        }
+        if (journals != null && out == null)
+            throw new IllegalArgumentException("--import needs --out");
+        if (journals == null && files.isEmpty())
+            throw new IllegalArgumentException("Missing archive path");
+
+        LogUtils.setEnabled(false);
+        if (journals != null) {
+            try (ArchiveWriter writer = new ArchiveWriter(out)) {
+                int n = importJournals(list(journals, GameJournal.SUFFIX), writer, tickMillis, threads);
+                System.out.println("Archived " + n + " finished games to " + out);
+            }
+        }
+        if (files.isEmpty())
+            return;
+
+        long start = System.nanoTime();
+        ArchiveStats stats = ArchiveStats.scan(files, threads);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        System.out.println(stats.format(tickMillis));
+        System.out.printf("scanned %d files in %.2fs (%.0f games/sec)%n",
+                files.size(), seconds, seconds > 0 ? stats.getGames() / seconds : 0);
+    }
+
+    private static List<Path> list(Path path, String suffix) throws IOException {
+        if (!Files.isDirectory(path))
+            return List.of(path);
+        try (Stream<Path> s = Files.list(path)) {
+            return s.filter(p -> p.toString().endsWith(suffix)).sorted().collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Replays the finished games among the journals with a recorder attached and archives them.
+     * Unfinished and unreadable journals are skipped.
+     * @return The number of games archived
+     */
+    public static int importJournals(List<Path> files, ArchiveWriter writer, long tickMillis, int threads)
+            throws InterruptedException, IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (Path file : files) {
+                futures.add(pool.submit(() -> {
+                    GameRecording recording = GameRecording.read(file);
+                    if (recording.getOutcomes().stream().noneMatch(e -> e.getType() == EJournalRecord.WIN))
+                        return false;
+                    ReplayEngine engine = new ReplayEngine(recording, tickMillis);
+                    GameRecorder recorder = new GameRecorder(engine.getGame());
+                    recorder.start();
+                    engine.seek(recording.getLastTick());
+                    writer.append(recorder);
+                    return true;
+                }));
+            }
+            int n = 0;
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    if (futures.get(i).get())
+                        n++;
+                } catch (ExecutionException e) {
+                    System.err.println("Cannot archive " + files.get(i) + ": " + e.getCause().getMessage());
+                }
+            }
+            return n;
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
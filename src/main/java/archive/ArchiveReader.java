@@ -0,0 +1,285 @@
+package archive;
+
+import journal.EJournalRecord;
+import pieces.EPieceType;
+import utils.Varint;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Streams the games of an archive written by {@link ArchiveWriter}, one at a time.
+ * <p>
+ * {@link #next()} inflates the next game and reads its header and piece table; each column is only
+ * decoded when asked for. Arrays returned by the column getters are reused by the next game and may be
+ * longer than {@link #getEventCount()}. Nothing is allocated per game once the buffers have grown to the
+ * largest game, so millions of games can be scanned in a loop.
+ */
+public class ArchiveReader implements Closeable {
+    private static final EPieceType[] TYPES = EPieceType.values();
+
+    private final DataInputStream in;
+    private final Inflater inflater = new Inflater();
+    private byte[] compressed = new byte[1 << 12];
+    private ByteBuffer raw = ByteBuffer.allocate(1 << 12);
+
+    private int rows;
+    private int cols;
+    private long length;
+    private int winner;
+    private byte[] pieceTypes = new byte[64];
+    private byte[] pieceOwners = new byte[64];
+    private int pieceCount;
+    private int eventCount;
+    private final int[] columnSize = new int[ArchiveWriter.COLUMNS];
+    private final int[] columnStart = new int[ArchiveWriter.COLUMNS];
+    private final boolean[] decoded = new boolean[ArchiveWriter.COLUMNS];
+
+    private long[] ticks = new long[64];
+    private byte[] types = new byte[64];
+    private int[] pieces = new int[64];
+    private int[] from = new int[64];
+    private int[] to = new int[64];
+
+    /**
+     * Opens an archive.
+     * @param file The archive file
+     * @throws IOException if the file cannot be read or is not an archive
+     */
+    public ArchiveReader(Path file) throws IOException {
+        this(Files.newInputStream(file));
+    }
+
+    /**
+     * Reads an archive from a stream.
+     * @param stream The archive bytes
+     * @throws IOException if the stream is not an archive
+     */
+    public ArchiveReader(InputStream stream) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(stream, 1 << 16));
+        if (in.readInt() != ArchiveWriter.MAGIC) {
+            in.close();
+            throw new IOException("Not a game archive");
+        }
+        int version = in.readByte();
+        if (version != ArchiveWriter.VERSION) {
+            in.close();
+            throw new IOException("Unsupported archive version " + version);
+        }
+    }
+
+    /**
+     * Moves to the next game.
+     * @return false at the end of the archive
+     * @throws IOException if a game is damaged or cut short
+     */
+    public boolean next() throws IOException {
+        int rawLength;
+        try {
+            rawLength = readVarint(true);
+        } catch (EOFException e) {
+            return false;
+        }
+        int compressedLength = readVarint(false);
+        if (compressed.length < compressedLength)
+            compressed = new byte[compressedLength];
+        in.readFully(compressed, 0, compressedLength);
+        if (raw.capacity() < rawLength)
+            raw = ByteBuffer.allocate(rawLength);
+        inflater.reset();
+        inflater.setInput(compressed, 0, compressedLength);
+        try {
+            if (inflater.inflate(raw.array(), 0, rawLength) != rawLength)
+                throw new IOException("Damaged game: short payload");
+        } catch (DataFormatException e) {
+            throw new IOException("Damaged game: " + e.getMessage(), e);
+        }
+        raw.clear().limit(rawLength);
+
+        rows = Varint.readInt(raw);
+        cols = Varint.readInt(raw);
+        length = Varint.readLong(raw);
+        winner = Varint.readSignedInt(raw);
+        pieceCount = Varint.readInt(raw);
+        if (pieceTypes.length < pieceCount) {
+            pieceTypes = new byte[pieceCount];
+            pieceOwners = new byte[pieceCount];
+        }
+        for (int i = 0; i < pieceCount; i++) {
+            pieceTypes[i] = raw.get();
+            pieceOwners[i] = raw.get();
+        }
+        eventCount = Varint.readInt(raw);
+        for (int i = 0; i < columnSize.length; i++)
+            columnSize[i] = Varint.readInt(raw);
+        int start = raw.position();
+        for (int i = 0; i < columnSize.length; i++) {
+            columnStart[i] = start;
+            start += columnSize[i];
+            decoded[i] = false;
+        }
+        if (start != rawLength)
+            throw new IOException("Damaged game: column sizes do not add up");
+        if (ticks.length < eventCount) {
+            ticks = new long[eventCount];
+            types = new byte[eventCount];
+            pieces = new int[eventCount];
+            from = new int[eventCount];
+            to = new int[eventCount];
+        }
+        return true;
+    }
+
+    /**
+     * Reads an unsigned varint from the stream.
+     * @param first True for the first byte of a game, where the end of the stream is a clean end
+     */
+    private int readVarint(boolean first) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                if (first && shift == 0)
+                    throw new EOFException();
+                throw new IOException("Archive cut short");
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IOException("Damaged game: bad length");
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Gets the length of the game in ticks.
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Gets the winner's player id, -1 if the game ended without one.
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    public int getPieceCount() {
+        return pieceCount;
+    }
+
+    public EPieceType getPieceType(int pieceId) {
+        return TYPES[pieceTypes[pieceId]];
+    }
+
+    public int getPieceOwner(int pieceId) {
+        return pieceOwners[pieceId];
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Gets the tick of every event.
+     */
+    public long[] ticks() {
+        if (!decoded[0]) {
+            ByteBuffer c = column(0);
+            long tick = 0;
+            for (int i = 0; i < eventCount; i++)
+                ticks[i] = tick += Varint.readLong(c);
+            decoded[0] = true;
+        }
+        return ticks;
+    }
+
+    /**
+     * Gets the {@link EJournalRecord} code of every event: MOVE, JUMP or CAPTURE.
+     */
+    public byte[] types() {
+        if (!decoded[1]) {
+            column(1).get(types, 0, eventCount);
+            decoded[1] = true;
+        }
+        return types;
+    }
+
+    /**
+     * Gets the type of one event.
+     */
+    public EJournalRecord getType(int event) {
+        return EJournalRecord.of(types()[event]);
+    }
+
+    /**
+     * Gets the piece of every event, -1 for a move from an empty square.
+     */
+    public int[] pieces() {
+        if (!decoded[2]) {
+            ByteBuffer c = column(2);
+            int piece = 0;
+            for (int i = 0; i < eventCount; i++)
+                pieces[i] = piece += Varint.readSignedInt(c);
+            decoded[2] = true;
+        }
+        return pieces;
+    }
+
+    /**
+     * Gets the start square ({@code row * cols + col}) of every event.
+     */
+    public int[] from() {
+        if (!decoded[3]) {
+            ByteBuffer c = column(3);
+            int square = 0;
+            for (int i = 0; i < eventCount; i++)
+                from[i] = square += Varint.readSignedInt(c);
+            decoded[3] = true;
+        }
+        return from;
+    }
+
+    /**
+     * Gets the target square of every event, the start square for jumps and captures.
+     */
+    public int[] to() {
+        if (!decoded[4]) {
+            int[] start = from();
+            ByteBuffer c = column(4);
+            for (int i = 0; i < eventCount; i++)
+                to[i] = start[i] + Varint.readSignedInt(c);
+            decoded[4] = true;
+        }
+        return to;
+    }
+
+    private ByteBuffer column(int index) {
+        ByteBuffer c = raw.duplicate();
+        c.position(columnStart[index]);
+        return c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+        inflater.end();
+    }
+}
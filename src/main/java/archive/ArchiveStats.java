@@ -0,0 +1,148 @@
+package archive;
+
+import journal.EJournalRecord;
+import pieces.EPieceType;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Balancing statistics over archived games: how often each piece type gets captured and how long games last.
+ * Only the piece table and the type and piece columns are decoded.
+ * Not thread-safe: each worker fills its own instance and instances are merged at the end.
+ */
+public class ArchiveStats {
+    private static final EPieceType[] TYPES = EPieceType.values();
+    private static final byte CAPTURE = (byte) EJournalRecord.CAPTURE.code();
+
+    private long games;
+    private long decided;
+    private long totalTicks;
+    private long events;
+    private final long[] pieces = new long[TYPES.length];
+    private final long[] captured = new long[TYPES.length];
+
+    /**
+     * Adds the game the reader is on.
+     * @param in The reader, positioned by {@link ArchiveReader#next()}
+     */
+    public void add(ArchiveReader in) {
+        games++;
+        if (in.getWinner() >= 0)
+            decided++;
+        totalTicks += in.getLength();
+        events += in.getEventCount();
+        for (int i = 0; i < in.getPieceCount(); i++)
+            pieces[in.getPieceType(i).ordinal()]++;
+        byte[] types = in.types();
+        int[] ids = in.pieces();
+        for (int i = 0; i < in.getEventCount(); i++)
+            if (types[i] == CAPTURE && ids[i] >= 0)
+                captured[in.getPieceType(ids[i]).ordinal()]++;
+    }
+
+    /**
+     * Adds every game of an archive.
+     * @param file The archive file
+     */
+    public void addAll(Path file) throws IOException {
+        try (ArchiveReader in = new ArchiveReader(file)) {
+            while (in.next())
+                add(in);
+        }
+    }
+
+    /**
+     * Adds all statistics of another instance into this one.
+     */
+    public void merge(ArchiveStats other) {
+        games += other.games;
+        decided += other.decided;
+        totalTicks += other.totalTicks;
+        events += other.events;
+        for (int i = 0; i < TYPES.length; i++) {
+            pieces[i] += other.pieces[i];
+            captured[i] += other.captured[i];
+        }
+    }
+
+    /**
+     * Scans archives in parallel, one file per task.
+     * @param files The archive files
+     * @param threads Files scanned at once
+     * @return The merged statistics
+     */
+    public static ArchiveStats scan(List<Path> files, int threads) throws IOException, InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            List<Future<ArchiveStats>> futures = new ArrayList<>();
+            for (Path file : files) {
+                futures.add(pool.submit(() -> {
+                    ArchiveStats stats = new ArchiveStats();
+                    stats.addAll(file);
+                    return stats;
+                }));
+            }
+            ArchiveStats total = new ArchiveStats();
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    total.merge(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    throw new IOException("Cannot scan " + files.get(i) + ": " + e.getCause().getMessage(), e.getCause());
+                }
+            }
+            return total;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Gets the number of games that ended with a winner.
+     */
+    public long getDecided() {
+        return decided;
+    }
+
+    public double getAverageTicks() {
+        return games == 0 ? 0 : (double) totalTicks / games;
+    }
+
+    /**
+     * Gets the share of pieces of a type that were captured, over all games.
+     */
+    public double getCaptureRate(EPieceType type) {
+        long n = pieces[type.ordinal()];
+        return n == 0 ? 0 : (double) captured[type.ordinal()] / n;
+    }
+
+    public long getCaptured(EPieceType type) {
+        return captured[type.ordinal()];
+    }
+
+    /**
+     * Formats the statistics for the console.
+     * @param tickMillis Length of one tick the games were played with
+     * @return Human readable summary
+     */
+    public String format(long tickMillis) {
+        StringBuilder sb = new StringBuilder(String.format(
+                "games: %d (%d decided), %d events%n" +
+                "avg length: %.1f ticks (%.1f sec)%n" +
+                "capture rate:",
+                games, decided, events, getAverageTicks(), getAverageTicks() * tickMillis / 1000.0));
+        for (EPieceType t : TYPES)
+            sb.append(String.format(" %s=%.3f", t.getVal(), getCaptureRate(t)));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,147 @@
+package archive;
+
+import interfaces.IGame;
+import interfaces.IPlayer;
+import utils.Varint;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * Appends finished games to an archive file in a compact columnar format.
+ * <p>
+ * The file starts with {@code [int magic][u8 version]} and holds one block per game:
+ * {@code [varint raw length][varint compressed length][deflated payload]}. The payload is
+ * <pre>
+ * [varint rows][varint cols][varlong length in ticks][signed varint winner, -1 for none]
+ * [varint pieces]{[u8 type ordinal][u8 owner]}
+ * [varint events][varint bytes of each of the 5 columns]
+ * ticks:  varlong delta to the previous event
+ * types:  u8 {@link journal.EJournalRecord} code
+ * pieces: signed varint delta to the previous event's piece id
+ * from:   signed varint delta to the previous event's start square
+ * to:     signed varint delta to the same event's start square
+ * </pre>
+ * Each column is stored whole, so similar values sit together and compress well, and a reader
+ * interested in a few columns skips the others. Appending is thread safe.
+ */
+public class ArchiveWriter implements Closeable {
+    public static final int MAGIC = 0x4B464131;
+    public static final int VERSION = 1;
+    /** File extension of archives. */
+    public static final String SUFFIX = ".kfa";
+    static final int COLUMNS = 5;
+
+    private final OutputStream out;
+    private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+    private ByteBuffer raw = ByteBuffer.allocate(1 << 12);
+    private ByteBuffer[] columns = new ByteBuffer[COLUMNS];
+    private byte[] compressed = new byte[1 << 12];
+    private long games;
+
+    /**
+     * Opens an archive, appending to it if it exists.
+     * @param file The archive file
+     */
+    public ArchiveWriter(Path file) throws IOException {
+        boolean fresh = !Files.exists(file) || Files.size(file) == 0;
+        this.out = new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND), 1 << 16);
+        if (fresh) {
+            ByteBuffer header = ByteBuffer.allocate(5).putInt(MAGIC).put((byte) VERSION);
+            out.write(header.array());
+        }
+        for (int i = 0; i < COLUMNS; i++)
+            columns[i] = ByteBuffer.allocate(1 << 10);
+    }
+
+    /**
+     * Appends a finished game.
+     * @param recorder The game's recorder
+     */
+    public synchronized void append(GameRecorder recorder) throws IOException {
+        int n = recorder.size;
+        for (int i = 0; i < COLUMNS; i++) {
+            if (columns[i].capacity() < n * 10)
+                columns[i] = ByteBuffer.allocate(n * 10);
+            columns[i].clear();
+        }
+        long lastTick = 0;
+        int lastPiece = 0;
+        int lastFrom = 0;
+        for (int i = 0; i < n; i++) {
+            Varint.writeLong(columns[0], recorder.ticks[i] - lastTick);
+            columns[1].put(recorder.types[i]);
+            Varint.writeSignedInt(columns[2], recorder.pieces[i] - lastPiece);
+            Varint.writeSignedInt(columns[3], recorder.from[i] - lastFrom);
+            Varint.writeSignedInt(columns[4], recorder.to[i] - recorder.from[i]);
+            lastTick = recorder.ticks[i];
+            lastPiece = recorder.pieces[i];
+            lastFrom = recorder.from[i];
+        }
+
+        IGame game = recorder.getGame();
+        IPlayer winner = game.win();
+        int pieces = recorder.pieceTypes.length;
+        int size = 48 + pieces * 2;
+        for (ByteBuffer c : columns)
+            size += c.position();
+        if (raw.capacity() < size)
+            raw = ByteBuffer.allocate(size);
+        raw.clear();
+        Varint.writeInt(raw, game.getBoard().getROWS());
+        Varint.writeInt(raw, game.getBoard().getCOLS());
+        Varint.writeLong(raw, game.getTick());
+        Varint.writeSignedInt(raw, winner == null ? -1 : winner.getId());
+        Varint.writeInt(raw, pieces);
+        for (int i = 0; i < pieces; i++)
+            raw.put(recorder.pieceTypes[i]).put(recorder.pieceOwners[i]);
+        Varint.writeInt(raw, n);
+        for (ByteBuffer c : columns)
+            Varint.writeInt(raw, c.position());
+        for (ByteBuffer c : columns)
+            raw.put(c.array(), 0, c.position());
+
+        deflater.reset();
+        deflater.setInput(raw.array(), 0, raw.position());
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length)
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(10);
+        Varint.writeInt(header, raw.position());
+        Varint.writeInt(header, length);
+        out.write(header.array(), 0, header.position());
+        out.write(compressed, 0, length);
+        games++;
+    }
+
+    /**
+     * Gets the number of games appended through this writer.
+     */
+    public synchronized long getGameCount() {
+        return games;
+    }
+
+    public synchronized void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+        deflater.end();
+    }
+}
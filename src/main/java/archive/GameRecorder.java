@@ -0,0 +1,137 @@
+package archive;
+
+import command.JumpCommand;
+import command.MoveCommand;
+import interfaces.EState;
+import interfaces.IBoard;
+import interfaces.IBoardListener;
+import interfaces.ICommand;
+import interfaces.IGame;
+import interfaces.IGameListener;
+import interfaces.IPiece;
+import interfaces.IPlayer;
+import journal.EJournalRecord;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Collects the events of one game in primitive columns, ready for an {@link ArchiveWriter}.
+ * <p>
+ * Records every queued move and jump (as issued, like the journal) with the piece that was on the start
+ * square, and every capture. Piece ids number all players' pieces in order; the piece table keeps each
+ * piece's type and owner so the archive can be analysed without rebuilding boards.
+ * Runs on the game thread; appending to the columns is a few array stores.
+ */
+public class GameRecorder implements IGameListener, IBoardListener {
+    private final IGame game;
+    private final IBoard board;
+    private final int cols;
+    private final Map<IPiece, Integer> ids = new IdentityHashMap<>();
+    final byte[] pieceTypes;
+    final byte[] pieceOwners;
+
+    int size;
+    long[] ticks = new long[64];
+    byte[] types = new byte[64];
+    int[] pieces = new int[64];
+    int[] from = new int[64];
+    int[] to = new int[64];
+
+    /**
+     * @param game The game to record, normally before its first update
+     */
+    public GameRecorder(IGame game) {
+        this.game = game;
+        this.board = game.getBoard();
+        this.cols = board.getCOLS();
+        int count = 0;
+        for (IPlayer player : board.getPlayers())
+            count += player.getPieces().size();
+        pieceTypes = new byte[count];
+        pieceOwners = new byte[count];
+        int id = 0;
+        for (IPlayer player : board.getPlayers()) {
+            for (IPiece piece : player.getPieces()) {
+                pieceTypes[id] = (byte) piece.getType().ordinal();
+                pieceOwners[id] = (byte) player.getId();
+                ids.put(piece, id++);
+            }
+        }
+    }
+
+    /**
+     * Starts recording the game's commands and captures.
+     */
+    public void start() {
+        game.addListener(this);
+        board.addListener(this);
+    }
+
+    /**
+     * Stops recording.
+     */
+    public void stop() {
+        game.removeListener(this);
+        board.removeListener(this);
+    }
+
+    @Override
+    public void onCommand(IGame g, long tick, ICommand command) {
+        if (command instanceof MoveCommand) {
+            MoveCommand move = (MoveCommand) command;
+            IPiece piece = board.getPiece(move.getFrom());
+            add(EJournalRecord.MOVE, tick, piece, move.getFrom().getRow() * cols + move.getFrom().getCol(),
+                    move.getTo().getRow() * cols + move.getTo().getCol());
+        } else if (command instanceof JumpCommand) {
+            IPiece piece = ((JumpCommand) command).getPiece();
+            if (piece == null)
+                return;
+            int square = piece.getRow() * cols + piece.getCol();
+            add(EJournalRecord.JUMP, tick, piece, square, square);
+        }
+    }
+
+    @Override
+    public void onCapture(IPiece piece) {
+        int square = piece.getRow() * cols + piece.getCol();
+        add(EJournalRecord.CAPTURE, game.getTick(), piece, square, square);
+    }
+
+    @Override
+    public void onStateChanged(IPiece piece, EState from, EState to) {
+    }
+
+    @Override
+    public void onUpdate(IGame g, long tick) {
+    }
+
+    private void add(EJournalRecord type, long tick, IPiece piece, int fromSquare, int toSquare) {
+        if (size == ticks.length) {
+            int n = size * 2;
+            ticks = Arrays.copyOf(ticks, n);
+            types = Arrays.copyOf(types, n);
+            pieces = Arrays.copyOf(pieces, n);
+            from = Arrays.copyOf(from, n);
+            to = Arrays.copyOf(to, n);
+        }
+        ticks[size] = tick;
+        types[size] = (byte) type.code();
+        pieces[size] = piece == null ? -1 : ids.getOrDefault(piece, -1);
+        from[size] = fromSquare;
+        to[size] = toSquare;
+        size++;
+    }
+
+    public IGame getGame() {
+        return game;
+    }
+
+    /**
+     * Gets the number of events recorded.
+     */
+    public int getEventCount() {
+        return size;
+    }
+}
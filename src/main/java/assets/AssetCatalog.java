@@ -0,0 +1,111 @@
+package assets;
+
+import interfaces.Moves;
+import pieces.EPieceType;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * All piece templates of the game, loaded once per JVM.
+ * <p>
+ * The first caller of {@link #shared()} maps the {@link AssetPack}, or without one decodes the assets
+ * on the common fork/join pool, unless a catalog was {@link #install installed} before, typically by a
+ * launcher that shows the progress.
+ * <p>
+ * Assets exist for players 0 and 1, who face each other along the columns. Players 2 and 3 of a four
+ * player board face each other along the rows: their templates share the states of players 0 and 1,
+ * with the moves mirrored across the diagonal.
+ */
+public final class AssetCatalog {
+    private static volatile AssetCatalog shared;
+
+    /** Templates keyed by {@link #key}. */
+    private final Map<Integer, PieceTemplate> templates;
+    /** Templates of players beyond the assets, derived on first use. */
+    private final Map<Integer, PieceTemplate> derived = new ConcurrentHashMap<>();
+
+    AssetCatalog(Map<Integer, PieceTemplate> templates) {
+        this.templates = templates;
+    }
+
+    static int key(EPieceType type, int player) {
+        return player * EPieceType.values().length + type.ordinal();
+    }
+
+    /**
+     * Gets the template of a piece type for a player.
+     * @return The template, or null if the type has no loadable state for that player
+     */
+    public PieceTemplate get(EPieceType type, int player) {
+        PieceTemplate template = templates.get(key(type, player));
+        if (template != null || player < 2)
+            return template;
+        template = derived.get(key(type, player));
+        if (template == null) {
+            PieceTemplate base = get(type, player - 2);
+            if (base == null)
+                return null;
+            template = new PieceTemplate(type, player, base.getStates(), transpose(base.getMoves()));
+            PieceTemplate raced = derived.putIfAbsent(key(type, player), template);
+            if (raced != null)
+                template = raced;
+        }
+        return template;
+    }
+
+    /**
+     * Mirrors moves across the diagonal, turning moves along the columns into moves along the rows.
+     */
+    private static Moves transpose(Moves moves) {
+        int[] deltas = moves.getDeltas().clone();
+        for (int i = 0; i < deltas.length; i += 2) {
+            int dx = deltas[i];
+            deltas[i] = deltas[i + 1];
+            deltas[i + 1] = dx;
+        }
+        return new Moves(deltas);
+    }
+
+    /**
+     * Gets every template.
+     */
+    public Collection<PieceTemplate> getTemplates() {
+        return Collections.unmodifiableCollection(templates.values());
+    }
+
+    /**
+     * Gets the number of templates.
+     */
+    public int size() {
+        return templates.size();
+    }
+
+    /**
+     * Gets the catalog used by the piece factory, loading it on first use.
+     */
+    public static AssetCatalog shared() {
+        AssetCatalog catalog = shared;
+        if (catalog == null) {
+            synchronized (AssetCatalog.class) {
+                catalog = shared;
+                if (catalog == null) {
+                    catalog = AssetPack.load();
+                    if (catalog == null)
+                        catalog = new AssetLoader().load();
+                    shared = catalog;
+                }
+            }
+        }
+        return catalog;
+    }
+
+    /**
+     * Makes a loaded catalog the one used by the piece factory.
+     */
+    public static synchronized void install(AssetCatalog catalog) {
+        shared = catalog;
+    }
+}
@@ -0,0 +1,219 @@
+package assets;
+
+import interfaces.EState;
+import pieces.EPieceType;
+import utils.LogUtils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * List of every piece asset: for each piece type, state and player, the number of sprite frames.
+ * <p>
+ * The index is generated into the classes directory by {@link #main} during the build (see the
+ * {@code index-assets} execution in the pom), so it ships inside the jar. Startup reads that one resource
+ * instead of listing directories, which only works for {@code file:} URLs, or probing frames until a
+ * read fails. One line per entry: {@code <type> <state> <player> <frames>}; {@code #} starts a comment.
+ */
+public final class AssetIndex {
+    /** Classpath location of the generated index. */
+    public static final String RESOURCE = "/pieces/assets.idx";
+
+    private final List<Entry> entries;
+
+    /**
+     * The sprites of one state of a piece type for one player.
+     */
+    public static final class Entry {
+        private final EPieceType type;
+        private final EState state;
+        private final int player;
+        private final int frames;
+
+        public Entry(EPieceType type, EState state, int player, int frames) {
+            this.type = type;
+            this.state = state;
+            this.player = player;
+            this.frames = frames;
+        }
+
+        public EPieceType getType() {
+            return type;
+        }
+
+        public EState getState() {
+            return state;
+        }
+
+        public int getPlayer() {
+            return player;
+        }
+
+        public int getFrames() {
+            return frames;
+        }
+
+        /**
+         * Gets the classpath location of the state's config.
+         */
+        public String getConfigPath() {
+            return "/pieces/" + type.getVal() + "/states/" + state + "/config.json";
+        }
+    }
+
+    AssetIndex(List<Entry> entries) {
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Gets the number of frames of a state.
+     * @return The frame count, or -1 if the state is not indexed
+     */
+    public int frameCount(EPieceType type, int player, EState state) {
+        for (Entry e : entries)
+            if (e.type == type && e.player == player && e.state == state)
+                return e.frames;
+        return -1;
+    }
+
+    /**
+     * Loads the generated index from the classpath. When it is missing, which only happens when running
+     * from sources that skipped the build step, the resource directories are scanned instead if they are
+     * plain files.
+     * @return The index, empty if neither works
+     */
+    public static AssetIndex load() {
+        try (InputStream is = AssetIndex.class.getResourceAsStream(RESOURCE)) {
+            if (is != null)
+                return read(new InputStreamReader(is, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            LogUtils.logDebug("Cannot read " + RESOURCE + ": " + e.getMessage());
+        }
+
+        URL dirURL = AssetIndex.class.getResource("/pieces/");
+        if (dirURL != null && dirURL.getProtocol().equals("file")) {
+            LogUtils.logDebug("No " + RESOURCE + ", scanning " + dirURL);
+            try {
+                return scan(new File(dirURL.toURI()).toPath());
+            } catch (Exception e) {
+                LogUtils.logDebug("Cannot scan " + dirURL + ": " + e.getMessage());
+            }
+        }
+        System.err.println("No asset index: " + RESOURCE);
+        LogUtils.logDebug("No asset index: " + RESOURCE);
+        return new AssetIndex(new ArrayList<>());
+    }
+
+    /**
+     * Parses an index.
+     * @param in The index text
+     * @return The index
+     * @throws IOException If reading fails or a line is malformed
+     */
+    public static AssetIndex read(Reader in) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(in);
+        String line;
+        int lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#"))
+                continue;
+            String[] parts = line.split("\\s+");
+            try {
+                entries.add(new Entry(EPieceType.valueOf(parts[0]), EState.getValueOf(parts[1]),
+                        Integer.parseInt(parts[2]), Integer.parseInt(parts[3])));
+            } catch (RuntimeException e) {
+                throw new IOException("Bad asset index line " + lineNo + ": " + line, e);
+            }
+        }
+        return new AssetIndex(entries);
+    }
+
+    /**
+     * Builds the index from a {@code pieces} resource directory.
+     * @param piecesDir The directory holding one folder per piece type
+     * @return The index
+     * @throws IOException If a directory cannot be listed
+     */
+    public static AssetIndex scan(Path piecesDir) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        for (EPieceType type : EPieceType.values()) {
+            Path statesDir = piecesDir.resolve(type.getVal()).resolve("states");
+            if (!Files.isDirectory(statesDir))
+                continue;
+            List<Path> stateDirs = new ArrayList<>();
+            try (var list = Files.list(statesDir)) {
+                list.filter(Files::isDirectory).sorted().forEach(stateDirs::add);
+            }
+            for (Path stateDir : stateDirs) {
+                EState state;
+                try {
+                    state = EState.getValueOf(stateDir.getFileName().toString());
+                } catch (IllegalArgumentException e) {
+                    LogUtils.logDebug("Skipping unknown state folder: " + stateDir);
+                    continue;
+                }
+                for (int player = 0; player < 2; player++)
+                    entries.add(new Entry(type, state, player, countFrames(stateDir.resolve("sprites/sprites" + player))));
+            }
+        }
+        return new AssetIndex(entries);
+    }
+
+    /**
+     * Counts the frames {@code 1.png, 2.png, ...} present without a gap.
+     */
+    private static int countFrames(Path spritesDir) {
+        int n = 0;
+        while (Files.isRegularFile(spritesDir.resolve((n + 1) + ".png")))
+            n++;
+        return n;
+    }
+
+    /**
+     * Writes the index.
+     * @param out The destination
+     * @throws IOException If writing fails
+     */
+    public void write(Writer out) throws IOException {
+        out.write("# Generated by assets.AssetIndex, do not edit\n");
+        for (Entry e : entries)
+            out.write(e.type.name() + " " + e.state + " " + e.player + " " + e.frames + "\n");
+        out.flush();
+    }
+
+    /**
+     * Generates the index as part of the build.
+     * Usage: {@code AssetIndex <classes dir>}; writes {@code <classes dir>/pieces/assets.idx}.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: AssetIndex <classes dir>");
+            System.exit(2);
+        }
+        Path piecesDir = Path.of(args[0], "pieces");
+        AssetIndex index = scan(piecesDir);
+        try (Writer out = Files.newBufferedWriter(piecesDir.resolve("assets.idx"), StandardCharsets.UTF_8)) {
+            index.write(out);
+        }
+        System.out.println("Indexed " + index.entries.size() + " piece states into " + piecesDir.resolve("assets.idx"));
+    }
+}
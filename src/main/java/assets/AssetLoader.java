@@ -0,0 +1,221 @@
+package assets;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphics.GraphicsLoader;
+import interfaces.EState;
+import interfaces.IProgressListener;
+import interfaces.Moves;
+import pieces.EPieceType;
+import utils.LogUtils;
+import utils.StartupProfiler;
+
+import javax.imageio.ImageIO;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads every piece asset once, in parallel, into an {@link AssetCatalog}.
+ * <p>
+ * The states and their frame counts come from the {@link AssetIndex} generated at build time, so the
+ * frames are known up front and nothing depends on listing directories. Every config and moves table
+ * is then one unit of work; the units are split across a fork/join pool and each finished unit is
+ * reported to the progress listener. Only when everything is parsed are the immutable templates built.
+ * Sprites are not decoded here: each state gets a {@link FrameSource} that decodes its frames into the
+ * sprite cache the first time they are drawn.
+ */
+public class AssetLoader {
+    private static final ObjectMapper mapper = newMapper();
+    /** Units handled sequentially by one fork/join leaf. */
+    private static final int SPLIT_THRESHOLD = 4;
+
+    private final ForkJoinPool pool;
+    private final IProgressListener listener;
+
+    /**
+     * Creates a loader on the common fork/join pool without progress reporting.
+     */
+    public AssetLoader() {
+        this(ForkJoinPool.commonPool(), (done, total) -> { });
+    }
+
+    /**
+     * @param pool The pool decoding the assets
+     * @param listener Notified after each loaded config and moves table
+     */
+    public AssetLoader(ForkJoinPool pool, IProgressListener listener) {
+        this.pool = pool;
+        this.listener = listener;
+    }
+
+    /**
+     * One state of one piece type for one player, as found on disk, filled in by the load units.
+     */
+    private static final class StateAsset {
+        final EPieceType type;
+        final int player;
+        final EState state;
+        final int frameCount;
+        JsonNode config;
+
+        StateAsset(EPieceType type, int player, EState state, int frameCount) {
+            this.type = type;
+            this.player = player;
+            this.state = state;
+            this.frameCount = frameCount;
+        }
+    }
+
+    /**
+     * Loads everything listed in the generated asset index.
+     * @return The catalog
+     */
+    public AssetCatalog load() {
+        return load(AssetIndex.load());
+    }
+
+    /**
+     * Loads everything listed in an index.
+     * @param index The assets to load
+     * @return The catalog
+     */
+    public AssetCatalog load(AssetIndex index) {
+        ImageIO.setUseCache(false);
+        List<StateAsset> states = new ArrayList<>();
+        Map<Integer, Moves> moves = new HashMap<>();
+        List<Runnable> units = new ArrayList<>();
+        discover(index, states, moves, units);
+
+        AtomicInteger done = new AtomicInteger();
+        int total = units.size();
+        Runnable[] work = units.toArray(new Runnable[0]);
+        long start = StartupProfiler.start();
+        pool.invoke(new LoadTask(work, 0, work.length, () -> listener.onProgress(done.incrementAndGet(), total)));
+        StartupProfiler.end("config parsing", start);
+
+        Map<Integer, Map<EState, StateTemplate>> byPiece = new HashMap<>();
+        for (StateAsset a : states) {
+            if (a.config == null)
+                continue;
+            if (a.frameCount == 0) {
+                System.err.println("No sprites for state: " + a.state);
+                LogUtils.logDebug("No sprites for state: " + a.type.getVal() + " " + a.state + " player " + a.player);
+                continue;
+            }
+            JsonNode physics = a.config.path("physics");
+            JsonNode graphics = a.config.path("graphics");
+            StateTemplate t = new StateTemplate(a.state,
+                    physics.path("speed_m_per_sec").asDouble(0.0),
+                    EState.getValueOf(physics.path("next_state_when_finished").asText(a.state.toString())),
+                    graphics.path("frames_per_sec").asInt(1),
+                    graphics.path("is_loop").asBoolean(true),
+                    FrameSource.lazy(GraphicsLoader.key(a.type, a.player, a.state), a.frameCount,
+                            () -> GraphicsLoader.decodeSprites(a.type, a.player, a.state, a.frameCount)));
+            byPiece.computeIfAbsent(AssetCatalog.key(a.type, a.player), k -> new EnumMap<>(EState.class)).put(a.state, t);
+        }
+
+        Map<Integer, PieceTemplate> templates = new HashMap<>();
+        for (EPieceType type : EPieceType.values()) {
+            for (int player = 0; player < 2; player++) {
+                int key = AssetCatalog.key(type, player);
+                Map<EState, StateTemplate> s = byPiece.get(key);
+                if (s == null || moves.get(key) == null) {
+                    LogUtils.logDebug("No states loaded for piece: " + type.getVal() + " player " + player);
+                    continue;
+                }
+                templates.put(key, new PieceTemplate(type, player, s, moves.get(key)));
+            }
+        }
+        return new AssetCatalog(templates);
+    }
+
+    /**
+     * Queues a unit per moves table of every indexed piece, and per config of every indexed state.
+     */
+    private static void discover(AssetIndex index, List<StateAsset> states, Map<Integer, Moves> moves, List<Runnable> units) {
+        Set<Integer> pieces = new HashSet<>();
+        for (AssetIndex.Entry e : index.getEntries()) {
+            EPieceType type = e.getType();
+            int player = e.getPlayer();
+            if (pieces.add(AssetCatalog.key(type, player))) {
+                units.add(() -> {
+                    try {
+                        Moves m = new Moves(type, player);
+                        synchronized (moves) {
+                            moves.put(AssetCatalog.key(type, player), m);
+                        }
+                    } catch (IOException ex) {
+                        LogUtils.logDebug("Cannot load moves of " + type.getVal() + " player " + player + ": " + ex.getMessage());
+                    }
+                });
+            }
+
+            StateAsset asset = new StateAsset(type, player, e.getState(), e.getFrames());
+            states.add(asset);
+            String configPath = e.getConfigPath();
+            units.add(() -> asset.config = readConfig(configPath));
+        }
+    }
+
+    private static ObjectMapper newMapper() {
+        long start = StartupProfiler.start();
+        ObjectMapper m = new ObjectMapper();
+        StartupProfiler.end("Jackson init", start);
+        return m;
+    }
+
+    private static JsonNode readConfig(String path) {
+        try (InputStream is = AssetLoader.class.getResourceAsStream(path)) {
+            if (is == null) {
+                System.err.println("Missing config: " + path);
+                LogUtils.logDebug("Missing config: " + path);
+                return null;
+            }
+            return mapper.readTree(is);
+        } catch (IOException e) {
+            LogUtils.logDebug("Cannot read " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Runs a slice of the load units, forking halves until the slice is small.
+     */
+    @SuppressWarnings("serial")
+    private static final class LoadTask extends RecursiveAction {
+        private final Runnable[] units;
+        private final int lo;
+        private final int hi;
+        private final Runnable onDone;
+
+        LoadTask(Runnable[] units, int lo, int hi, Runnable onDone) {
+            this.units = units;
+            this.lo = lo;
+            this.hi = hi;
+            this.onDone = onDone;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > SPLIT_THRESHOLD) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new LoadTask(units, lo, mid, onDone), new LoadTask(units, mid, hi, onDone));
+                return;
+            }
+            for (int i = lo; i < hi; i++) {
+                units[i].run();
+                onDone.run();
+            }
+        }
+    }
+}
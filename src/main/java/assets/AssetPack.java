@@ -0,0 +1,324 @@
+package assets;
+
+import game.LoadPieces;
+import graphics.GraphicsLoader;
+import interfaces.EState;
+import interfaces.Moves;
+import pieces.EPieceType;
+import utils.LogUtils;
+import utils.StartupProfiler;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Precompiled binary form of every piece asset and the start board, loaded without decoding images
+ * or parsing JSON.
+ * <p>
+ * The pack is generated at build time by {@link #main} (the {@code pack-assets} execution in the pom)
+ * from what {@link AssetLoader} decodes, and lands in the classes directory next to the asset index.
+ * At startup it is memory-mapped when it is a plain file: the one named by the
+ * {@value #PROPERTY} system property, or the classpath copy when running from exploded classes.
+ * Inside a jar it is read into memory in one go. Frames are stored as raw ARGB pixels, scaled down
+ * at build time so their longer edge is at most {@link #DEFAULT_MAX_EDGE} pixels, which is about
+ * the size a square is drawn at. They stay in the pack until a state is first drawn, and are then
+ * copied straight into image rasters held by the sprite cache.
+ * <pre>
+ * [int magic][int rows][int cols] rows * cols * [short length][UTF-8 code]
+ * [int pieces] pieces * ( [byte type][byte player][short moves] moves * [int dx][int dy]
+ *                         [byte states] states * ( [byte state][double speed][byte next]
+ *                                                  [double fps][byte loop][short frames]
+ *                                                  frames * ( [short w][short h] w * h * [int argb] ) ) )
+ * </pre>
+ */
+public final class AssetPack {
+    static final int MAGIC = 0x4B465031;
+    /** Classpath location of the generated pack. */
+    public static final String RESOURCE = "/pieces/assets.pack";
+    /** System property naming a pack file to map instead of the classpath copy. */
+    public static final String PROPERTY = "kfchess.assets.pack";
+    /** Longest frame edge kept in the pack unless the build asks for another one. */
+    public static final int DEFAULT_MAX_EDGE = 96;
+
+    /** Tells the sprite cache entries of different packs apart. */
+    private static final AtomicInteger packs = new AtomicInteger();
+
+    private AssetPack() {
+    }
+
+    /**
+     * Loads the piece templates from the pack.
+     * @return The catalog, or null if there is no usable pack
+     */
+    public static AssetCatalog load() {
+        long start = StartupProfiler.start();
+        try {
+            ByteBuffer buf = open();
+            if (buf == null)
+                return null;
+            AssetCatalog catalog = read(buf);
+            StartupProfiler.end("asset pack", start);
+            return catalog;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Cannot use asset pack: " + e.getMessage());
+            LogUtils.logDebug("Cannot use asset pack: " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Reads the start board from the head of the pack, without touching the rest.
+     * @return The piece codes per row, null for empty squares; null if there is no usable pack
+     */
+    public static String[][] readBoard() {
+        try (InputStream is = openStream()) {
+            if (is == null)
+                return null;
+            DataInputStream in = new DataInputStream(is);
+            if (in.readInt() != MAGIC)
+                throw new IOException("not an asset pack");
+            String[][] codes = new String[in.readInt()][in.readInt()];
+            for (String[] row : codes) {
+                for (int col = 0; col < row.length; col++) {
+                    byte[] code = new byte[in.readUnsignedShort()];
+                    in.readFully(code);
+                    row[col] = code.length == 0 ? null : new String(code, StandardCharsets.UTF_8);
+                }
+            }
+            return codes;
+        } catch (IOException e) {
+            LogUtils.logDebug("Cannot read board from asset pack: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static ByteBuffer open() throws IOException {
+        File file = packFile();
+        if (file != null) {
+            try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                return ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            }
+        }
+        try (InputStream is = AssetPack.class.getResourceAsStream(RESOURCE)) {
+            return is == null ? null : ByteBuffer.wrap(is.readAllBytes());
+        }
+    }
+
+    private static InputStream openStream() throws IOException {
+        File file = packFile();
+        if (file != null)
+            return Files.newInputStream(file.toPath());
+        return AssetPack.class.getResourceAsStream(RESOURCE);
+    }
+
+    /**
+     * Gets the pack as a plain file, if it is one.
+     */
+    private static File packFile() {
+        String path = System.getProperty(PROPERTY);
+        if (path != null)
+            return new File(path);
+        URL url = AssetPack.class.getResource(RESOURCE);
+        if (url == null || !url.getProtocol().equals("file"))
+            return null;
+        try {
+            return new File(url.toURI());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Decodes the piece templates of a pack.
+     * @param buf The pack, positioned at its start
+     * @return The catalog
+     * @throws IOException If the buffer is not a pack
+     */
+    static AssetCatalog read(ByteBuffer buf) throws IOException {
+        if (buf.getInt() != MAGIC)
+            throw new IOException("not an asset pack");
+        int cells = buf.getInt() * buf.getInt();
+        for (int i = 0; i < cells; i++) {
+            int length = buf.getShort() & 0xFFFF;
+            buf.position(buf.position() + length);
+        }
+
+        String id = "pack" + packs.incrementAndGet() + ":";
+        EPieceType[] types = EPieceType.values();
+        EState[] states = EState.values();
+        Map<Integer, PieceTemplate> templates = new HashMap<>();
+        int pieces = buf.getInt();
+        for (int p = 0; p < pieces; p++) {
+            EPieceType type = types[buf.get()];
+            int player = buf.get();
+            int[] deltas = new int[2 * (buf.getShort() & 0xFFFF)];
+            buf.asIntBuffer().get(deltas);
+            buf.position(buf.position() + 4 * deltas.length);
+
+            Map<EState, StateTemplate> byState = new EnumMap<>(EState.class);
+            int stateCount = buf.get();
+            for (int s = 0; s < stateCount; s++) {
+                EState state = states[buf.get()];
+                double speed = buf.getDouble();
+                EState next = states[buf.get()];
+                double fps = buf.getDouble();
+                boolean loop = buf.get() != 0;
+                int count = buf.getShort() & 0xFFFF;
+                int offset = buf.position();
+                for (int f = 0; f < count; f++) {
+                    int w = buf.getShort() & 0xFFFF;
+                    int h = buf.getShort() & 0xFFFF;
+                    buf.position(buf.position() + 4 * w * h);
+                }
+                FrameSource frames = FrameSource.lazy(id + GraphicsLoader.key(type, player, state), count,
+                        () -> readFrames(buf.duplicate().position(offset), count));
+                byState.put(state, new StateTemplate(state, speed, next, fps, loop, frames));
+            }
+            templates.put(AssetCatalog.key(type, player), new PieceTemplate(type, player, byState, new Moves(deltas)));
+        }
+        return new AssetCatalog(templates);
+    }
+
+    private static BufferedImage[] readFrames(ByteBuffer buf, int count) {
+        BufferedImage[] frames = new BufferedImage[count];
+        for (int f = 0; f < count; f++)
+            frames[f] = readFrame(buf);
+        return frames;
+    }
+
+    private static BufferedImage readFrame(ByteBuffer buf) {
+        int w = buf.getShort() & 0xFFFF;
+        int h = buf.getShort() & 0xFFFF;
+        BufferedImage image = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        IntBuffer src = buf.asIntBuffer();
+        src.get(pixels);
+        buf.position(buf.position() + 4 * pixels.length);
+        return image;
+    }
+
+    /**
+     * Writes a pack.
+     * @param catalog The decoded piece assets
+     * @param board The start board codes per row
+     * @param maxEdge Longest frame edge to keep, in pixels
+     * @param out The destination
+     * @throws IOException If writing fails
+     */
+    public static void write(AssetCatalog catalog, String[][] board, int maxEdge, Path out) throws IOException {
+        int cols = 0;
+        for (String[] row : board)
+            cols = Math.max(cols, row.length);
+
+        try (DataOutputStream data = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(out), 1 << 16))) {
+            data.writeInt(MAGIC);
+            data.writeInt(board.length);
+            data.writeInt(cols);
+            for (String[] row : board) {
+                for (int col = 0; col < cols; col++) {
+                    String code = col < row.length ? row[col] : null;
+                    byte[] bytes = code == null ? new byte[0] : code.getBytes(StandardCharsets.UTF_8);
+                    data.writeShort(bytes.length);
+                    data.write(bytes);
+                }
+            }
+
+            data.writeInt(catalog.size());
+            for (PieceTemplate piece : catalog.getTemplates()) {
+                data.writeByte(piece.getType().ordinal());
+                data.writeByte(piece.getPlayer());
+                int[] deltas = piece.getMoves().getDeltas();
+                data.writeShort(deltas.length / 2);
+                for (int d : deltas)
+                    data.writeInt(d);
+
+                data.writeByte(piece.getStates().size());
+                for (StateTemplate s : piece.getStates().values()) {
+                    data.writeByte(s.getState().ordinal());
+                    data.writeDouble(s.getSpeedMetersPerSec());
+                    data.writeByte(s.getNextStateWhenFinished().ordinal());
+                    data.writeDouble(s.getFramesPerSec());
+                    data.writeByte(s.isLoop() ? 1 : 0);
+                    data.writeShort(s.getFrames().length);
+                    for (BufferedImage frame : s.getFrames())
+                        writeFrame(data, scale(frame, maxEdge));
+                }
+            }
+        }
+    }
+
+    private static void writeFrame(DataOutputStream data, BufferedImage frame) throws IOException {
+        int w = frame.getWidth();
+        int h = frame.getHeight();
+        int[] pixels = frame.getRGB(0, 0, w, h, null, 0, w);
+        data.writeShort(w);
+        data.writeShort(h);
+        for (int argb : pixels)
+            data.writeInt(argb);
+    }
+
+    /**
+     * Scales a frame down so its longer edge is at most {@code maxEdge}, keeping the aspect ratio.
+     */
+    static BufferedImage scale(BufferedImage frame, int maxEdge) {
+        int w = frame.getWidth();
+        int h = frame.getHeight();
+        double factor = Math.min(1.0, (double) maxEdge / Math.max(w, h));
+        int sw = Math.max(1, (int) Math.round(w * factor));
+        int sh = Math.max(1, (int) Math.round(h * factor));
+        BufferedImage scaled = new BufferedImage(sw, sh, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = scaled.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(frame, 0, 0, sw, sh, null);
+        g.dispose();
+        return scaled;
+    }
+
+    /**
+     * Generates the pack as part of the build.
+     * Usage: {@code AssetPack <classes dir> [max frame edge]}; writes {@code <classes dir>/pieces/assets.pack}
+     * from the assets and the asset index already in the classes directory.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: AssetPack <classes dir> [max frame edge]");
+            System.exit(2);
+        }
+        int maxEdge = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MAX_EDGE;
+        Path classes = Path.of(args[0]);
+        Path out = classes.resolve("pieces/assets.pack");
+        // A pack left by an earlier build must not feed the new one
+        Files.deleteIfExists(out);
+
+        long start = System.nanoTime();
+        AssetCatalog catalog = new AssetLoader().load(AssetIndex.scan(classes.resolve("pieces")));
+        String[][] board;
+        try (InputStream is = Files.newInputStream(classes.resolve("board/board.csv"))) {
+            board = LoadPieces.parseCSV(is);
+        }
+        write(catalog, board, maxEdge, out);
+        System.out.printf("Packed %d pieces into %s (%d KB) in %d ms%n", catalog.size(), out,
+                Files.size(out) / 1024, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,101 @@
+package assets;
+
+import graphics.GraphicsLoader;
+import graphics.SpriteCache;
+import utils.StartupProfiler;
+
+import java.awt.image.BufferedImage;
+import java.util.function.Supplier;
+
+/**
+ * The animation frames of one state, either fixed or loaded on first use through the sprite cache.
+ * <p>
+ * The frame count is known up front, so animations advance without any frame in memory; pieces that
+ * are never drawn (headless games) never load a sprite. The first time a state's frames are needed,
+ * the states that follow it ({@code next_state_when_finished}) are prefetched in the background, so a
+ * move is usually followed by its rest state without a decode on the render thread. Decoding, on the
+ * render thread or in the background, is reported as the {@value #PROFILE_PHASE} startup phase.
+ */
+public final class FrameSource {
+    /** Number of states along the next state chain prefetched after a load. */
+    static final int PREFETCH_DEPTH = 2;
+    /** Startup profiler phase the loads are timed under. */
+    public static final String PROFILE_PHASE = "sprite decoding";
+
+    private final String key;
+    private final int count;
+    private final Supplier<BufferedImage[]> loader;
+    private final BufferedImage[] fixed;
+    /** Frames of the state entered when this one finishes; linked while the piece template is built. */
+    private FrameSource next;
+
+    private FrameSource(String key, int count, Supplier<BufferedImage[]> loader, BufferedImage[] fixed) {
+        this.key = key;
+        this.count = count;
+        this.loader = loader;
+        this.fixed = fixed;
+    }
+
+    /**
+     * Wraps frames that are already decoded.
+     */
+    public static FrameSource of(BufferedImage[] frames) {
+        return new FrameSource(null, frames.length, null, frames);
+    }
+
+    /**
+     * Creates frames loaded on first use.
+     * @param key The sprite cache key, one per state
+     * @param count The number of frames the loader returns
+     * @param loader Decodes the frames
+     */
+    public static FrameSource lazy(String key, int count, Supplier<BufferedImage[]> loader) {
+        return new FrameSource(key, count, () -> {
+            long start = StartupProfiler.start();
+            try {
+                return loader.get();
+            } finally {
+                StartupProfiler.end(PROFILE_PHASE, start);
+            }
+        }, null);
+    }
+
+    void linkNext(FrameSource next) {
+        this.next = next;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the frames, loading them if they are not cached.
+     * @return The frames; must not be modified
+     */
+    public BufferedImage[] get() {
+        if (fixed != null)
+            return fixed;
+        SpriteCache sprites = GraphicsLoader.sprites();
+        BufferedImage[] frames = sprites.getIfLoaded(key);
+        if (frames != null)
+            return frames;
+        boolean miss = !sprites.contains(key);
+        frames = sprites.get(key, loader);
+        if (miss)
+            prefetchNext();
+        return frames;
+    }
+
+    /**
+     * Starts loading the frames of the following states in the background.
+     */
+    private void prefetchNext() {
+        SpriteCache sprites = GraphicsLoader.sprites();
+        FrameSource s = next;
+        for (int depth = 0; depth < PREFETCH_DEPTH && s != null && s != this; depth++) {
+            if (s.fixed == null)
+                sprites.prefetch(s.key, s.loader);
+            s = s.next;
+        }
+    }
+}
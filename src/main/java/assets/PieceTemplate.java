@@ -0,0 +1,56 @@
+package assets;
+
+import interfaces.EState;
+import interfaces.Moves;
+import pieces.EPieceType;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Immutable assets of one piece type for one player: its states and its legal moves.
+ */
+public final class PieceTemplate {
+    private final EPieceType type;
+    private final int player;
+    private final Map<EState, StateTemplate> states;
+    private final Moves moves;
+
+    public PieceTemplate(EPieceType type, int player, Map<EState, StateTemplate> states, Moves moves) {
+        this.type = type;
+        this.player = player;
+        Map<EState, StateTemplate> copy = new EnumMap<>(EState.class);
+        copy.putAll(states);
+        for (StateTemplate s : copy.values()) {
+            StateTemplate next = copy.get(s.getNextStateWhenFinished());
+            if (next != null)
+                s.getFrameSource().linkNext(next.getFrameSource());
+        }
+        this.states = Collections.unmodifiableMap(copy);
+        this.moves = moves;
+    }
+
+    public EPieceType getType() {
+        return type;
+    }
+
+    public int getPlayer() {
+        return player;
+    }
+
+    /**
+     * Gets the states that have a config and at least one frame.
+     */
+    public Map<EState, StateTemplate> getStates() {
+        return states;
+    }
+
+    public StateTemplate getState(EState state) {
+        return states.get(state);
+    }
+
+    public Moves getMoves() {
+        return moves;
+    }
+}
@@ -0,0 +1,93 @@
+package assets;
+
+import interfaces.EState;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Immutable description of one state of a piece type for one player, loaded once and shared by every piece:
+ * the physics settings, the animation settings and the source of the frames. The per-piece
+ * {@code PhysicsData} and {@code GraphicsData} only add the movement and animation in progress.
+ */
+public final class StateTemplate {
+    private static final BufferedImage[] NO_FRAMES = new BufferedImage[0];
+
+    private final EState state;
+    private final double speedMetersPerSec;
+    private final EState nextStateWhenFinished;
+    private final double framesPerSec;
+    private final boolean loop;
+    private final FrameSource frames;
+
+    public StateTemplate(EState state, double speedMetersPerSec, EState nextStateWhenFinished,
+                         double framesPerSec, boolean loop, BufferedImage[] frames) {
+        this(state, speedMetersPerSec, nextStateWhenFinished, framesPerSec, loop,
+                FrameSource.of(frames == null ? NO_FRAMES : frames));
+    }
+
+    public StateTemplate(EState state, double speedMetersPerSec, EState nextStateWhenFinished,
+                         double framesPerSec, boolean loop, FrameSource frames) {
+        this.state = state;
+        this.speedMetersPerSec = speedMetersPerSec;
+        this.nextStateWhenFinished = nextStateWhenFinished;
+        this.framesPerSec = framesPerSec;
+        this.loop = loop;
+        this.frames = frames;
+    }
+
+    /**
+     * Gets a copy with another speed, for a piece whose settings are changed at run time.
+     */
+    public StateTemplate withSpeed(double speed) {
+        return new StateTemplate(state, speed, nextStateWhenFinished, framesPerSec, loop, frames);
+    }
+
+    /**
+     * Gets a copy with another next state.
+     */
+    public StateTemplate withNextState(EState next) {
+        return new StateTemplate(state, speedMetersPerSec, next, framesPerSec, loop, frames);
+    }
+
+    /**
+     * Gets the state, null for a template made up for a single piece.
+     */
+    public EState getState() {
+        return state;
+    }
+
+    public double getSpeedMetersPerSec() {
+        return speedMetersPerSec;
+    }
+
+    public EState getNextStateWhenFinished() {
+        return nextStateWhenFinished;
+    }
+
+    public double getFramesPerSec() {
+        return framesPerSec;
+    }
+
+    public boolean isLoop() {
+        return loop;
+    }
+
+    /**
+     * Gets the animation frames, shared by all pieces using this template, loading them if needed.
+     * @return The frames; must not be modified
+     */
+    public BufferedImage[] getFrames() {
+        return frames.get();
+    }
+
+    /**
+     * Gets the number of frames without loading them.
+     */
+    public int getFrameCount() {
+        return frames.getCount();
+    }
+
+    FrameSource getFrameSource() {
+        return frames;
+    }
+}
@@ -5,18 +5,36 @@ import pieces.EPieceType;
 import pieces.Position;
 import utils.LogUtils;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Represents the game board and manages piece placement and movement.
  */
 public class Board implements IBoard {
-    /** 2D array representing the board grid with pieces. */
-    private final IPiece[][] boardGrid;
+    /** System property choosing the board storage: {@code dense}, {@code sparse} or {@code auto}. */
+    public static final String STORAGE_PROPERTY = "kfchess.board.storage";
+    /** Largest board area stored densely in {@code auto} mode. */
+    public static final int DENSE_MAX_AREA = 64 * 64;
+
+    /** The pieces by square. */
+    private final IBoardGrid boardGrid;
     /** Array of players in the game. */
     public final IPlayer[] players;
     /** Board configuration object. */
     public final BoardConfig boardConfig;
+    /** Zobrist keys for this board size. */
+    private final Zobrist zobrist;
+    /** Incrementally maintained Zobrist hash of all pieces on the board. */
+    private long hash;
+    /** Listeners told about captures and state changes. */
+    private final List<IBoardListener> listeners = new CopyOnWriteArrayList<>();
+    /** Uncaptured pieces of all players, in player order; the pieces each tick updates. */
+    private final List<IPiece> live = new ArrayList<>();
+    /** Whether {@link #live} still holds pieces captured since it was last compacted. */
+    private boolean liveHasCaptured;
 
     /**
      * Constructs the board with the given configuration and players.
@@ -27,14 +45,97 @@ public class Board implements IBoard {
      */
     public Board(BoardConfig bc, IPlayer[] players) {
         boardConfig = bc;
-        this.boardGrid = new IPiece[bc.numRowsCols.getX()][bc.numRowsCols.getY()];
         this.players = players;
+        this.boardGrid = newGrid(bc.numRowsCols.getX(), bc.numRowsCols.getY(), players);
+
+        this.zobrist = Zobrist.forSize(bc.numRowsCols.getX(), bc.numRowsCols.getY(), players.length);
 
         for (IPlayer p : players)
-            for (IPiece piece : p.getPieces()) {
-                String[] pos = piece.getId().split(",");
-                boardGrid[Integer.parseInt(pos[0])][Integer.parseInt(pos[1])] = piece;
-            }
+            for (IPiece piece : p.getPieces())
+                boardGrid.set(piece.getRow(), piece.getCol(), piece);
+        hash = computeHash();
+        rebuildLive();
+    }
+
+    /**
+     * Collects the uncaptured pieces of every player.
+     */
+    private void rebuildLive() {
+        live.clear();
+        for (IPlayer p : players)
+            for (IPiece piece : p.getPieces())
+                if (piece != null && !piece.isCaptured())
+                    live.add(piece);
+        liveHasCaptured = false;
+    }
+
+    /**
+     * Creates the storage chosen by {@link #STORAGE_PROPERTY}: by default dense up to
+     * {@link #DENSE_MAX_AREA} squares and sparse beyond, so large boards cost their piece count.
+     */
+    private static IBoardGrid newGrid(int rows, int cols, IPlayer[] players) {
+        String storage = System.getProperty(STORAGE_PROPERTY, "auto");
+        switch (storage) {
+            case "dense": return new DenseGrid(rows, cols);
+            case "sparse": break;
+            case "auto":
+                if ((long) rows * cols <= DENSE_MAX_AREA)
+                    return new DenseGrid(rows, cols);
+                break;
+            default: throw new IllegalArgumentException("Unknown board storage: " + storage);
+        }
+        int pieces = 0;
+        for (IPlayer p : players)
+            pieces += p.getPieces().size();
+        return new SparseGrid(rows, cols, pieces);
+    }
+
+    /**
+     * Computes the Zobrist hash from scratch.
+     */
+    private long computeHash() {
+        long h = 0;
+        for (IPlayer p : players)
+            for (IPiece piece : p.getPieces())
+                if (!piece.isCaptured())
+                    h ^= keyOf(piece);
+        return h;
+    }
+
+    /**
+     * Gets the Zobrist key of a piece at its current logical position and state.
+     */
+    private long keyOf(IPiece piece) {
+        return zobrist.key(piece.getRow(), piece.getCol(), piece.getType(), piece.getPlayer(), piece.getCurrentStateName());
+    }
+
+    /**
+     * Marks a piece captured through its owner and removes it from the hash.
+     */
+    private void capture(IPiece piece) {
+        boolean fresh = !piece.isCaptured();
+        if (fresh) {
+            hash ^= keyOf(piece);
+            liveHasCaptured = true;
+        }
+        players[piece.getPlayer()].markPieceCaptured(piece);
+        if (fresh)
+            for (IBoardListener listener : listeners)
+                listener.onCapture(piece);
+    }
+
+    /**
+     * Updates the hash after a piece changed and reports a new state to the listeners.
+     * @param piece The piece
+     * @param before Its Zobrist key before the change
+     * @param was Its state before the change
+     */
+    private void changed(IPiece piece, long before, EState was) {
+        hash ^= before ^ keyOf(piece);
+        EState now = piece.getCurrentStateName();
+        if (now != was)
+            for (IBoardListener listener : listeners)
+                listener.onStateChanged(piece, was, now);
     }
 
     /**
@@ -46,7 +147,7 @@ public class Board implements IBoard {
         int row = piece.getRow();
         int col = piece.getCol();
         if (isInBounds(row, col)) {
-            boardGrid[row][col] = piece;
+            boardGrid.set(row, col, piece);
         } else {
             throw new IllegalArgumentException("Invalid position row=" + row + ", col=" + col);
         }
@@ -57,7 +158,7 @@ public class Board implements IBoard {
      */
     @Override
     public boolean hasPiece(int row, int col) {
-        return isInBounds(row, col) && boardGrid[row][col] != null;
+        return isInBounds(row, col) && boardGrid.get(row, col) != null;
     }
 
     /**
@@ -67,7 +168,23 @@ public class Board implements IBoard {
     public IPiece getPiece(int row, int col) {
         if (!isInBounds(row, col))
             return null;
-        return boardGrid[row][col];
+        return boardGrid.get(row, col);
+    }
+
+    /**
+     * Visits every occupied square, in time proportional to the piece count on sparse storage.
+     */
+    @Override
+    public void forEachPiece(ICellVisitor visitor) {
+        boardGrid.forEach(visitor);
+    }
+
+    /**
+     * Visits the occupied squares within a rectangle.
+     */
+    @Override
+    public void forEachPiece(int fromRow, int fromCol, int toRow, int toCol, ICellVisitor visitor) {
+        boardGrid.forEach(fromRow, fromCol, toRow, toCol, visitor);
     }
 
     /**
@@ -83,7 +200,7 @@ public class Board implements IBoard {
      */
     @Override
     public int getPlayerOf(int row) {
-        return BoardConfig.getPlayerOf(row);
+        return boardConfig.getPlayerOf(row);
     }
 
     /**
@@ -99,7 +216,7 @@ public class Board implements IBoard {
      */
     @Override
     public int getPlayerOf(IPiece piece){
-        return getPlayerOf(Integer.parseInt(piece.getId().split(",")[0]));
+        return piece.getPlayer();
     }
 
     /**
@@ -110,9 +227,12 @@ public class Board implements IBoard {
         if (!isInBounds(from) || !isInBounds(to))
             return;
 
-        IPiece piece = boardGrid[from.getRow()][from.getCol()];
+        IPiece piece = boardGrid.get(from.getRow(), from.getCol());
         if (piece != null) {
+            long before = keyOf(piece);
+            EState was = piece.getCurrentStateName();
             piece.move(to);
+            changed(piece, before, was);
         }
     }
 
@@ -122,6 +242,12 @@ public class Board implements IBoard {
      * and handles captures before and after movement.
      */
     public void updateAll() {
+        // Captured pieces stay out of every later tick, so its cost follows the pieces still in play
+        if (liveHasCaptured) {
+            live.removeIf(IPiece::isCaptured);
+            liveHasCaptured = false;
+        }
+
         // Step 1 - Reset previous positions
         resetPreviousPositions();
 
@@ -133,68 +259,60 @@ public class Board implements IBoard {
     }
 
     private void resetPreviousPositions() {
-        for (int row = 0; row < boardConfig.numRowsCols.getX(); row++) {
-            for (int col = 0; col < boardConfig.numRowsCols.getY(); col++) {
-                IPiece piece = boardGrid[row][col];
-                if (piece != null) {
-                    int newRow = piece.getRow();
-                    int newCol = piece.getCol();
-                    if (newRow != row || newCol != col) {
-                        boardGrid[row][col] = null;
-                    }
-                }
-            }
-        }
+        boardGrid.forEach((row, col, piece) -> {
+            if (piece.getRow() != row || piece.getCol() != col)
+                boardGrid.set(row, col, null);
+        });
     }
 
     private void updatePiecesAndHandlePreMoveCaptures() {
-        for (IPlayer player : players) {
-            for (IPiece piece : player.getPieces()) {
-                if (piece.isCaptured()) continue;
-
-                if (piece.getCurrentState().isActionFinished()) {
-                    int targetRow = piece.getCurrentState().getTargetRow();
-                    int targetCol = piece.getCurrentState().getTargetCol();
-
-                    IPiece target = boardGrid[targetRow][targetCol];
-                    if (target != null && target != piece && !target.isCaptured() && target.canMoveOver()) {
-                        if (target.getCurrentStateName() == EState.JUMP) {
-                            players[piece.getPlayer()].markPieceCaptured(piece);
-                            logCapture("Captured before move", piece);
-                        } else {
-                            players[target.getPlayer()].markPieceCaptured(target);
-                            logCapture("Captured before move", target);
-                        }
+        for (IPiece piece : live) {
+            if (piece.isCaptured()) continue;
+
+            if (piece.getCurrentState().isActionFinished()) {
+                int targetRow = piece.getCurrentState().getTargetRow();
+                int targetCol = piece.getCurrentState().getTargetCol();
+
+                IPiece target = boardGrid.get(targetRow, targetCol);
+                if (target != null && target != piece && !target.isCaptured() && target.canMoveOver()) {
+                    if (target.getCurrentStateName() == EState.JUMP) {
+                        capture(piece);
+                        logCapture("Captured before move", piece);
+                    } else {
+                        capture(target);
+                        logCapture("Captured before move", target);
                     }
                 }
-
-                piece.update();
             }
+
+            if (piece.isCaptured()) continue;
+            long before = keyOf(piece);
+            EState was = piece.getCurrentStateName();
+            piece.update();
+            changed(piece, before, was);
         }
     }
 
     private void handlePostMoveCapturesAndUpdateBoard() {
-        for (IPlayer player : players) {
-            for (IPiece piece : player.getPieces()) {
-                if (piece.isCaptured()) continue;
-
-                int row = piece.getRow();
-                int col = piece.getCol();
-
-                IPiece existing = boardGrid[row][col];
-                if (existing != null && existing != piece && !existing.isCaptured()) {
-                    logState("State", existing.getCurrentStateName());
-                    if (existing.getCurrentStateName() != EState.JUMP) {
-                        players[existing.getPlayer()].markPieceCaptured(existing);
-                        logCapture("Captured on landing", existing);
-                    } else {
-                        players[piece.getPlayer()].markPieceCaptured(piece);
-                        logCapture("No capture: piece not jumping on landing", piece);
-                    }
+        for (IPiece piece : live) {
+            if (piece.isCaptured()) continue;
+
+            int row = piece.getRow();
+            int col = piece.getCol();
+
+            IPiece existing = boardGrid.get(row, col);
+            if (existing != null && existing != piece && !existing.isCaptured()) {
+                logState("State", existing.getCurrentStateName());
+                if (existing.getCurrentStateName() != EState.JUMP) {
+                    capture(existing);
+                    logCapture("Captured on landing", existing);
+                } else {
+                    capture(piece);
+                    logCapture("No capture: piece not jumping on landing", piece);
                 }
-
-                boardGrid[row][col] = piece;
             }
+
+            boardGrid.set(row, col, piece);
         }
     }
 
@@ -295,7 +413,53 @@ public class Board implements IBoard {
     @Override
     public void jump(IPiece p) {
         if (p == null) return;
+        long before = keyOf(p);
+        EState was = p.getCurrentStateName();
         p.jump();
+        changed(p, before, was);
+    }
+
+    /**
+     * Writes the full board state, see {@link BoardSnapshot}.
+     */
+    @Override
+    public void snapshot(ByteBuffer out) {
+        BoardSnapshot.write(this, boardGrid, out);
+    }
+
+    /**
+     * Restores a state written by {@link #snapshot}; listeners are not notified.
+     */
+    @Override
+    public void restore(ByteBuffer in) {
+        BoardSnapshot.read(this, boardGrid, in);
+        hash = computeHash();
+        rebuildLive();
+    }
+
+    /**
+     * Registers a listener for captures and state changes.
+     */
+    @Override
+    public void addListener(IBoardListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener.
+     */
+    @Override
+    public void removeListener(IBoardListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns the Zobrist hash of the current board: every uncaptured piece's
+     * square, type, owner and state.
+     */
+    @Override
+    public long getHash() {
+        return hash;
     }
 
     /**
@@ -1,11 +1,18 @@
 package board;
 
+import game.LoadPieces;
+import interfaces.IClock;
+import utils.SystemClock;
+
 import java.util.List;
 
 /**
  * Configuration for the game board, including dimensions and tile size.
  */
 public class BoardConfig {
+    /** Size of a tile in pixels when the panel is sized from the board. */
+    public static final int TILE_PIXELS = 64;
+
     public final Dimension numRowsCols;
     
     public final Dimension panelSize;
@@ -13,26 +20,59 @@ public class BoardConfig {
     /** Size of a single tile in pixels. */
     public final double tileSize;
 
+    /** Clock driving physics and animation timing for this board. */
+    public final IClock clock;
 
-    public static final List<List<Integer>> rowsOfPlayer = List.of(
-            List.of(0, 1), // Player 0
-            List.of(6, 7)  // Player 1
-    );
+    /** Size of the board and the pieces it starts with. */
+    public final BoardLayout layout;
 
+    /**
+     * Creates a configuration for the layout loaded from {@code board.csv}.
+     */
     public BoardConfig(Dimension numsRowsCols, Dimension panelSize) {
+        this(numsRowsCols, panelSize, SystemClock.INSTANCE);
+    }
+
+    /**
+     * Creates a configuration for the layout loaded from {@code board.csv}.
+     */
+    public BoardConfig(Dimension numsRowsCols, Dimension panelSize, IClock clock) {
+        this(LoadPieces.getLayout(), numsRowsCols, panelSize, clock);
+    }
+
+    /**
+     * Creates a configuration sized from a layout, one {@link #TILE_PIXELS} tile per square.
+     * @param layout The board size and start pieces
+     * @param clock Clock driving physics and animation timing
+     */
+    public BoardConfig(BoardLayout layout, IClock clock) {
+        this(layout, new Dimension(layout.getRows(), layout.getCols()),
+                new Dimension(layout.getRows() * TILE_PIXELS, layout.getCols() * TILE_PIXELS), clock);
+    }
+
+    private BoardConfig(BoardLayout layout, Dimension numsRowsCols, Dimension panelSize, IClock clock) {
+        this.layout = layout;
         this.numRowsCols = numsRowsCols;
         this.panelSize = panelSize;
+        this.clock = clock;
 
         double tileW = (double) panelSize.getY() / numsRowsCols.getY();
         double tileH = (double) panelSize.getX() / numsRowsCols.getX();
         this.tileSize = Math.min(tileW, tileH);
     }
 
-    public static int getPlayerOf(int row){
-        if (rowsOfPlayer.get(0).contains(row))
-            return 0;
-        else
-            return 1;
+    /**
+     * Gets the rows a player starts on.
+     */
+    public List<Integer> getRowsOfPlayer(int player) {
+        return layout.getRowsOfPlayer(player);
+    }
+
+    /**
+     * Gets the player starting on a row, -1 if no piece starts on it.
+     */
+    public int getPlayerOf(int row){
+        return layout.getPlayerOfRow(row);
     }
 
     public boolean isInBounds(int r, int c){
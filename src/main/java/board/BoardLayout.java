@@ -0,0 +1,217 @@
+package board;
+
+import pieces.EPieceType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Size of a board and the pieces it starts with, independent of any game.
+ * <p>
+ * A layout comes from a grid of piece codes such as {@code board.csv}: a type letter followed by a
+ * color letter, {@code B} for player 0, {@code W} for player 1, {@code R} for player 2 and {@code G}
+ * for player 3. Its size is the size of the grid, and the rows a player starts on are the rows holding
+ * that player's pieces, so nothing assumes 8x8 or two players.
+ */
+public final class BoardLayout {
+    /** Rows and columns of the classic board. */
+    public static final int STANDARD_SIZE = 8;
+    /** Color letters of the players, indexed by player id. */
+    private static final String COLORS = "BWRG";
+    /** Back rank of the classic board, repeated across wider boards. */
+    private static final String BACK_RANK = "RNBKQBNR";
+    /** Marks a row holding pieces of several players while the layout is built. */
+    private static final int MIXED = -2;
+
+    private final int rows;
+    private final int cols;
+    private final List<List<Placement>> placements;
+    private final List<List<Integer>> rowsOfPlayer;
+    /** Player owning each start row, -1 for rows without pieces or with pieces of several players. */
+    private final int[] playerOfRow;
+
+    /**
+     * A piece on its start square.
+     */
+    public static final class Placement {
+        private final int row;
+        private final int col;
+        private final EPieceType type;
+        private final int player;
+
+        public Placement(int row, int col, EPieceType type, int player) {
+            this.row = row;
+            this.col = col;
+            this.type = type;
+            this.player = player;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public int getCol() {
+            return col;
+        }
+
+        public EPieceType getType() {
+            return type;
+        }
+
+        public int getPlayer() {
+            return player;
+        }
+    }
+
+    /**
+     * @param rows Number of rows
+     * @param cols Number of columns
+     * @param pieces The start squares, in any order
+     */
+    public BoardLayout(int rows, int cols, List<Placement> pieces) {
+        if (rows <= 0 || cols <= 0)
+            throw new IllegalArgumentException("Invalid board size " + rows + "x" + cols);
+        this.rows = rows;
+        this.cols = cols;
+        this.playerOfRow = new int[rows];
+        Arrays.fill(playerOfRow, -1);
+
+        List<List<Placement>> byPlayer = new ArrayList<>();
+        List<TreeSet<Integer>> rowSets = new ArrayList<>();
+        for (Placement p : pieces) {
+            if (p.row < 0 || p.row >= rows || p.col < 0 || p.col >= cols)
+                throw new IllegalArgumentException("Piece outside the board at row=" + p.row + ", col=" + p.col);
+            while (byPlayer.size() <= p.player) {
+                byPlayer.add(new ArrayList<>());
+                rowSets.add(new TreeSet<>());
+            }
+            byPlayer.get(p.player).add(p);
+            rowSets.get(p.player).add(p.row);
+            int owner = playerOfRow[p.row];
+            playerOfRow[p.row] = owner == -1 || owner == p.player ? p.player : MIXED;
+        }
+        for (int row = 0; row < rows; row++)
+            if (playerOfRow[row] == MIXED)
+                playerOfRow[row] = -1;
+
+        List<List<Integer>> rowLists = new ArrayList<>();
+        for (int i = 0; i < byPlayer.size(); i++) {
+            // Row-major order, the order pieces have always been created in
+            byPlayer.get(i).sort((a, b) -> a.row != b.row ? Integer.compare(a.row, b.row) : Integer.compare(a.col, b.col));
+            byPlayer.set(i, Collections.unmodifiableList(byPlayer.get(i)));
+            rowLists.add(List.copyOf(rowSets.get(i)));
+        }
+        this.placements = Collections.unmodifiableList(byPlayer);
+        this.rowsOfPlayer = Collections.unmodifiableList(rowLists);
+    }
+
+    /**
+     * Builds a layout from a grid of piece codes; the widest row sets the column count.
+     * @param codes Codes per row, null or empty for empty squares
+     * @return The layout
+     */
+    public static BoardLayout fromCodes(String[][] codes) {
+        int cols = 0;
+        List<Placement> pieces = new ArrayList<>();
+        for (int row = 0; row < codes.length; row++) {
+            cols = Math.max(cols, codes[row].length);
+            for (int col = 0; col < codes[row].length; col++) {
+                String code = codes[row][col];
+                if (code == null || code.isEmpty())
+                    continue;
+                int player = code.length() > 1 ? COLORS.indexOf(code.charAt(1)) : -1;
+                if (player < 0)
+                    throw new IllegalArgumentException("Bad piece code '" + code + "' at row=" + row + ", col=" + col);
+                pieces.add(new Placement(row, col, EPieceType.valueOf(code.substring(0, 1)), player));
+            }
+        }
+        return new BoardLayout(codes.length, cols, pieces);
+    }
+
+    /**
+     * Builds the classic setup on a board of any size: each player's back rank and pawns on the two
+     * rows at their edge, the classic back rank repeated across the width. Every copy brings a king,
+     * and losing any king loses the game.
+     * @param rows Number of rows, at least 4
+     * @param cols Number of columns
+     * @return The layout
+     */
+    public static BoardLayout tiled(int rows, int cols) {
+        if (rows < 4)
+            throw new IllegalArgumentException("A tiled board needs at least 4 rows, got " + rows);
+        List<Placement> pieces = new ArrayList<>();
+        for (int col = 0; col < cols; col++) {
+            EPieceType back = EPieceType.valueOf(String.valueOf(BACK_RANK.charAt(col % BACK_RANK.length())));
+            pieces.add(new Placement(0, col, back, 0));
+            pieces.add(new Placement(1, col, EPieceType.P, 0));
+            pieces.add(new Placement(rows - 2, col, EPieceType.P, 1));
+            pieces.add(new Placement(rows - 1, col, back, 1));
+        }
+        return new BoardLayout(rows, cols, pieces);
+    }
+
+    /**
+     * Builds a four player board: 14x14 with the 3x3 corners unused, each player's back rank and pawns
+     * on the two rows or columns at their edge. Players 0 and 1 face each other along the columns,
+     * players 2 (left) and 3 (right) along the rows.
+     * @return The layout
+     */
+    public static BoardLayout fourPlayer() {
+        int size = 14;
+        int corner = 3;
+        List<Placement> pieces = new ArrayList<>();
+        for (int i = 0; i < BACK_RANK.length(); i++) {
+            EPieceType back = EPieceType.valueOf(String.valueOf(BACK_RANK.charAt(i)));
+            int line = corner + i;
+            pieces.add(new Placement(0, line, back, 0));
+            pieces.add(new Placement(1, line, EPieceType.P, 0));
+            pieces.add(new Placement(size - 2, line, EPieceType.P, 1));
+            pieces.add(new Placement(size - 1, line, back, 1));
+            pieces.add(new Placement(line, 0, back, 2));
+            pieces.add(new Placement(line, 1, EPieceType.P, 2));
+            pieces.add(new Placement(line, size - 2, EPieceType.P, 3));
+            pieces.add(new Placement(line, size - 1, back, 3));
+        }
+        return new BoardLayout(size, size, pieces);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Gets the number of players with pieces on the board.
+     */
+    public int getPlayerCount() {
+        return placements.size();
+    }
+
+    /**
+     * Gets a player's pieces in row-major order.
+     */
+    public List<Placement> getPlacements(int player) {
+        return player < placements.size() ? placements.get(player) : List.of();
+    }
+
+    /**
+     * Gets the rows a player starts on, ascending.
+     */
+    public List<Integer> getRowsOfPlayer(int player) {
+        return player < rowsOfPlayer.size() ? rowsOfPlayer.get(player) : List.of();
+    }
+
+    /**
+     * Gets the player starting on a row.
+     * @return The player id, or -1 if no piece or pieces of several players start on the row
+     */
+    public int getPlayerOfRow(int row) {
+        return row >= 0 && row < rows ? playerOfRow[row] : -1;
+    }
+}
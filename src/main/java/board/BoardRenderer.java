@@ -11,23 +11,27 @@ import java.awt.*;
  */
 public class BoardRenderer {
     /**
-     * Draws all pieces on the board.
+     * Draws the pieces on the visible part of the board: the squares within the clip, plus one
+     * square around it for pieces moving in from outside. Only occupied squares are visited.
      * @param g Graphics context
      * @param board The board to draw
      * @param panelWidth Width of the panel
      * @param panelHeight Height of the panel
      */
     public static void draw(Graphics g, IBoard board, int panelWidth, int panelHeight) {
-        int squareWidth = panelWidth / board.getCOLS();
-        int squareHeight = panelHeight / board.getROWS();
+        int squareWidth = Math.max(1, panelWidth / board.getCOLS());
+        int squareHeight = Math.max(1, panelHeight / board.getROWS());
 
-        for (int row = 0; row < board.getROWS(); row++) {
-            for (int col = 0; col < board.getCOLS(); col++) {
-                IPiece p = board.getPiece(row, col);
-                if (p != null) {
-                    PieceRenderer.draw(g, p, squareWidth, squareHeight);
-                }
-            }
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            board.forEachPiece((row, col, p) -> PieceRenderer.draw(g, p, squareWidth, squareHeight));
+            return;
         }
+        int fromRow = clip.y / squareHeight - 1;
+        int fromCol = clip.x / squareWidth - 1;
+        int toRow = (clip.y + clip.height) / squareHeight + 2;
+        int toCol = (clip.x + clip.width) / squareWidth + 2;
+        board.forEachPiece(fromRow, fromCol, toRow, toCol,
+                (row, col, p) -> PieceRenderer.draw(g, p, squareWidth, squareHeight));
     }
 }
@@ -0,0 +1,199 @@
+package board;
+
+import interfaces.EState;
+import interfaces.IBoard;
+import interfaces.IBoardGrid;
+import interfaces.IGraphicsData;
+import interfaces.IPhysicsData;
+import interfaces.IPiece;
+import interfaces.IPlayer;
+import interfaces.IState;
+import pieces.Position;
+import utils.Varint;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary image of a board's full state, written and read field by field.
+ * <p>
+ * Layout: {@code [u8 version][varint rows][varint cols][varint pieces]}, then per piece in id order
+ * (all players' pieces in turn) {@code [u8 flags][varint square]} and, unless captured,
+ * {@code [varint start][varint target]([varint physics start])[varlong start age][varint frame][varlong frame age]([f64 x][f64 y])},
+ * then the grid as {@code [varint cells]{[varint square][varint piece id]}}.
+ * The flags hold the state ordinal, the captured flag and which optional fields follow.
+ * <p>
+ * Times are stored as ages relative to the board's clock, so a snapshot can be restored onto a board
+ * whose clock reads differently; the game continues exactly as it would have. A standard game takes
+ * a few hundred bytes, most of it the timers.
+ */
+public final class BoardSnapshot {
+    public static final int VERSION = 1;
+
+    private static final int STATE_MASK = 0x07;
+    private static final int CAPTURED = 0x08;
+    /** The pixel position differs from the movement start and follows as two doubles. */
+    private static final int MOVED = 0x10;
+    /** The movement started elsewhere than the logical start (the action finished without a state change). */
+    private static final int PHYSICS_START = 0x20;
+    private static final EState[] STATES = EState.values();
+
+    private BoardSnapshot() {
+    }
+
+    /**
+     * Upper bound of a snapshot's size.
+     * @param pieces Number of pieces
+     * @param cells Number of board cells
+     */
+    public static int maxSize(int pieces, int cells) {
+        return 16 + pieces * 60 + Math.min(pieces, cells) * 10;
+    }
+
+    /**
+     * Upper bound of the size of a snapshot of the given board.
+     */
+    public static int maxSize(IBoard board) {
+        return maxSize(pieces(board).size(), board.getROWS() * board.getCOLS());
+    }
+
+    /**
+     * Takes a snapshot into a new array.
+     */
+    public static byte[] toBytes(IBoard board) {
+        ByteBuffer buf = ByteBuffer.allocate(maxSize(board));
+        board.snapshot(buf);
+        byte[] bytes = new byte[buf.position()];
+        buf.flip().get(bytes);
+        return bytes;
+    }
+
+    static List<IPiece> pieces(IBoard board) {
+        List<IPiece> all = new ArrayList<>();
+        for (IPlayer player : board.getPlayers())
+            all.addAll(player.getPieces());
+        return all;
+    }
+
+    static void write(IBoard board, IBoardGrid grid, ByteBuffer out) {
+        int cols = board.getCOLS();
+        long now = board.getBoardConfig().clock.nanoTime();
+        List<IPiece> pieces = pieces(board);
+        out.put((byte) VERSION);
+        Varint.writeInt(out, board.getROWS());
+        Varint.writeInt(out, cols);
+        Varint.writeInt(out, pieces.size());
+
+        for (IPiece piece : pieces) {
+            int flags = piece.getCurrentStateName().ordinal();
+            if (piece.isCaptured()) {
+                out.put((byte) (flags | CAPTURED));
+                Varint.writeInt(out, piece.getRow() * cols + piece.getCol());
+                continue;
+            }
+            IState state = piece.getCurrentState();
+            IPhysicsData physics = state.getPhysics();
+            IGraphicsData graphics = state.getGraphics();
+            Position physicsStart = physics.getStartPos();
+            double tile = board.getBoardConfig().tileSize;
+            boolean moved = physics.getCurrentX() != physicsStart.getCol() * tile
+                    || physics.getCurrentY() != physicsStart.getRow() * tile;
+            boolean ownStart = physicsStart.getRow() != state.getStartRow() || physicsStart.getCol() != state.getStartCol();
+            out.put((byte) (flags | (moved ? MOVED : 0) | (ownStart ? PHYSICS_START : 0)));
+            Varint.writeInt(out, piece.getRow() * cols + piece.getCol());
+            Varint.writeInt(out, state.getStartRow() * cols + state.getStartCol());
+            Varint.writeInt(out, state.getTargetRow() * cols + state.getTargetCol());
+            if (ownStart)
+                Varint.writeInt(out, physicsStart.getRow() * cols + physicsStart.getCol());
+            Varint.writeSignedLong(out, now - state.getStartTimeNanos());
+            Varint.writeInt(out, graphics.getCurrentNumFrame());
+            Varint.writeSignedLong(out, now - graphics.getLastFrameTimeNanos());
+            if (moved) {
+                out.putDouble(physics.getCurrentX());
+                out.putDouble(physics.getCurrentY());
+            }
+        }
+
+        Map<IPiece, Integer> ids = new IdentityHashMap<>();
+        for (int i = 0; i < pieces.size(); i++)
+            ids.put(pieces.get(i), i);
+        // Square order, so equal boards write equal bytes whatever order their storage iterates in
+        long[] cells = new long[grid.size()];
+        int[] n = { 0 };
+        grid.forEach((r, c, p) -> cells[n[0]++] = ((long) (r * cols + c) << 32) | ids.get(p));
+        Arrays.sort(cells);
+        Varint.writeInt(out, cells.length);
+        for (long cell : cells) {
+            Varint.writeInt(out, (int) (cell >>> 32));
+            Varint.writeInt(out, (int) cell);
+        }
+    }
+
+    /**
+     * Restores a snapshot. Pieces captured on the board must also be captured in the snapshot.
+     * @throws IllegalArgumentException if the snapshot is damaged or taken from a different setup
+     */
+    static void read(IBoard board, IBoardGrid grid, ByteBuffer in) {
+        int version = in.get();
+        if (version != VERSION)
+            throw new IllegalArgumentException("Unsupported snapshot version " + version);
+        int rows = Varint.readInt(in);
+        int cols = Varint.readInt(in);
+        List<IPiece> pieces = pieces(board);
+        int count = Varint.readInt(in);
+        if (rows != board.getROWS() || cols != board.getCOLS() || count != pieces.size())
+            throw new IllegalArgumentException("Snapshot of a " + rows + "x" + cols + " board with " + count + " pieces");
+        long now = board.getBoardConfig().clock.nanoTime();
+
+        for (IPiece piece : pieces) {
+            int flags = in.get();
+            int s = flags & STATE_MASK;
+            if (s >= STATES.length)
+                throw new IllegalArgumentException("Bad state " + s);
+            EState name = STATES[s];
+            Position pos = square(Varint.readInt(in), rows, cols);
+            if ((flags & CAPTURED) != 0) {
+                piece.restore(name, pos);
+                if (!piece.isCaptured())
+                    board.getPlayers()[piece.getPlayer()].markPieceCaptured(piece);
+                continue;
+            }
+            if (piece.isCaptured())
+                throw new IllegalStateException("Cannot restore captured piece " + piece.getId());
+
+            Position start = square(Varint.readInt(in), rows, cols);
+            Position target = square(Varint.readInt(in), rows, cols);
+            Position physicsStart = (flags & PHYSICS_START) != 0 ? square(Varint.readInt(in), rows, cols) : start;
+            long startTime = now - Varint.readSignedLong(in);
+            int frame = Varint.readInt(in);
+            long frameTime = now - Varint.readSignedLong(in);
+
+            piece.restore(name, pos);
+            IState state = piece.getCurrentState();
+            state.restore(start, physicsStart, target, startTime);
+            state.getGraphics().restore(frame, frameTime);
+            if ((flags & MOVED) != 0)
+                state.getPhysics().setCurrentPosition(in.getDouble(), in.getDouble());
+        }
+
+        grid.clear();
+        int cells = Varint.readInt(in);
+        for (int i = 0; i < cells; i++) {
+            Position p = square(Varint.readInt(in), rows, cols);
+            int id = Varint.readInt(in);
+            if (id < 0 || id >= pieces.size())
+                throw new IllegalArgumentException("Bad piece id " + id);
+            grid.set(p.getRow(), p.getCol(), pieces.get(id));
+        }
+    }
+
+    private static Position square(int square, int rows, int cols) {
+        if (square < 0 || square >= rows * cols)
+            throw new IllegalArgumentException("Bad square " + square);
+        return new Position(square / cols, square % cols);
+    }
+}
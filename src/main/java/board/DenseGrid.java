@@ -0,0 +1,61 @@
+package board;
+
+import interfaces.IBoardGrid;
+import interfaces.ICellVisitor;
+import interfaces.IPiece;
+
+import java.util.Arrays;
+
+/**
+ * Board storage as one array slot per square: the fastest lookups, memory and iteration in board area.
+ */
+public class DenseGrid implements IBoardGrid {
+    private final IPiece[][] cells;
+    private int size;
+
+    public DenseGrid(int rows, int cols) {
+        this.cells = new IPiece[rows][cols];
+    }
+
+    @Override
+    public IPiece get(int row, int col) {
+        return cells[row][col];
+    }
+
+    @Override
+    public void set(int row, int col, IPiece piece) {
+        IPiece old = cells[row][col];
+        if (old == null && piece != null)
+            size++;
+        else if (old != null && piece == null)
+            size--;
+        cells[row][col] = piece;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        for (IPiece[] row : cells)
+            Arrays.fill(row, null);
+        size = 0;
+    }
+
+    @Override
+    public void forEach(ICellVisitor visitor) {
+        forEach(0, 0, cells.length, cells.length == 0 ? 0 : cells[0].length, visitor);
+    }
+
+    @Override
+    public void forEach(int fromRow, int fromCol, int toRow, int toCol, ICellVisitor visitor) {
+        for (int row = Math.max(fromRow, 0); row < Math.min(toRow, cells.length); row++) {
+            IPiece[] line = cells[row];
+            for (int col = Math.max(fromCol, 0); col < Math.min(toCol, line.length); col++)
+                if (line[col] != null)
+                    visitor.visit(row, col, line[col]);
+        }
+    }
+}
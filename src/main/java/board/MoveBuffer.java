@@ -0,0 +1,103 @@
+package board;
+
+import command.JumpCommand;
+import command.MoveCommand;
+import interfaces.IBoard;
+import interfaces.ICommand;
+import pieces.Position;
+
+import java.util.Arrays;
+
+/**
+ * Reusable, growable buffer of packed moves.
+ * <p>
+ * A move is packed into one int as {@code fromRow << 24 | fromCol << 16 | toRow << 8 | toCol};
+ * a move whose source equals its target is a jump.
+ */
+public class MoveBuffer {
+    private int[] moves;
+    private int size;
+
+    /**
+     * Constructs a buffer with room for a typical position.
+     */
+    public MoveBuffer() {
+        this(128);
+    }
+
+    /**
+     * Constructs a buffer with the given initial capacity.
+     * @param capacity Initial capacity
+     */
+    public MoveBuffer(int capacity) {
+        this.moves = new int[Math.max(1, capacity)];
+    }
+
+    /**
+     * Empties the buffer, keeping its storage.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Appends a packed move.
+     * @param move The packed move
+     */
+    public void add(int move) {
+        if (size == moves.length)
+            moves = Arrays.copyOf(moves, size * 2);
+        moves[size++] = move;
+    }
+
+    /**
+     * Gets the packed move at an index.
+     */
+    public int get(int index) {
+        return moves[index];
+    }
+
+    /**
+     * Gets the number of moves in the buffer.
+     */
+    public int size() {
+        return size;
+    }
+
+    public static int pack(int fromRow, int fromCol, int toRow, int toCol) {
+        return fromRow << 24 | fromCol << 16 | toRow << 8 | toCol;
+    }
+
+    public static int fromRow(int move) {
+        return move >>> 24;
+    }
+
+    public static int fromCol(int move) {
+        return (move >>> 16) & 0xFF;
+    }
+
+    public static int toRow(int move) {
+        return (move >>> 8) & 0xFF;
+    }
+
+    public static int toCol(int move) {
+        return move & 0xFF;
+    }
+
+    public static boolean isJump(int move) {
+        return (move >>> 16) == (move & 0xFFFF);
+    }
+
+    /**
+     * Turns a packed move into the command that performs it.
+     * @param move The packed move
+     * @param board The board the command acts on
+     * @return A JumpCommand or MoveCommand
+     */
+    public static ICommand toCommand(int move, IBoard board) {
+        Position from = new Position(fromRow(move), fromCol(move));
+        if (isJump(move))
+            return new JumpCommand(board.getPiece(from), board);
+        return new MoveCommand(from, new Position(toRow(move), toCol(move)), board);
+    }
+}
@@ -0,0 +1,66 @@
+package board;
+
+import interfaces.IBoard;
+import interfaces.IPiece;
+import interfaces.IPlayer;
+
+/**
+ * Enumerates every action a player can currently start, straight from the pieces'
+ * move tables, with the same rules as {@link Board#isMoveLegal} and {@link Board#isJumpLegal}:
+ * the piece's state must allow actions, sliding pieces need a clear path (pieces that
+ * cannot be moved over block it), knights skip, and own pieces cannot be captured.
+ */
+public class MoveGenerator {
+
+    /**
+     * Fills the buffer with all legal moves and jumps of a player.
+     * @param board The board
+     * @param player The player
+     * @param out Buffer to fill (cleared first)
+     * @return Number of actions generated
+     */
+    public static int generate(IBoard board, IPlayer player, MoveBuffer out) {
+        out.clear();
+        for (IPiece piece : player.getPieces()) {
+            if (piece == null || piece.isCaptured() || !piece.getCurrentStateName().isCanAction())
+                continue;
+            int row = piece.getRow();
+            int col = piece.getCol();
+            if (board.getPiece(row, col) != piece)
+                continue;
+
+            int owner = piece.getPlayer();
+            boolean canSkip = piece.getType().isCanSkip();
+            int[] deltas = piece.getMoves().getDeltas();
+            for (int i = 0; i < deltas.length; i += 2) {
+                int toRow = row + deltas[i];
+                int toCol = col + deltas[i + 1];
+                if (!board.isInBounds(toRow, toCol))
+                    continue;
+                IPiece target = board.getPiece(toRow, toCol);
+                if (target != null && target.getPlayer() == owner)
+                    continue;
+                if (!canSkip && !isPathClear(board, row, col, toRow, toCol))
+                    continue;
+                out.add(MoveBuffer.pack(row, col, toRow, toCol));
+            }
+            out.add(MoveBuffer.pack(row, col, row, col));
+        }
+        return out.size();
+    }
+
+    private static boolean isPathClear(IBoard board, int fromRow, int fromCol, int toRow, int toCol) {
+        int dRow = Integer.signum(toRow - fromRow);
+        int dCol = Integer.signum(toCol - fromCol);
+        int r = fromRow + dRow;
+        int c = fromCol + dCol;
+        while (r != toRow || c != toCol) {
+            IPiece p = board.getPiece(r, c);
+            if (p != null && !p.canMoveOver())
+                return false;
+            r += dRow;
+            c += dCol;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,182 @@
+package board;
+
+import interfaces.IBoardGrid;
+import interfaces.ICellVisitor;
+import interfaces.IPiece;
+
+import java.util.Arrays;
+
+/**
+ * Board storage as an open addressing hash table keyed by the packed square {@code row * cols + col}.
+ * <p>
+ * Memory and full iteration scale with the number of pieces, not the board area, so a 256x256 board
+ * with a few thousand pieces costs a few thousand slots. Emptied squares leave tombstones, so squares
+ * can be emptied while iterating; the table is rebuilt, dropping them, when it fills up.
+ */
+public class SparseGrid implements IBoardGrid {
+    private static final int EMPTY = -1;
+    private static final int REMOVED = -2;
+    private static final int MIN_CAPACITY = 16;
+
+    private final int rows;
+    private final int cols;
+    private int[] keys;
+    private IPiece[] values;
+    private int size;
+    /** Slots holding a piece or a tombstone. */
+    private int used;
+
+    public SparseGrid(int rows, int cols) {
+        this(rows, cols, MIN_CAPACITY);
+    }
+
+    /**
+     * @param expected The number of pieces expected, to size the table up front
+     */
+    public SparseGrid(int rows, int cols, int expected) {
+        this.rows = rows;
+        this.cols = cols;
+        allocate(capacityFor(expected));
+    }
+
+    private static int capacityFor(int count) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3 / 4 < count * 2)
+            capacity <<= 1;
+        return capacity;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new IPiece[capacity];
+        size = 0;
+        used = 0;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Finds the slot holding a key.
+     * @return The slot, or -1 if the key is absent
+     */
+    private int find(int key) {
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key)
+                return i;
+            if (k == EMPTY)
+                return -1;
+        }
+    }
+
+    @Override
+    public IPiece get(int row, int col) {
+        int slot = find(row * cols + col);
+        return slot < 0 ? null : values[slot];
+    }
+
+    @Override
+    public void set(int row, int col, IPiece piece) {
+        int key = row * cols + col;
+        int slot = find(key);
+        if (piece == null) {
+            if (slot >= 0) {
+                keys[slot] = REMOVED;
+                values[slot] = null;
+                size--;
+            }
+            return;
+        }
+        if (slot >= 0) {
+            values[slot] = piece;
+            return;
+        }
+        if ((used + 1) * 4 > keys.length * 3)
+            rehash();
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (keys[i] >= 0)
+            i = (i + 1) & mask;
+        if (keys[i] == EMPTY)
+            used++;
+        keys[i] = key;
+        values[i] = piece;
+        size++;
+    }
+
+    /**
+     * Rebuilds the table without tombstones, sized for the pieces it holds.
+     */
+    private void rehash() {
+        int[] oldKeys = keys;
+        IPiece[] oldValues = values;
+        allocate(capacityFor(size + 1));
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] < 0)
+                continue;
+            int i = hash(oldKeys[j]) & mask;
+            while (keys[i] != EMPTY)
+                i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+            size++;
+            used++;
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        allocate(keys.length);
+    }
+
+    @Override
+    public void forEach(ICellVisitor visitor) {
+        int[] k = keys;
+        for (int i = 0; i < k.length; i++)
+            if (k[i] >= 0)
+                visitor.visit(k[i] / cols, k[i] % cols, values[i]);
+    }
+
+    /**
+     * Probes the squares of the rectangle when it is smaller than the piece count,
+     * otherwise filters a full iteration.
+     */
+    @Override
+    public void forEach(int fromRow, int fromCol, int toRow, int toCol, ICellVisitor visitor) {
+        fromCol = Math.max(fromCol, 0);
+        toCol = Math.min(toCol, cols);
+        fromRow = Math.max(fromRow, 0);
+        toRow = Math.min(toRow, rows);
+        if (toRow <= fromRow || toCol <= fromCol)
+            return;
+        if ((long) (toRow - fromRow) * (toCol - fromCol) <= size) {
+            for (int row = fromRow; row < toRow; row++)
+                for (int col = fromCol; col < toCol; col++) {
+                    IPiece piece = get(row, col);
+                    if (piece != null)
+                        visitor.visit(row, col, piece);
+                }
+            return;
+        }
+        int[] k = keys;
+        for (int i = 0; i < k.length; i++) {
+            if (k[i] < 0)
+                continue;
+            int row = k[i] / cols;
+            int col = k[i] % cols;
+            if (row >= fromRow && row < toRow && col >= fromCol && col < toCol)
+                visitor.visit(row, col, values[i]);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package board;
+
+import interfaces.EState;
+import pieces.EPieceType;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Zobrist keys for (square, piece type, owner, state) combinations.
+ * Keys come from a fixed seed, so hashes are identical across runs and JVMs.
+ * <p>
+ * A key is composed from one random value per square and one per (owner, type, state), mixed by a
+ * bijective finalizer, so the tables grow with the board area rather than area times piece kinds:
+ * a 256x256 board needs half a megabyte instead of tens.
+ */
+public class Zobrist {
+    private static final long SEED = 0x4B464368657373L;
+    private static final int TYPES = EPieceType.values().length;
+    private static final int STATES = EState.values().length;
+    private static final Map<Long, Zobrist> bySize = new ConcurrentHashMap<>();
+
+    private final int cols;
+    private final long[] squareKeys;
+    private final long[] pieceKeys;
+
+    private Zobrist(int rows, int cols, int players) {
+        this.cols = cols;
+        SplittableRandom random = new SplittableRandom(SEED);
+        this.squareKeys = new long[rows * cols];
+        for (int i = 0; i < squareKeys.length; i++)
+            squareKeys[i] = random.nextLong();
+        // Drawn last, so a player's keys do not depend on how many players there are
+        this.pieceKeys = new long[players * TYPES * STATES];
+        for (int i = 0; i < pieceKeys.length; i++)
+            pieceKeys[i] = random.nextLong();
+    }
+
+    /**
+     * Returns the (shared) key table for a two player board size.
+     * @param rows Number of rows
+     * @param cols Number of columns
+     * @return The key table
+     */
+    public static Zobrist forSize(int rows, int cols) {
+        return forSize(rows, cols, 2);
+    }
+
+    /**
+     * Returns the (shared) key table for a board size and number of players.
+     * @param rows Number of rows
+     * @param cols Number of columns
+     * @param players Number of players
+     * @return The key table
+     */
+    public static Zobrist forSize(int rows, int cols, int players) {
+        long size = ((long) rows << 40) | ((long) cols << 16) | players;
+        return bySize.computeIfAbsent(size, k -> new Zobrist(rows, cols, players));
+    }
+
+    /**
+     * Gets the key of a piece standing on a square in a given state.
+     * A missing type or state counts as the first value.
+     */
+    public long key(int row, int col, EPieceType type, int owner, EState state) {
+        int t = type == null ? 0 : type.ordinal();
+        int s = state == null ? 0 : state.ordinal();
+        return mix(squareKeys[row * cols + col] + pieceKeys[(owner * TYPES + t) * STATES + s]);
+    }
+
+    /**
+     * The SplitMix64 finalizer: a bijection that spreads every input bit over the whole key.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -26,6 +26,10 @@ public class JumpCommand implements ICommand {
         this.board = board;
     }
 
+    public IPiece getPiece() {
+        return p;
+    }
+
     /**
      * Executes the jump command if the jump is legal.
      */
@@ -35,6 +35,14 @@ public class MoveCommand implements ICommand {
         this.board = board;
     }
 
+    public Position getFrom() {
+        return from;
+    }
+
+    public Position getTo() {
+        return to;
+    }
+
     /**
      * Executes the move command, moving the piece if the move is legal.
      * Logs the action and handles illegal moves.
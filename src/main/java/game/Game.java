@@ -5,22 +5,30 @@ import board.BoardConfig;
 import interfaces.ICommand;
 import interfaces.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Main game logic and state management.
- * Handles command execution, player turns, and win condition.
+ * Handles command execution, player turns, and win condition, for any number of players.
  */
 public class Game implements IGame {
-    /** Player 1 instance. */
-    private final IPlayer player1;
-    /** Player 2 instance. */
-    private final IPlayer player2;
+    /** The players, indexed by player id. */
+    private final IPlayer[] players;
     /** Queue of commands to be executed. */
     private Queue<ICommand> commandQueue;
     /** The board instance for the game. */
     private final IBoard board;
+    /** Listeners notified after every update. */
+    private final List<IGameListener> listeners = new CopyOnWriteArrayList<>();
+    /** Number of updates performed. */
+    private long tick;
+    /** Tick on which each player was first seen failed, -1 while still in the game. */
+    private final long[] failedAt;
 
     /**
      * Constructs the game with the given board config and players.
@@ -31,29 +39,91 @@ public class Game implements IGame {
      * @param player2 Second player
      */
     public Game(BoardConfig bc, IPlayer player1, IPlayer player2) {
-        this.board = new Board(bc,new IPlayer[]{ player1, player2 });
-        this.player1 = player1;
-        this.player2 = player2;
+        this(bc, new IPlayer[]{ player1, player2 });
+    }
+
+    /**
+     * Constructs a game for any number of players.
+     *
+     * @param bc Board configuration
+     * @param players The players, indexed by player id, at least two
+     */
+    public Game(BoardConfig bc, IPlayer[] players) {
+        if (players.length < 2)
+            throw new IllegalArgumentException("A game needs at least two players, got " + players.length);
+        this.players = players.clone();
+        this.failedAt = new long[players.length];
+        Arrays.fill(failedAt, -1);
+        this.board = new Board(bc, this.players);
         commandQueue = new LinkedList<>();
     }
 
     /**
-     * Adds a command to the queue.
+     * Adds a command to the queue and tells the listeners about it.
      * @param cmd The command to add
      */
     @Override
     public void addCommand(ICommand cmd){
         commandQueue.add(cmd);
+        for (IGameListener listener : listeners)
+            listener.onCommand(this, tick, cmd);
     }
 
     /**
-     * Executes all commands in the queue.
+     * Gets the commands waiting for the next update, in execution order.
+     * @return A copy of the queue
+     */
+    public List<ICommand> getQueuedCommands() {
+        return new ArrayList<>(commandQueue);
+    }
+
+    /**
+     * Executes all commands in the queue, then notifies the listeners.
      */
     @Override
     public void update() {
         while (!commandQueue.isEmpty()) {
             commandQueue.poll().execute();
         }
+        recordFailures();
+        for (IGameListener listener : listeners)
+            listener.onUpdate(this, tick);
+        tick++;
+    }
+
+    /**
+     * Registers a listener called after every update.
+     * @param listener The listener
+     */
+    @Override
+    public void addListener(IGameListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener.
+     * @param listener The listener
+     */
+    @Override
+    public void removeListener(IGameListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Gets the number of updates performed so far.
+     * @return The tick of the next update
+     */
+    @Override
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Sets the update count, when resuming a game from a checkpoint.
+     * @param tick The tick of the next update
+     */
+    public void setTick(long tick) {
+        this.tick = tick;
     }
 
     /**
@@ -62,7 +132,7 @@ public class Game implements IGame {
      */
     @Override
     public IPlayer getPlayer1() {
-        return player1;
+        return players[0];
     }
 
     /**
@@ -71,7 +141,16 @@ public class Game implements IGame {
      */
     @Override
     public IPlayer getPlayer2() {
-        return player2;
+        return players[1];
+    }
+
+    /**
+     * Gets every player.
+     * @return The players, indexed by player id
+     */
+    @Override
+    public IPlayer[] getPlayers() {
+        return players;
     }
 
     /**
@@ -97,15 +176,47 @@ public class Game implements IGame {
     }
 
     /**
-     * Returns the winner: 0 for player 1, 1 for player 2, -1 if no winner yet.
-     * @return The winner's player index, or -1 if no winner
+     * Returns the winner: the last player who has not failed. Stops at the second player still in
+     * the game, so while the game runs this usually costs two checks whatever the player count.
+     * If all remaining players fail on the same tick, the one with the highest id among them wins;
+     * players who were out before never do.
+     * @return The winner, or null while two or more players remain
      */
     @Override
     public IPlayer win(){
-        if(board.getPlayers()[0].isFailed())
-            return player2;
-        if(board.getPlayers()[1].isFailed())
-            return player1;
-        return null;
+        IPlayer standing = null;
+        for (IPlayer p : players) {
+            if (p.isFailed())
+                continue;
+            if (standing != null)
+                return null;
+            standing = p;
+        }
+        if (standing != null)
+            return standing;
+        int last = 0;
+        for (int i = 1; i < players.length; i++)
+            if (failTick(i) >= failTick(last))
+                last = i;
+        return players[last];
+    }
+
+    /**
+     * Notes the tick on which players fail, so the last ones out can be told apart.
+     */
+    private void recordFailures() {
+        for (int i = 0; i < players.length; i++) {
+            if (!players[i].isFailed())
+                failedAt[i] = -1;
+            else if (failedAt[i] < 0)
+                failedAt[i] = tick;
+        }
+    }
+
+    /**
+     * Gets the tick a failed player went out on; a failure no update has seen yet counts as the latest.
+     */
+    private long failTick(int player) {
+        return failedAt[player] < 0 ? tick : failedAt[player];
     }
 }
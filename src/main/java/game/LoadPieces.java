@@ -1,56 +1,88 @@
 package game;
 
+import assets.AssetPack;
+import board.BoardLayout;
+import utils.StartupProfiler;
+
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Utility class for loading initial piece codes from a CSV file into a static board matrix.
+ * The board size is the size of the CSV.
  */
 public class LoadPieces {
 
+    /** Static matrix holding the piece codes for the board. */
+    public static final String[][] board;
+    /** The board size and start pieces described by {@link #board}. */
+    private static final BoardLayout layout;
+
     /** Number of rows in the board. */
-    public static final int ROWS = 8;
+    public static final int ROWS;
     /** Number of columns in the board. */
-    public static final int COLS = 8;
-
-    /** Static matrix holding the piece codes for the board. */
-    public static final String[][] board = new String[ROWS][COLS];
+    public static final int COLS;
 
     // Static initializer to load the board from CSV.
     static {
-        loadFromCSV();
+        long start = StartupProfiler.start();
+        board = loadFromCSV();
+        layout = BoardLayout.fromCodes(board);
+        ROWS = layout.getRows();
+        COLS = layout.getCols();
+        StartupProfiler.end("LoadPieces static init", start);
     }
 
     /**
-     * Loads piece codes from a CSV file directly into the static board matrix.
-     * The CSV is expected to be located at /board/board.csv in the resources.
+     * Loads the piece codes, from the asset pack when there is one, otherwise from the CSV expected
+     * at /board/board.csv in the resources. Short rows are padded to the widest one.
      */
-    private static void loadFromCSV() {
-        String csvResourcePath = "/board/board.csv";
-
-        try (InputStream is = LoadPieces.class.getResourceAsStream(csvResourcePath);
-             BufferedReader reader = new BufferedReader(new InputStreamReader(is))) {
+    private static String[][] loadFromCSV() {
+        String[][] codes = AssetPack.readBoard();
+        if (codes == null) {
+            String csvResourcePath = "/board/board.csv";
+            try (InputStream is = LoadPieces.class.getResourceAsStream(csvResourcePath)) {
+                codes = parseCSV(is);
+            } catch (Exception e) {
+                e.printStackTrace();
+                return new String[BoardLayout.STANDARD_SIZE][BoardLayout.STANDARD_SIZE];
+            }
+        }
 
-            String line;
-            int row = 0;
+        int cols = 0;
+        for (String[] row : codes)
+            cols = Math.max(cols, row.length);
+        for (int row = 0; row < codes.length; row++)
+            if (codes[row].length < cols)
+                codes[row] = Arrays.copyOf(codes[row], cols);
+        return codes;
+    }
 
-            while ((line = reader.readLine()) != null && row < ROWS) {
-                String[] cells = line.split(",");
-                for (int col = 0; col < Math.min(cells.length, COLS); col++) {
-                    String pieceCode = cells[col].trim();
-                    if (!pieceCode.isEmpty()) {
-                        board[row][col] = pieceCode;
-                    } else {
-                        board[row][col] = null;
-                    }
-                }
-                row++;
+    /**
+     * Parses a board CSV: one line per row, one piece code per cell, empty cells for empty squares.
+     *
+     * @param is The CSV
+     * @return The codes per row, null for empty cells
+     * @throws IOException If reading fails
+     */
+    public static String[][] parseCSV(InputStream is) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(is));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String[] cells = line.split(",");
+            for (int col = 0; col < cells.length; col++) {
+                String pieceCode = cells[col].trim();
+                cells[col] = pieceCode.isEmpty() ? null : pieceCode;
             }
-
-        } catch (Exception e) {
-            e.printStackTrace();
+            rows.add(cells);
         }
+        return rows.toArray(new String[0][]);
     }
 
     /**
@@ -61,4 +93,11 @@ public class LoadPieces {
     public static String[][] getBoardMatrix() {
         return board;
     }
+
+    /**
+     * Returns the board size and start pieces loaded from the CSV.
+     */
+    public static BoardLayout getLayout() {
+        return layout;
+    }
 }
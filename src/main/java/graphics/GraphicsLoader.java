@@ -1,55 +1,97 @@
 package graphics;
 
+import assets.AssetIndex;
 import interfaces.EState;
 
 import javax.imageio.ImageIO;
-import java.awt.Image;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 import pieces.EPieceType;
 import utils.LogUtils;
 
 public class GraphicsLoader {
 
-    private static final Map<String, Image> cache = new HashMap<>();
+    /** System property overriding the sprite cache budget, in bytes. */
+    public static final String MAX_BYTES_PROPERTY = "kfchess.sprites.maxBytes";
+    /** Default sprite cache budget: every frame of the standard pieces decoded from PNG fits. */
+    public static final long DEFAULT_MAX_BYTES = 160L << 20;
+
+    private static final SpriteCache sprites =
+            new SpriteCache(Long.getLong(MAX_BYTES_PROPERTY, DEFAULT_MAX_BYTES), ForkJoinPool.commonPool());
+    private static volatile AssetIndex index;
+
+    private static AssetIndex index() {
+        AssetIndex i = index;
+        if (i == null)
+            index = i = AssetIndex.load();
+        return i;
+    }
 
     /**
-     * Loads a single sprite image by piece type, state, and frame index (1-based).
+     * Gets the cache holding the decoded frames of every state in use.
      */
-    public static BufferedImage loadSprite(EPieceType pieceType, int player, EState stateName, int frameIndex) {
-        String path = String.format("/pieces/%s/states/%s/sprites/sprites%d/%d.png", pieceType.getVal(), stateName, player, frameIndex);
+    public static SpriteCache sprites() {
+        return sprites;
+    }
 
-        if (cache.containsKey(path)) {
-            return (BufferedImage) cache.get(path);
-        }
+    /**
+     * Gets the cache key of the frames of a state.
+     */
+    public static String key(EPieceType pieceType, int player, EState stateName) {
+        return String.format("/pieces/%s/states/%s/sprites/sprites%d", pieceType.getVal(), stateName, player);
+    }
+
+    /**
+     * Decodes a single sprite image by piece type, state, and frame index (1-based).
+     * Frames are cached per state by {@link #loadAllSprites}, not here.
+     */
+    public static BufferedImage loadSprite(EPieceType pieceType, int player, EState stateName, int frameIndex) {
+        String path = key(pieceType, player, stateName) + "/" + frameIndex + ".png";
 
         try {
-            BufferedImage image = ImageIO.read(GraphicsLoader.class.getResourceAsStream(path));
-            cache.put(path, image);
-            return image;
+            return ImageIO.read(GraphicsLoader.class.getResourceAsStream(path));
         } catch (IOException | IllegalArgumentException e) {
-            System.err.println("Failed to load sprite: " + path);
+            if (LogUtils.isEnabled())
+                System.err.println("Failed to load sprite: " + path);
             LogUtils.logDebug("Failed to load sprite: " + path);
             return null;
         }
     }
 
     /**
-     * Loads all sprite frames in sequence (1,2,3,...) until the next file does not exist.
+     * Decodes the given number of frames of a state, without caching.
+     */
+    public static BufferedImage[] decodeSprites(EPieceType pieceType, int player, EState stateName, int count) {
+        BufferedImage[] frames = new BufferedImage[count];
+        for (int i = 0; i < count; i++)
+            frames[i] = loadSprite(pieceType, player, stateName, i + 1);
+        return frames;
+    }
+
+    /**
+     * Gets all sprite frames of a state through the sprite cache. The frame count comes from the asset
+     * index; states missing from it are loaded in sequence (1,2,3,...) until the next file does not exist.
      */
     public static BufferedImage[] loadAllSprites(EPieceType pieceType, int player, EState stateName) {
-        List<BufferedImage> sprites = new ArrayList<>();
-        int index = 1;
-
-        while (true) {
-            BufferedImage sprite = loadSprite(pieceType, player, stateName, index);
-            if (sprite == null) break;
-            sprites.add(sprite);
-            index++;
-        }
+        return sprites.get(key(pieceType, player, stateName), () -> {
+            int count = index().frameCount(pieceType, player, stateName);
+            if (count >= 0)
+                return decodeSprites(pieceType, player, stateName, count);
+
+            List<BufferedImage> frames = new ArrayList<>();
+            int index = 1;
+
+            while (true) {
+                BufferedImage sprite = loadSprite(pieceType, player, stateName, index);
+                if (sprite == null) break;
+                frames.add(sprite);
+                index++;
+            }
 
-        return sprites.toArray(new BufferedImage[0]);
+            return frames.toArray(new BufferedImage[0]);
+        });
     }
-}
\ No newline at end of file
+}
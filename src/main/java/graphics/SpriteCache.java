@@ -0,0 +1,197 @@
+package graphics;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe cache of decoded sprite frames, bounded by the bytes of their pixel data.
+ * <p>
+ * One entry holds the frames of one state, loaded on the first request. Concurrent requests for an
+ * entry being loaded wait for that one load instead of decoding again. Once the cached frames exceed
+ * the byte budget, the least recently used entries are dropped; they are loaded again when next used.
+ * The entry just loaded is never dropped, so a single state larger than the budget still works.
+ * <p>
+ * Hits on loaded frames, the common case on the render thread, take no lock. Recency only matters
+ * when a load evicts, so a hit moves its entry up only if a load started since the entry was last used.
+ */
+public class SpriteCache {
+    private final long maxBytes;
+    private final Executor executor;
+    /** Entries in access order, least recently used first. */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    /** The same entries for lookups without the lock; changed together with {@link #entries}. */
+    private final ConcurrentHashMap<String, Entry> index = new ConcurrentHashMap<>();
+    private long bytes;
+    /** Loads started; written under the lock. */
+    private volatile long loads;
+
+    private static final class Entry {
+        final CompletableFuture<BufferedImage[]> frames = new CompletableFuture<>();
+        long bytes;
+        /** Value of {@link #loads} when the entry was last moved up in the access order. */
+        volatile long touched;
+    }
+
+    /**
+     * @param maxBytes Budget for the pixel data of all cached frames
+     * @param executor Runs prefetch loads
+     */
+    public SpriteCache(long maxBytes, Executor executor) {
+        this.maxBytes = maxBytes;
+        this.executor = executor;
+    }
+
+    /**
+     * Gets the frames for a key, loading them in the calling thread if no one has yet.
+     * @param key The key, one per state
+     * @param loader Loads the frames
+     * @return The frames
+     */
+    public BufferedImage[] get(String key, Supplier<BufferedImage[]> loader) {
+        BufferedImage[] frames = getIfLoaded(key);
+        return frames != null ? frames : request(key, loader, false).join();
+    }
+
+    /**
+     * Gets the frames for a key if they are loaded, without taking the lock unless the entry's
+     * recency is stale.
+     * @param key The key, one per state
+     * @return The frames, or null if they are not cached or still loading
+     */
+    public BufferedImage[] getIfLoaded(String key) {
+        Entry entry = index.get(key);
+        if (entry == null || !entry.frames.isDone() || entry.frames.isCompletedExceptionally())
+            return null;
+        if (entry.touched != loads)
+            touch(key, entry);
+        return entry.frames.getNow(null);
+    }
+
+    private synchronized void touch(String key, Entry entry) {
+        if (entries.get(key) == entry)
+            entry.touched = loads;
+    }
+
+    /**
+     * Starts loading the frames for a key in the background unless they are cached or loading.
+     * @return The pending frames
+     */
+    public CompletableFuture<BufferedImage[]> prefetch(String key, Supplier<BufferedImage[]> loader) {
+        return request(key, loader, true);
+    }
+
+    private CompletableFuture<BufferedImage[]> request(String key, Supplier<BufferedImage[]> loader, boolean async) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null) {
+                entry.touched = loads;
+                return entry.frames;
+            }
+            entry = new Entry();
+            entries.put(key, entry);
+            index.put(key, entry);
+            loads++;
+            entry.touched = loads;
+        }
+        Entry e = entry;
+        if (async)
+            executor.execute(() -> fill(key, e, loader));
+        else
+            fill(key, e, loader);
+        return e.frames;
+    }
+
+    private void fill(String key, Entry entry, Supplier<BufferedImage[]> loader) {
+        BufferedImage[] frames;
+        try {
+            frames = loader.get();
+        } catch (RuntimeException ex) {
+            synchronized (this) {
+                if (entries.remove(key, entry))
+                    index.remove(key, entry);
+            }
+            entry.frames.completeExceptionally(ex);
+            return;
+        }
+
+        long size = 0;
+        for (BufferedImage f : frames)
+            size += sizeOf(f);
+        synchronized (this) {
+            // Cleared or evicted while loading: hand the frames out without keeping them
+            if (entries.get(key) == entry) {
+                entry.bytes = size;
+                bytes += size;
+                evict(key);
+            }
+        }
+        entry.frames.complete(frames);
+    }
+
+    /**
+     * Drops least recently used loaded entries until the budget holds, keeping {@code keep}.
+     */
+    private void evict(String keep) {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Entry> e = it.next();
+            if (e.getKey().equals(keep) || !e.getValue().frames.isDone())
+                continue;
+            bytes -= e.getValue().bytes;
+            index.remove(e.getKey(), e.getValue());
+            it.remove();
+        }
+    }
+
+    /**
+     * Gets the bytes of pixel data held by an image.
+     */
+    static long sizeOf(BufferedImage image) {
+        if (image == null)
+            return 0;
+        DataBuffer db = image.getRaster().getDataBuffer();
+        return (long) db.getSize() * db.getNumBanks() * DataBuffer.getDataTypeSize(db.getDataType()) / 8;
+    }
+
+    /**
+     * Checks whether the frames for a key are cached or loading, without touching its recency.
+     */
+    public boolean contains(String key) {
+        return index.containsKey(key);
+    }
+
+    /**
+     * Gets the bytes of pixel data currently cached.
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Gets the number of loads started, including prefetches.
+     */
+    public long getLoads() {
+        return loads;
+    }
+
+    /**
+     * Drops every entry.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        index.clear();
+        bytes = 0;
+    }
+}
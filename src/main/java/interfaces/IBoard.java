@@ -3,6 +3,8 @@ package interfaces;
 import board.BoardConfig;
 import pieces.Position;
 
+import java.nio.ByteBuffer;
+
 /**
  * Interface for board operations and queries.
  */
@@ -37,6 +39,24 @@ public interface IBoard {
      */
     IPiece getPiece(Position pos);
 
+    /**
+     * Visits every occupied square, including squares of captured pieces not yet replaced.
+     * The visitor must not change the board.
+     * @param visitor Called per occupied square
+     */
+    void forEachPiece(ICellVisitor visitor);
+
+    /**
+     * Visits the occupied squares within a rectangle; bounds outside the board are clipped.
+     * The visitor must not change the board.
+     * @param fromRow First row, inclusive
+     * @param fromCol First column, inclusive
+     * @param toRow Last row, exclusive
+     * @param toCol Last column, exclusive
+     * @param visitor Called per occupied square
+     */
+    void forEachPiece(int fromRow, int fromCol, int toRow, int toCol, ICellVisitor visitor);
+
     /**
      * Returns the player index for a given row.
      * @param row The row index
@@ -132,9 +152,41 @@ public interface IBoard {
      */
     int getCOLS();
 
+    /**
+     * Returns the Zobrist hash of the current board, updated incrementally on moves,
+     * jumps, state changes and captures.
+     * @return The board hash
+     */
+    long getHash();
+
     /**
      * Returns the board configuration.
      * @return BoardConfig object
      */
     BoardConfig getBoardConfig();
+
+    /**
+     * Registers a listener notified of captures and piece state changes.
+     * @param listener The listener
+     */
+    void addListener(IBoardListener listener);
+
+    /**
+     * Removes a listener added with {@link #addListener}.
+     * @param listener The listener
+     */
+    void removeListener(IBoardListener listener);
+
+    /**
+     * Writes the full board state: pieces, states, timers, animation frames, captures and the grid.
+     * @param out The buffer to write to
+     */
+    void snapshot(ByteBuffer out);
+
+    /**
+     * Restores a state written by {@link #snapshot} onto a board with the same setup.
+     * @param in The buffer to read from
+     * @throws IllegalArgumentException if the data does not fit this board
+     */
+    void restore(ByteBuffer in);
 }
@@ -0,0 +1,51 @@
+package interfaces;
+
+/**
+ * Storage mapping board squares to the pieces standing on them.
+ * Implementations trade lookup speed against memory: a dense array costs the board area,
+ * a sparse table costs the number of pieces.
+ */
+public interface IBoardGrid {
+
+    /**
+     * Gets the piece on a square.
+     * @param row The row index, in bounds
+     * @param col The column index, in bounds
+     * @return The piece or null
+     */
+    IPiece get(int row, int col);
+
+    /**
+     * Stores a piece on a square, replacing any other.
+     * @param row The row index, in bounds
+     * @param col The column index, in bounds
+     * @param piece The piece, or null to empty the square
+     */
+    void set(int row, int col, IPiece piece);
+
+    /**
+     * Returns the number of occupied squares.
+     */
+    int size();
+
+    /**
+     * Empties every square.
+     */
+    void clear();
+
+    /**
+     * Visits every occupied square. The visitor may empty squares, but must not fill any.
+     * @param visitor Called per occupied square
+     */
+    void forEach(ICellVisitor visitor);
+
+    /**
+     * Visits the occupied squares within a rectangle. The visitor may empty squares, but must not fill any.
+     * @param fromRow First row, inclusive
+     * @param fromCol First column, inclusive
+     * @param toRow Last row, exclusive
+     * @param toCol Last column, exclusive
+     * @param visitor Called per occupied square
+     */
+    void forEach(int fromRow, int fromCol, int toRow, int toCol, ICellVisitor visitor);
+}
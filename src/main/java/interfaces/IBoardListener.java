@@ -0,0 +1,21 @@
+package interfaces;
+
+/**
+ * Listener notified by the board of captures and piece state changes, on the thread that updates the board.
+ * Implementations should return quickly.
+ */
+public interface IBoardListener {
+    /**
+     * Called once when a piece is captured.
+     * @param piece The captured piece, still at the square it was taken on
+     */
+    void onCapture(IPiece piece);
+
+    /**
+     * Called when a piece enters a new state.
+     * @param piece The piece
+     * @param from The previous state
+     * @param to The new state
+     */
+    void onStateChanged(IPiece piece, EState from, EState to);
+}
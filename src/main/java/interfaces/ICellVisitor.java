@@ -0,0 +1,14 @@
+package interfaces;
+
+/**
+ * Callback for the occupied squares of a board, see {@link IBoardGrid#forEach}.
+ */
+public interface ICellVisitor {
+    /**
+     * Called once per occupied square.
+     * @param row The row of the square
+     * @param col The column of the square
+     * @param piece The piece stored on the square
+     */
+    void visit(int row, int col, IPiece piece);
+}
@@ -0,0 +1,12 @@
+package interfaces;
+
+/**
+ * Source of time for the simulation (physics, animation and state timing).
+ */
+public interface IClock {
+    /**
+     * Gets the current time in nanoseconds.
+     * @return The current time in nanoseconds
+     */
+    long nanoTime();
+}
@@ -28,6 +28,12 @@ public interface IGame {
      */
     IPlayer getPlayer2();
 
+    /**
+     * Gets every player, indexed by player id.
+     * @return The players; must not be modified
+     */
+    IPlayer[] getPlayers();
+
     /**
      * Gets the game board.
      * @return The board instance
@@ -41,8 +47,26 @@ public interface IGame {
     void handleSelection(IPlayer player);
 
     /**
-     * Returns the winner: 0 for player 1, 1 for player 2, -1 if no winner yet.
-     * @return The winner's player index, or -1 if no winner
+     * Returns the winner: the last player who has not failed.
+     * @return The winner, or null while two or more players remain
      */
     IPlayer win();
+
+    /**
+     * Registers a listener called after every update.
+     * @param listener The listener
+     */
+    void addListener(IGameListener listener);
+
+    /**
+     * Removes a listener added with {@link #addListener(IGameListener)}.
+     * @param listener The listener
+     */
+    void removeListener(IGameListener listener);
+
+    /**
+     * Gets the number of updates performed so far.
+     * @return The tick of the next update
+     */
+    long getTick();
 }
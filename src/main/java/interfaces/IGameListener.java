@@ -0,0 +1,23 @@
+package interfaces;
+
+/**
+ * Listener notified by the game of queued commands and once per update, on the thread that runs the game.
+ * Implementations should return quickly and hand heavy work to another thread.
+ */
+public interface IGameListener {
+    /**
+     * Called at the end of {@link IGame#update()}, after the queued commands ran.
+     * @param game The game
+     * @param tick Number of updates before this one
+     */
+    void onUpdate(IGame game, long tick);
+
+    /**
+     * Called when a command is queued; it runs in the update with the given tick.
+     * @param game The game
+     * @param tick Tick of the update that executes the command
+     * @param command The command
+     */
+    default void onCommand(IGame game, long tick, ICommand command) {
+    }
+}
@@ -56,4 +56,17 @@ public interface IGraphicsData {
      * @return The current frame as BufferedImage
      */
     BufferedImage getCurrentFrame();
+
+    /**
+     * Gets the clock time the current frame was shown at.
+     * @return The time in nanoseconds
+     */
+    long getLastFrameTimeNanos();
+
+    /**
+     * Puts the animation back at a saved frame.
+     * @param frame The frame index
+     * @param lastFrameTimeNanos The clock time the frame was shown at
+     */
+    void restore(int frame, long lastFrameTimeNanos);
 }
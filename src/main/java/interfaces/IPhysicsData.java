@@ -62,4 +62,23 @@ public interface IPhysicsData {
      * @return The Y position
      */
     double getCurrentY();
+
+    /**
+     * Gets the position the current movement started from.
+     * @return The start position
+     */
+    Position getStartPos();
+
+    /**
+     * Gets the clock time the current movement started at.
+     * @return The start time in nanoseconds
+     */
+    long getStartTimeNanos();
+
+    /**
+     * Overrides the current pixel position, used when restoring a saved board.
+     * @param x The X position
+     * @param y The Y position
+     */
+    void setCurrentPosition(double x, double y);
 }
@@ -18,7 +18,7 @@ public interface IPiece {
     int getPlayer();
 
     /**
-     * Gets the unique ID of the piece.
+     * Gets the unique ID of the piece, for display.
      * @return The piece ID
      */
     String getId();
@@ -109,4 +109,11 @@ public interface IPiece {
      * @return true if can move over, false otherwise
      */
     boolean canMoveOver();
+
+    /**
+     * Sets the current state and logical position without starting a new action, used when restoring a saved board.
+     * @param state The state to make current
+     * @param pos The logical position
+     */
+    void restore(EState state, Position pos);
 }
@@ -0,0 +1,14 @@
+package interfaces;
+
+/**
+ * Listener notified while a long task, such as loading the game assets, makes progress.
+ * Called on the worker threads; implementations that touch Swing must hand over to the EDT.
+ */
+public interface IProgressListener {
+    /**
+     * Called after each finished unit of work.
+     * @param done Units finished so far
+     * @param total Units in the whole task
+     */
+    void onProgress(int done, int total);
+}
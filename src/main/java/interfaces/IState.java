@@ -88,4 +88,19 @@ public interface IState {
      * @return The graphics data
      */
     IGraphicsData getGraphics();
+
+    /**
+     * Gets the clock time the current action started at.
+     * @return The start time in nanoseconds
+     */
+    long getStartTimeNanos();
+
+    /**
+     * Puts the state back into a saved action, resetting physics to its start and the animation to its first frame.
+     * @param start The logical start position
+     * @param physicsStart The position the movement started from
+     * @param target The target position
+     * @param startTimeNanos The clock time the action started at
+     */
+    void restore(Position start, Position physicsStart, Position target, long startTimeNanos);
 }
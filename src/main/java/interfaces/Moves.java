@@ -49,6 +49,8 @@ public class Moves {
     }
 
     private final List<Move> moves;
+    /** The same moves packed as (dx, dy) pairs for allocation-free iteration. */
+    private final int[] deltas;
 
     /**
      * Gets the list of legal moves.
@@ -58,6 +60,25 @@ public class Moves {
         return moves;
     }
 
+    /**
+     * Gets the legal moves packed as consecutive (dx, dy) pairs.
+     * @return Array of length 2 * number of moves; must not be modified
+     */
+    public int[] getDeltas() {
+        return deltas;
+    }
+
+    /**
+     * Creates moves from packed (dx, dy) pairs, as stored in the asset pack.
+     * @param deltas The moves packed as consecutive (dx, dy) pairs
+     */
+    public Moves(int[] deltas) {
+        this.deltas = deltas.clone();
+        this.moves = new ArrayList<>(deltas.length / 2);
+        for (int i = 0; i < deltas.length; i += 2)
+            moves.add(new Move(deltas[i], deltas[i + 1]));
+    }
+
     /**
      * Loads moves for a piece type from a resource file.
      * @param pieceType The type of the piece
@@ -84,5 +105,11 @@ public class Moves {
                 }
             }
         }
+
+        deltas = new int[moves.size() * 2];
+        for (int i = 0; i < moves.size(); i++) {
+            deltas[2 * i] = moves.get(i).getDx();
+            deltas[2 * i + 1] = moves.get(i).getDy();
+        }
     }
 }
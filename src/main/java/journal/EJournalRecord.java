@@ -0,0 +1,34 @@
+package journal;
+
+/**
+ * Record types of a game journal. On disk a record starts with {@link #code()}; a zero byte ends the journal.
+ */
+public enum EJournalRecord {
+    /** A move command was queued: player, from square, to square. */
+    MOVE,
+    /** A jump command was queued: player, square. */
+    JUMP,
+    /** A piece was captured: piece id, square. */
+    CAPTURE,
+    /** A piece entered a new state: piece id, state. */
+    STATE,
+    /** The game was won: winner. */
+    WIN;
+
+    private static final EJournalRecord[] VALUES = values();
+
+    /**
+     * Gets the type byte written to the journal.
+     */
+    public int code() {
+        return ordinal() + 1;
+    }
+
+    /**
+     * Gets the type for a type byte.
+     * @return The type, or null for 0 (end of journal) and unknown codes
+     */
+    public static EJournalRecord of(int code) {
+        return code >= 1 && code <= VALUES.length ? VALUES[code - 1] : null;
+    }
+}
@@ -0,0 +1,337 @@
+package journal;
+
+import command.JumpCommand;
+import command.MoveCommand;
+import interfaces.EState;
+import interfaces.IBoard;
+import interfaces.IBoardListener;
+import interfaces.ICommand;
+import interfaces.IGame;
+import interfaces.IGameListener;
+import interfaces.IPiece;
+import interfaces.IPlayer;
+import pieces.Position;
+import utils.Varint;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Append-only binary journal of one game, written through a memory-mapped file.
+ * <p>
+ * Every queued {@link MoveCommand} and {@link JumpCommand}, every capture, every piece state change
+ * and the win are appended as tick-stamped records. Appending is a few buffer puts on the game thread;
+ * flushing the written pages to disk happens every {@code syncTicks} ticks on a background thread,
+ * so a crash of the JVM loses nothing and a crash of the machine loses at most the last batch.
+ * <p>
+ * Layout: a {@value #HEADER_BYTES} byte header (magic, version, rows, cols, first tick) followed by records
+ * {@code [u8 type][varint tick delta][payload]}, see {@link EJournalRecord}. Squares are
+ * {@code row * cols + col}, piece ids number all players' pieces in order, as in network snapshots.
+ * Read it back with {@link JournalReader}.
+ */
+public class GameJournal implements IGameListener, IBoardListener, Closeable {
+    public static final int MAGIC = 0x4B464A31;
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 24;
+    /** File extension of journals. */
+    public static final String SUFFIX = ".journal";
+    /** Bytes mapped at a time; the file grows by this much when a segment fills. */
+    public static final int DEFAULT_SEGMENT_BYTES = 1 << 20;
+    /** Ticks between two flushes, about one second at the 16ms tick. */
+    public static final int DEFAULT_SYNC_TICKS = 64;
+    /** Upper bound of one encoded record. */
+    static final int MAX_RECORD = 32;
+
+    private static final class SyncThread {
+        static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "journal-sync");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private final IGame game;
+    private final IBoard board;
+    private final int cols;
+    private final FileChannel channel;
+    private final int segmentBytes;
+    private final int syncTicks;
+    private final Executor syncExecutor;
+    private final Map<IPiece, Integer> ids = new IdentityHashMap<>();
+
+    private MappedByteBuffer segment;
+    /** File offset of the current segment. */
+    private long segmentStart;
+    /** File offset up to which a flush was requested. */
+    private long syncRequested;
+    private long lastSyncTick;
+    private long lastTick;
+    private boolean won;
+    private long records;
+    /** Flushes run one after another, in order, whatever the executor. */
+    private CompletableFuture<Void> syncs = CompletableFuture.completedFuture(null);
+
+    /**
+     * Creates a journal flushed by the shared journal thread.
+     * @param file The journal file, replaced if it exists
+     * @param game The game to record
+     */
+    public GameJournal(Path file, IGame game) throws IOException {
+        this(file, game, DEFAULT_SEGMENT_BYTES, DEFAULT_SYNC_TICKS, SyncThread.EXECUTOR);
+    }
+
+    /**
+     * Creates a journal.
+     * @param file The journal file, replaced if it exists
+     * @param game The game to record
+     * @param segmentBytes Bytes mapped at a time
+     * @param syncTicks Ticks between two flushes
+     * @param syncExecutor Runs the flushes
+     */
+    public GameJournal(Path file, IGame game, int segmentBytes, int syncTicks, Executor syncExecutor) throws IOException {
+        this(game, segmentBytes, syncTicks, syncExecutor, FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE), 0, game.getTick());
+        segment.putInt(MAGIC).putShort((short) VERSION).putShort((short) board.getROWS()).putShort((short) cols);
+        segment.putShort((short) 0).putLong(lastTick);
+        segment.position(HEADER_BYTES);
+    }
+
+    private GameJournal(IGame game, int segmentBytes, int syncTicks, Executor syncExecutor,
+                        FileChannel channel, long offset, long lastTick) throws IOException {
+        if (segmentBytes < HEADER_BYTES + MAX_RECORD)
+            throw new IllegalArgumentException("Segment too small: " + segmentBytes);
+        this.game = game;
+        this.board = game.getBoard();
+        this.cols = board.getCOLS();
+        this.segmentBytes = segmentBytes;
+        this.syncTicks = syncTicks;
+        this.syncExecutor = syncExecutor;
+        this.lastTick = lastTick;
+        this.lastSyncTick = game.getTick();
+
+        int id = 0;
+        for (IPlayer player : board.getPlayers())
+            for (IPiece piece : player.getPieces())
+                ids.put(piece, id++);
+
+        this.channel = channel;
+        this.segmentStart = offset;
+        this.syncRequested = offset;
+        this.segment = channel.map(FileChannel.MapMode.READ_WRITE, offset, segmentBytes);
+    }
+
+    /**
+     * Reopens an existing journal to continue it from a record boundary, typically the one a checkpoint was
+     * taken at. A damaged tail is cut off; the records after {@code offset} are written over, so a game
+     * replayed from the checkpoint rewrites its own history byte for byte and then carries on.
+     * @param file The journal file
+     * @param game The game, restored to the state it had when the journal was at {@code offset}
+     * @param offset File offset of the first record to write
+     * @return The journal, not yet started
+     * @throws IOException if the file is not a journal or {@code offset} is not a record boundary
+     */
+    public static GameJournal reopen(Path file, IGame game, long offset) throws IOException {
+        long lastTick;
+        long records = 0;
+        boolean won = false;
+        int end;
+        try (JournalReader in = new JournalReader(file)) {
+            lastTick = in.getStartTick();
+            while (in.position() < offset && in.next()) {
+                lastTick = in.getTick();
+                won |= in.getType() == EJournalRecord.WIN;
+                records++;
+            }
+            if (in.position() != offset)
+                throw new IOException("No record at offset " + offset + ": " + file);
+            while (in.next())
+                ;
+            end = in.position();
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.truncate(end);
+        GameJournal journal = new GameJournal(game, DEFAULT_SEGMENT_BYTES, DEFAULT_SYNC_TICKS, SyncThread.EXECUTOR,
+                channel, offset, lastTick);
+        journal.records = records;
+        journal.won = won;
+        return journal;
+    }
+
+    /**
+     * Starts recording the game's commands and board events.
+     */
+    public void start() {
+        game.addListener(this);
+        board.addListener(this);
+    }
+
+    @Override
+    public void onCommand(IGame g, long tick, ICommand command) {
+        if (command instanceof MoveCommand) {
+            MoveCommand move = (MoveCommand) command;
+            begin(EJournalRecord.MOVE, tick);
+            Varint.writeSignedInt(segment, ownerAt(move.getFrom()));
+            Varint.writeInt(segment, square(move.getFrom().getRow(), move.getFrom().getCol()));
+            Varint.writeInt(segment, square(move.getTo().getRow(), move.getTo().getCol()));
+        } else if (command instanceof JumpCommand) {
+            IPiece piece = ((JumpCommand) command).getPiece();
+            if (piece == null)
+                return;
+            begin(EJournalRecord.JUMP, tick);
+            Varint.writeSignedInt(segment, board.getPlayerOf(piece));
+            Varint.writeInt(segment, square(piece.getRow(), piece.getCol()));
+        }
+    }
+
+    @Override
+    public void onCapture(IPiece piece) {
+        begin(EJournalRecord.CAPTURE, game.getTick());
+        Varint.writeInt(segment, ids.getOrDefault(piece, -1));
+        Varint.writeInt(segment, square(piece.getRow(), piece.getCol()));
+        checkWin(game.getTick());
+    }
+
+    @Override
+    public void onStateChanged(IPiece piece, EState from, EState to) {
+        begin(EJournalRecord.STATE, game.getTick());
+        Varint.writeInt(segment, ids.getOrDefault(piece, -1));
+        segment.put((byte) to.ordinal());
+    }
+
+    @Override
+    public void onUpdate(IGame g, long tick) {
+        checkWin(tick);
+        if (tick - lastSyncTick >= syncTicks) {
+            lastSyncTick = tick;
+            requestSync();
+        }
+    }
+
+    /**
+     * Records the win once, right after the capture that decided it.
+     */
+    private void checkWin(long tick) {
+        if (won)
+            return;
+        IPlayer winner = game.win();
+        if (winner != null) {
+            won = true;
+            begin(EJournalRecord.WIN, tick);
+            Varint.writeSignedInt(segment, winner.getId());
+        }
+    }
+
+    private int ownerAt(Position pos) {
+        IPiece piece = board.getPiece(pos);
+        return piece == null ? -1 : board.getPlayerOf(piece);
+    }
+
+    private int square(int row, int col) {
+        return row * cols + col;
+    }
+
+    /**
+     * Makes room for a record and writes its type and tick.
+     */
+    private void begin(EJournalRecord type, long tick) {
+        if (segment.remaining() < MAX_RECORD)
+            nextSegment();
+        segment.put((byte) type.code());
+        Varint.writeLong(segment, tick - lastTick);
+        lastTick = tick;
+        records++;
+    }
+
+    /**
+     * Flushes the full segment in the background and maps the next one right after the written bytes.
+     */
+    private void nextSegment() {
+        requestSync();
+        segmentStart += segment.position();
+        try {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, segmentStart, segmentBytes);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot extend journal", e);
+        }
+    }
+
+    /**
+     * Queues a flush of everything written since the last request.
+     */
+    private void requestSync() {
+        long end = segmentStart + segment.position();
+        if (end <= syncRequested)
+            return;
+        MappedByteBuffer buf = segment;
+        int from = (int) Math.max(0, syncRequested - segmentStart);
+        int length = segment.position() - from;
+        syncRequested = end;
+        syncs = syncs.thenRunAsync(() -> buf.force(from, length), syncExecutor);
+    }
+
+    /**
+     * Gets the number of records written.
+     */
+    public long getRecordCount() {
+        return records;
+    }
+
+    /**
+     * Gets the journal length in bytes.
+     */
+    public long size() {
+        return segmentStart + segment.position();
+    }
+
+    /**
+     * Drops whatever follows the last record written, such as records of a reopened journal that were not
+     * written again. The file keeps its length up to the end of the mapped segment.
+     */
+    public void discardTail() throws IOException {
+        for (int i = segment.position(); i < segment.limit(); i++)
+            segment.put(i, (byte) 0);
+        if (channel.size() > segmentStart + segmentBytes)
+            channel.truncate(segmentStart + segmentBytes);
+    }
+
+    /**
+     * Runs an action on the sync thread once everything written so far is on disk.
+     * @param action The action
+     * @return Completes after the action
+     */
+    public CompletableFuture<Void> afterSync(Runnable action) {
+        requestSync();
+        syncs = syncs.thenRunAsync(action, syncExecutor);
+        return syncs;
+    }
+
+    /**
+     * Waits until everything written so far is on disk.
+     */
+    public void sync() {
+        requestSync();
+        syncs.join();
+    }
+
+    /**
+     * Stops recording, flushes, and trims the file to the written bytes.
+     */
+    @Override
+    public void close() throws IOException {
+        game.removeListener(this);
+        board.removeListener(this);
+        sync();
+        channel.truncate(size());
+        channel.close();
+    }
+}
@@ -0,0 +1,209 @@
+package journal;
+
+import interfaces.EState;
+import utils.Varint;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Sequential reader of a {@link GameJournal} file, including one still being written or cut short by a crash:
+ * reading stops at the first zero byte or at a record that runs past the end of the file.
+ * <p>
+ * {@link #next()} decodes one record into this reader; the getters describe the current record.
+ */
+public class JournalReader implements Closeable {
+    private static final EState[] STATES = EState.values();
+
+    private final FileChannel channel;
+    private final MappedByteBuffer in;
+    private final int rows;
+    private final int cols;
+    private final long startTick;
+
+    private EJournalRecord type;
+    private long tick;
+    private int player;
+    private int from;
+    private int to;
+    private int pieceId;
+    private EState state;
+    private boolean truncated;
+
+    /**
+     * Opens a journal.
+     * @param file The journal file
+     * @throws IOException if the file cannot be read or is not a journal
+     */
+    public JournalReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        if (in.limit() < GameJournal.HEADER_BYTES || in.getInt() != GameJournal.MAGIC) {
+            channel.close();
+            throw new IOException("Not a game journal: " + file);
+        }
+        int version = in.getShort();
+        if (version != GameJournal.VERSION) {
+            channel.close();
+            throw new IOException("Unsupported journal version " + version + ": " + file);
+        }
+        this.rows = in.getShort();
+        this.cols = in.getShort();
+        in.getShort();
+        this.startTick = in.getLong();
+        this.tick = startTick;
+        in.position(GameJournal.HEADER_BYTES);
+    }
+
+    /**
+     * Reads the next record.
+     * @return false at the end of the journal
+     */
+    public boolean next() {
+        if (!in.hasRemaining())
+            return false;
+        int start = in.position();
+        EJournalRecord t = EJournalRecord.of(in.get());
+        if (t == null) {
+            truncated = in.get(start) != 0;
+            in.position(start);
+            return false;
+        }
+        try {
+            long time = tick + Varint.readLong(in);
+            switch (t) {
+                case MOVE:
+                    player = Varint.readSignedInt(in);
+                    from = Varint.readInt(in);
+                    to = Varint.readInt(in);
+                    break;
+                case JUMP:
+                    player = Varint.readSignedInt(in);
+                    from = to = Varint.readInt(in);
+                    break;
+                case CAPTURE:
+                    pieceId = Varint.readInt(in);
+                    from = to = Varint.readInt(in);
+                    break;
+                case STATE:
+                    pieceId = Varint.readInt(in);
+                    int s = in.get();
+                    if (s < 0 || s >= STATES.length)
+                        throw new IllegalArgumentException("Bad state " + s);
+                    state = STATES[s];
+                    break;
+                case WIN:
+                    player = Varint.readSignedInt(in);
+                    break;
+            }
+            tick = time;
+            type = t;
+            return true;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            truncated = true;
+            in.position(start);
+            return false;
+        }
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Gets the game tick the journal was started at.
+     */
+    public long getStartTick() {
+        return startTick;
+    }
+
+    public EJournalRecord getType() {
+        return type;
+    }
+
+    /**
+     * Gets the tick of the current record. Commands run in the update with this tick.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Gets the player of a MOVE or JUMP (-1 if unknown), or the winner of a WIN.
+     */
+    public int getPlayer() {
+        return player;
+    }
+
+    /**
+     * Gets the start square of a MOVE, or the square of a JUMP or CAPTURE.
+     */
+    public int getFrom() {
+        return from;
+    }
+
+    /**
+     * Gets the target square of a MOVE (the square itself for JUMP and CAPTURE).
+     */
+    public int getTo() {
+        return to;
+    }
+
+    public int getFromRow() {
+        return from / cols;
+    }
+
+    public int getFromCol() {
+        return from % cols;
+    }
+
+    public int getToRow() {
+        return to / cols;
+    }
+
+    public int getToCol() {
+        return to % cols;
+    }
+
+    /**
+     * Gets the piece of a CAPTURE or STATE record.
+     */
+    public int getPieceId() {
+        return pieceId;
+    }
+
+    /**
+     * Gets the new state of a STATE record.
+     */
+    public EState getState() {
+        return state;
+    }
+
+    /**
+     * Returns true if reading stopped at a damaged or half written record rather than the clean end.
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Gets the offset just past the last record read.
+     */
+    public int position() {
+        return in.position();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,221 @@
+package migration;
+
+import command.JumpCommand;
+import command.MoveCommand;
+import interfaces.IBoard;
+import interfaces.ICommand;
+import interfaces.IPiece;
+import interfaces.IPlayer;
+import interfaces.IPlayerCursor;
+import pieces.Position;
+import simulation.HeadlessGame;
+import simulation.ICommandGenerator;
+import utils.Varint;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything needed to continue a running game elsewhere: the tick length, a checkpoint of the tick
+ * and board, the commands queued for the next update, and per player its name, whether a bot drives it,
+ * its cursor and its half-made selection.
+ * <p>
+ * Capture it between two ticks; {@link #resume} builds a game that continues from exactly that tick.
+ * Layout: {@code [int magic][u8 version][varlong tick ms][varint n][checkpoint][varint n]{command}[varint n]{player}},
+ * commands as {@code [u8 1][from][to]} for a move or {@code [u8 2][square]} for a jump.
+ */
+public final class GameImage {
+    public static final int MAGIC = 0x4B464D31;
+    public static final int VERSION = 1;
+    private static final int MOVE = 1;
+    private static final int JUMP = 2;
+
+    private final long tickMillis;
+    private final byte[] checkpoint;
+    /** Queued commands as {type, from, to} squares. */
+    private final List<int[]> commands;
+    private final List<Binding> players;
+
+    private GameImage(long tickMillis, byte[] checkpoint, List<int[]> commands, List<Binding> players) {
+        this.tickMillis = tickMillis;
+        this.checkpoint = checkpoint;
+        this.commands = commands;
+        this.players = players;
+    }
+
+    /**
+     * Freezes a game. Call it from the thread that steps the game, between two steps.
+     * @param game The game
+     * @param bots Which players are driven by a bot
+     * @return The image
+     */
+    public static GameImage capture(HeadlessGame game, boolean[] bots) {
+        IBoard board = game.getGame().getBoard();
+        int cols = board.getCOLS();
+        List<int[]> commands = new ArrayList<>();
+        for (ICommand cmd : game.getGame().getQueuedCommands()) {
+            if (cmd instanceof MoveCommand) {
+                MoveCommand m = (MoveCommand) cmd;
+                commands.add(new int[]{ MOVE, square(m.getFrom(), cols), square(m.getTo(), cols) });
+            } else if (cmd instanceof JumpCommand) {
+                IPiece p = ((JumpCommand) cmd).getPiece();
+                if (p != null)
+                    commands.add(new int[]{ JUMP, p.getRow() * cols + p.getCol(), 0 });
+            }
+        }
+
+        List<Binding> players = new ArrayList<>();
+        IPlayer[] all = board.getPlayers();
+        for (int i = 0; i < all.length; i++) {
+            IPlayer p = all[i];
+            Position pending = p.getPendingFrom();
+            players.add(new Binding(p.getName(), i < bots.length && bots[i],
+                    p.getCursor().getRow() * cols + p.getCursor().getCol(), pending == null ? -1 : square(pending, cols)));
+        }
+        return new GameImage(game.getTickMillis(), game.checkpoint(), commands, players);
+    }
+
+    private static int square(Position p, int cols) {
+        return p.getRow() * cols + p.getCol();
+    }
+
+    /**
+     * Builds a game continuing from the image.
+     * @param gen0 Generator for player 0
+     * @param gen1 Generator for player 1
+     * @return The game, at the image's tick with its commands queued
+     */
+    public HeadlessGame resume(ICommandGenerator gen0, ICommandGenerator gen1) {
+        HeadlessGame game = new HeadlessGame(gen0, gen1, tickMillis);
+        game.restore(checkpoint);
+        IBoard board = game.getGame().getBoard();
+        int cols = board.getCOLS();
+        for (int[] c : commands) {
+            Position from = new Position(c[1] / cols, c[1] % cols);
+            if (c[0] == MOVE)
+                game.getGame().addCommand(new MoveCommand(from, new Position(c[2] / cols, c[2] % cols), board));
+            else
+                game.getGame().addCommand(new JumpCommand(board.getPiece(from), board));
+        }
+        IPlayer[] all = board.getPlayers();
+        for (int i = 0; i < all.length && i < players.size(); i++) {
+            Binding b = players.get(i);
+            moveCursor(all[i].getCursor(), b.cursor / cols, b.cursor % cols);
+            all[i].setPendingFrom(b.pending < 0 ? null : new Position(b.pending / cols, b.pending % cols));
+        }
+        return game;
+    }
+
+    private static void moveCursor(IPlayerCursor cursor, int row, int col) {
+        for (int i = cursor.getRow(); i < row; i++) cursor.moveDown();
+        for (int i = cursor.getRow(); i > row; i--) cursor.moveUp();
+        for (int i = cursor.getCol(); i < col; i++) cursor.moveRight();
+        for (int i = cursor.getCol(); i > col; i--) cursor.moveLeft();
+    }
+
+    /**
+     * Serializes the image.
+     */
+    public byte[] toBytes() {
+        int size = 32 + checkpoint.length + commands.size() * 11;
+        for (Binding b : players)
+            size += 16 + b.name.length() * 3;
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.putInt(MAGIC).put((byte) VERSION);
+        Varint.writeLong(out, tickMillis);
+        Varint.writeInt(out, checkpoint.length);
+        out.put(checkpoint);
+        Varint.writeInt(out, commands.size());
+        for (int[] c : commands) {
+            out.put((byte) c[0]);
+            Varint.writeInt(out, c[1]);
+            if (c[0] == MOVE)
+                Varint.writeInt(out, c[2]);
+        }
+        Varint.writeInt(out, players.size());
+        for (Binding b : players) {
+            byte[] name = b.name.getBytes(StandardCharsets.UTF_8);
+            Varint.writeInt(out, name.length);
+            out.put(name);
+            out.put((byte) (b.bot ? 1 : 0));
+            Varint.writeInt(out, b.cursor);
+            Varint.writeSignedInt(out, b.pending);
+        }
+        byte[] bytes = new byte[out.position()];
+        out.flip().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Reads an image written by {@link #toBytes()}.
+     * @throws IllegalArgumentException if the data is not an image
+     */
+    public static GameImage fromBytes(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        if (bytes.length < 5 || in.getInt() != MAGIC || in.get() != VERSION)
+            throw new IllegalArgumentException("Not a game image");
+        long tickMillis = Varint.readLong(in);
+        byte[] checkpoint = new byte[Varint.readInt(in)];
+        in.get(checkpoint);
+        int n = Varint.readInt(in);
+        List<int[]> commands = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int type = in.get();
+            if (type != MOVE && type != JUMP)
+                throw new IllegalArgumentException("Bad command type " + type);
+            int from = Varint.readInt(in);
+            commands.add(new int[]{ type, from, type == MOVE ? Varint.readInt(in) : 0 });
+        }
+        n = Varint.readInt(in);
+        List<Binding> players = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            byte[] name = new byte[Varint.readInt(in)];
+            in.get(name);
+            boolean bot = in.get() != 0;
+            players.add(new Binding(new String(name, StandardCharsets.UTF_8), bot, Varint.readInt(in), Varint.readSignedInt(in)));
+        }
+        return new GameImage(tickMillis, checkpoint, commands, players);
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * Gets the number of commands queued for the next update.
+     */
+    public int getQueuedCommandCount() {
+        return commands.size();
+    }
+
+    public int getPlayerCount() {
+        return players.size();
+    }
+
+    public String getPlayerName(int player) {
+        return players.get(player).name;
+    }
+
+    /**
+     * Returns true if a bot drove the player and should keep driving it.
+     */
+    public boolean isBot(int player) {
+        return players.get(player).bot;
+    }
+
+    private static final class Binding {
+        final String name;
+        final boolean bot;
+        final int cursor;
+        final int pending;
+
+        Binding(String name, boolean bot, int cursor, int pending) {
+            this.name = name;
+            this.bot = bot;
+            this.cursor = cursor;
+            this.pending = pending;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package migration;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+/**
+ * Hands a {@link GameImage} from the node being drained to its successor over TCP.
+ * <p>
+ * The sender writes {@code [int length][image]} and waits for a one byte acknowledgement, sent once the
+ * receiver has decoded the image. Only after that may the sender drop the game, so a failed transfer
+ * leaves it running where it was.
+ */
+public final class MigrationLink {
+    /** Largest image accepted. */
+    public static final int MAX_IMAGE = 1 << 20;
+    private static final int ACK = 0x06;
+
+    private MigrationLink() {
+    }
+
+    /**
+     * Sends an image and waits until the receiver has it.
+     * @param image The image
+     * @param host Receiver host
+     * @param port Receiver port
+     * @param timeoutMillis Connect and read timeout
+     * @throws IOException if the receiver did not acknowledge
+     */
+    public static void send(GameImage image, String host, int port, int timeoutMillis) throws IOException {
+        byte[] bytes = image.toBytes();
+        try (Socket s = new Socket()) {
+            s.connect(new InetSocketAddress(host, port), timeoutMillis);
+            s.setSoTimeout(timeoutMillis);
+            DataOutputStream out = new DataOutputStream(s.getOutputStream());
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            out.flush();
+            if (s.getInputStream().read() != ACK)
+                throw new IOException("Migration not acknowledged by " + host + ":" + port);
+        }
+    }
+
+    /**
+     * Accepts one image.
+     * @param server The listening socket
+     * @return The image, already acknowledged
+     * @throws IOException if the transfer failed or the data is not an image
+     */
+    public static GameImage receive(ServerSocket server) throws IOException {
+        try (Socket s = server.accept()) {
+            DataInputStream in = new DataInputStream(s.getInputStream());
+            int length = in.readInt();
+            if (length <= 0 || length > MAX_IMAGE)
+                throw new IOException("Bad image length " + length);
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            GameImage image;
+            try {
+                image = GameImage.fromBytes(bytes);
+            } catch (RuntimeException e) {
+                throw new IOException("Bad game image", e);
+            }
+            s.getOutputStream().write(ACK);
+            s.getOutputStream().flush();
+            return image;
+        }
+    }
+}
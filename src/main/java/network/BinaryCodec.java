@@ -0,0 +1,440 @@
+package network;
+
+import interfaces.EState;
+import interfaces.IBoard;
+import interfaces.IPiece;
+import interfaces.IPlayer;
+import pieces.EPieceType;
+import utils.Varint;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Compact binary protocol.
+ * <p>
+ * Client frames are {@code [u16 length][u8 type][payload]}, server frames {@code [u32 length][u8 type][payload]}
+ * so a full state of a board with any number of pieces fits in one frame. Squares are sent as the varint
+ * {@code row * cols + col}, a single byte on boards up to 128 squares. Client frames use the
+ * {@link EClientMessageType} ordinal as type; MOVE carries two squares, JUMP one.
+ * <p>
+ * {@link #WELCOME}: zigzag player id, rows, cols.<br>
+ * {@link #STATE}: varlong tick, zigzag winner, player count, then per player its id, the number
+ * of live pieces and per piece {@code [varint id][square][u8 type << 3 | state]}.
+ * Piece ids number the pieces of all players in list order, captured ones included, so they
+ * stay stable for the whole game.<br>
+ * {@link #DELTA}: varlong tick, zigzag base tick (-1 for a full state), zigzag winner, piece count,
+ * number of changed pieces, then per changed piece {@code [varint id][u8 mask]} and the fields
+ * named by the {@link SnapshotDelta} mask: square + 1 (0 once captured), type/state byte,
+ * zigzag x and y in {@link Snapshot#STEPS_PER_TILE} steps per tile, animation frame.
+ * {@link #INPUT}: varlong tick, count, then per command the zigzag player id and the command
+ * encoded like a client frame body.<br>
+ * ACK carries a zigzag varlong tick.
+ */
+public class BinaryCodec implements IWireCodec {
+    public static final byte WELCOME = 0x40;
+    public static final byte STATE = 0x41;
+    public static final byte DELTA = 0x42;
+    public static final byte INPUT = 0x43;
+    /** Upper bound on commands per INPUT frame accepted by clients. */
+    static final int MAX_INPUTS = 256;
+    /** Size of the length prefix of client frames. */
+    static final int HEADER = 2;
+    /** Size of the length prefix of server frames. */
+    static final int SERVER_HEADER = 4;
+    /** Client frames are a few bytes, anything bigger is rejected. */
+    static final int MAX_CLIENT_FRAME = 16;
+    /** Worst case size of the type, ticks, winner and counts that start a server frame. */
+    private static final int MAX_FRAME_START = 48;
+    /** Worst case size of one piece in a DELTA: id, mask, square, type/state, x, y and frame. */
+    private static final int MAX_DELTA_PIECE = 27;
+    /** Worst case size of one command in an INPUT frame. */
+    private static final int MAX_INPUT = 16;
+
+    private static final EClientMessageType[] CLIENT_TYPES = EClientMessageType.values();
+    private static final EPieceType[] PIECE_TYPES = EPieceType.values();
+    private static final EState[] STATES = EState.values();
+
+    private final int rows;
+    private final int cols;
+
+    /**
+     * @param rows Board rows, used to validate squares
+     * @param cols Board columns
+     */
+    public BinaryCodec(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    @Override
+    public ClientMessage decode(ByteBuffer in) {
+        int start = in.position();
+        if (in.remaining() < HEADER)
+            return null;
+        // Checked before waiting for the payload: a frame longer than the read buffer never completes
+        int length = in.getShort(start) & 0xFFFF;
+        if (length == 0 || length > MAX_CLIENT_FRAME)
+            throw new IllegalArgumentException("Bad client frame length " + length);
+        if (in.remaining() - HEADER < length)
+            return null;
+
+        int end = start + HEADER + length;
+        int limit = in.limit();
+        in.position(start + HEADER).limit(end);
+        try {
+            ClientMessage message = readMessage(in);
+            if (in.hasRemaining())
+                throw new IllegalArgumentException("Trailing bytes in client frame");
+            return message;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated client frame");
+        } finally {
+            in.limit(limit).position(end);
+        }
+    }
+
+    @Override
+    public void encode(ClientMessage message, ByteBuffer out) {
+        int start = begin(out);
+        writeMessage(message, out);
+        end(out, start);
+    }
+
+    private void writeMessage(ClientMessage message, ByteBuffer out) {
+        out.put((byte) message.getType().ordinal());
+        switch (message.getType()) {
+            case MOVE:
+                writeSquare(out, message.getFromRow(), message.getFromCol());
+                writeSquare(out, message.getToRow(), message.getToCol());
+                break;
+            case JUMP:
+                writeSquare(out, message.getFromRow(), message.getFromCol());
+                break;
+            case ACK:
+                Varint.writeSignedLong(out, message.getTick());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private ClientMessage readMessage(ByteBuffer in) {
+        int ordinal = in.get();
+        if (ordinal < 0 || ordinal >= CLIENT_TYPES.length)
+            throw new IllegalArgumentException("Unknown client message " + ordinal);
+        switch (CLIENT_TYPES[ordinal]) {
+            case MOVE: {
+                int from = readSquare(in);
+                int to = readSquare(in);
+                return ClientMessage.move(from / cols, from % cols, to / cols, to % cols);
+            }
+            case JUMP: {
+                int sq = readSquare(in);
+                return ClientMessage.jump(sq / cols, sq % cols);
+            }
+            case ACK:
+                return ClientMessage.ack(Varint.readSignedLong(in));
+            default:
+                return ClientMessage.cursor(CLIENT_TYPES[ordinal]);
+        }
+    }
+
+    @Override
+    public void encodeInputs(long tick, List<PlayerInput> inputs, ByteBuffer out) {
+        int start = beginServer(out);
+        out.put(INPUT);
+        Varint.writeLong(out, tick);
+        Varint.writeInt(out, inputs.size());
+        for (PlayerInput input : inputs) {
+            Varint.writeSignedInt(out, input.getPlayerId());
+            writeMessage(input.getMessage(), out);
+        }
+        endServer(out, start);
+    }
+
+    /**
+     * Bounds a DELTA carrying every piece, the largest frame, or an INPUT with {@link #MAX_INPUTS}
+     * commands, whichever is bigger.
+     */
+    @Override
+    public int maxFrameSize(IBoard board) {
+        long pieces = 0;
+        for (IPlayer player : board.getPlayers())
+            pieces += player.getPieces().size();
+        long payload = MAX_FRAME_START + Math.max(pieces * MAX_DELTA_PIECE, (long) MAX_INPUTS * MAX_INPUT);
+        return (int) Math.min(Integer.MAX_VALUE, SERVER_HEADER + payload);
+    }
+
+    @Override
+    public void encodeWelcome(int playerId, IBoard board, ByteBuffer out) {
+        int start = beginServer(out);
+        out.put(WELCOME);
+        Varint.writeSignedInt(out, playerId);
+        Varint.writeInt(out, board.getROWS());
+        Varint.writeInt(out, board.getCOLS());
+        endServer(out, start);
+    }
+
+    @Override
+    public void encodeState(IBoard board, long tick, int winner, ByteBuffer out) {
+        int start = beginServer(out);
+        out.put(STATE);
+        Varint.writeLong(out, tick);
+        Varint.writeSignedInt(out, winner);
+        IPlayer[] players = board.getPlayers();
+        Varint.writeInt(out, players.length);
+        int id = 0;
+        for (IPlayer player : players) {
+            Varint.writeInt(out, player.getId());
+            int live = 0;
+            for (IPiece p : player.getPieces())
+                if (!p.isCaptured())
+                    live++;
+            Varint.writeInt(out, live);
+            for (IPiece p : player.getPieces()) {
+                if (!p.isCaptured()) {
+                    Varint.writeInt(out, id);
+                    writeSquare(out, p.getRow(), p.getCol());
+                    out.put((byte) (p.getType().ordinal() << 3 | p.getCurrentStateName().ordinal()));
+                }
+                id++;
+            }
+        }
+        endServer(out, start);
+    }
+
+    @Override
+    public void encodeDelta(Snapshot base, Snapshot current, ByteBuffer out) {
+        Snapshot from = base == null ? Snapshot.empty(current.cols, current.getPieceCount()) : base;
+        int pieces = current.getPieceCount();
+        int changed = 0;
+        for (int id = 0; id < pieces; id++)
+            if (SnapshotDelta.mask(from, current, id) != 0)
+                changed++;
+
+        int start = beginServer(out);
+        out.put(DELTA);
+        Varint.writeLong(out, current.tick);
+        Varint.writeSignedLong(out, from.tick);
+        Varint.writeSignedInt(out, current.winner);
+        Varint.writeInt(out, pieces);
+        Varint.writeInt(out, changed);
+        for (int id = 0; id < pieces; id++) {
+            int mask = SnapshotDelta.mask(from, current, id);
+            if (mask == 0)
+                continue;
+            Varint.writeInt(out, id);
+            out.put((byte) mask);
+            if ((mask & SnapshotDelta.SQUARE) != 0)
+                Varint.writeInt(out, current.square[id] + 1);
+            if ((mask & SnapshotDelta.TYPE_STATE) != 0)
+                out.put((byte) current.typeState[id]);
+            if ((mask & SnapshotDelta.POSITION) != 0) {
+                Varint.writeSignedInt(out, current.x[id]);
+                Varint.writeSignedInt(out, current.y[id]);
+            }
+            if ((mask & SnapshotDelta.FRAME) != 0)
+                Varint.writeInt(out, current.frame[id]);
+        }
+        endServer(out, start);
+    }
+
+    /**
+     * Decodes one server frame without delta support, see {@link #decodeServer(ByteBuffer, StateFrame, SnapshotHistory)}.
+     */
+    public int decodeServer(ByteBuffer in, StateFrame frame) {
+        return decodeServer(in, frame, null);
+    }
+
+    /**
+     * Decodes one server frame, the client side counterpart of the encoders.
+     * A WELCOME fills {@link StateFrame#playerId}, {@link StateFrame#boardRows} and {@link StateFrame#boardCols},
+     * a STATE replaces the pieces of the frame, an INPUT replaces {@link StateFrame#inputs}. A DELTA is applied to its baseline from the history;
+     * the result becomes {@link StateFrame#snapshot} and is added to the history. If the baseline is
+     * unknown, {@link StateFrame#desynced} is set instead.
+     * @param in Received bytes in read mode
+     * @param frame Frame to decode into
+     * @param history Snapshots received so far, needed for DELTA frames
+     * @return The frame type, or -1 if more bytes are needed
+     * @throws IllegalArgumentException if the bytes are not a valid frame
+     */
+    public int decodeServer(ByteBuffer in, StateFrame frame, SnapshotHistory history) {
+        int start = in.position();
+        int length = frameLength(in);
+        if (length < 0)
+            return -1;
+        if (length == 0)
+            throw new IllegalArgumentException("Empty frame");
+
+        int end = start + SERVER_HEADER + length;
+        int limit = in.limit();
+        in.position(start + SERVER_HEADER).limit(end);
+        try {
+            byte type = in.get();
+            if (type == WELCOME) {
+                frame.playerId = Varint.readSignedInt(in);
+                frame.boardRows = Varint.readInt(in);
+                frame.boardCols = Varint.readInt(in);
+            } else if (type == STATE) {
+                decodeState(in, frame);
+            } else if (type == INPUT) {
+                decodeInputs(in, frame);
+            } else if (type == DELTA) {
+                if (history == null)
+                    throw new IllegalArgumentException("Delta without snapshot history");
+                if (!decodeDelta(in, frame, history))
+                    return type;
+            } else {
+                throw new IllegalArgumentException("Unknown server message " + type);
+            }
+            if (in.hasRemaining())
+                throw new IllegalArgumentException("Trailing bytes in server frame");
+            return type;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated server frame");
+        } finally {
+            in.limit(limit).position(end);
+        }
+    }
+
+    private void decodeState(ByteBuffer in, StateFrame frame) {
+        frame.clear();
+        frame.tick = Varint.readLong(in);
+        frame.winner = Varint.readSignedInt(in);
+        int players = Varint.readInt(in);
+        for (int i = 0; i < players; i++) {
+            int owner = Varint.readInt(in);
+            int count = Varint.readInt(in);
+            if (count > rows * cols)
+                throw new IllegalArgumentException("Too many pieces: " + count);
+            for (int j = 0; j < count; j++) {
+                int id = Varint.readInt(in);
+                int sq = readSquare(in);
+                int packed = in.get() & 0xFF;
+                int type = packed >>> 3;
+                int state = packed & 7;
+                if (type >= PIECE_TYPES.length || state >= STATES.length)
+                    throw new IllegalArgumentException("Bad piece byte " + packed);
+                frame.add(id, owner, sq / cols, sq % cols, PIECE_TYPES[type], STATES[state]);
+            }
+        }
+    }
+
+    private void decodeInputs(ByteBuffer in, StateFrame frame) {
+        long tick = Varint.readLong(in);
+        int count = Varint.readInt(in);
+        if (count > MAX_INPUTS)
+            throw new IllegalArgumentException("Too many inputs: " + count);
+        frame.inputTick = tick;
+        frame.inputs.clear();
+        for (int i = 0; i < count; i++) {
+            int player = Varint.readSignedInt(in);
+            frame.inputs.add(new PlayerInput(tick, player, readMessage(in)));
+        }
+    }
+
+    /**
+     * Applies a delta to its baseline.
+     * @return false if the baseline is unknown (the rest of the frame is skipped)
+     */
+    private boolean decodeDelta(ByteBuffer in, StateFrame frame, SnapshotHistory history) {
+        long tick = Varint.readLong(in);
+        long baseTick = Varint.readSignedLong(in);
+        int winner = Varint.readSignedInt(in);
+        int pieces = Varint.readInt(in);
+        int changed = Varint.readInt(in);
+        if (pieces > rows * cols || changed > pieces)
+            throw new IllegalArgumentException("Bad piece count " + changed + "/" + pieces);
+
+        Snapshot base = baseTick < 0 ? Snapshot.empty(cols, pieces) : history.get(baseTick);
+        if (base == null) {
+            frame.desynced = true;
+            in.position(in.limit());
+            return false;
+        }
+        if (base.getPieceCount() != pieces)
+            throw new IllegalArgumentException("Piece count differs from baseline");
+
+        Snapshot s = new Snapshot(base, tick, winner);
+        for (int i = 0; i < changed; i++) {
+            int id = Varint.readInt(in);
+            if (id >= pieces)
+                throw new IllegalArgumentException("Bad piece id " + id);
+            int mask = in.get() & 0xFF;
+            if ((mask & SnapshotDelta.SQUARE) != 0) {
+                int sq = Varint.readInt(in) - 1;
+                if (sq < -1 || sq >= rows * cols)
+                    throw new IllegalArgumentException("Square out of range: " + sq);
+                if (sq < 0)
+                    s.clear(id);
+                else
+                    s.square[id] = sq;
+            }
+            if ((mask & SnapshotDelta.TYPE_STATE) != 0) {
+                int packed = in.get() & 0xFF;
+                if (packed >>> 3 >= PIECE_TYPES.length || (packed & 7) >= STATES.length)
+                    throw new IllegalArgumentException("Bad piece byte " + packed);
+                s.typeState[id] = packed;
+            }
+            if ((mask & SnapshotDelta.POSITION) != 0) {
+                s.x[id] = Varint.readSignedInt(in);
+                s.y[id] = Varint.readSignedInt(in);
+            }
+            if ((mask & SnapshotDelta.FRAME) != 0)
+                s.frame[id] = Varint.readInt(in);
+            if (s.square[id] >= 0 && s.typeState[id] < 0)
+                throw new IllegalArgumentException("Piece " + id + " without type");
+        }
+        history.put(s);
+        frame.snapshot = s;
+        frame.desynced = false;
+        return true;
+    }
+
+    /**
+     * Reads the length prefix of a server frame without consuming it.
+     * @return The payload length, or -1 if the frame is not complete yet
+     * @throws IllegalArgumentException if the length is negative
+     */
+    private static int frameLength(ByteBuffer in) {
+        if (in.remaining() < SERVER_HEADER)
+            return -1;
+        int length = in.getInt(in.position());
+        if (length < 0)
+            throw new IllegalArgumentException("Bad server frame length " + length);
+        return in.remaining() - SERVER_HEADER < length ? -1 : length;
+    }
+
+    private static int begin(ByteBuffer out) {
+        int start = out.position();
+        out.position(start + HEADER);
+        return start;
+    }
+
+    private static void end(ByteBuffer out, int start) {
+        out.putShort(start, (short) (out.position() - start - HEADER));
+    }
+
+    private static int beginServer(ByteBuffer out) {
+        int start = out.position();
+        out.position(start + SERVER_HEADER);
+        return start;
+    }
+
+    private static void endServer(ByteBuffer out, int start) {
+        out.putInt(start, out.position() - start - SERVER_HEADER);
+    }
+
+    private void writeSquare(ByteBuffer out, int row, int col) {
+        Varint.writeInt(out, row * cols + col);
+    }
+
+    private int readSquare(ByteBuffer in) {
+        int sq = Varint.readInt(in);
+        if (sq < 0 || sq >= rows * cols)
+            throw new IllegalArgumentException("Square out of range: " + sq);
+        return sq;
+    }
+}
@@ -0,0 +1,146 @@
+package network;
+
+import command.JumpCommand;
+import command.MoveCommand;
+import interfaces.IBoard;
+import interfaces.ICommand;
+import interfaces.IPiece;
+import pieces.Position;
+
+/**
+ * A decoded message from a remote client.
+ * Positions are only meaningful for {@link EClientMessageType#MOVE} (from and to)
+ * and {@link EClientMessageType#JUMP} (from); {@link EClientMessageType#ACK} carries a tick.
+ */
+public final class ClientMessage {
+    private final EClientMessageType type;
+    private final int fromRow;
+    private final int fromCol;
+    private final int toRow;
+    private final int toCol;
+    private final long tick;
+
+    private ClientMessage(EClientMessageType type, int fromRow, int fromCol, int toRow, int toCol, long tick) {
+        this.type = type;
+        this.fromRow = fromRow;
+        this.fromCol = fromCol;
+        this.toRow = toRow;
+        this.toCol = toCol;
+        this.tick = tick;
+    }
+
+    /**
+     * Creates a cursor message (UP, DOWN, LEFT, RIGHT or SELECT).
+     */
+    public static ClientMessage cursor(EClientMessageType type) {
+        if (type == EClientMessageType.MOVE || type == EClientMessageType.JUMP || type == EClientMessageType.ACK)
+            throw new IllegalArgumentException(type + " needs arguments");
+        return new ClientMessage(type, 0, 0, 0, 0, 0);
+    }
+
+    public static ClientMessage move(int fromRow, int fromCol, int toRow, int toCol) {
+        return new ClientMessage(EClientMessageType.MOVE, fromRow, fromCol, toRow, toCol, 0);
+    }
+
+    public static ClientMessage jump(int row, int col) {
+        return new ClientMessage(EClientMessageType.JUMP, row, col, row, col, 0);
+    }
+
+    /**
+     * Creates an acknowledgement of the state of a tick, the client's new delta baseline.
+     * @param tick The acknowledged tick, -1 to request a full state
+     */
+    public static ClientMessage ack(long tick) {
+        return new ClientMessage(EClientMessageType.ACK, 0, 0, 0, 0, tick);
+    }
+
+    /**
+     * Describes a queued command as a message.
+     * @return The MOVE or JUMP message, or null for other commands
+     */
+    public static ClientMessage of(ICommand command) {
+        if (command instanceof MoveCommand) {
+            MoveCommand m = (MoveCommand) command;
+            return move(m.getFrom().getRow(), m.getFrom().getCol(), m.getTo().getRow(), m.getTo().getCol());
+        }
+        if (command instanceof JumpCommand) {
+            IPiece p = ((JumpCommand) command).getPiece();
+            return p == null ? null : jump(p.getRow(), p.getCol());
+        }
+        return null;
+    }
+
+    /**
+     * Builds the command a MOVE or JUMP message stands for.
+     * @return The command, or null for other messages or a jump on an empty square
+     */
+    public ICommand toCommand(IBoard board) {
+        switch (type) {
+            case MOVE:
+                return new MoveCommand(getFrom(), getTo(), board);
+            case JUMP:
+                IPiece p = board.getPiece(fromRow, fromCol);
+                return p == null ? null : new JumpCommand(p, board);
+            default:
+                return null;
+        }
+    }
+
+    public EClientMessageType getType() {
+        return type;
+    }
+
+    public Position getFrom() {
+        return new Position(fromRow, fromCol);
+    }
+
+    public Position getTo() {
+        return new Position(toRow, toCol);
+    }
+
+    public int getFromRow() {
+        return fromRow;
+    }
+
+    public int getFromCol() {
+        return fromCol;
+    }
+
+    public int getToRow() {
+        return toRow;
+    }
+
+    public int getToCol() {
+        return toCol;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof ClientMessage))
+            return false;
+        ClientMessage m = (ClientMessage) o;
+        return type == m.type && fromRow == m.fromRow && fromCol == m.fromCol
+                && toRow == m.toRow && toCol == m.toCol && tick == m.tick;
+    }
+
+    @Override
+    public int hashCode() {
+        return (((((type.ordinal() * 31 + fromRow) * 31 + fromCol) * 31 + toRow) * 31) + toCol) * 31 + Long.hashCode(tick);
+    }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case MOVE: return "MOVE " + fromRow + " " + fromCol + " " + toRow + " " + toCol;
+            case JUMP: return "JUMP " + fromRow + " " + fromCol;
+            case ACK: return "ACK " + tick;
+            default: return type.name();
+        }
+    }
+}
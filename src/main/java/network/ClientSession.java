@@ -0,0 +1,75 @@
+package network;
+
+import interfaces.IPlayer;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Server side state of one client connection.
+ * Reads and writes happen on the selector thread only; the game thread appends to {@link #outbox}
+ * and the spectator fan-out thread replaces {@link #spectatorSlot}.
+ */
+class ClientSession {
+    final SocketChannel channel;
+    final SelectionKey key;
+    /** The player controlled by this client, null for a spectator. */
+    final IPlayer player;
+    final ByteBuffer in = ByteBuffer.allocate(GameServer.READ_BUFFER_SIZE);
+    /** Frames waiting to be written, in order. */
+    final Queue<SharedFrame> outbox = new ConcurrentLinkedQueue<>();
+    /** Number of frames in {@link #outbox}. */
+    final AtomicInteger pending = new AtomicInteger();
+    /** Newest spectator frame not yet picked up by the writer. */
+    final AtomicReference<SharedFrame> spectatorSlot = new AtomicReference<>();
+    volatile boolean closed;
+    /** Last tick the client confirmed, the baseline of its deltas; -1 asks for a full state. */
+    volatile long ackedTick = -1;
+    /** Set when a spectator asked for a full state. */
+    volatile boolean resync;
+    /** Tick of the last spectator frame queued, fan-out thread only. */
+    long lastQueuedTick = -1;
+
+    /** Frame being written and this session's view of it, selector thread only. */
+    SharedFrame writing;
+    ByteBuffer writingView;
+
+    ClientSession(SocketChannel channel, SelectionKey key, IPlayer player) {
+        this.channel = channel;
+        this.key = key;
+        this.player = player;
+    }
+
+    int getPlayerId() {
+        return player == null ? -1 : player.getId();
+    }
+
+    /**
+     * Returns true if a frame is waiting to be written.
+     */
+    boolean hasOutput() {
+        return writing != null || !outbox.isEmpty() || spectatorSlot.get() != null;
+    }
+
+    /**
+     * Releases every frame the session still holds.
+     */
+    void releaseFrames() {
+        if (writing != null) {
+            writing.release();
+            writing = null;
+            writingView = null;
+        }
+        SharedFrame frame;
+        while ((frame = outbox.poll()) != null)
+            frame.release();
+        frame = spectatorSlot.getAndSet(null);
+        if (frame != null)
+            frame.release();
+    }
+}
@@ -0,0 +1,18 @@
+package network;
+
+/**
+ * Kinds of messages a remote client can send.
+ * Cursor messages mirror the keyboard controls of {@code BoardPanel};
+ * {@link #MOVE} and {@link #JUMP} submit a command directly, {@link #ACK} confirms
+ * the last state received.
+ */
+public enum EClientMessageType {
+    UP,
+    DOWN,
+    LEFT,
+    RIGHT,
+    SELECT,
+    MOVE,
+    JUMP,
+    ACK
+}
@@ -0,0 +1,431 @@
+package network;
+
+import command.JumpCommand;
+import command.MoveCommand;
+import interfaces.*;
+import player.BotPlayer;
+import utils.LogUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Non-blocking TCP server that lets remote clients play a {@link IGame}.
+ * <p>
+ * One selector thread accepts connections, reads and writes. Each client gets the first
+ * free human player (bots are never handed out), later clients become spectators.
+ * Decoded messages are queued and only applied to the game in {@link #tick(long)},
+ * which must be called by the thread that updates the game, so the game itself stays
+ * single threaded. The same call pushes the state back to every player as a delta against
+ * the last snapshot that client acknowledged; clients that just joined, never acknowledged,
+ * or acknowledged a tick older than the kept history get the full state.
+ * Spectators are served by a {@link SpectatorHub} attached to the game as a listener.
+ * Players also receive every command the game executed, tick-stamped, so a
+ * {@link PredictingClient} can replay the game deterministically.
+ */
+public class GameServer implements Closeable {
+    static final int READ_BUFFER_SIZE = 1024;
+    /** Frames queued for one client before new frames are dropped for it. */
+    static final int MAX_PENDING_FRAMES = 32;
+    /**
+     * Frames queued for a player before it is disconnected. Commands cannot be skipped the way
+     * states can, so a client this far behind is dropped rather than sent a gap.
+     */
+    static final int MAX_PENDING_INPUT_FRAMES = 4 * MAX_PENDING_FRAMES;
+    /** Smallest capacity of pooled frame buffers, larger boards get what their codec needs. */
+    static final int FRAME_BUFFER_SIZE = 4096;
+    /** Snapshots kept as possible baselines, about two seconds at 16ms ticks. */
+    static final int HISTORY_TICKS = 128;
+
+    private final IGame game;
+    private final IWireCodec codec;
+    private final int pushEveryTicks;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final IPlayer[] seats;
+    private final List<ClientSession> sessions = new CopyOnWriteArrayList<>();
+    /** Messages read on the selector thread, applied on the game thread. */
+    private final Queue<Inbound> inbound = new ConcurrentLinkedQueue<>();
+    /** Sessions with new output, their write interest is set on the selector thread. */
+    private final Queue<ClientSession> flushRequests = new ConcurrentLinkedQueue<>();
+    /** Sessions too far behind, disconnected on the selector thread. */
+    private final Queue<ClientSession> dropRequests = new ConcurrentLinkedQueue<>();
+    /** Frame buffers, sized for the largest frame of this board. */
+    private final BufferPool pool;
+    /** Snapshots sent recently, used by the game thread only. */
+    private final SnapshotHistory history = new SnapshotHistory(HISTORY_TICKS);
+    private final SpectatorHub spectators;
+    private final InputRelay inputRelay = new InputRelay();
+    private Thread thread;
+    private volatile boolean running;
+
+    private static class Inbound {
+        final ClientSession session;
+        final ClientMessage message;
+
+        Inbound(ClientSession session, ClientMessage message) {
+            this.session = session;
+            this.message = message;
+        }
+    }
+
+    /**
+     * Binds the server; call {@link #start()} to begin accepting clients.
+     * @param game The game to serve
+     * @param port TCP port, 0 picks a free one
+     * @param codec Wire format
+     * @param pushEveryTicks State is sent to clients every this many ticks
+     */
+    public GameServer(IGame game, int port, IWireCodec codec, int pushEveryTicks) throws IOException {
+        this.game = game;
+        this.codec = codec;
+        this.pushEveryTicks = Math.max(1, pushEveryTicks);
+        this.seats = game.getPlayers().clone();
+        this.pool = new BufferPool(Math.max(FRAME_BUFFER_SIZE, codec.maxFrameSize(game.getBoard())), 256);
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        this.spectators = new SpectatorHub(codec, pool, pushEveryTicks, this::requestFlush);
+    }
+
+    /**
+     * Starts the selector thread.
+     */
+    public void start() {
+        game.addListener(spectators);
+        game.addListener(inputRelay);
+        spectators.start();
+        running = true;
+        thread = new Thread(this::runLoop, "game-server");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Gets the port the server listens on.
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Gets the number of connected spectators.
+     */
+    public int getSpectatorCount() {
+        return spectators.getSpectatorCount();
+    }
+
+    /**
+     * Gets the number of connected clients.
+     */
+    public int getClientCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Gets the capacity of the buffers frames are encoded into.
+     */
+    int getFrameBufferSize() {
+        return pool.getBufferSize();
+    }
+
+    /**
+     * Applies the queued client messages to the game and, every {@code pushEveryTicks}
+     * ticks, sends the state to all clients. Call once per tick on the game thread,
+     * before {@link IGame#update()}.
+     * @param tick The current tick number
+     */
+    public void tick(long tick) {
+        Inbound msg;
+        while ((msg = inbound.poll()) != null) {
+            if (!msg.session.closed)
+                apply(msg.session.player, msg.message);
+        }
+        if (tick % pushEveryTicks == 0 && sessions.size() > spectators.getSpectatorCount()) {
+            Snapshot snapshot = Snapshot.capture(game.getBoard(), tick, winnerId());
+            history.put(snapshot);
+            broadcast(snapshot);
+        }
+    }
+
+    private int winnerId() {
+        IPlayer winner = game.win();
+        return winner == null ? -1 : winner.getId();
+    }
+
+    /**
+     * Turns a message into a cursor move or a queued command, the same way local input does.
+     * Direct commands are only accepted for the player's own pieces.
+     */
+    private void apply(IPlayer player, ClientMessage message) {
+        IBoard board = game.getBoard();
+        switch (message.getType()) {
+            case UP: player.getCursor().moveUp(); break;
+            case DOWN: player.getCursor().moveDown(); break;
+            case LEFT: player.getCursor().moveLeft(); break;
+            case RIGHT: player.getCursor().moveRight(); break;
+            case SELECT: game.handleSelection(player); break;
+            case MOVE:
+                if (ownsPiece(board, player, message.getFromRow(), message.getFromCol())
+                        && board.isInBounds(message.getToRow(), message.getToCol()))
+                    game.addCommand(new MoveCommand(message.getFrom(), message.getTo(), board));
+                break;
+            case JUMP:
+                if (ownsPiece(board, player, message.getFromRow(), message.getFromCol()))
+                    game.addCommand(new JumpCommand(board.getPiece(message.getFromRow(), message.getFromCol()), board));
+                break;
+        }
+    }
+
+    private static boolean ownsPiece(IBoard board, IPlayer player, int row, int col) {
+        if (!board.hasPiece(row, col))
+            return false;
+        IPiece piece = board.getPiece(row, col);
+        return !piece.isCaptured() && board.getPlayerOf(piece) == player.getId();
+    }
+
+    /**
+     * Queues a delta against its baseline for every player. Clients that fall behind by more
+     * than {@link #MAX_PENDING_FRAMES} frames miss frames until they catch up, which is safe
+     * because every delta is relative to an acknowledged snapshot, not to the previous frame.
+     */
+    private void broadcast(Snapshot snapshot) {
+        for (ClientSession s : sessions) {
+            if (s.player == null || s.pending.get() >= MAX_PENDING_FRAMES)
+                continue;
+            Snapshot base = history.get(s.ackedTick);
+            ByteBuffer buf = pool.acquire();
+            codec.encodeDelta(base, snapshot, buf);
+            send(s, new SharedFrame(buf.flip(), pool, snapshot.tick, base == null ? -1 : base.tick));
+        }
+        selector.wakeup();
+    }
+
+    private void send(ClientSession s, SharedFrame frame) {
+        s.pending.incrementAndGet();
+        s.outbox.add(frame);
+        flushRequests.add(s);
+    }
+
+    /**
+     * Asks the selector thread to write the session's pending frames.
+     */
+    private void requestFlush(ClientSession s) {
+        flushRequests.add(s);
+        selector.wakeup();
+    }
+
+    /**
+     * Collects the commands queued for an update, from remote clients, bots or local input alike,
+     * and sends them to the players once the update ran. Runs on the game thread.
+     * A player with {@link #MAX_PENDING_INPUT_FRAMES} frames queued is disconnected instead.
+     */
+    private class InputRelay implements IGameListener {
+        private final List<PlayerInput> inputs = new ArrayList<>();
+
+        @Override
+        public void onCommand(IGame g, long tick, ICommand command) {
+            ClientMessage message = ClientMessage.of(command);
+            if (message == null)
+                return;
+            IBoard board = g.getBoard();
+            IPiece piece = board.getPiece(message.getFromRow(), message.getFromCol());
+            inputs.add(new PlayerInput(tick, piece == null ? -1 : board.getPlayerOf(piece), message));
+        }
+
+        @Override
+        public void onUpdate(IGame g, long tick) {
+            if (inputs.isEmpty())
+                return;
+            ByteBuffer buf = pool.acquire();
+            codec.encodeInputs(tick, inputs, buf);
+            inputs.clear();
+            SharedFrame frame = SharedFrame.of(buf.flip(), pool);
+            for (ClientSession s : sessions) {
+                if (s.player == null || s.closed)
+                    continue;
+                if (s.pending.get() >= MAX_PENDING_INPUT_FRAMES) {
+                    // Skipping commands would desync the client's replay
+                    s.closed = true;
+                    dropRequests.add(s);
+                    continue;
+                }
+                send(s, frame.retain());
+            }
+            frame.release();
+            selector.wakeup();
+        }
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                selector.select();
+                ClientSession s;
+                while ((s = dropRequests.poll()) != null) {
+                    if (sessions.contains(s)) {
+                        LogUtils.logDebug("Client " + s.getPlayerId() + " fell " + s.pending.get() + " frames behind");
+                        disconnect(s);
+                    }
+                }
+                while ((s = flushRequests.poll()) != null) {
+                    if (!s.closed && s.key.isValid())
+                        s.key.interestOps(s.key.interestOps() | SelectionKey.OP_WRITE);
+                }
+
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    if (!key.isValid())
+                        continue;
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    ClientSession session = (ClientSession) key.attachment();
+                    try {
+                        if (key.isReadable())
+                            read(session);
+                        if (key.isValid() && key.isWritable())
+                            write(session);
+                    } catch (IOException | IllegalArgumentException e) {
+                        LogUtils.logDebug("Closing client " + session.getPlayerId() + ": " + e.getMessage());
+                        disconnect(session);
+                    }
+                }
+            } catch (ClosedSelectorException e) {
+                break;
+            } catch (IOException e) {
+                LogUtils.logDebug("Game server error: " + e.getMessage());
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null)
+            return;
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        ClientSession session = new ClientSession(channel, key, takeSeat());
+        key.attach(session);
+        ByteBuffer welcome = pool.acquire();
+        codec.encodeWelcome(session.getPlayerId(), game.getBoard(), welcome);
+        send(session, SharedFrame.of(welcome.flip(), pool));
+        sessions.add(session);
+        if (session.player == null)
+            spectators.add(session);
+        key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        LogUtils.logDebug("Client connected as player " + session.getPlayerId());
+    }
+
+    /**
+     * Picks the first human player no connected client controls yet, or null.
+     */
+    private IPlayer takeSeat() {
+        for (IPlayer seat : seats) {
+            if (seat instanceof BotPlayer)
+                continue;
+            boolean taken = false;
+            for (ClientSession s : sessions)
+                taken |= s.player == seat;
+            if (!taken)
+                return seat;
+        }
+        return null;
+    }
+
+    private void read(ClientSession session) throws IOException {
+        if (session.channel.read(session.in) < 0) {
+            disconnect(session);
+            return;
+        }
+        session.in.flip();
+        ClientMessage message;
+        while ((message = codec.decode(session.in)) != null) {
+            if (message.getType() == EClientMessageType.ACK) {
+                session.ackedTick = message.getTick();
+                session.resync |= message.getTick() < 0;
+            }
+            else if (session.player != null)
+                inbound.add(new Inbound(session, message));
+        }
+        session.in.compact();
+    }
+
+    private void write(ClientSession session) throws IOException {
+        while (true) {
+            if (session.writing == null) {
+                SharedFrame next = session.outbox.poll();
+                if (next != null)
+                    session.pending.decrementAndGet();
+                else
+                    next = session.spectatorSlot.getAndSet(null);
+                if (next == null)
+                    break;
+                session.writing = next;
+                session.writingView = next.view();
+            }
+            session.channel.write(session.writingView);
+            if (session.writingView.hasRemaining())
+                return;
+            session.writing.release();
+            session.writing = null;
+            session.writingView = null;
+        }
+        session.key.interestOps(SelectionKey.OP_READ);
+        // A frame queued after the last poll must not wait for the next one
+        if (session.hasOutput())
+            session.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+    }
+
+    private void disconnect(ClientSession session) {
+        session.closed = true;
+        sessions.remove(session);
+        if (session.player == null)
+            spectators.remove(session);
+        session.key.cancel();
+        try {
+            session.channel.close();
+        } catch (IOException ignored) {
+        }
+        session.releaseFrames();
+        LogUtils.logDebug("Client disconnected: player " + session.getPlayerId());
+    }
+
+    /**
+     * Stops the selector thread and closes all connections.
+     */
+    @Override
+    public void close() throws IOException {
+        game.removeListener(spectators);
+        game.removeListener(inputRelay);
+        spectators.stop();
+        running = false;
+        selector.wakeup();
+        if (thread != null) {
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (ClientSession s : sessions)
+            disconnect(s);
+        serverChannel.close();
+        selector.close();
+    }
+}
@@ -0,0 +1,71 @@
+package network;
+
+import interfaces.IBoard;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Translates between bytes on a client connection and server messages.
+ * A codec instance may be shared by all connections, so implementations keep no per-connection state.
+ * Encoders write at the buffer position and leave it after the message.
+ */
+public interface IWireCodec {
+    /**
+     * Decodes one client message from the buffer (in read mode).
+     * When a complete message is available it is consumed; otherwise the buffer is left untouched.
+     * @param in Received bytes
+     * @return The message, or null if more bytes are needed
+     * @throws IllegalArgumentException if the bytes are not a valid message
+     */
+    ClientMessage decode(ByteBuffer in);
+
+    /**
+     * Encodes a client message, the counterpart of {@link #decode(ByteBuffer)} used by clients.
+     * @param message The message
+     * @param out Destination buffer
+     */
+    void encode(ClientMessage message, ByteBuffer out);
+
+    /**
+     * Gets an upper bound on the size of any frame the encoders write for a board, used to size
+     * the buffers frames are encoded into.
+     * @param board The game board
+     * @return The bound in bytes
+     */
+    int maxFrameSize(IBoard board);
+
+    /**
+     * Encodes the greeting sent after a client connects.
+     * @param playerId The player the client controls, or -1 for a spectator
+     * @param board The game board
+     * @param out Destination buffer
+     */
+    void encodeWelcome(int playerId, IBoard board, ByteBuffer out);
+
+    /**
+     * Encodes the full state of the board.
+     * @param board The game board
+     * @param tick The server tick the state belongs to
+     * @param winner Id of the winner, or -1 while the game runs
+     * @param out Destination buffer
+     * @throws java.nio.BufferOverflowException if the state does not fit
+     */
+    void encodeState(IBoard board, long tick, int winner, ByteBuffer out);
+
+    /**
+     * Encodes the pieces that changed between a baseline the client acknowledged and the current snapshot.
+     * @param base The client's baseline, or null to send the full state
+     * @param current The snapshot to send
+     * @param out Destination buffer
+     */
+    void encodeDelta(Snapshot base, Snapshot current, ByteBuffer out);
+
+    /**
+     * Encodes the commands executed in one update, for clients that replay the game.
+     * @param tick Tick of the update
+     * @param inputs The commands, all stamped with {@code tick}
+     * @param out Destination buffer
+     */
+    void encodeInputs(long tick, List<PlayerInput> inputs, ByteBuffer out);
+}
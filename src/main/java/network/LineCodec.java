@@ -0,0 +1,156 @@
+package network;
+
+import interfaces.IBoard;
+import interfaces.IPiece;
+import interfaces.IPlayer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Human readable protocol, one message per line, handy with {@code nc}.
+ * <p>
+ * Client to server: {@code UP}, {@code DOWN}, {@code LEFT}, {@code RIGHT}, {@code SELECT},
+ * {@code MOVE fromRow fromCol toRow toCol}, {@code JUMP row col}, {@code ACK tick}.
+ * <p>
+ * Server to client: {@code WELCOME playerId rows cols} once, then
+ * {@code STATE tick winner} followed by one {@code row,col,type,owner,state} entry per live piece,
+ * or {@code DELTA tick baseTick winner} followed by one {@code id:row,col,type,state,x,y,frame}
+ * entry per changed piece ({@code id:X} once captured), or {@code INPUT tick} followed by one
+ * {@code player:message} entry per command executed in that tick, spaces inside the message
+ * replaced by commas.
+ */
+public class LineCodec implements IWireCodec {
+    /** Longest accepted client line, anything longer is a protocol error. */
+    static final int MAX_LINE = 64;
+    /** Worst case length of the words that start a server line. */
+    private static final int MAX_LINE_START = 64;
+    /** Worst case length of one piece entry in a DELTA line: id, row, col, type, state, x, y and frame. */
+    private static final int MAX_DELTA_ENTRY = 96;
+    /** Room for INPUT lines, which do not depend on the board. */
+    private static final int MIN_FRAME_SIZE = 4096;
+
+    @Override
+    public ClientMessage decode(ByteBuffer in) {
+        int start = in.position();
+        int end = -1;
+        for (int i = start; i < in.limit(); i++) {
+            if (in.get(i) == '\n') {
+                end = i;
+                break;
+            }
+        }
+        if (end < 0) {
+            if (in.remaining() > MAX_LINE)
+                throw new IllegalArgumentException("Line too long");
+            return null;
+        }
+
+        byte[] bytes = new byte[end - start];
+        in.get(bytes);
+        in.get(); // newline
+        String line = new String(bytes, StandardCharsets.US_ASCII).trim();
+        String[] parts = line.split("\\s+");
+        EClientMessageType type;
+        try {
+            type = EClientMessageType.valueOf(parts[0].toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown message: " + line);
+        }
+
+        try {
+            switch (type) {
+                case MOVE:
+                    expectArgs(parts, 4, line);
+                    return ClientMessage.move(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]),
+                            Integer.parseInt(parts[3]), Integer.parseInt(parts[4]));
+                case JUMP:
+                    expectArgs(parts, 2, line);
+                    return ClientMessage.jump(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+                case ACK:
+                    expectArgs(parts, 1, line);
+                    return ClientMessage.ack(Long.parseLong(parts[1]));
+                default:
+                    expectArgs(parts, 0, line);
+                    return ClientMessage.cursor(type);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad number in: " + line);
+        }
+    }
+
+    private static void expectArgs(String[] parts, int count, String line) {
+        if (parts.length != count + 1)
+            throw new IllegalArgumentException("Expected " + count + " arguments: " + line);
+    }
+
+    @Override
+    public void encode(ClientMessage message, ByteBuffer out) {
+        out.put((message + "\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Bounds a DELTA line carrying every piece, longer than a STATE line for the same pieces.
+     */
+    @Override
+    public int maxFrameSize(IBoard board) {
+        long pieces = 0;
+        for (IPlayer player : board.getPlayers())
+            pieces += player.getPieces().size();
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(MIN_FRAME_SIZE, MAX_LINE_START + pieces * MAX_DELTA_ENTRY));
+    }
+
+    @Override
+    public void encodeWelcome(int playerId, IBoard board, ByteBuffer out) {
+        out.put(("WELCOME " + playerId + " " + board.getROWS() + " " + board.getCOLS() + "\n")
+                .getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Override
+    public void encodeState(IBoard board, long tick, int winner, ByteBuffer out) {
+        StringBuilder sb = new StringBuilder(1024);
+        sb.append("STATE ").append(tick).append(' ').append(winner);
+        for (IPlayer player : board.getPlayers()) {
+            for (IPiece p : player.getPieces()) {
+                if (p.isCaptured())
+                    continue;
+                sb.append(' ').append(p.getRow()).append(',').append(p.getCol())
+                        .append(',').append(p.getType()).append(',').append(player.getId())
+                        .append(',').append(p.getCurrentStateName().name());
+            }
+        }
+        out.put(sb.append('\n').toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Override
+    public void encodeDelta(Snapshot base, Snapshot current, ByteBuffer out) {
+        Snapshot from = base == null ? Snapshot.empty(current.cols, current.getPieceCount()) : base;
+        StringBuilder sb = new StringBuilder(256);
+        sb.append("DELTA ").append(current.tick).append(' ').append(from.tick).append(' ').append(current.winner);
+        for (int id = 0; id < current.getPieceCount(); id++) {
+            if (SnapshotDelta.mask(from, current, id) == 0)
+                continue;
+            sb.append(' ').append(id).append(':');
+            if (current.isCaptured(id)) {
+                sb.append('X');
+                continue;
+            }
+            sb.append(current.getRow(id)).append(',').append(current.getCol(id))
+                    .append(',').append(current.getType(id)).append(',').append(current.getState(id).name())
+                    .append(',').append(current.getX(id)).append(',').append(current.getY(id))
+                    .append(',').append(current.getFrame(id));
+        }
+        out.put(sb.append('\n').toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Override
+    public void encodeInputs(long tick, List<PlayerInput> inputs, ByteBuffer out) {
+        StringBuilder sb = new StringBuilder(64);
+        sb.append("INPUT ").append(tick);
+        for (PlayerInput input : inputs)
+            sb.append(' ').append(input.getPlayerId()).append(':').append(input.getMessage().toString().replace(' ', ','));
+        out.put(sb.append('\n').toString().getBytes(StandardCharsets.US_ASCII));
+    }
+}
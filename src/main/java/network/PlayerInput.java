@@ -0,0 +1,52 @@
+package network;
+
+/**
+ * A command the server accepted, stamped with the tick of the update that executed it.
+ * Replaying the inputs of every tick in order reproduces the server's game exactly.
+ */
+public final class PlayerInput {
+    private final long tick;
+    private final int playerId;
+    private final ClientMessage message;
+
+    /**
+     * @param tick Tick of the update that executes the command
+     * @param playerId Owner of the commanded piece, -1 if there was none
+     * @param message The command as a MOVE or JUMP message
+     */
+    public PlayerInput(long tick, int playerId, ClientMessage message) {
+        this.tick = tick;
+        this.playerId = playerId;
+        this.message = message;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    public ClientMessage getMessage() {
+        return message;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof PlayerInput))
+            return false;
+        PlayerInput other = (PlayerInput) o;
+        return tick == other.tick && playerId == other.playerId && message.equals(other.message);
+    }
+
+    @Override
+    public int hashCode() {
+        return (Long.hashCode(tick) * 31 + playerId) * 31 + message.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return tick + ":" + playerId + ":" + message;
+    }
+}
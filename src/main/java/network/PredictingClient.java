@@ -0,0 +1,267 @@
+package network;
+
+import interfaces.ICommand;
+import interfaces.IBoard;
+import interfaces.IPhysicsData;
+import interfaces.IPiece;
+import interfaces.IPlayer;
+import simulation.HeadlessGame;
+import simulation.ICommandGenerator;
+
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Client side prediction for a remote player.
+ * <p>
+ * The client runs the same deterministic simulation as the server ({@link HeadlessGame}, one
+ * fixed clock step per tick) twice: the confirmed game replays only the commands the server
+ * reported in INPUT messages, the predicted game runs ahead and also applies the player's own
+ * commands the moment they are issued. When the server executed something the prediction did
+ * not expect (an opponent command, or an own command landing on a later tick) the predicted game
+ * is rebuilt from a checkpoint of the confirmed game plus the still unconfirmed own commands. Pieces that jump
+ * because of such a correction are drawn with an offset that fades out over a few ticks.
+ * <p>
+ * Snapshots from the server are compared with the confirmed game to detect desyncs.
+ * Not thread safe; drive it from the client's game loop.
+ */
+public class PredictingClient {
+    /** Share of a correction still visible after each tick. */
+    static final double SMOOTHING = 0.8;
+    private static final ICommandGenerator IDLE = (player, board, tick) -> null;
+
+    private final int playerId;
+    private final long tickMillis;
+    private final HeadlessGame confirmed;
+    private HeadlessGame predicted;
+    private IPiece[] pieces;
+    /** Own commands not confirmed yet, stamped with the tick the prediction applied them at. */
+    private final List<PlayerInput> pending = new ArrayList<>();
+    private double[] offsetX;
+    private double[] offsetY;
+    private int rollbacks;
+    private int desyncs;
+
+    /**
+     * @param playerId The player this client controls
+     * @param tickMillis The server's tick length
+     */
+    public PredictingClient(int playerId, long tickMillis) {
+        this.playerId = playerId;
+        this.tickMillis = tickMillis;
+        this.confirmed = new HeadlessGame(IDLE, IDLE, tickMillis);
+        this.predicted = new HeadlessGame(IDLE, IDLE, tickMillis);
+        this.pieces = index(predicted.getGame().getBoard());
+        this.offsetX = new double[pieces.length];
+        this.offsetY = new double[pieces.length];
+    }
+
+    /**
+     * Predicts a move and returns the message to send to the server.
+     */
+    public ClientMessage move(int fromRow, int fromCol, int toRow, int toCol) {
+        return submit(ClientMessage.move(fromRow, fromCol, toRow, toCol));
+    }
+
+    /**
+     * Predicts a jump and returns the message to send to the server.
+     */
+    public ClientMessage jump(int row, int col) {
+        return submit(ClientMessage.jump(row, col));
+    }
+
+    private ClientMessage submit(ClientMessage message) {
+        ICommand cmd = message.toCommand(predicted.getGame().getBoard());
+        if (cmd != null)
+            predicted.getGame().addCommand(cmd);
+        pending.add(new PlayerInput(predicted.getTick(), playerId, message));
+        return message;
+    }
+
+    /**
+     * Advances the prediction by one tick.
+     */
+    public void step() {
+        predicted.step();
+        for (int i = 0; i < offsetX.length; i++) {
+            offsetX[i] *= SMOOTHING;
+            offsetY[i] *= SMOOTHING;
+        }
+    }
+
+    /**
+     * Handles a decoded server message.
+     * @param type The frame type returned by {@link BinaryCodec#decodeServer}
+     * @param frame The decoded frame
+     */
+    public void onServerFrame(int type, StateFrame frame) {
+        if (type == BinaryCodec.INPUT)
+            onInputs(frame.inputTick, frame.inputs);
+        else if (type == BinaryCodec.DELTA && !frame.desynced)
+            onSnapshot(frame.snapshot);
+    }
+
+    /**
+     * Applies the commands the server executed in one tick.
+     * @param tick The tick
+     * @param inputs The commands, in execution order
+     */
+    public void onInputs(long tick, List<PlayerInput> inputs) {
+        advanceConfirmed(tick);
+        IBoard board = confirmed.getGame().getBoard();
+        boolean mispredicted = predicted.getTick() <= tick;
+        for (PlayerInput input : inputs) {
+            ICommand cmd = input.getMessage().toCommand(board);
+            if (cmd != null)
+                confirmed.getGame().addCommand(cmd);
+
+            int own = indexOfPending(input.getMessage());
+            if (own >= 0) {
+                mispredicted |= pending.get(own).getTick() != tick;
+                pending.remove(own);
+            } else {
+                mispredicted = true;
+            }
+        }
+        confirmed.step();
+        if (mispredicted)
+            rollback();
+    }
+
+    /**
+     * Checks an authoritative snapshot against the confirmed game.
+     * Every INPUT before the snapshot's tick has arrived by then, as both travel on one connection.
+     */
+    public void onSnapshot(Snapshot snapshot) {
+        advanceConfirmed(snapshot.getTick());
+        if (confirmed.getTick() == snapshot.getTick()) {
+            Snapshot mine = Snapshot.capture(confirmed.getGame().getBoard(), snapshot.getTick(), snapshot.getWinner());
+            if (!mine.sameContent(snapshot))
+                desyncs++;
+        }
+        if (predicted.getTick() < confirmed.getTick())
+            rollback();
+    }
+
+    private void advanceConfirmed(long tick) {
+        while (confirmed.getTick() < tick)
+            confirmed.step();
+    }
+
+    private int indexOfPending(ClientMessage message) {
+        for (int i = 0; i < pending.size(); i++)
+            if (pending.get(i).getMessage().equals(message))
+                return i;
+        return -1;
+    }
+
+    /**
+     * Rebuilds the prediction: the confirmed game, then the unconfirmed own commands
+     * (those the server has not executed yet are moved to the confirmed tick).
+     */
+    private void rollback() {
+        long confirmedTick = confirmed.getTick();
+        long target = Math.max(predicted.getTick(), confirmedTick);
+        for (int i = 0; i < pending.size(); i++) {
+            PlayerInput p = pending.get(i);
+            if (p.getTick() < confirmedTick)
+                pending.set(i, new PlayerInput(confirmedTick, p.getPlayerId(), p.getMessage()));
+        }
+
+        double[] oldX = new double[pieces.length];
+        double[] oldY = new double[pieces.length];
+        for (int id = 0; id < pieces.length; id++) {
+            IPhysicsData physics = pieces[id].getCurrentState().getPhysics();
+            oldX[id] = physics.getCurrentX() + offsetX[id];
+            oldY[id] = physics.getCurrentY() + offsetY[id];
+        }
+
+        HeadlessGame sim = new HeadlessGame(IDLE, IDLE, tickMillis);
+        sim.restore(confirmed.checkpoint());
+        while (sim.getTick() <= target) {
+            long t = sim.getTick();
+            for (PlayerInput p : pending)
+                if (p.getTick() == t)
+                    apply(sim, p);
+            if (t == target)
+                break;
+            sim.step();
+        }
+
+        predicted = sim;
+        pieces = index(sim.getGame().getBoard());
+        for (int id = 0; id < pieces.length; id++) {
+            IPhysicsData physics = pieces[id].getCurrentState().getPhysics();
+            offsetX[id] = oldX[id] - physics.getCurrentX();
+            offsetY[id] = oldY[id] - physics.getCurrentY();
+        }
+        rollbacks++;
+    }
+
+    private static void apply(HeadlessGame sim, PlayerInput input) {
+        ICommand cmd = input.getMessage().toCommand(sim.getGame().getBoard());
+        if (cmd != null)
+            sim.getGame().addCommand(cmd);
+    }
+
+    /**
+     * Lists the pieces by id, the numbering used by {@link Snapshot}.
+     */
+    private static IPiece[] index(IBoard board) {
+        List<IPiece> all = new ArrayList<>();
+        for (IPlayer player : board.getPlayers())
+            all.addAll(player.getPieces());
+        return all.toArray(new IPiece[0]);
+    }
+
+    /**
+     * Gets where a piece should be drawn: its predicted position plus the fading correction.
+     * @param id Piece id
+     * @return Pixel position, or null once the piece is captured
+     */
+    public Point2D.Double getDisplayPosition(int id) {
+        IPiece p = pieces[id];
+        if (p.isCaptured())
+            return null;
+        IPhysicsData physics = p.getCurrentState().getPhysics();
+        return new Point2D.Double(physics.getCurrentX() + offsetX[id], physics.getCurrentY() + offsetY[id]);
+    }
+
+    /**
+     * Gets the predicted board, the one to render.
+     */
+    public IBoard getPredictedBoard() {
+        return predicted.getGame().getBoard();
+    }
+
+    public IBoard getConfirmedBoard() {
+        return confirmed.getGame().getBoard();
+    }
+
+    public long getPredictedTick() {
+        return predicted.getTick();
+    }
+
+    public long getConfirmedTick() {
+        return confirmed.getTick();
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Gets how often the prediction was rebuilt.
+     */
+    public int getRollbacks() {
+        return rollbacks;
+    }
+
+    /**
+     * Gets how many server snapshots differed from the confirmed game.
+     */
+    public int getDesyncs() {
+        return desyncs;
+    }
+}
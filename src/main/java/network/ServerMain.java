@@ -0,0 +1,254 @@
+package network;
+
+import ai.BotController;
+import ai.SearchEngine;
+import interfaces.IGame;
+import journal.GameJournal;
+import migration.GameImage;
+import migration.MigrationLink;
+import player.BotPlayer;
+import recovery.Checkpointer;
+import recovery.CrashRecovery;
+import recovery.RecoveredGame;
+import simulation.HeadlessGame;
+import simulation.ICommandGenerator;
+import utils.LogUtils;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs games without a window and serves them over TCP.
+ * <p>
+ * Usage: {@code ServerMain [--port P] [--tick-ms MS] [--push-every TICKS] [--text] [--bot] [--journal DIR]
+ * [--recovery-threads T] [--max-games N] [--accept-migration PORT] [--drain-to HOST:PORT]}
+ * <p>
+ * Each game is a {@link HeadlessGame} stepped in real time: its clock advances by exactly one
+ * tick per step, so clients replaying the same inputs compute the same game.
+ * {@code --bot} lets the search engine play the second player. Clients speak
+ * {@link BinaryCodec} unless {@code --text} selects the line protocol.
+ * <p>
+ * {@code --journal} records every game to a {@link GameJournal} in the given directory, with a
+ * {@link Checkpointer checkpoint} next to it. On startup the unfinished games found there, left by a
+ * crashed server, are recovered in parallel and served again, each on its own port counting up from
+ * {@code --port}; a new game is only started if there is none. Every served game costs a port, a selector
+ * thread and a spectator thread, so a node serves at most {@code --max-games} (default
+ * {@value #DEFAULT_MAX_GAMES}); the journals of further games are left in the directory for another node.
+ * <p>
+ * For rolling deploys the replacement node starts with {@code --accept-migration} and waits for the game;
+ * the node being drained runs with {@code --drain-to} and, when asked to shut down, freezes its first game
+ * between two ticks and hands it over as a {@link GameImage}. The new node continues from that exact tick;
+ * clients reconnect to it. Any other games stay in the journal directory for the next node to recover.
+ */
+public class ServerMain {
+    public static final int DEFAULT_PORT = 7777;
+    /** Games served by one node, at one port and two threads each. */
+    public static final int DEFAULT_MAX_GAMES = 16;
+    /** Extension given to the journal of a game handed over to another node. */
+    static final String MIGRATED_SUFFIX = ".migrated";
+
+    public static void main(String[] args) throws Exception {
+        int port = DEFAULT_PORT;
+        long tickMillis = HeadlessGame.DEFAULT_TICK_MILLIS;
+        int pushEvery = 1;
+        boolean bot = false;
+        boolean text = false;
+        Path journalDir = null;
+        int recoveryThreads = Runtime.getRuntime().availableProcessors();
+        int maxGames = DEFAULT_MAX_GAMES;
+        int acceptPort = -1;
+        String drainTo = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port": port = Integer.parseInt(args[++i]); break;
+                case "--tick-ms": tickMillis = Long.parseLong(args[++i]); break;
+                case "--push-every": pushEvery = Integer.parseInt(args[++i]); break;
+                case "--bot": bot = true; break;
+                case "--text": text = true; break;
+                case "--journal": journalDir = Paths.get(args[++i]); break;
+                case "--recovery-threads": recoveryThreads = Integer.parseInt(args[++i]); break;
+                case "--max-games": maxGames = Integer.parseInt(args[++i]); break;
+                case "--accept-migration": acceptPort = Integer.parseInt(args[++i]); break;
+                case "--drain-to": drainTo = args[++i]; break;
+                default: throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        if (journalDir != null)
+            Files.createDirectories(journalDir);
+        List<Match> matches = new ArrayList<>();
+        if (acceptPort >= 0) {
+            GameImage image;
+            try (ServerSocket socket = new ServerSocket(acceptPort)) {
+                System.out.println("Waiting for migration on port " + socket.getLocalPort());
+                image = MigrationLink.receive(socket);
+            }
+            boolean[] bots = { false, image.isBot(1) || bot };
+            matches.add(newMatch(image.resume(idle(), generator(bots[1])), bots, journalDir));
+        } else if (journalDir != null) {
+            long start = System.nanoTime();
+            for (RecoveredGame r : new CrashRecovery(tickMillis).recoverAll(journalDir, recoveryThreads, maxGames)) {
+                r.getGame().setGenerators(idle(), generator(r.getBots()[1]));
+                matches.add(new Match(r.getGame(), r.getBots(), r.getJournalFile(), r.getJournal()));
+            }
+            if (!matches.isEmpty())
+                System.out.printf("Recovered %d games in %dms%n", matches.size(), (System.nanoTime() - start) / 1_000_000);
+        }
+        if (matches.isEmpty()) {
+            boolean[] bots = { false, bot };
+            matches.add(newMatch(new HeadlessGame(idle(), generator(bot), tickMillis), bots, journalDir));
+        }
+
+        for (int i = 0; i < matches.size(); i++) {
+            Match m = matches.get(i);
+            IGame game = m.headless.getGame();
+            IWireCodec codec = text ? new LineCodec()
+                    : new BinaryCodec(game.getBoard().getROWS(), game.getBoard().getCOLS());
+            m.server = new GameServer(game, port == 0 ? 0 : port + i, codec, pushEvery);
+            m.server.start();
+            System.out.println("Serving on port " + m.server.getPort() + " from tick " + m.headless.getTick());
+        }
+
+        ScheduledExecutorService loop = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "game-loop"));
+        loop.scheduleAtFixedRate(() -> {
+            boolean running = false;
+            for (Match m : matches)
+                running |= m.tick();
+            if (!running)
+                loop.shutdown();
+        }, 0, matches.get(0).headless.getTickMillis(), TimeUnit.MILLISECONDS);
+
+        if (drainTo != null) {
+            String host = drainTo.substring(0, drainTo.lastIndexOf(':'));
+            int successor = Integer.parseInt(drainTo.substring(drainTo.lastIndexOf(':') + 1));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> drain(loop, matches.get(0), host, successor), "drain"));
+        }
+
+        loop.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        // Let the final state reach the clients
+        Thread.sleep(500);
+        for (Match m : matches)
+            m.close();
+    }
+
+    private static ICommandGenerator idle() {
+        return (player, board, tick) -> null;
+    }
+
+    private static ICommandGenerator generator(boolean bot) {
+        if (!bot)
+            return idle();
+        BotController controller = new BotController(new SearchEngine(),
+                BotPlayer.DEFAULT_BUDGET_NANOS, BotPlayer.DEFAULT_INTERVAL_NANOS);
+        return (player, board, tick) -> controller.decide(board, player.getId());
+    }
+
+    /**
+     * Wraps a game about to start here, journaled if a directory is given.
+     */
+    private static Match newMatch(HeadlessGame headless, boolean[] bots, Path journalDir) throws IOException {
+        if (journalDir == null)
+            return new Match(headless, bots, null, null);
+        Path file = journalDir.resolve("game-" + System.currentTimeMillis() + "-" + System.nanoTime() + GameJournal.SUFFIX);
+        GameJournal journal = new GameJournal(file, headless.getGame());
+        journal.start();
+        return new Match(headless, bots, file, journal);
+    }
+
+    /**
+     * Freezes the game on the loop thread, between two ticks, and sends it to the successor.
+     */
+    private static void drain(ScheduledExecutorService loop, Match match, String host, int port) {
+        if (loop.isShutdown())
+            return;
+        try {
+            GameImage image = loop.submit(() -> {
+                loop.shutdown();
+                return GameImage.capture(match.headless, match.bots);
+            }).get();
+            MigrationLink.send(image, host, port, 5000);
+            System.out.println("Game handed over to " + host + ":" + port + " at tick " + match.headless.getTick());
+            match.retire();
+        } catch (Exception e) {
+            System.err.println("Migration failed, game lost: " + e);
+            LogUtils.logDebug("Migration failed: " + e);
+        }
+    }
+
+    /**
+     * One served game with its server, journal and checkpoints. Stepped by the loop thread only.
+     */
+    private static final class Match {
+        final HeadlessGame headless;
+        final boolean[] bots;
+        final Path journalFile;
+        final GameJournal journal;
+        final Checkpointer checkpointer;
+        GameServer server;
+        boolean over;
+        boolean closed;
+
+        Match(HeadlessGame headless, boolean[] bots, Path journalFile, GameJournal journal) {
+            this.headless = headless;
+            this.bots = bots;
+            this.journalFile = journalFile;
+            this.journal = journal;
+            this.checkpointer = journal == null ? null
+                    : new Checkpointer(journalFile, headless, journal, bots, Checkpointer.DEFAULT_INTERVAL_TICKS);
+        }
+
+        /**
+         * Pushes the state and steps the game.
+         * @return false once the game is over
+         */
+        boolean tick() {
+            if (over)
+                return false;
+            IGame game = headless.getGame();
+            try {
+                server.tick(headless.getTick());
+                if (game.win() != null) {
+                    LogUtils.logDebug("Game Over. Winner: Player " + game.win().getName());
+                    System.out.println("Game over on port " + server.getPort() + ", winner: " + game.win().getName());
+                    over = true;
+                    return false;
+                }
+                headless.step();
+                if (checkpointer != null)
+                    checkpointer.tick();
+            } catch (RuntimeException e) {
+                LogUtils.logDebug("Game loop error: " + e);
+            }
+            return true;
+        }
+
+        /**
+         * Closes the game's journal and marks it handed over, so no node recovers it again.
+         */
+        synchronized void retire() throws IOException {
+            close();
+            if (journalFile == null)
+                return;
+            Files.deleteIfExists(Checkpointer.fileFor(journalFile));
+            Files.move(journalFile, journalFile.resolveSibling(journalFile.getFileName() + MIGRATED_SUFFIX));
+        }
+
+        synchronized void close() throws IOException {
+            if (closed)
+                return;
+            closed = true;
+            if (server != null)
+                server.close();
+            if (journal != null)
+                journal.close();
+        }
+    }
+}
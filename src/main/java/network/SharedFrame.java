@@ -0,0 +1,78 @@
+package network;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An encoded frame shared by every connection that sends it.
+ * <p>
+ * The content never changes after construction; writers get read-only views with their own
+ * position. Each holder owns one reference; the pooled buffer goes back to the pool when
+ * the last reference is released.
+ */
+public final class SharedFrame {
+    private final ByteBuffer buffer;
+    private final BufferPool pool;
+    private final AtomicInteger refs = new AtomicInteger(1);
+    /** Tick of the snapshot in the frame, -1 for frames that are not snapshots. */
+    final long tick;
+    /** Tick the frame is a delta against, -1 for a full state. */
+    final long baseTick;
+
+    /**
+     * Wraps a filled buffer (in read mode). The caller holds the first reference.
+     * @param buffer The encoded frame
+     * @param pool Pool the buffer returns to, or null
+     */
+    SharedFrame(ByteBuffer buffer, BufferPool pool, long tick, long baseTick) {
+        this.buffer = buffer;
+        this.pool = pool;
+        this.tick = tick;
+        this.baseTick = baseTick;
+    }
+
+    /**
+     * Wraps a single use frame that is not a snapshot, e.g. a welcome.
+     */
+    static SharedFrame of(ByteBuffer buffer, BufferPool pool) {
+        return new SharedFrame(buffer, pool, -1, -1);
+    }
+
+    /**
+     * Adds a reference.
+     * @return This frame
+     */
+    public SharedFrame retain() {
+        if (refs.getAndIncrement() <= 0)
+            throw new IllegalStateException("Frame already released");
+        return this;
+    }
+
+    /**
+     * Drops a reference, recycling the buffer when it was the last one.
+     */
+    public void release() {
+        int left = refs.decrementAndGet();
+        if (left == 0) {
+            if (pool != null)
+                pool.release(buffer);
+        } else if (left < 0) {
+            throw new IllegalStateException("Frame released too often");
+        }
+    }
+
+    /**
+     * Gets a read-only view of the frame with its own position.
+     */
+    public ByteBuffer view() {
+        return buffer.asReadOnlyBuffer();
+    }
+
+    public int refCount() {
+        return refs.get();
+    }
+
+    public boolean isFull() {
+        return baseTick < 0;
+    }
+}
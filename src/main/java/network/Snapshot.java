@@ -0,0 +1,182 @@
+package network;
+
+import interfaces.EState;
+import interfaces.IBoard;
+import interfaces.IGraphicsData;
+import interfaces.IPhysicsData;
+import interfaces.IPiece;
+import interfaces.IPlayer;
+import interfaces.IState;
+import pieces.EPieceType;
+
+import java.util.Arrays;
+
+/**
+ * Immutable per-tick copy of everything a client draws, indexed by piece id.
+ * <p>
+ * Piece ids number the pieces of all players in list order (captured ones included),
+ * as in {@link BinaryCodec}. Pixel positions are quantized to
+ * {@link #STEPS_PER_TILE} steps per tile so they do not depend on the server's tile size.
+ * A value of -1 means "unknown", which only the empty baseline uses.
+ */
+public final class Snapshot {
+    /** Position resolution sent to clients. */
+    public static final int STEPS_PER_TILE = 16;
+
+    private static final EPieceType[] PIECE_TYPES = EPieceType.values();
+    private static final EState[] STATES = EState.values();
+
+    final long tick;
+    final int winner;
+    /** Board width, to turn squares back into rows and columns. */
+    final int cols;
+    /** {@code row * cols + col}, -1 once captured. */
+    final int[] square;
+    /** {@code type << 3 | state}. */
+    final int[] typeState;
+    final int[] x;
+    final int[] y;
+    /** Current animation frame. */
+    final int[] frame;
+
+    Snapshot(long tick, int winner, int cols, int pieces) {
+        this.tick = tick;
+        this.winner = winner;
+        this.cols = cols;
+        this.square = new int[pieces];
+        this.typeState = new int[pieces];
+        this.x = new int[pieces];
+        this.y = new int[pieces];
+        this.frame = new int[pieces];
+    }
+
+    /**
+     * Starts a new snapshot from a baseline, for applying a delta.
+     */
+    Snapshot(Snapshot base, long tick, int winner) {
+        this.tick = tick;
+        this.winner = winner;
+        this.cols = base.cols;
+        this.square = base.square.clone();
+        this.typeState = base.typeState.clone();
+        this.x = base.x.clone();
+        this.y = base.y.clone();
+        this.frame = base.frame.clone();
+    }
+
+    /**
+     * Creates the baseline a full state is encoded against: every field unknown.
+     */
+    static Snapshot empty(int cols, int pieces) {
+        Snapshot s = new Snapshot(-1, -1, cols, pieces);
+        Arrays.fill(s.square, -1);
+        Arrays.fill(s.typeState, -1);
+        Arrays.fill(s.x, -1);
+        Arrays.fill(s.y, -1);
+        Arrays.fill(s.frame, -1);
+        return s;
+    }
+
+    /**
+     * Captures the board.
+     * @param board The board
+     * @param tick The server tick
+     * @param winner Id of the winner, or -1
+     * @return The snapshot
+     */
+    public static Snapshot capture(IBoard board, long tick, int winner) {
+        int count = 0;
+        for (IPlayer player : board.getPlayers())
+            count += player.getPieces().size();
+
+        int cols = board.getCOLS();
+        Snapshot s = new Snapshot(tick, winner, cols, count);
+        double scale = STEPS_PER_TILE / board.getBoardConfig().tileSize;
+        int id = 0;
+        for (IPlayer player : board.getPlayers()) {
+            for (IPiece p : player.getPieces()) {
+                if (p.isCaptured()) {
+                    s.clear(id);
+                } else {
+                    IState st = p.getCurrentState();
+                    IPhysicsData physics = st.getPhysics();
+                    IGraphicsData graphics = st.getGraphics();
+                    s.square[id] = p.getRow() * cols + p.getCol();
+                    s.typeState[id] = p.getType().ordinal() << 3 | p.getCurrentStateName().ordinal();
+                    s.x[id] = (int) Math.round(physics.getCurrentX() * scale);
+                    s.y[id] = (int) Math.round(physics.getCurrentY() * scale);
+                    s.frame[id] = graphics == null ? 0 : graphics.getCurrentNumFrame();
+                }
+                id++;
+            }
+        }
+        return s;
+    }
+
+    /**
+     * Marks a piece captured; its other fields become unknown.
+     */
+    void clear(int id) {
+        square[id] = -1;
+        typeState[id] = -1;
+        x[id] = -1;
+        y[id] = -1;
+        frame[id] = -1;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public int getWinner() {
+        return winner;
+    }
+
+    public int getPieceCount() {
+        return square.length;
+    }
+
+    public boolean isCaptured(int id) {
+        return square[id] < 0;
+    }
+
+    public int getRow(int id) {
+        return square[id] / cols;
+    }
+
+    public int getCol(int id) {
+        return square[id] % cols;
+    }
+
+    public EPieceType getType(int id) {
+        return PIECE_TYPES[typeState[id] >>> 3];
+    }
+
+    public EState getState(int id) {
+        return STATES[typeState[id] & 7];
+    }
+
+    /**
+     * Gets the quantized x position, in 1/{@link #STEPS_PER_TILE} of a tile.
+     */
+    public int getX(int id) {
+        return x[id];
+    }
+
+    public int getY(int id) {
+        return y[id];
+    }
+
+    public int getFrame(int id) {
+        return frame[id];
+    }
+
+    /**
+     * Returns true if both snapshots show the same pieces in the same places and states.
+     */
+    public boolean sameContent(Snapshot other) {
+        return winner == other.winner && Arrays.equals(square, other.square)
+                && Arrays.equals(typeState, other.typeState) && Arrays.equals(x, other.x)
+                && Arrays.equals(y, other.y) && Arrays.equals(frame, other.frame);
+    }
+}
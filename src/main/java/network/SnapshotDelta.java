@@ -0,0 +1,34 @@
+package network;
+
+/**
+ * Field masks for snapshot deltas: a changed piece is sent with a mask byte telling
+ * which of its fields follow.
+ */
+final class SnapshotDelta {
+    /** Square changed; the square is sent as {@code square + 1}, 0 meaning captured. */
+    static final int SQUARE = 1;
+    static final int TYPE_STATE = 2;
+    static final int POSITION = 4;
+    static final int FRAME = 8;
+
+    private SnapshotDelta() {
+    }
+
+    /**
+     * Computes which fields of a piece differ. A captured piece only reports {@link #SQUARE}.
+     */
+    static int mask(Snapshot base, Snapshot current, int id) {
+        if (current.square[id] < 0)
+            return base.square[id] < 0 ? 0 : SQUARE;
+        int mask = 0;
+        if (base.square[id] != current.square[id])
+            mask |= SQUARE;
+        if (base.typeState[id] != current.typeState[id])
+            mask |= TYPE_STATE;
+        if (base.x[id] != current.x[id] || base.y[id] != current.y[id])
+            mask |= POSITION;
+        if (base.frame[id] != current.frame[id])
+            mask |= FRAME;
+        return mask;
+    }
+}
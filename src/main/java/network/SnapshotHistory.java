@@ -0,0 +1,35 @@
+package network;
+
+/**
+ * Ring of the most recent snapshots, looked up by tick.
+ * The server keeps one as the baselines clients may acknowledge; a client keeps one
+ * with the snapshots it received, to apply deltas against. Not thread safe.
+ */
+public class SnapshotHistory {
+    private final Snapshot[] ring;
+    private final int mask;
+
+    /**
+     * @param capacity Number of snapshots kept, rounded up to a power of two
+     */
+    public SnapshotHistory(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.ring = new Snapshot[size];
+        this.mask = size - 1;
+    }
+
+    public void put(Snapshot snapshot) {
+        ring[(int) snapshot.tick & mask] = snapshot;
+    }
+
+    /**
+     * Gets the snapshot of a tick.
+     * @return The snapshot, or null if it is unknown or already overwritten
+     */
+    public Snapshot get(long tick) {
+        if (tick < 0)
+            return null;
+        Snapshot s = ring[(int) tick & mask];
+        return s != null && s.tick == tick ? s : null;
+    }
+}
@@ -0,0 +1,160 @@
+package network;
+
+import interfaces.IGame;
+import interfaces.IGameListener;
+import interfaces.IPlayer;
+import utils.LogUtils;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts the game to spectators.
+ * <p>
+ * As a game listener it only captures a {@link Snapshot} on the game thread; the cost of a tick
+ * does not depend on the number of spectators. A fan-out thread encodes each snapshot once as a
+ * delta against the previous one into a {@link SharedFrame} and hands the same frame to every
+ * spectator. A spectator holds at most one unsent frame: when a newer one arrives the stale frame
+ * is dropped, and since the delta chain is then broken the spectator gets a full frame instead,
+ * also encoded once per round for all spectators that need one.
+ */
+class SpectatorHub implements IGameListener {
+    private final IWireCodec codec;
+    private final BufferPool pool;
+    private final int pushEveryTicks;
+    /** Called after a frame was queued for a session, so the selector writes it. */
+    private final Consumer<ClientSession> flush;
+    private final List<ClientSession> spectators = new CopyOnWriteArrayList<>();
+    /** Newest captured snapshot not yet fanned out; older ones are skipped. */
+    private final AtomicReference<Snapshot> latest = new AtomicReference<>();
+    private Thread thread;
+    private volatile boolean running;
+
+    /** Previous published snapshot, fan-out thread only. */
+    private Snapshot previous;
+    private long encodedFrames;
+
+    SpectatorHub(IWireCodec codec, BufferPool pool, int pushEveryTicks, Consumer<ClientSession> flush) {
+        this.codec = codec;
+        this.pool = pool;
+        this.pushEveryTicks = Math.max(1, pushEveryTicks);
+        this.flush = flush;
+    }
+
+    void start() {
+        running = true;
+        thread = new Thread(this::runLoop, "spectator-fanout");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void stop() {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    void add(ClientSession session) {
+        spectators.add(session);
+    }
+
+    void remove(ClientSession session) {
+        spectators.remove(session);
+        SharedFrame stale = session.spectatorSlot.getAndSet(null);
+        if (stale != null)
+            stale.release();
+    }
+
+    int getSpectatorCount() {
+        return spectators.size();
+    }
+
+    /**
+     * Gets the number of frames encoded so far, independent of the number of spectators.
+     */
+    long getEncodedFrames() {
+        return encodedFrames;
+    }
+
+    @Override
+    public void onUpdate(IGame game, long tick) {
+        if (spectators.isEmpty() || tick % pushEveryTicks != 0)
+            return;
+        IPlayer winner = game.win();
+        latest.set(Snapshot.capture(game.getBoard(), tick, winner == null ? -1 : winner.getId()));
+        if (thread != null)
+            LockSupport.unpark(thread);
+    }
+
+    private void runLoop() {
+        while (running) {
+            Snapshot snapshot = latest.getAndSet(null);
+            if (snapshot == null) {
+                LockSupport.park(this);
+                continue;
+            }
+            try {
+                fanOut(snapshot);
+            } catch (RuntimeException e) {
+                LogUtils.logDebug("Spectator fan-out error: " + e);
+            }
+        }
+    }
+
+    /**
+     * Encodes a snapshot once and offers it to every spectator.
+     */
+    void fanOut(Snapshot snapshot) {
+        SharedFrame delta = encode(previous, snapshot);
+        SharedFrame full = previous == null ? delta.retain() : null;
+        previous = snapshot;
+
+        for (ClientSession s : spectators) {
+            if (s.closed)
+                continue;
+            // Take back a frame the writer has not started; if that works, it was never sent
+            boolean dropped = false;
+            SharedFrame stale = s.spectatorSlot.get();
+            if (stale != null && s.spectatorSlot.compareAndSet(stale, null)) {
+                stale.release();
+                dropped = true;
+            }
+
+            boolean chained = !dropped && !s.resync && s.lastQueuedTick == delta.baseTick;
+            SharedFrame frame;
+            if (chained) {
+                frame = delta;
+            } else {
+                if (full == null)
+                    full = encode(null, snapshot);
+                frame = full;
+                s.resync = false;
+            }
+            s.spectatorSlot.set(frame.retain());
+            s.lastQueuedTick = snapshot.tick;
+            flush.accept(s);
+        }
+
+        delta.release();
+        if (full != null)
+            full.release();
+    }
+
+    private SharedFrame encode(Snapshot base, Snapshot current) {
+        ByteBuffer buf = pool.acquire();
+        codec.encodeDelta(base, current, buf);
+        buf.flip();
+        encodedFrames++;
+        return new SharedFrame(buf, pool, current.tick, base == null ? -1 : base.tick);
+    }
+}
@@ -0,0 +1,71 @@
+package network;
+
+import interfaces.EState;
+import pieces.EPieceType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Client side view of decoded server messages, stored as parallel arrays so a client
+ * can decode every frame into the same instance.
+ */
+public class StateFrame {
+    /** Player controlled by this client as sent in the welcome, -1 for a spectator. */
+    public int playerId = -1;
+    public int boardRows;
+    public int boardCols;
+    /** Latest snapshot rebuilt from DELTA messages. */
+    public Snapshot snapshot;
+    /** Set when a delta arrived whose baseline is unknown; the client should ACK -1. */
+    public boolean desynced;
+    /** Tick and commands of the latest INPUT message. */
+    public long inputTick = -1;
+    public final List<PlayerInput> inputs = new ArrayList<>();
+    public long tick;
+    /** Id of the winner, -1 while the game runs. */
+    public int winner;
+    /** Number of live pieces in the frame. */
+    public int count;
+    public int[] ids = new int[32];
+    public int[] owners = new int[32];
+    public int[] rows = new int[32];
+    public int[] cols = new int[32];
+    public EPieceType[] types = new EPieceType[32];
+    public EState[] states = new EState[32];
+
+    void clear() {
+        count = 0;
+    }
+
+    void add(int id, int owner, int row, int col, EPieceType type, EState state) {
+        if (count == ids.length) {
+            int n = count * 2;
+            ids = Arrays.copyOf(ids, n);
+            owners = Arrays.copyOf(owners, n);
+            rows = Arrays.copyOf(rows, n);
+            cols = Arrays.copyOf(cols, n);
+            types = Arrays.copyOf(types, n);
+            states = Arrays.copyOf(states, n);
+        }
+        ids[count] = id;
+        owners[count] = owner;
+        rows[count] = row;
+        cols[count] = col;
+        types[count] = type;
+        states[count] = state;
+        count++;
+    }
+
+    /**
+     * Finds the index of a piece in the frame.
+     * @return The index, or -1 if the piece is not in the frame
+     */
+    public int indexOf(int id) {
+        for (int i = 0; i < count; i++)
+            if (ids[i] == id)
+                return i;
+        return -1;
+    }
+}
@@ -1,37 +1,88 @@
 package org.example;
 
+import ai.SearchEngine;
+import assets.AssetCatalog;
+import assets.AssetLoader;
+import assets.AssetPack;
 import board.BoardConfig;
 import board.Dimension;
 import events.soundEvents.EventBus;
 import events.soundEvents.MovementEvent;
 import events.soundEvents.MovementSoundPlayer;
 import game.Game;
+import game.LoadPieces;
 import interfaces.IGame;
 import interfaces.IPlayer;
 import pieces.Position;
+import player.BotPlayer;
 import player.Player;
 import player.PlayerCursor;
+import utils.StartupProfiler;
+import utils.SystemClock;
 import view.GamePanel;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        if (Arrays.asList(args).contains("--profile-startup"))
+            StartupProfiler.setEnabled(true);
+
+        long swingStart = StartupProfiler.start();
+        // Swing components are created on the event dispatch thread and handed back through holders
+        JFrame[] frameHolder = new JFrame[1];
+        JProgressBar[] progressHolder = new JProgressBar[1];
+        SwingUtilities.invokeAndWait(() -> {
+            JFrame frame = new JFrame("KFChess");
+            JProgressBar progress = new JProgressBar();
+            frameHolder[0] = frame;
+            progressHolder[0] = progress;
+            frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            progress.setStringPainted(true);
+            progress.setString("Loading pieces...");
+            progress.setPreferredSize(new java.awt.Dimension(360, 28));
+            JPanel loading = new JPanel(new BorderLayout());
+            loading.setBorder(BorderFactory.createEmptyBorder(24, 24, 24, 24));
+            loading.add(progress, BorderLayout.CENTER);
+            frame.setContentPane(loading);
+            frame.pack();
+            frame.setLocationRelativeTo(null);
+            frame.setVisible(true);
+        });
+        StartupProfiler.end("Swing init (loading window)", swingStart);
+        JFrame frame = frameHolder[0];
+        JProgressBar progress = progressHolder[0];
+
+        // Map the prebuilt asset pack; without one decode the assets on the fork/join pool while the window stays responsive
+        AssetCatalog catalog = AssetPack.load();
+        if (catalog == null) {
+            catalog = new AssetLoader(ForkJoinPool.commonPool(), (done, total) ->
+                    SwingUtilities.invokeLater(() -> {
+                        progress.setMaximum(total);
+                        progress.setValue(done);
+                    })).load();
+        }
+        AssetCatalog.install(catalog);
+
         SwingUtilities.invokeLater(() -> {
             //ToDo: here is an initial trying to play a sound
             MovementSoundPlayer movementSoundPlayer = new MovementSoundPlayer();
             EventBus.getInstance().subscribe(movementSoundPlayer);
-           
-            JFrame frame = new JFrame("KFChess");
-            frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 
-            BoardConfig boardConfig = new BoardConfig(new Dimension(8),new Dimension(64*8));
+            BoardConfig boardConfig = new BoardConfig(LoadPieces.getLayout(), SystemClock.INSTANCE);
+            Dimension size = boardConfig.numRowsCols;
+            Position far = new Position(size.getX() - 1, size.getY() - 1);
 
-            IPlayer p1 = new Player("aaa",new PlayerCursor(new Position(0,0), Color.RED), boardConfig);
-            IPlayer p2 = new Player("bbb",new PlayerCursor(new Position(7,7),Color.BLUE), boardConfig);
+            IPlayer p1 = new Player("aaa",new PlayerCursor(new Position(0,0), Color.RED, size), boardConfig);
+            IPlayer p2 = Arrays.asList(args).contains("--bot")
+                    ? new BotPlayer(1, "bot", new PlayerCursor(far,Color.BLUE, size), boardConfig, new SearchEngine())
+                    : new Player("bbb",new PlayerCursor(far,Color.BLUE, size), boardConfig);
 
             IGame game = new Game(boardConfig ,p1, p2);
+            long viewStart = StartupProfiler.start();
             GamePanel gameView = new GamePanel(game);
 
             // Add debug prints
@@ -42,7 +93,7 @@ public class Main {
             frame.setContentPane(gameView); 
             frame.pack();
             frame.setLocationRelativeTo(null);
-            frame.setVisible(true);
+            StartupProfiler.end("Swing init (game view)", viewStart);
         });
     }
 }
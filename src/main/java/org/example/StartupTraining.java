@@ -0,0 +1,56 @@
+package org.example;
+
+import ai.BotController;
+import ai.SearchEngine;
+import assets.AssetCatalog;
+import game.LoadPieces;
+import player.BotPlayer;
+import simulation.HeadlessGame;
+import simulation.RandomCommandGenerator;
+import simulation.SimulationResult;
+import utils.LogUtils;
+import utils.StartupProfiler;
+import view.GamePanel;
+
+import java.awt.HeadlessException;
+
+/**
+ * Scripted headless run that walks the startup path and plays a short game, used to train the
+ * AppCDS archive built by the {@code cds} Maven profile: every class it loads ends up in the archive.
+ * <p>
+ * Usage: {@code StartupTraining [--ticks N]}
+ */
+public class StartupTraining {
+    public static void main(String[] args) {
+        long ticks = 2_000;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--ticks": ticks = Long.parseLong(args[++i]); break;
+                default: throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        LogUtils.setEnabled(false);
+        StartupProfiler.setEnabled(true);
+        AssetCatalog.shared();
+        LoadPieces.getBoardMatrix();
+
+        BotController bot = new BotController(new SearchEngine(), 2_000_000L, BotPlayer.DEFAULT_INTERVAL_NANOS);
+        HeadlessGame game = new HeadlessGame(new RandomCommandGenerator(7),
+                (player, board, tick) -> bot.decide(board, player.getId()), HeadlessGame.DEFAULT_TICK_MILLIS);
+
+        // Panels can be built without a display, which loads most of the Swing classes the game view needs
+        long viewStart = StartupProfiler.start();
+        try {
+            new GamePanel(game.getGame());
+            StartupProfiler.end("Swing init (game view)", viewStart);
+        } catch (HeadlessException e) {
+            System.err.println("Skipping Swing classes: " + e.getMessage());
+        }
+
+        game.step();
+        StartupProfiler.finish("first tick");
+        SimulationResult result = game.run(ticks);
+        System.out.println("Training game: winner " + result.winner + " after " + result.ticks + " ticks");
+    }
+}
@@ -1,6 +1,5 @@
 package pieces;
 
-import board.BoardConfig;
 import interfaces.*;
 import utils.LogUtils;
 
@@ -9,7 +8,9 @@ import java.io.IOException;
 import java.util.Map;
 
 public class Piece implements IPiece {
+    /** Display id, the start square as "row,col". */
     private final String id;
+    private final byte owner;
     private final EPieceType type;
     private Map<EState, IState> states;
     private EState currentStateName;
@@ -22,23 +23,33 @@ public class Piece implements IPiece {
     private boolean wasCaptured = false;
 
     public Piece(EPieceType type, int playerId, Map<EState, IState> states, EState initialState, Position pos) throws IOException {
+        this(type, playerId, states, initialState, pos, new Moves(type, playerId));
+    }
+
+    /**
+     * Constructs a piece with an already loaded moves table, shared with the other pieces of its type.
+     */
+    public Piece(EPieceType type, int playerId, Map<EState, IState> states, EState initialState, Position pos, Moves moves) {
+        if (playerId < 0 || playerId > Byte.MAX_VALUE)
+            throw new IllegalArgumentException("Invalid player " + playerId);
         id = pos.getRow() + "," + pos.getCol();
+        this.owner = (byte) playerId;
         this.states = states;
         this.currentStateName = initialState;
         this.currentState = states.get(initialState);
         this.pos = pos;
         this.type = type;
-
-        moves = new Moves(type, playerId);
+        this.moves = moves;
     }
 
     @Override
     public int getPlayer() {
-        return BoardConfig.getPlayerOf(Integer.parseInt(this.getId().split(",")[0]));
+        return owner;
     }
 
 
 
+
     @Override
     public String getId() {
         return id;
@@ -113,6 +124,15 @@ public class Piece implements IPiece {
         }
     }
 
+    @Override
+    public void restore(EState state, Position pos) {
+        if (!states.containsKey(state))
+            throw new IllegalArgumentException("State '" + state + "' not found!");
+        this.currentStateName = state;
+        this.currentState = states.get(state);
+        this.pos = pos;
+    }
+
     @Override
     public boolean isCaptured() {
         return wasCaptured;
@@ -1,5 +1,6 @@
 package pieces;
 
+import board.BoardConfig;
 import interfaces.IPiece;
 
 import java.awt.*;
@@ -26,13 +27,13 @@ public class PieceRenderer {
         // If the piece is moving, use its pixel position for smooth animation
         if (p.getCurrentStateName().equals("move")) {
             Point2D.Double pos = p.getCurrentPixelPosition();
-            x = pos.x / 64.0;
-            y = pos.y / 64.0;
+            x = pos.x / BoardConfig.TILE_PIXELS;
+            y = pos.y / BoardConfig.TILE_PIXELS;
         }
 
         Point2D.Double pos = p.getCurrentPixelPosition();
-        int pixelX = (int) (pos.x * squareWidth / 64.0);
-        int pixelY = (int) (pos.y * squareHeight / 64.0);
+        int pixelX = (int) (pos.x * squareWidth / BoardConfig.TILE_PIXELS);
+        int pixelY = (int) (pos.y * squareHeight / BoardConfig.TILE_PIXELS);
 
         g.drawImage(frame, pixelX, pixelY, squareWidth, squareHeight, null);
     }
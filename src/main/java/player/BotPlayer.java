@@ -0,0 +1,46 @@
+package player;
+
+import ai.BotController;
+import ai.SearchEngine;
+import board.BoardConfig;
+import interfaces.IBoard;
+import interfaces.ICommand;
+import interfaces.IPlayerCursor;
+
+/**
+ * A player controlled by the search engine instead of the keyboard.
+ * The game loop calls {@link #handleSelection(IBoard)} every tick.
+ */
+public class BotPlayer extends Player {
+    /** Default wall-clock search budget per decision. */
+    public static final long DEFAULT_BUDGET_NANOS = 50_000_000L;
+    /** Default game time between decisions. */
+    public static final long DEFAULT_INTERVAL_NANOS = 500_000_000L;
+
+    private final BotController controller;
+
+    /**
+     * Constructs a bot with default budget and decision rate.
+     */
+    public BotPlayer(int id, String name, IPlayerCursor pc, BoardConfig bc, SearchEngine engine) {
+        this(id, name, pc, bc, new BotController(engine, DEFAULT_BUDGET_NANOS, DEFAULT_INTERVAL_NANOS));
+    }
+
+    /**
+     * Constructs a bot driven by the given controller.
+     */
+    public BotPlayer(int id, String name, IPlayerCursor pc, BoardConfig bc, BotController controller) {
+        super(id, name, pc, bc);
+        this.controller = controller;
+    }
+
+    /**
+     * Lets the engine choose the next action instead of reading the cursor.
+     * @param board The game board
+     * @return The chosen command, or null to wait
+     */
+    @Override
+    public ICommand handleSelection(IBoard board) {
+        return controller.decide(board, getId());
+    }
+}
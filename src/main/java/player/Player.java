@@ -1,13 +1,14 @@
 package player;
 
 import board.BoardConfig;
+import board.BoardLayout;
 import command.JumpCommand;
 import command.MoveCommand;
 import interfaces.*;
-import game.LoadPieces;
 import pieces.EPieceType;
 import pieces.Position;
 import utils.LogUtils;
+import utils.StartupProfiler;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -29,7 +30,15 @@ public class Player implements IPlayer{
      * Constructs a Player, initializes pieces and status.
      */
     public Player(String name ,IPlayerCursor pc, BoardConfig bc){
-        id = mone++;
+        this(mone++, name, pc, bc);
+    }
+
+    /**
+     * Constructs a Player with an explicit id, its index among the game's players;
+     * used when many games share one JVM.
+     */
+    public Player(int id, String name, IPlayerCursor pc, BoardConfig bc){
+        this.id = id;
         this.cursor = pc;
         pending=null;
         isFailed = false;
@@ -37,12 +46,10 @@ public class Player implements IPlayer{
 
         pieces = new ArrayList<>();
 
-        for(int i:BoardConfig.rowsOfPlayer.get(id))
-            for(int j=0; j<8; j++)
-            //    public static Piece createPieceByCode(EPieceType code, int playerId, Position pos, BoardConfig config) {
-
-                this.pieces.add(PiecesFactory.createPieceByCode(EPieceType.valueOf(LoadPieces.board[i][j].charAt(0)+""),id,new Position(i, j), bc));
-
+        long start = StartupProfiler.start();
+        for (BoardLayout.Placement p : bc.layout.getPlacements(id))
+            this.pieces.add(PiecesFactory.createPieceByCode(p.getType(), id, new Position(p.getRow(), p.getCol()), bc));
+        StartupProfiler.end("Player construction", start);
     }
 
     /**
@@ -1,9 +1,14 @@
 package player;
 
+import board.BoardLayout;
+import board.Dimension;
 import interfaces.IPlayerCursor;
 import pieces.Position;
 
-import java.awt.*;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
 
 /**
  * Represents a player's cursor for selecting pieces on the board.
@@ -20,8 +25,18 @@ public class PlayerCursor implements IPlayerCursor {
      * @param color The color used to draw the cursor
      */
     public PlayerCursor(Position pos, Color color) {
-        ROWS=8;
-        COLS=8;
+        this(pos, color, new Dimension(BoardLayout.STANDARD_SIZE));
+    }
+
+    /**
+     * Constructs a PlayerCursor confined to a board of the given size.
+     * @param pos The initial position of the cursor
+     * @param color The color used to draw the cursor
+     * @param size The number of rows and columns of the board
+     */
+    public PlayerCursor(Position pos, Color color, Dimension size) {
+        ROWS = size.getX();
+        COLS = size.getY();
         this.pos = pos;
         this.color = color;
     }
@@ -66,8 +81,8 @@ public class PlayerCursor implements IPlayerCursor {
      */
     @Override
     public void draw(Graphics g, int panelWidth, int panelHeight) {
-        int squareWidth = panelWidth / ROWS;
-        int squareHeight = panelHeight / COLS;
+        int squareWidth = panelWidth / COLS;
+        int squareHeight = panelHeight / ROWS;
 
         int x = pos.getCol() * squareWidth;
         int y = pos.getRow() * squareHeight;
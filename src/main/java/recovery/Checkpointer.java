@@ -0,0 +1,146 @@
+package recovery;
+
+import journal.GameJournal;
+import migration.GameImage;
+import simulation.HeadlessGame;
+import utils.LogUtils;
+import utils.Varint;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Keeps the latest checkpoint of a journaled game next to its journal, so recovery only has to replay
+ * the journal from there on.
+ * <p>
+ * A checkpoint is a {@link GameImage} plus the journal offset it corresponds to, taken on the game thread
+ * right after a step, when no commands are queued. The file is written on the journal's sync thread once
+ * the journal is on disk up to that offset, to a temporary file that then replaces the previous checkpoint,
+ * so a crash leaves either the old or the new one.
+ * Layout: {@code [int magic][varlong journal offset][image]}.
+ */
+public class Checkpointer {
+    public static final int MAGIC = 0x4B464331;
+    /** File extension of checkpoints. */
+    public static final String SUFFIX = ".checkpoint";
+    /** Ticks between two checkpoints, about eight seconds at the 16ms tick. */
+    public static final int DEFAULT_INTERVAL_TICKS = 512;
+
+    private final HeadlessGame game;
+    private final GameJournal journal;
+    private final boolean[] bots;
+    private final Path file;
+    private final int intervalTicks;
+    /** Tick of the last checkpoint, -1 before the first. */
+    private long lastTick = -1;
+
+    /**
+     * @param journalFile The game's journal; the checkpoint goes next to it
+     * @param game The game
+     * @param journal The game's journal
+     * @param bots Which players are driven by a bot
+     * @param intervalTicks Ticks between two checkpoints
+     */
+    public Checkpointer(Path journalFile, HeadlessGame game, GameJournal journal, boolean[] bots, int intervalTicks) {
+        this.game = game;
+        this.journal = journal;
+        this.bots = bots;
+        this.file = fileFor(journalFile);
+        this.intervalTicks = intervalTicks;
+    }
+
+    /**
+     * Gets the checkpoint file belonging to a journal.
+     */
+    public static Path fileFor(Path journalFile) {
+        String name = journalFile.getFileName().toString();
+        if (name.endsWith(GameJournal.SUFFIX))
+            name = name.substring(0, name.length() - GameJournal.SUFFIX.length());
+        return journalFile.resolveSibling(name + SUFFIX);
+    }
+
+    /**
+     * Takes a checkpoint if the interval has passed. Call it on the game thread after each step.
+     */
+    public void tick() {
+        if (lastTick < 0 || game.getTick() - lastTick >= intervalTicks)
+            checkpoint();
+    }
+
+    /**
+     * Takes a checkpoint now. Call it on the game thread between two steps.
+     * @return true if taken, false while commands are queued
+     */
+    public boolean checkpoint() {
+        GameImage image = GameImage.capture(game, bots);
+        if (image.getQueuedCommandCount() > 0)
+            return false;
+        lastTick = game.getTick();
+        long offset = journal.size();
+        byte[] bytes = image.toBytes();
+        journal.afterSync(() -> {
+            try {
+                write(file, offset, bytes);
+            } catch (IOException e) {
+                LogUtils.logDebug("Cannot write checkpoint " + file + ": " + e);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Writes a checkpoint durably, replacing the previous one in one step.
+     */
+    static void write(Path file, long offset, byte[] image) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(14 + image.length);
+        buf.putInt(MAGIC);
+        Varint.writeLong(buf, offset);
+        buf.put(image).flip();
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            while (buf.hasRemaining())
+                out.write(buf);
+            out.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a checkpoint.
+     * @param file The checkpoint file
+     * @return The checkpoint
+     * @throws IOException if the file cannot be read or is damaged
+     */
+    static Saved read(Path file) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file));
+        try {
+            if (in.getInt() != MAGIC)
+                throw new IOException("Not a checkpoint: " + file);
+            long offset = Varint.readLong(in);
+            byte[] image = new byte[in.remaining()];
+            in.get(image);
+            return new Saved(offset, GameImage.fromBytes(image));
+        } catch (RuntimeException e) {
+            throw new IOException("Damaged checkpoint " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * A checkpoint read back: the game image and the journal offset to continue from.
+     */
+    static final class Saved {
+        final long offset;
+        final GameImage image;
+
+        Saved(long offset, GameImage image) {
+            this.offset = offset;
+            this.image = image;
+        }
+    }
+}
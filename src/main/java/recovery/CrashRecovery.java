@@ -0,0 +1,182 @@
+package recovery;
+
+import command.JumpCommand;
+import command.MoveCommand;
+import interfaces.IBoard;
+import interfaces.IGame;
+import journal.EJournalRecord;
+import journal.GameJournal;
+import journal.JournalReader;
+import migration.GameImage;
+import pieces.Position;
+import replay.GameRecording;
+import simulation.HeadlessGame;
+import simulation.ICommandGenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Brings back the games a crashed server was running.
+ * <p>
+ * Every journal in the directory without a WIN record is a game in flight. It is restored from its
+ * latest {@link Checkpointer checkpoint} (or from the start if the journal begins at tick 0 and has none)
+ * and the journal's commands recorded after the checkpoint are fed back through {@code Game.update}
+ * tick by tick, up to the last journaled tick, whose own commands are left queued for the next update.
+ * The simulation is deterministic, so the game ends up where the crashed one was when it last wrote to
+ * the journal; commands that never made it to disk are lost. The journal is reopened at the checkpoint and records the replay again, which
+ * rewrites the same bytes and cuts off any torn tail, so it stays one continuous, replayable history.
+ * <p>
+ * Games are independent and are recovered in parallel on a fixed pool.
+ */
+public class CrashRecovery {
+    private static final ICommandGenerator IDLE = (player, board, tick) -> null;
+
+    private final long tickMillis;
+
+    /**
+     * @param tickMillis Tick length for games recovered without a checkpoint
+     */
+    public CrashRecovery(long tickMillis) {
+        this.tickMillis = tickMillis;
+    }
+
+    /**
+     * Recovers every unfinished game in a directory.
+     * Journals that cannot be recovered are reported on stderr and left alone.
+     * @param dir The journal directory
+     * @param threads Games recovered at once
+     * @return The recovered games, in file name order
+     */
+    public List<RecoveredGame> recoverAll(Path dir, int threads) throws IOException, InterruptedException {
+        return recoverAll(dir, threads, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Recovers the first unfinished games in a directory, up to a limit. The journals of the games
+     * beyond it are closed unchanged, so another node can recover them.
+     * @param dir The journal directory
+     * @param threads Games recovered at once
+     * @param maxGames Most games returned
+     * @return The recovered games, in file name order
+     */
+    public List<RecoveredGame> recoverAll(Path dir, int threads, int maxGames) throws IOException, InterruptedException {
+        List<Path> files;
+        try (Stream<Path> s = Files.list(dir)) {
+            files = s.filter(p -> p.toString().endsWith(GameJournal.SUFFIX)).sorted().collect(Collectors.toList());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            List<Future<RecoveredGame>> futures = new ArrayList<>();
+            for (Path file : files)
+                futures.add(pool.submit(() -> recover(file)));
+
+            List<RecoveredGame> games = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    RecoveredGame game = futures.get(i).get();
+                    if (game == null)
+                        continue;
+                    if (games.size() < maxGames)
+                        games.add(game);
+                    else
+                        game.getJournal().close();
+                } catch (ExecutionException e) {
+                    System.err.println("Cannot recover " + files.get(i) + ": " + e.getCause().getMessage());
+                } catch (IOException e) {
+                    System.err.println("Cannot release " + files.get(i) + ": " + e.getMessage());
+                }
+            }
+            return games;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Recovers one game.
+     * @param file The game's journal
+     * @return The game, or null if it was already over
+     * @throws IOException if the journal or checkpoint is unusable
+     */
+    public RecoveredGame recover(Path file) throws IOException {
+        Checkpointer.Saved saved = null;
+        Path checkpointFile = Checkpointer.fileFor(file);
+        if (Files.exists(checkpointFile))
+            saved = Checkpointer.read(checkpointFile);
+
+        long offset = saved == null ? GameJournal.HEADER_BYTES : saved.offset;
+        List<GameRecording.Event> commands = new ArrayList<>();
+        long lastTick;
+        int cols;
+        try (JournalReader in = new JournalReader(file)) {
+            if (saved == null && in.getStartTick() != 0)
+                throw new IOException("No checkpoint for a journal starting at tick " + in.getStartTick());
+            cols = in.getCols();
+            lastTick = in.getStartTick();
+            boolean reached = in.position() == offset;
+            while (in.next()) {
+                if (in.getType() == EJournalRecord.WIN)
+                    return null;
+                lastTick = in.getTick();
+                if (reached && (in.getType() == EJournalRecord.MOVE || in.getType() == EJournalRecord.JUMP))
+                    commands.add(new GameRecording.Event(in.getType(), in.getTick(), in.getPlayer(), in.getFrom(), in.getTo()));
+                reached |= in.position() == offset;
+            }
+            // A checkpoint ahead of what reached the disk is of no use
+            if (!reached)
+                throw new IOException("Checkpoint beyond the end of the journal");
+        }
+
+        HeadlessGame game;
+        boolean[] bots = new boolean[2];
+        if (saved == null) {
+            game = new HeadlessGame(IDLE, IDLE, tickMillis);
+        } else {
+            GameImage image = saved.image;
+            game = image.resume(IDLE, IDLE);
+            for (int i = 0; i < bots.length && i < image.getPlayerCount(); i++)
+                bots[i] = image.isBot(i);
+        }
+        long checkpointTick = game.getTick();
+
+        GameJournal journal = GameJournal.reopen(file, game.getGame(), offset);
+        journal.start();
+        replay(game, commands, lastTick, cols);
+        journal.discardTail();
+        return new RecoveredGame(file, game, journal, bots, checkpointTick);
+    }
+
+    /**
+     * Steps the game up to {@code lastTick}, feeding each tick its recorded commands, and queues the commands
+     * recorded for {@code lastTick} itself, whose update had not been journaled yet.
+     */
+    private static void replay(HeadlessGame game, List<GameRecording.Event> commands, long lastTick, int cols) {
+        IGame g = game.getGame();
+        IBoard board = g.getBoard();
+        int next = 0;
+        while (g.win() == null) {
+            while (next < commands.size() && commands.get(next).getTick() == game.getTick()) {
+                GameRecording.Event e = commands.get(next++);
+                Position from = new Position(e.getFrom() / cols, e.getFrom() % cols);
+                if (e.getType() == EJournalRecord.MOVE)
+                    g.addCommand(new MoveCommand(from, new Position(e.getTo() / cols, e.getTo() % cols), board));
+                else
+                    g.addCommand(new JumpCommand(board.getPiece(from), board));
+            }
+            if (game.getTick() >= lastTick)
+                break;
+            game.step();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package recovery;
+
+import journal.GameJournal;
+import simulation.HeadlessGame;
+
+import java.nio.file.Path;
+
+/**
+ * A game brought back after a crash, at its last journaled tick.
+ * Its journal is reopened and recording again; its generators are idle until the caller sets them.
+ */
+public final class RecoveredGame {
+    private final Path journalFile;
+    private final HeadlessGame game;
+    private final GameJournal journal;
+    private final boolean[] bots;
+    private final long checkpointTick;
+
+    RecoveredGame(Path journalFile, HeadlessGame game, GameJournal journal, boolean[] bots, long checkpointTick) {
+        this.journalFile = journalFile;
+        this.game = game;
+        this.journal = journal;
+        this.bots = bots;
+        this.checkpointTick = checkpointTick;
+    }
+
+    public Path getJournalFile() {
+        return journalFile;
+    }
+
+    public HeadlessGame getGame() {
+        return game;
+    }
+
+    /**
+     * Gets the reopened journal, already recording the game.
+     */
+    public GameJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Gets which players were driven by a bot, as far as the checkpoint knows.
+     */
+    public boolean[] getBots() {
+        return bots;
+    }
+
+    /**
+     * Gets the tick the game was restored at before the journal tail was replayed.
+     */
+    public long getCheckpointTick() {
+        return checkpointTick;
+    }
+
+    /**
+     * Gets the number of ticks replayed from the journal.
+     */
+    public long getReplayedTicks() {
+        return game.getTick() - checkpointTick;
+    }
+}
@@ -0,0 +1,154 @@
+package replay;
+
+import journal.EJournalRecord;
+import journal.GameJournal;
+import journal.JournalReader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The recorded commands of one game and the outcomes they led to, read from a {@link GameJournal}.
+ * State changes are not kept: replaying the commands recreates them.
+ */
+public final class GameRecording {
+    private final int rows;
+    private final int cols;
+    private final List<Event> commands;
+    private final List<Event> outcomes;
+    private final long lastTick;
+
+    GameRecording(int rows, int cols, List<Event> commands, List<Event> outcomes, long lastTick) {
+        this.rows = rows;
+        this.cols = cols;
+        this.commands = Collections.unmodifiableList(commands);
+        this.outcomes = Collections.unmodifiableList(outcomes);
+        this.lastTick = lastTick;
+    }
+
+    /**
+     * Reads a journal. A torn tail is ignored, as after a crash.
+     * @param file The journal file
+     * @return The recording
+     * @throws IOException if the file cannot be read or does not start with the game
+     */
+    public static GameRecording read(Path file) throws IOException {
+        List<Event> commands = new ArrayList<>();
+        List<Event> outcomes = new ArrayList<>();
+        try (JournalReader in = new JournalReader(file)) {
+            if (in.getStartTick() != 0)
+                throw new IOException("Journal starts at tick " + in.getStartTick() + ": " + file);
+            long last = 0;
+            while (in.next()) {
+                last = in.getTick();
+                switch (in.getType()) {
+                    case MOVE:
+                    case JUMP:
+                        commands.add(new Event(in.getType(), in.getTick(), in.getPlayer(), in.getFrom(), in.getTo()));
+                        break;
+                    case CAPTURE:
+                        outcomes.add(new Event(EJournalRecord.CAPTURE, in.getTick(), in.getPieceId(), in.getFrom(), in.getFrom()));
+                        break;
+                    case WIN:
+                        outcomes.add(new Event(EJournalRecord.WIN, in.getTick(), in.getPlayer(), -1, -1));
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return new GameRecording(in.getRows(), in.getCols(), commands, outcomes, last);
+        }
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Gets the MOVE and JUMP commands in tick order.
+     */
+    public List<Event> getCommands() {
+        return commands;
+    }
+
+    /**
+     * Gets the CAPTURE and WIN events in the order they happened.
+     */
+    public List<Event> getOutcomes() {
+        return outcomes;
+    }
+
+    /**
+     * Gets the tick of the last record.
+     */
+    public long getLastTick() {
+        return lastTick;
+    }
+
+    /**
+     * One recorded command or outcome.
+     * For commands {@code who} is the player, for captures the piece id, for a win the winner;
+     * {@code from} and {@code to} are squares ({@code row * cols + col}).
+     */
+    public static final class Event {
+        private final EJournalRecord type;
+        private final long tick;
+        private final int who;
+        private final int from;
+        private final int to;
+
+        public Event(EJournalRecord type, long tick, int who, int from, int to) {
+            this.type = type;
+            this.tick = tick;
+            this.who = who;
+            this.from = from;
+            this.to = to;
+        }
+
+        public EJournalRecord getType() {
+            return type;
+        }
+
+        public long getTick() {
+            return tick;
+        }
+
+        public int getWho() {
+            return who;
+        }
+
+        public int getFrom() {
+            return from;
+        }
+
+        public int getTo() {
+            return to;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Event)) return false;
+            Event e = (Event) o;
+            return type == e.type && tick == e.tick && who == e.who && from == e.from && to == e.to;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, tick, who, from, to);
+        }
+
+        @Override
+        public String toString() {
+            return type + "@" + tick + "(" + who + ", " + from + ", " + to + ")";
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package replay;
+
+import command.JumpCommand;
+import command.MoveCommand;
+import interfaces.EState;
+import interfaces.IBoard;
+import interfaces.IBoardListener;
+import interfaces.IGame;
+import interfaces.IPiece;
+import interfaces.IPlayer;
+import journal.EJournalRecord;
+import pieces.Position;
+import simulation.HeadlessGame;
+import simulation.ICommandGenerator;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Re-runs a recorded game on a virtual clock.
+ * <p>
+ * The game is a {@link HeadlessGame}: each tick advances the simulated clock by the recorded tick length,
+ * then the commands recorded for that tick run, exactly as they did live. Nothing reads the wall clock,
+ * so the replay goes as fast as the CPU allows and always ends the same way.
+ * Every {@value #KEYFRAME_TICKS} ticks a checkpoint of the board is kept; seeking restores the nearest
+ * checkpoint at or before the target and replays the remaining ticks.
+ * <p>
+ * Captures and the win seen during the replay are collected so {@link #verify()} can compare them
+ * with the recording. Not thread safe.
+ */
+public class ReplayEngine {
+    /** Ticks between two kept checkpoints. */
+    public static final int KEYFRAME_TICKS = 256;
+    private static final ICommandGenerator IDLE = (player, board, tick) -> null;
+
+    private final GameRecording recording;
+    private final long tickMillis;
+    private final List<GameRecording.Event> outcomes = new ArrayList<>();
+    private final TreeMap<Long, byte[]> keyframes = new TreeMap<>();
+    private HeadlessGame game;
+    private int nextCommand;
+
+    /**
+     * @param recording The recorded game
+     * @param tickMillis The tick length the game was played with
+     */
+    public ReplayEngine(GameRecording recording, long tickMillis) {
+        this.recording = recording;
+        this.tickMillis = tickMillis;
+        reset(null);
+    }
+
+    /**
+     * Starts a fresh game, from a checkpoint if one is given.
+     */
+    private void reset(Map.Entry<Long, byte[]> keyframe) {
+        game = new HeadlessGame(IDLE, IDLE, tickMillis);
+        long tick = keyframe == null ? 0 : keyframe.getKey();
+        if (keyframe != null)
+            game.restore(keyframe.getValue());
+        outcomes.removeIf(e -> e.getTick() > tick);
+        List<GameRecording.Event> commands = recording.getCommands();
+        nextCommand = 0;
+        while (nextCommand < commands.size() && commands.get(nextCommand).getTick() < tick)
+            nextCommand++;
+        game.getGame().getBoard().addListener(new OutcomeListener(game.getGame()));
+    }
+
+    /**
+     * Replays one tick.
+     */
+    public void step() {
+        IGame g = game.getGame();
+        IBoard board = g.getBoard();
+        List<GameRecording.Event> commands = recording.getCommands();
+        int cols = recording.getCols();
+        while (nextCommand < commands.size() && commands.get(nextCommand).getTick() == game.getTick()) {
+            GameRecording.Event e = commands.get(nextCommand++);
+            Position from = new Position(e.getFrom() / cols, e.getFrom() % cols);
+            if (e.getType() == EJournalRecord.MOVE)
+                g.addCommand(new MoveCommand(from, new Position(e.getTo() / cols, e.getTo() % cols), board));
+            else
+                g.addCommand(new JumpCommand(board.getPiece(from), board));
+        }
+        game.step();
+        if (game.getTick() % KEYFRAME_TICKS == 0 && !keyframes.containsKey(game.getTick()))
+            keyframes.put(game.getTick(), game.checkpoint());
+    }
+
+    /**
+     * Moves the replay to the state right before the given tick's update.
+     * @param tick The target tick
+     */
+    public void seek(long tick) {
+        Map.Entry<Long, byte[]> keyframe = keyframes.floorEntry(tick);
+        if (tick < game.getTick() || (keyframe != null && keyframe.getKey() > game.getTick()))
+            reset(keyframe);
+        while (game.getTick() < tick)
+            step();
+    }
+
+    /**
+     * Replays the given number of ticks at once.
+     */
+    public void fastForward(long ticks) {
+        seek(game.getTick() + ticks);
+    }
+
+    /**
+     * Replays the whole recording and compares the captures and the win with the recorded ones.
+     * @return true if the replay reproduced the game
+     */
+    public boolean verify() {
+        seek(recording.getLastTick());
+        return outcomes.equals(recording.getOutcomes());
+    }
+
+    /**
+     * Returns true once the replay has passed the last recorded event.
+     */
+    public boolean isFinished() {
+        return game.getTick() >= recording.getLastTick();
+    }
+
+    public long getTick() {
+        return game.getTick();
+    }
+
+    public IGame getGame() {
+        return game.getGame();
+    }
+
+    public GameRecording getRecording() {
+        return recording;
+    }
+
+    /**
+     * Gets the captures and win seen so far, in the form they are recorded.
+     */
+    public List<GameRecording.Event> getOutcomes() {
+        return outcomes;
+    }
+
+    /**
+     * Collects outcomes the way the journal records them.
+     */
+    private final class OutcomeListener implements IBoardListener {
+        private final IGame g;
+        private final Map<IPiece, Integer> ids = new IdentityHashMap<>();
+        private boolean won;
+
+        OutcomeListener(IGame g) {
+            this.g = g;
+            this.won = g.win() != null;
+            int id = 0;
+            for (IPlayer player : g.getBoard().getPlayers())
+                for (IPiece piece : player.getPieces())
+                    ids.put(piece, id++);
+        }
+
+        @Override
+        public void onCapture(IPiece piece) {
+            int square = piece.getRow() * recording.getCols() + piece.getCol();
+            outcomes.add(new GameRecording.Event(EJournalRecord.CAPTURE, g.getTick(), ids.get(piece), square, square));
+            IPlayer winner = g.win();
+            if (!won && winner != null) {
+                won = true;
+                outcomes.add(new GameRecording.Event(EJournalRecord.WIN, g.getTick(), winner.getId(), -1, -1));
+            }
+        }
+
+        @Override
+        public void onStateChanged(IPiece piece, EState from, EState to) {
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package replay;
+
+import journal.GameJournal;
+import simulation.HeadlessGame;
+import utils.LogUtils;
+import view.ReplayPanel;
+
+import javax.swing.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Replays recorded games.
+ * <p>
+ * Usage: {@code ReplayMain [--tick-ms MS] [--threads T] [--view] PATH}
+ * <p>
+ * PATH is a journal or a directory of journals. By default every game is replayed headless, in parallel,
+ * and checked against its recorded captures and result. {@code --view} shows one game in a window.
+ */
+public class ReplayMain {
+    public static void main(String[] args) throws Exception {
+        long tickMillis = HeadlessGame.DEFAULT_TICK_MILLIS;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean view = false;
+        Path path = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--tick-ms": tickMillis = Long.parseLong(args[++i]); break;
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--view": view = true; break;
+                default:
+                    if (args[i].startsWith("--"))
+                        throw new IllegalArgumentException("Unknown argument: " + args[i]);
+                    path = Path.of(args[i]);
+            }
+        }
+        if (path == null)
+            throw new IllegalArgumentException("Missing journal path");
+
+        LogUtils.setEnabled(false);
+        List<Path> files = journals(path);
+        if (view) {
+            ReplayEngine engine = new ReplayEngine(GameRecording.read(files.get(0)), tickMillis);
+            final long ms = tickMillis;
+            SwingUtilities.invokeLater(() -> {
+                JFrame frame = new JFrame("KFChess replay - " + files.get(0).getFileName());
+                frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+                ReplayPanel panel = new ReplayPanel(engine, (int) ms);
+                frame.setContentPane(panel);
+                frame.pack();
+                frame.setLocationRelativeTo(null);
+                frame.setVisible(true);
+                panel.start();
+            });
+            return;
+        }
+
+        long start = System.nanoTime();
+        int[] result = verifyAll(files, tickMillis, threads);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        System.out.printf("Replayed %d games in %.2fs: %d reproduced, %d differ, %d unreadable%n",
+                files.size(), seconds, result[0], result[1], result[2]);
+        if (result[1] + result[2] > 0)
+            System.exit(1);
+    }
+
+    private static List<Path> journals(Path path) throws IOException {
+        if (!Files.isDirectory(path))
+            return List.of(path);
+        try (Stream<Path> s = Files.list(path)) {
+            return s.filter(p -> p.toString().endsWith(GameJournal.SUFFIX)).sorted().collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Replays the games on a fixed pool and counts the outcomes.
+     * @return {reproduced, different, unreadable}
+     */
+    public static int[] verifyAll(List<Path> files, long tickMillis, int threads) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (Path file : files)
+                futures.add(pool.submit(() -> new ReplayEngine(GameRecording.read(file), tickMillis).verify()));
+
+            int[] result = new int[3];
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    if (futures.get(i).get()) {
+                        result[0]++;
+                    } else {
+                        result[1]++;
+                        System.err.println("Replay differs: " + files.get(i));
+                    }
+                } catch (ExecutionException e) {
+                    result[2]++;
+                    System.err.println("Cannot replay " + files.get(i) + ": " + e.getCause().getMessage());
+                }
+            }
+            return result;
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
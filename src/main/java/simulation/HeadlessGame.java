@@ -0,0 +1,166 @@
+package simulation;
+
+import board.BoardConfig;
+import board.BoardLayout;
+import board.BoardSnapshot;
+import game.Game;
+import game.LoadPieces;
+import interfaces.*;
+import pieces.Position;
+import player.Player;
+import player.PlayerCursor;
+import utils.SimulatedClock;
+import utils.Varint;
+
+import java.awt.Color;
+import java.nio.ByteBuffer;
+
+/**
+ * Runs a single {@link Game} without Swing on a simulated clock.
+ * Each tick feeds generator commands into the game, executes them and updates the board,
+ * the same sequence {@code GamePanel}'s timer performs in real time.
+ */
+public class HeadlessGame {
+    /** Simulated length of one tick, matching the 16ms Swing timer. */
+    public static final long DEFAULT_TICK_MILLIS = 16;
+
+    private final SimulatedClock clock;
+    private final Game game;
+    private ICommandGenerator[] generators;
+    private final long tickMillis;
+    private final long tickNanos;
+    private long tick;
+
+    /**
+     * Creates a game on the board loaded from {@code board.csv}, driven by the given generators.
+     * @param gen0 Generator for player 0
+     * @param gen1 Generator for player 1
+     * @param tickMillis Simulated length of one tick
+     */
+    public HeadlessGame(ICommandGenerator gen0, ICommandGenerator gen1, long tickMillis) {
+        this(LoadPieces.getLayout(), gen0, gen1, tickMillis);
+    }
+
+    /**
+     * Creates a game on a board of any size, driven by the given generators.
+     * @param layout The board size and start pieces
+     * @param gen0 Generator for player 0
+     * @param gen1 Generator for player 1
+     * @param tickMillis Simulated length of one tick
+     */
+    public HeadlessGame(BoardLayout layout, ICommandGenerator gen0, ICommandGenerator gen1, long tickMillis) {
+        this(layout, new ICommandGenerator[]{ gen0, gen1 }, tickMillis);
+    }
+
+    /**
+     * Creates a game with one player per generator, such as a {@link BoardLayout#fourPlayer four player} game.
+     * Cursors start in the board corners.
+     * @param layout The board size and start pieces
+     * @param generators One generator per player, indexed by player id
+     * @param tickMillis Simulated length of one tick
+     */
+    public HeadlessGame(BoardLayout layout, ICommandGenerator[] generators, long tickMillis) {
+        this.clock = new SimulatedClock();
+        BoardConfig bc = new BoardConfig(layout, clock);
+        int last = layout.getRows() - 1;
+        int right = layout.getCols() - 1;
+        Position[] corners = { new Position(0, 0), new Position(last, right), new Position(last, 0), new Position(0, right) };
+        Color[] colors = { Color.RED, Color.BLUE, Color.GREEN, Color.ORANGE };
+        IPlayer[] players = new IPlayer[generators.length];
+        for (int i = 0; i < players.length; i++) {
+            PlayerCursor cursor = new PlayerCursor(corners[i % corners.length].copy(), colors[i % colors.length], bc.numRowsCols);
+            players[i] = new Player(i, "player" + i, cursor, bc);
+        }
+        this.game = new Game(bc, players);
+        this.generators = generators.clone();
+        this.tickMillis = tickMillis;
+        this.tickNanos = tickMillis * 1_000_000L;
+        this.tick = 0;
+    }
+
+    /**
+     * Advances the game by one tick.
+     */
+    public void step() {
+        clock.advance(tickNanos);
+        IPlayer[] players = game.getBoard().getPlayers();
+        for (int i = 0; i < players.length; i++) {
+            ICommand cmd = generators[i].next(players[i], game.getBoard(), tick);
+            if (cmd != null)
+                game.addCommand(cmd);
+        }
+        game.update();
+        game.getBoard().updateAll();
+        tick++;
+    }
+
+    /**
+     * Runs until a player wins or the tick limit is reached.
+     * @param maxTicks Maximum number of ticks
+     * @return The outcome of the game
+     */
+    public SimulationResult run(long maxTicks) {
+        while (game.win() == null && tick < maxTicks)
+            step();
+
+        IPlayer winner = game.win();
+        IPlayer[] players = game.getBoard().getPlayers();
+        int[] captured = new int[players.length];
+        for (int i = 0; i < players.length; i++)
+            for (IPiece p : players[i].getPieces())
+                if (p.isCaptured())
+                    captured[i]++;
+        return new SimulationResult(winner == null ? -1 : winner.getId(), tick, captured);
+    }
+
+    /**
+     * Saves the tick and the full board state. Take it between steps, when no commands are queued.
+     * @return The checkpoint
+     */
+    public byte[] checkpoint() {
+        IBoard board = game.getBoard();
+        ByteBuffer buf = ByteBuffer.allocate(10 + BoardSnapshot.maxSize(board));
+        Varint.writeLong(buf, tick);
+        board.snapshot(buf);
+        byte[] bytes = new byte[buf.position()];
+        buf.flip().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Continues from a checkpoint, normally on a fresh game.
+     * @param checkpoint Data from {@link #checkpoint()}
+     */
+    public void restore(byte[] checkpoint) {
+        ByteBuffer in = ByteBuffer.wrap(checkpoint);
+        tick = Varint.readLong(in);
+        game.setTick(tick);
+        game.getBoard().restore(in);
+    }
+
+    /**
+     * Replaces the generators, e.g. once a game rebuilt from recorded commands goes live again.
+     * @param generators One generator per player, indexed by player id
+     * @throws IllegalArgumentException if the count does not match the players of the game
+     */
+    public void setGenerators(ICommandGenerator... generators) {
+        if (generators.length != this.generators.length)
+            throw new IllegalArgumentException("Expected " + this.generators.length + " generators, got " + generators.length);
+        this.generators = generators.clone();
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Gets the simulated length of one tick.
+     */
+    public long getTickMillis() {
+        return tickMillis;
+    }
+}
@@ -0,0 +1,19 @@
+package simulation;
+
+import interfaces.IBoard;
+import interfaces.ICommand;
+import interfaces.IPlayer;
+
+/**
+ * Source of commands for a player in a headless game (replaces keyboard input).
+ */
+public interface ICommandGenerator {
+    /**
+     * Called once per tick for the player this generator drives.
+     * @param player The player issuing the command
+     * @param board The game board
+     * @param tick The current tick number
+     * @return The command to queue, or null to do nothing this tick
+     */
+    ICommand next(IPlayer player, IBoard board, long tick);
+}
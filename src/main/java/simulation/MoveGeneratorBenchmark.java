@@ -0,0 +1,82 @@
+package simulation;
+
+import board.MoveBuffer;
+import board.MoveGenerator;
+import interfaces.IBoard;
+import interfaces.IPlayer;
+import pieces.Position;
+import utils.LogUtils;
+
+/**
+ * Perft-style check and throughput benchmark of {@link MoveGenerator}.
+ * <p>
+ * Plays random headless games and, every few ticks, enumerates each player's
+ * actions twice: with the generator and by brute force over every
+ * (from, to) pair through {@code IBoard.isMoveLegal}. Counts must agree;
+ * the time of both is reported.
+ * <p>
+ * Usage: {@code MoveGeneratorBenchmark [games] [sampleEveryTicks]}
+ */
+public class MoveGeneratorBenchmark {
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int every = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        LogUtils.setEnabled(false);
+
+        MoveBuffer buffer = new MoveBuffer();
+        long positions = 0, generated = 0, generatorNanos = 0, bruteNanos = 0;
+
+        for (int g = 0; g < games; g++) {
+            HeadlessGame game = new HeadlessGame(new RandomCommandGenerator(g * 2L), new RandomCommandGenerator(g * 2L + 1), 16);
+            IBoard board = game.getGame().getBoard();
+            while (game.getGame().win() == null && game.getTick() < 20_000) {
+                game.step();
+                if (game.getTick() % every != 0)
+                    continue;
+
+                for (IPlayer player : board.getPlayers()) {
+                    long t0 = System.nanoTime();
+                    int fast = MoveGenerator.generate(board, player, buffer);
+                    long t1 = System.nanoTime();
+                    int slow = bruteForceCount(board, player);
+                    long t2 = System.nanoTime();
+
+                    if (fast != slow)
+                        throw new IllegalStateException("Mismatch at tick " + game.getTick() + ": generator " + fast + ", brute force " + slow);
+                    positions++;
+                    generated += fast;
+                    generatorNanos += t1 - t0;
+                    bruteNanos += t2 - t1;
+                }
+            }
+        }
+
+        System.out.printf("positions: %d, actions: %d (all counts match)%n", positions, generated);
+        System.out.printf("generator:   %.0f positions/sec, %.0f actions/sec%n",
+                positions / (generatorNanos / 1e9), generated / (generatorNanos / 1e9));
+        System.out.printf("brute force: %.0f positions/sec%n", positions / (bruteNanos / 1e9));
+    }
+
+    /**
+     * Counts legal actions by trying every (from, to) pair, as callers had to before the generator.
+     */
+    public static int bruteForceCount(IBoard board, IPlayer player) {
+        int count = 0;
+        for (int fr = 0; fr < board.getROWS(); fr++) {
+            for (int fc = 0; fc < board.getCOLS(); fc++) {
+                if (board.getPiece(fr, fc) == null || board.getPiece(fr, fc).isCaptured()
+                        || !player.getPieces().contains(board.getPiece(fr, fc)))
+                    continue;
+                Position from = new Position(fr, fc);
+                if (board.isJumpLegal(board.getPiece(from)))
+                    count++;
+                for (int tr = 0; tr < board.getROWS(); tr++)
+                    for (int tc = 0; tc < board.getCOLS(); tc++)
+                        if ((tr != fr || tc != fc) && board.isMoveLegal(from, new Position(tr, tc)))
+                            count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,61 @@
+package simulation;
+
+import board.MoveBuffer;
+import board.MoveGenerator;
+import interfaces.IBoard;
+import interfaces.ICommand;
+import interfaces.IPlayer;
+
+import java.util.SplittableRandom;
+
+/**
+ * Issues random legal moves and jumps for a player.
+ * Seeded, so a game between two random generators is reproducible.
+ */
+public class RandomCommandGenerator implements ICommandGenerator {
+    private final SplittableRandom random;
+    /** Probability of issuing a command on a given tick. */
+    private final double actionChance;
+    /** Probability that an issued command is a jump rather than a move. */
+    private final double jumpChance;
+    private final MoveBuffer buffer = new MoveBuffer();
+
+    /**
+     * Constructs a random generator with default rates.
+     * @param seed Random seed
+     */
+    public RandomCommandGenerator(long seed) {
+        this(seed, 0.05, 0.1);
+    }
+
+    /**
+     * Constructs a random generator.
+     * @param seed Random seed
+     * @param actionChance Probability of acting on a tick
+     * @param jumpChance Probability that an action is a jump
+     */
+    public RandomCommandGenerator(long seed, double actionChance, double jumpChance) {
+        this.random = new SplittableRandom(seed);
+        this.actionChance = actionChance;
+        this.jumpChance = jumpChance;
+    }
+
+    @Override
+    public ICommand next(IPlayer player, IBoard board, long tick) {
+        if (random.nextDouble() >= actionChance)
+            return null;
+
+        int n = MoveGenerator.generate(board, player, buffer);
+        if (n == 0)
+            return null;
+
+        boolean wantJump = random.nextDouble() < jumpChance;
+        int start = random.nextInt(n);
+        for (int i = 0; i < n; i++) {
+            int move = buffer.get((start + i) % n);
+            if (MoveBuffer.isJump(move) == wantJump)
+                return MoveBuffer.toCommand(move, board);
+        }
+        return MoveBuffer.toCommand(buffer.get(start), board);
+    }
+}
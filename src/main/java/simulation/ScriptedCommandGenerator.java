@@ -0,0 +1,97 @@
+package simulation;
+
+import command.JumpCommand;
+import command.MoveCommand;
+import interfaces.IBoard;
+import interfaces.ICommand;
+import interfaces.IPlayer;
+import pieces.Position;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replays a fixed list of actions for one player at given ticks.
+ * <p>
+ * Script lines have the form {@code player,tick,fromRow,fromCol,toRow,toCol};
+ * from == to means a jump. Blank lines and lines starting with '#' are ignored.
+ */
+public class ScriptedCommandGenerator implements ICommandGenerator {
+
+    /**
+     * A single scripted action.
+     */
+    public static class Step {
+        final long tick;
+        final Position from;
+        final Position to;
+
+        public Step(long tick, Position from, Position to) {
+            this.tick = tick;
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    private final List<Step> steps;
+    private int next;
+
+    /**
+     * Constructs a generator from steps sorted by tick.
+     * @param steps The scripted steps
+     */
+    public ScriptedCommandGenerator(List<Step> steps) {
+        this.steps = steps;
+        this.next = 0;
+    }
+
+    @Override
+    public ICommand next(IPlayer player, IBoard board, long tick) {
+        if (next >= steps.size() || steps.get(next).tick > tick)
+            return null;
+
+        Step s = steps.get(next++);
+        if (s.from.equals(s.to))
+            return new JumpCommand(board.getPiece(s.from), board);
+        return new MoveCommand(s.from, s.to, board);
+    }
+
+    /**
+     * Loads the steps of one player from a script file.
+     * @param file The script file
+     * @param playerId The player whose lines are kept
+     * @return A generator for that player
+     * @throws IOException If the file cannot be read
+     */
+    public static ScriptedCommandGenerator fromFile(Path file, int playerId) throws IOException {
+        return fromLines(Files.readAllLines(file), playerId);
+    }
+
+    /**
+     * Parses the steps of one player from script lines.
+     * @param lines Script lines
+     * @param playerId The player whose lines are kept
+     * @return A generator for that player
+     */
+    public static ScriptedCommandGenerator fromLines(List<String> lines, int playerId) {
+        List<Step> steps = new ArrayList<>();
+        for (String line : lines) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#"))
+                continue;
+            String[] parts = line.split(",");
+            if (parts.length != 6)
+                throw new IllegalArgumentException("Invalid script line: " + line);
+            if (Integer.parseInt(parts[0].trim()) != playerId)
+                continue;
+            steps.add(new Step(Long.parseLong(parts[1].trim()),
+                    new Position(Integer.parseInt(parts[2].trim()), Integer.parseInt(parts[3].trim())),
+                    new Position(Integer.parseInt(parts[4].trim()), Integer.parseInt(parts[5].trim()))));
+        }
+        steps.sort((a, b) -> Long.compare(a.tick, b.tick));
+        return new ScriptedCommandGenerator(steps);
+    }
+}
@@ -0,0 +1,108 @@
+package simulation;
+
+import java.util.Arrays;
+
+/**
+ * Aggregated outcomes of many headless games.
+ * Per player counts grow with the largest game added, so games of any player count can be mixed.
+ * Not thread-safe: each worker fills its own report and reports are merged at the end.
+ */
+public class SimulationReport {
+    private long games;
+    private long[] wins = new long[2];
+    private long unfinished;
+    private long totalTicks;
+    private long[] totalCaptured = new long[2];
+
+    /**
+     * Grows the per player counts to hold at least the given number of players.
+     */
+    private void ensurePlayers(int players) {
+        if (players <= wins.length)
+            return;
+        wins = Arrays.copyOf(wins, players);
+        totalCaptured = Arrays.copyOf(totalCaptured, players);
+    }
+
+    /**
+     * Adds the outcome of one game.
+     * @param r The game result
+     */
+    public void add(SimulationResult r) {
+        ensurePlayers(Math.max(r.captured.length, r.winner + 1));
+        games++;
+        if (r.winner >= 0)
+            wins[r.winner]++;
+        else
+            unfinished++;
+        totalTicks += r.ticks;
+        for (int i = 0; i < r.captured.length; i++)
+            totalCaptured[i] += r.captured[i];
+    }
+
+    /**
+     * Adds all outcomes of another report into this one.
+     * @param other The report to merge
+     */
+    public void merge(SimulationReport other) {
+        ensurePlayers(other.wins.length);
+        games += other.games;
+        unfinished += other.unfinished;
+        totalTicks += other.totalTicks;
+        for (int i = 0; i < other.wins.length; i++) {
+            wins[i] += other.wins[i];
+            totalCaptured[i] += other.totalCaptured[i];
+        }
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Gets the number of players the per player counts cover.
+     */
+    public int getPlayerCount() {
+        return wins.length;
+    }
+
+    public long getWins(int playerId) {
+        return playerId < wins.length ? wins[playerId] : 0;
+    }
+
+    public long getUnfinished() {
+        return unfinished;
+    }
+
+    public double getAverageTicks() {
+        return games == 0 ? 0 : (double) totalTicks / games;
+    }
+
+    public double getAverageCaptured(int playerId) {
+        return games == 0 || playerId >= totalCaptured.length ? 0 : (double) totalCaptured[playerId] / games;
+    }
+
+    /**
+     * Formats the report for the console.
+     * @param wallSeconds Wall-clock time spent running the games
+     * @param tickMillis Simulated length of one tick
+     * @return Human readable summary
+     */
+    public String format(double wallSeconds, long tickMillis) {
+        StringBuilder winLine = new StringBuilder("wins:");
+        StringBuilder lostLine = new StringBuilder("avg pieces lost:");
+        for (int i = 0; i < wins.length; i++) {
+            winLine.append(" player").append(i).append('=').append(wins[i]);
+            lostLine.append(String.format(" player%d=%.2f", i, getAverageCaptured(i)));
+        }
+        return String.format(
+                "games: %d in %.2fs (%.1f games/sec)%n" +
+                "%s unfinished=%d%n" +
+                "avg length: %.1f ticks (%.1f simulated sec)%n" +
+                "%s",
+                games, wallSeconds, wallSeconds > 0 ? games / wallSeconds : 0,
+                winLine, unfinished,
+                getAverageTicks(), getAverageTicks() * tickMillis / 1000.0,
+                lostLine);
+    }
+}
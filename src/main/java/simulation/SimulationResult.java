@@ -0,0 +1,19 @@
+package simulation;
+
+/**
+ * Outcome of a single headless game.
+ */
+public class SimulationResult {
+    /** Id of the winning player, or -1 if the game hit the tick limit. */
+    public final int winner;
+    /** Number of ticks the game lasted. */
+    public final long ticks;
+    /** Pieces lost by each player, indexed by player id. */
+    public final int[] captured;
+
+    public SimulationResult(int winner, long ticks, int[] captured) {
+        this.winner = winner;
+        this.ticks = ticks;
+        this.captured = captured;
+    }
+}
@@ -0,0 +1,147 @@
+package simulation;
+
+import ai.BotController;
+import ai.SearchBoard;
+import ai.SearchEngine;
+import archive.ArchiveWriter;
+import archive.GameRecorder;
+import board.BoardLayout;
+import game.LoadPieces;
+import player.BotPlayer;
+import utils.LogUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Command line runner for mass headless self-play.
+ * <p>
+ * Usage: {@code SimulationRunner [--games N] [--threads T] [--max-ticks M] [--tick-ms MS] [--seed S] [--script FILE]
+ * [--bot PLAYER]... [--budget-ms MS] [--archive FILE] [--board-size N] [--four-player]}
+ * <p>
+ * Games are split evenly across worker threads; every worker owns its games and its
+ * report, so no state is shared while games run. {@code --archive} appends every game to an
+ * {@link ArchiveWriter archive} for later analysis; workers share the writer, which appends under a lock.
+ * {@code --board-size} plays on an NxN {@link BoardLayout#tiled tiled} board instead of {@code board.csv},
+ * {@code --four-player} on the {@link BoardLayout#fourPlayer four player} board with one generator per player.
+ * Bots play two player games only.
+ */
+public class SimulationRunner {
+
+    private int games = 1000;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private long maxTicks = 20_000;
+    private long tickMillis = HeadlessGame.DEFAULT_TICK_MILLIS;
+    private long seed = 42;
+    private Path script;
+    /** Ids of the players driven by the search engine. */
+    private final Set<Integer> bots = new HashSet<>();
+    private long budgetMillis = 5;
+    private Path archive;
+    private ArchiveWriter archiveWriter;
+    private BoardLayout layout = LoadPieces.getLayout();
+    private final SearchEngine engine = new SearchEngine();
+
+    public static void main(String[] args) throws Exception {
+        SimulationRunner runner = new SimulationRunner();
+        runner.parseArgs(args);
+
+        LogUtils.setEnabled(false);
+        long start = System.nanoTime();
+        SimulationReport report = runner.runAll();
+        double wallSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        System.out.println(report.format(wallSeconds, runner.tickMillis));
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--games": games = Integer.parseInt(args[++i]); break;
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--max-ticks": maxTicks = Long.parseLong(args[++i]); break;
+                case "--tick-ms": tickMillis = Long.parseLong(args[++i]); break;
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                case "--script": script = Path.of(args[++i]); break;
+                case "--bot": bots.add(Integer.parseInt(args[++i])); break;
+                case "--budget-ms": budgetMillis = Long.parseLong(args[++i]); break;
+                case "--archive": archive = Path.of(args[++i]); break;
+                case "--board-size": {
+                    int size = Integer.parseInt(args[++i]);
+                    layout = BoardLayout.tiled(size, size);
+                    break;
+                }
+                case "--four-player": layout = BoardLayout.fourPlayer(); break;
+                default: throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+    }
+
+    /**
+     * Runs all games on a fixed pool and merges the per-worker reports.
+     * @return The aggregated report
+     */
+    public SimulationReport runAll() throws Exception {
+        int players = layout.getPlayerCount();
+        for (int bot : bots) {
+            if (bot < 0 || bot >= players)
+                throw new IllegalArgumentException("No player " + bot + " in a " + players + " player game");
+        }
+        if (!bots.isEmpty() && players > SearchBoard.MAX_PLAYERS)
+            throw new IllegalArgumentException("Bots play " + SearchBoard.MAX_PLAYERS + " player games, not " + players);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        if (archive != null)
+            archiveWriter = new ArchiveWriter(archive);
+        try {
+            List<Future<SimulationReport>> futures = new ArrayList<>();
+            for (int w = 0; w < threads; w++) {
+                final int worker = w;
+                futures.add(pool.submit(() -> runWorker(worker)));
+            }
+
+            SimulationReport total = new SimulationReport();
+            for (Future<SimulationReport> f : futures)
+                total.merge(f.get());
+            return total;
+        } finally {
+            pool.shutdown();
+            if (archiveWriter != null)
+                archiveWriter.close();
+        }
+    }
+
+    private SimulationReport runWorker(int worker) throws Exception {
+        SimulationReport report = new SimulationReport();
+        for (int g = worker; g < games; g += threads) {
+            ICommandGenerator[] generators = new ICommandGenerator[layout.getPlayerCount()];
+            for (int p = 0; p < generators.length; p++)
+                generators[p] = generatorFor(g, p);
+            HeadlessGame game = new HeadlessGame(layout, generators, tickMillis);
+            GameRecorder recorder = null;
+            if (archiveWriter != null) {
+                recorder = new GameRecorder(game.getGame());
+                recorder.start();
+            }
+            report.add(game.run(maxTicks));
+            if (recorder != null)
+                archiveWriter.append(recorder);
+        }
+        return report;
+    }
+
+    private ICommandGenerator generatorFor(int gameIndex, int playerId) throws Exception {
+        if (bots.contains(playerId)) {
+            BotController bot = new BotController(engine, budgetMillis * 1_000_000L, BotPlayer.DEFAULT_INTERVAL_NANOS);
+            return (player, board, tick) -> bot.decide(board, player.getId());
+        }
+        if (script != null)
+            return ScriptedCommandGenerator.fromFile(script, playerId);
+        return new RandomCommandGenerator(seed * 31 + (long) gameIndex * layout.getPlayerCount() + playerId);
+    }
+}
@@ -1,21 +1,24 @@
 package state;
 
+import assets.StateTemplate;
 import interfaces.EState;
+import interfaces.IClock;
 import interfaces.IGraphicsData;
 import pieces.Position;
+import utils.SystemClock;
 
 import java.awt.image.BufferedImage;
 
 /**
  * Handles graphics data for piece animation.
+ * The frames and animation settings come from a {@link StateTemplate} shared by every piece of the same
+ * type and owner; only the animation position lives here.
  */
 public class GraphicsData implements IGraphicsData {
-    private BufferedImage[] frames;
-    private int totalFrames;
+    private final StateTemplate template;
     private int currentFrame;
-    private double framesPerSec;
-    private boolean isLoop;
     private long lastFrameTimeNanos;
+    private final IClock clock;
 
     /**
      * Constructs GraphicsData for piece animation.
@@ -24,12 +27,30 @@ public class GraphicsData implements IGraphicsData {
      * @param isLoop Whether the animation should loop
      */
     public GraphicsData(BufferedImage[] frames, double framesPerSec, boolean isLoop) {
-        this.frames = frames;
-        this.totalFrames = frames.length;
-        this.framesPerSec = framesPerSec;
-        this.isLoop = isLoop;
+        this(frames, framesPerSec, isLoop, SystemClock.INSTANCE);
+    }
+
+    /**
+     * Constructs GraphicsData for piece animation driven by the given clock.
+     * @param frames Array of animation frames
+     * @param framesPerSec Number of frames per second
+     * @param isLoop Whether the animation should loop
+     * @param clock The clock used to advance frames
+     */
+    public GraphicsData(BufferedImage[] frames, double framesPerSec, boolean isLoop, IClock clock) {
+        this(new StateTemplate(null, 0, null, framesPerSec, isLoop, frames), clock);
+    }
+
+    /**
+     * Constructs GraphicsData animating the frames of a shared template.
+     * @param template The state template
+     * @param clock The clock used to advance frames
+     */
+    public GraphicsData(StateTemplate template, IClock clock) {
+        this.template = template;
+        this.clock = clock;
         this.currentFrame = 0;
-        this.lastFrameTimeNanos = System.nanoTime();
+        this.lastFrameTimeNanos = clock.nanoTime();
     }
 
     /**
@@ -41,7 +62,7 @@ public class GraphicsData implements IGraphicsData {
     public void reset(EState state, Position to) {
         // Reset only when switching to a new state
         this.currentFrame = 0;
-        this.lastFrameTimeNanos = System.nanoTime();
+        this.lastFrameTimeNanos = clock.nanoTime();
     }
     
     /**
@@ -49,15 +70,16 @@ public class GraphicsData implements IGraphicsData {
      */
     @Override
     public void update() {
-        long now = System.nanoTime();
+        long now = clock.nanoTime();
         double elapsedSec = (now - lastFrameTimeNanos) / 1_000_000_000.0;
 
-        if (elapsedSec >= 1.0 / framesPerSec) {
+        if (elapsedSec >= 1.0 / template.getFramesPerSec()) {
             currentFrame++;
             lastFrameTimeNanos = now;
 
+            int totalFrames = getTotalFrames();
             if (currentFrame >= totalFrames) {
-                currentFrame = isLoop ? 0 : totalFrames - 1;
+                currentFrame = template.isLoop() ? 0 : totalFrames - 1;
             }
         }
     }
@@ -68,7 +90,7 @@ public class GraphicsData implements IGraphicsData {
      */
     @Override
     public boolean isAnimationFinished() {
-        return !isLoop && currentFrame >= totalFrames - 1;
+        return !template.isLoop() && currentFrame >= getTotalFrames() - 1;
     }
 
     /**
@@ -86,7 +108,7 @@ public class GraphicsData implements IGraphicsData {
      */
     @Override
     public int getTotalFrames() {
-        return totalFrames;
+        return template.getFrameCount();
     }
 
     /**
@@ -95,7 +117,7 @@ public class GraphicsData implements IGraphicsData {
      */
     @Override
     public double getFramesPerSec() {
-        return framesPerSec;
+        return template.getFramesPerSec();
     }
 
     /**
@@ -104,15 +126,42 @@ public class GraphicsData implements IGraphicsData {
      */
     @Override
     public boolean isLoop() {
-        return isLoop;
+        return template.isLoop();
     }
 
     /**
-     * Gets the current frame image.
+     * Gets the current frame image; the first call for a state loads its frames.
      * @return The current frame as BufferedImage
      */
     @Override
     public BufferedImage getCurrentFrame() {
-        return frames[currentFrame];
+        return template.getFrames()[currentFrame];
+    }
+
+    /**
+     * Gets the template the frames come from.
+     */
+    public StateTemplate getTemplate() {
+        return template;
+    }
+
+    /**
+     * Gets the clock time the current frame was shown at.
+     * @return The time in nanoseconds
+     */
+    @Override
+    public long getLastFrameTimeNanos() {
+        return lastFrameTimeNanos;
+    }
+
+    /**
+     * Puts the animation back at a saved frame.
+     * @param frame The frame index
+     * @param lastFrameTimeNanos The clock time the frame was shown at
+     */
+    @Override
+    public void restore(int frame, long lastFrameTimeNanos) {
+        this.currentFrame = Math.min(frame, getTotalFrames() - 1);
+        this.lastFrameTimeNanos = lastFrameTimeNanos;
     }
 }
@@ -1,15 +1,21 @@
 package state;
 
+import assets.StateTemplate;
 import interfaces.EState;
+import interfaces.IClock;
 import interfaces.IPhysicsData;
 import pieces.Position;
+import utils.SystemClock;
+
+import java.awt.image.BufferedImage;
 
 /**
  * Handles physics data for piece movement.
+ * The settings (speed, next state) come from a {@link StateTemplate} shared by every piece of the same
+ * type and owner; only the movement in progress lives here.
  */
 public class PhysicsData implements IPhysicsData {
-    private double speedMetersPerSec;
-    private EState nextStateWhenFinished;
+    private StateTemplate template;
 
     private double currentX, currentY;
     private Position startPos;
@@ -17,6 +23,7 @@ public class PhysicsData implements IPhysicsData {
     private double tileSize;
 
     private long startTimeNanos;
+    private final IClock clock;
 
     /**
      * Constructs PhysicsData for piece movement.
@@ -24,8 +31,27 @@ public class PhysicsData implements IPhysicsData {
      * @param nextStateWhenFinished The next state when movement is finished
      */
     public PhysicsData(double speedMetersPerSec, EState nextStateWhenFinished) {
-        this.speedMetersPerSec = speedMetersPerSec;
-        this.nextStateWhenFinished = nextStateWhenFinished;
+        this(speedMetersPerSec, nextStateWhenFinished, SystemClock.INSTANCE);
+    }
+
+    /**
+     * Constructs PhysicsData for piece movement driven by the given clock.
+     * @param speedMetersPerSec The speed in meters per second
+     * @param nextStateWhenFinished The next state when movement is finished
+     * @param clock The clock used to measure elapsed time
+     */
+    public PhysicsData(double speedMetersPerSec, EState nextStateWhenFinished, IClock clock) {
+        this(new StateTemplate(null, speedMetersPerSec, nextStateWhenFinished, 0, true, (BufferedImage[]) null), clock);
+    }
+
+    /**
+     * Constructs PhysicsData using the settings of a shared template.
+     * @param template The state template
+     * @param clock The clock used to measure elapsed time
+     */
+    public PhysicsData(StateTemplate template, IClock clock) {
+        this.template = template;
+        this.clock = clock;
     }
 
     /**
@@ -34,16 +60,16 @@ public class PhysicsData implements IPhysicsData {
      */
     @Override
     public double getSpeedMetersPerSec() {
-        return speedMetersPerSec;
+        return template.getSpeedMetersPerSec();
     }
 
     /**
-     * Sets the speed in meters per second.
+     * Sets the speed in meters per second, for this piece only.
      * @param speedMetersPerSec Speed value
      */
     @Override
     public void setSpeedMetersPerSec(double speedMetersPerSec) {
-        this.speedMetersPerSec = speedMetersPerSec;
+        this.template = template.withSpeed(speedMetersPerSec);
     }
 
     /**
@@ -52,16 +78,23 @@ public class PhysicsData implements IPhysicsData {
      */
     @Override
     public EState getNextStateWhenFinished() {
-        return nextStateWhenFinished;
+        return template.getNextStateWhenFinished();
     }
 
     /**
-     * Sets the next state when movement is finished.
+     * Sets the next state when movement is finished, for this piece only.
      * @param nextStateWhenFinished The next state
      */
     @Override
     public void setNextStateWhenFinished(EState nextStateWhenFinished) {
-        this.nextStateWhenFinished = nextStateWhenFinished;
+        this.template = template.withNextState(nextStateWhenFinished);
+    }
+
+    /**
+     * Gets the template the settings come from.
+     */
+    public StateTemplate getTemplate() {
+        return template;
     }
 
     /**
@@ -96,7 +129,7 @@ public class PhysicsData implements IPhysicsData {
      */
     private void updatePosition() {
         double speed = getSpeedMetersPerSec();
-        long now = System.nanoTime();
+        long now = clock.nanoTime();
         double elapsedSec = (now - startTimeNanos) / 1_000_000_000.0;
 
         double dx = targetPos.dy(startPos) * tileSize;
@@ -122,7 +155,7 @@ public class PhysicsData implements IPhysicsData {
         if (targetPos == null)
             return false;
         double speed = getSpeedMetersPerSec();
-        long now = System.nanoTime();
+        long now = clock.nanoTime();
         double elapsedSec = (now - startTimeNanos) / 1_000_000_000.0;
 
         double dx = targetPos.dy(startPos) * tileSize;
@@ -150,4 +183,33 @@ public class PhysicsData implements IPhysicsData {
     public double getCurrentY() {
         return currentY;
     }
+
+    /**
+     * Gets the position the current movement started from.
+     * @return The start position
+     */
+    @Override
+    public Position getStartPos() {
+        return startPos;
+    }
+
+    /**
+     * Gets the clock time the current movement started at.
+     * @return The start time in nanoseconds
+     */
+    @Override
+    public long getStartTimeNanos() {
+        return startTimeNanos;
+    }
+
+    /**
+     * Overrides the current pixel position.
+     * @param x The X position
+     * @param y The Y position
+     */
+    @Override
+    public void setCurrentPosition(double x, double y) {
+        this.currentX = x;
+        this.currentY = y;
+    }
 }
@@ -5,6 +5,7 @@ import pieces.Position;
 import java.awt.*;
 import java.awt.geom.Point2D;
 import utils.LogUtils;
+import utils.SystemClock;
 
 /**
  * Represents the state of a piece, including physics and graphics.
@@ -18,6 +19,7 @@ public class State implements IState {
     private Position targetPos;
     private long startTimeNanos;
     private final double tileSize;
+    private final IClock clock;
 
     /**
      * Constructs a State object representing a piece's state.
@@ -30,7 +32,23 @@ public class State implements IState {
      */
     public State(EState name, Position startPos, Position targetPos,
                  double tileSize, IPhysicsData physics, IGraphicsData graphics) {
+        this(name, startPos, targetPos, tileSize, physics, graphics, SystemClock.INSTANCE);
+    }
+
+    /**
+     * Constructs a State object whose timing is driven by the given clock.
+     * @param name The state name (EState)
+     * @param startPos The starting position
+     * @param targetPos The target position
+     * @param tileSize The size of a tile
+     * @param physics The physics data
+     * @param graphics The graphics data
+     * @param clock The clock used to stamp action start times
+     */
+    public State(EState name, Position startPos, Position targetPos,
+                 double tileSize, IPhysicsData physics, IGraphicsData graphics, IClock clock) {
         this.name = name;
+        this.clock = clock;
         this.startPos = startPos;
         this.targetPos = targetPos;
         this.tileSize = tileSize;
@@ -52,7 +70,7 @@ public class State implements IState {
             this.targetPos = new Position(to.getRow(), to.getCol());
         }
 
-        this.startTimeNanos = System.nanoTime();
+        this.startTimeNanos = clock.nanoTime();
 
         if (graphics != null) graphics.reset(state, startPos);
         if (physics != null) physics.reset(state, startPos, targetPos, tileSize, startTimeNanos);
@@ -82,7 +100,7 @@ public class State implements IState {
                 return physics.isMovementFinished();
             case EState.JUMP:
                 boolean finished = graphics != null && graphics.isAnimationFinished();
-                if (finished) {
+                if (finished && LogUtils.isEnabled()) {
                     System.out.println("Jump animation finished, transitioning to: " + physics.getNextStateWhenFinished());
                     LogUtils.logDebug("Jump animation finished, transitioning to: " + physics.getNextStateWhenFinished());
                 }
@@ -90,7 +108,7 @@ public class State implements IState {
             case EState.SHORT_REST:
             case EState.LONG_REST:
                 boolean restFinished = graphics != null && graphics.isAnimationFinished();
-                if (restFinished) {
+                if (restFinished && LogUtils.isEnabled()) {
                     System.out.println(name + " animation finished");
                     LogUtils.logDebug(name + " animation finished");
                 }
@@ -195,4 +213,29 @@ public class State implements IState {
     public IGraphicsData getGraphics() {
         return graphics;
     }
+
+    /**
+     * Gets the clock time the current action started at.
+     * @return The start time in nanoseconds
+     */
+    @Override
+    public long getStartTimeNanos() {
+        return startTimeNanos;
+    }
+
+    /**
+     * Puts the state back into a saved action.
+     * @param start The logical start position
+     * @param physicsStart The position the movement started from
+     * @param target The target position
+     * @param startTimeNanos The clock time the action started at
+     */
+    @Override
+    public void restore(Position start, Position physicsStart, Position target, long startTimeNanos) {
+        this.startPos = start;
+        this.targetPos = target;
+        this.startTimeNanos = startTimeNanos;
+        if (graphics != null) graphics.reset(name, physicsStart);
+        if (physics != null) physics.reset(name, physicsStart, target, tileSize, startTimeNanos);
+    }
 }
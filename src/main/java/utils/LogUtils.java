@@ -8,11 +8,26 @@ import java.io.PrintWriter;
  * Utility class for logging debug messages to a file.
  */
 public class LogUtils {
+    private static volatile boolean enabled = true;
+
     public static void logDebug(String message) {
+        if (!enabled)
+            return;
         try (PrintWriter out = new PrintWriter(new FileWriter("debug.log", true))) {
             out.println(message);
         } catch (IOException e) {
             System.err.println("Failed to write to debug.log: " + e.getMessage());
         }
     }
+
+    /**
+     * Turns debug logging on or off (headless simulations run with it off).
+     */
+    public static void setEnabled(boolean enabled) {
+        LogUtils.enabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
 }
@@ -0,0 +1,39 @@
+package utils;
+
+import interfaces.IClock;
+
+/**
+ * Clock that only moves when advanced explicitly.
+ * Used to run games on simulated time, as fast as the CPU allows.
+ */
+public class SimulatedClock implements IClock {
+    private long nowNanos;
+
+    /**
+     * Constructs a simulated clock starting at time zero.
+     */
+    public SimulatedClock() {
+        this(0);
+    }
+
+    /**
+     * Constructs a simulated clock starting at the given time.
+     * @param startNanos The initial time in nanoseconds
+     */
+    public SimulatedClock(long startNanos) {
+        this.nowNanos = startNanos;
+    }
+
+    @Override
+    public long nanoTime() {
+        return nowNanos;
+    }
+
+    /**
+     * Advances the clock.
+     * @param nanos Number of nanoseconds to move forward
+     */
+    public void advance(long nanos) {
+        nowNanos += nanos;
+    }
+}
@@ -0,0 +1,105 @@
+package utils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Records the time spent in each startup phase for the startup profiling mode, switched on by
+ * {@code --profile-startup} or {@code -Dkfchess.profileStartup=true}. A phase entered several times
+ * (one {@code Player} construction per side) is summed. When off, a phase costs one volatile read.
+ */
+public final class StartupProfiler {
+    /** System property switching profiling on before any phase runs. */
+    public static final String PROPERTY = "kfchess.profileStartup";
+
+    private static volatile boolean enabled = Boolean.getBoolean(PROPERTY);
+    private static boolean reported;
+    /** Per phase: total nanos and count, in first-seen order. */
+    private static final Map<String, long[]> phases = new LinkedHashMap<>();
+
+    private StartupProfiler() {
+    }
+
+    public static void setEnabled(boolean enabled) {
+        StartupProfiler.enabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts timing a phase.
+     * @return The start time to pass to {@link #end}
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Ends timing a phase.
+     * @param phase The phase name
+     * @param start The value returned by {@link #start}
+     */
+    public static void end(String phase, long start) {
+        if (!enabled)
+            return;
+        long nanos = System.nanoTime() - start;
+        synchronized (phases) {
+            long[] p = phases.computeIfAbsent(phase, k -> new long[2]);
+            p[0] += nanos;
+            p[1]++;
+        }
+    }
+
+    /**
+     * Marks the end of startup: records the time since the JVM started and prints the report, once.
+     * @param milestone What was reached, e.g. "first tick"
+     */
+    public static void finish(String milestone) {
+        if (!enabled)
+            return;
+        synchronized (phases) {
+            if (reported)
+                return;
+            reported = true;
+        }
+        long sinceStart = ProcessHandle.current().info().startInstant()
+                .map(t -> Duration.between(t, Instant.now()).toNanos())
+                .orElse(-1L);
+        System.out.println(report(milestone, sinceStart));
+    }
+
+    /**
+     * Formats the phases recorded so far.
+     * @param milestone What was reached
+     * @param sinceStartNanos Time from JVM start to the milestone, negative if unknown
+     */
+    public static String report(String milestone, long sinceStartNanos) {
+        StringBuilder sb = new StringBuilder("Startup profile\n");
+        synchronized (phases) {
+            for (Map.Entry<String, long[]> e : phases.entrySet()) {
+                long[] p = e.getValue();
+                sb.append(String.format("  %-28s %8.1f ms", e.getKey(), p[0] / 1e6));
+                if (p[1] > 1)
+                    sb.append(String.format("  (%d times)", p[1]));
+                sb.append('\n');
+            }
+        }
+        if (sinceStartNanos >= 0)
+            sb.append(String.format("  %-28s %8.1f ms%n", "JVM start to " + milestone, sinceStartNanos / 1e6));
+        return sb.toString();
+    }
+
+    /**
+     * Forgets the recorded phases.
+     */
+    public static void reset() {
+        synchronized (phases) {
+            phases.clear();
+            reported = false;
+        }
+    }
+}
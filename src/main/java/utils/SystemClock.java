@@ -0,0 +1,18 @@
+package utils;
+
+import interfaces.IClock;
+
+/**
+ * Clock backed by the JVM wall clock ({@link System#nanoTime()}).
+ */
+public class SystemClock implements IClock {
+    /** Shared instance, the clock is stateless. */
+    public static final SystemClock INSTANCE = new SystemClock();
+
+    private SystemClock() {}
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+}
@@ -0,0 +1,103 @@
+package utils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * LEB128 style variable length integers: 7 bits per byte, high bit set on all but the last byte.
+ * Values below 128 take a single byte. Signed values are zigzag encoded first.
+ */
+public final class Varint {
+    private Varint() {
+    }
+
+    public static void writeInt(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    public static void writeLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    public static void writeSignedInt(ByteBuffer out, int value) {
+        writeInt(out, (value << 1) ^ (value >> 31));
+    }
+
+    public static void writeSignedLong(ByteBuffer out, long value) {
+        writeLong(out, (value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Reads an int at the buffer position.
+     * @throws java.nio.BufferUnderflowException if the buffer ends inside the value
+     * @throws IllegalArgumentException if the value does not fit in 32 bits
+     */
+    public static int readInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0)
+                return value;
+        }
+        throw new IllegalArgumentException("Varint too long");
+    }
+
+    public static long readLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0)
+                return value;
+        }
+        throw new IllegalArgumentException("Varint too long");
+    }
+
+    public static int readSignedInt(ByteBuffer in) {
+        int v = readInt(in);
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    public static long readSignedLong(ByteBuffer in) {
+        long v = readLong(in);
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    /**
+     * Peeks an int at an absolute index without moving the position.
+     * @return The value in the low 32 bits and its length in bytes in the high 32 bits,
+     *         or -1 if the buffer ends before the value does
+     */
+    public static long peekInt(ByteBuffer in, int index) {
+        int value = 0;
+        for (int i = 0; i < 5; i++) {
+            if (index + i >= in.limit())
+                return -1;
+            byte b = in.get(index + i);
+            value |= (b & 0x7F) << (7 * i);
+            if (b >= 0)
+                return ((long) (i + 1) << 32) | (value & 0xFFFFFFFFL);
+        }
+        throw new IllegalArgumentException("Varint too long");
+    }
+
+    /**
+     * Number of bytes {@link #writeInt} uses for the value.
+     */
+    public static int sizeOf(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            size++;
+            value >>>= 7;
+        }
+        return size;
+    }
+}
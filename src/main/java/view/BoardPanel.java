@@ -20,7 +20,7 @@ import utils.LogUtils;
  */
 public class BoardPanel extends JPanel {
     private BufferedImage boardImage;
-    private final IBoard board;
+    private IBoard board;
 
     private final IPlayerCursor cursor1;
     private final IPlayerCursor cursor2;
@@ -74,6 +74,8 @@ public class BoardPanel extends JPanel {
      */
     private void handleKey(KeyEvent e) {
         int key = e.getKeyCode();
+        if (cursor1 == null || cursor2 == null)
+            return;
 
         switch (key) {
             case KeyEvent.VK_UP:
@@ -129,6 +131,14 @@ public class BoardPanel extends JPanel {
         this.onPlayer2Action = handler;
     }
 
+    /**
+     * Shows another board, e.g. when a replay starts over.
+     */
+    public void setBoard(IBoard board) {
+        this.board = board;
+        repaint();
+    }
+
     /**
      * Updates all pieces on the board by calling board.updateAll().
      */
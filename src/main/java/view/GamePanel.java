@@ -2,7 +2,9 @@ package view;
 
 import interfaces.IGame;
 import interfaces.IPlayerCursor;
+import player.BotPlayer;
 import utils.LogUtils;
+import utils.StartupProfiler;
 
 import javax.imageio.ImageIO;
 import javax.swing.*;
@@ -85,9 +87,12 @@ public class GamePanel extends JPanel {
         if (timer == null) {
             timer = new Timer(16, e -> {
                 if (model.win() == null) {
+                    if (model.getPlayer1() instanceof BotPlayer) model.handleSelection(model.getPlayer1());
+                    if (model.getPlayer2() instanceof BotPlayer) model.handleSelection(model.getPlayer2());
                     model.update();
                     boardPanel.updateAll();
                     boardPanel.repaint();
+                    StartupProfiler.finish("first tick");
                 } else {
                     stopGameLoop();
                     LogUtils.logDebug("Game Over. Winner: Player " + model.win().getName());
@@ -0,0 +1,87 @@
+package view;
+
+import replay.ReplayEngine;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Plays back a recorded game: the board in a {@link BoardPanel} with play/pause,
+ * a playback speed and a tick slider to seek.
+ */
+@SuppressWarnings("serial")
+public final class ReplayPanel extends JPanel {
+    private static final Integer[] SPEEDS = { 1, 2, 4, 8, 16, 32, 64, 256 };
+
+    private final ReplayEngine engine;
+    private final BoardPanel boardPanel;
+    private final JSlider slider;
+    private final JLabel tickLabel = new JLabel();
+    private final JButton playButton = new JButton("Pause");
+    private final Timer timer;
+    private int speed = 1;
+    private boolean playing = true;
+
+    /**
+     * @param engine The replay to show
+     * @param tickMillis Real time per tick at speed 1
+     */
+    public ReplayPanel(ReplayEngine engine, int tickMillis) {
+        this.engine = engine;
+        setLayout(new BorderLayout(0, 10));
+
+        boardPanel = new BoardPanel(engine.getGame().getBoard(), null, null);
+        boardPanel.setPreferredSize(new Dimension(700, 700));
+        add(boardPanel, BorderLayout.CENTER);
+
+        slider = new JSlider(0, (int) engine.getRecording().getLastTick(), 0);
+        slider.addChangeListener(e -> {
+            if (!slider.getValueIsAdjusting() && slider.getValue() != engine.getTick())
+                seek(slider.getValue());
+        });
+
+        JComboBox<Integer> speeds = new JComboBox<>(SPEEDS);
+        speeds.addActionListener(e -> speed = (Integer) speeds.getSelectedItem());
+        playButton.addActionListener(e -> {
+            playing = !playing;
+            playButton.setText(playing ? "Pause" : "Play");
+        });
+
+        JPanel controls = new JPanel(new BorderLayout(10, 0));
+        JPanel buttons = new JPanel();
+        buttons.add(playButton);
+        buttons.add(new JLabel("Speed x"));
+        buttons.add(speeds);
+        buttons.add(tickLabel);
+        controls.add(buttons, BorderLayout.WEST);
+        controls.add(slider, BorderLayout.CENTER);
+        add(controls, BorderLayout.SOUTH);
+
+        timer = new Timer(tickMillis, e -> {
+            if (playing && !engine.isFinished()) {
+                engine.fastForward(speed);
+                refresh();
+            }
+        });
+        refresh();
+    }
+
+    private void seek(long tick) {
+        engine.seek(tick);
+        refresh();
+    }
+
+    private void refresh() {
+        boardPanel.setBoard(engine.getGame().getBoard());
+        slider.setValue((int) engine.getTick());
+        tickLabel.setText("tick " + engine.getTick());
+    }
+
+    public void start() {
+        timer.start();
+    }
+
+    public void stop() {
+        timer.stop();
+    }
+}
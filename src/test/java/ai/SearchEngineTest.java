@@ -0,0 +1,105 @@
+package ai;
+
+import board.BoardLayout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pieces.EPieceType;
+import simulation.HeadlessGame;
+import simulation.ICommandGenerator;
+import utils.LogUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchEngineTest {
+
+    private SearchBoard board;
+    private final SearchEngine engine = new SearchEngine();
+
+    @BeforeEach
+    void setup() {
+        LogUtils.setEnabled(false);
+        HeadlessGame game = new HeadlessGame((p, b, t) -> null, (p, b, t) -> null, 16);
+        board = SearchBoard.of(game.getGame().getBoard());
+        for (int sq = 0; sq < board.owner.length; sq++)
+            clear(sq);
+        put(0, 4, 0, EPieceType.K, 0);
+        put(7, 4, 1, EPieceType.K, 0);
+    }
+
+    private void clear(int sq) {
+        board.owner[sq] = SearchBoard.EMPTY;
+        board.type[sq] = null;
+        board.readyIn[sq] = 0;
+        board.airborne[sq] = 0;
+    }
+
+    private int put(int row, int col, int player, EPieceType type, double readyIn) {
+        int sq = row * board.cols + col;
+        board.owner[sq] = (byte) player;
+        board.type[sq] = type;
+        board.readyIn[sq] = readyIn;
+        return sq;
+    }
+
+    @Test
+    void testCapturesRestingPiece() {
+        int rook = put(3, 0, 0, EPieceType.R, 0);
+        int queen = put(3, 2, 1, EPieceType.Q, 5.0);
+
+        int action = engine.search(board, 0, 200_000_000L);
+
+        assertEquals(rook << 16 | queen, action);
+    }
+
+    @Test
+    void testDoesNotAttackPieceThatCanDodge() {
+        put(0, 0, 0, EPieceType.R, 0);
+        int queen = put(6, 0, 1, EPieceType.Q, 0);
+
+        int action = engine.search(board, 0, 200_000_000L);
+
+        assertNotEquals(queen, action & 0xFFFF, "A far capture of an idle piece is met by a jump");
+    }
+
+    @Test
+    void testFarMoveOntoIdlePieceLosesMover() {
+        int knight = put(4, 4, 0, EPieceType.N, 0);
+        int rook = put(4, 0, 1, EPieceType.R, 0);
+
+        assertEquals(-PieceRules.value(EPieceType.R), board.applyMove(rook, knight, SearchEngine.REACTION_SECONDS));
+        assertEquals(EPieceType.N, board.type[knight]);
+        assertEquals(SearchBoard.EMPTY, board.owner[rook]);
+    }
+
+    @Test
+    void testJumpingPieceIsCapturedAfterLanding() {
+        int knight = put(4, 4, 0, EPieceType.N, 5.0);
+        int rook = put(4, 0, 1, EPieceType.R, 0);
+        board.applyJump(knight);
+
+        // The knight lands long before a rook four squares away arrives
+        assertEquals(PieceRules.value(EPieceType.N), board.applyMove(rook, knight, SearchEngine.REACTION_SECONDS));
+    }
+
+    @Test
+    void testActionsIncludePassAndJumps() {
+        int rook = put(3, 3, 0, EPieceType.R, 0);
+        int[] actions = SearchEngine.actions(board, 0);
+
+        assertEquals(SearchEngine.PASS, actions[0]);
+        assertTrue(java.util.Arrays.stream(actions).anyMatch(a -> a == (rook << 16 | rook)));
+        assertTrue(java.util.Arrays.stream(actions).anyMatch(a -> a == (rook << 16 | (3 * 8 + 7))));
+    }
+
+    @Test
+    void testBotRejectsFourPlayerBoards() {
+        ICommandGenerator idle = (p, b, t) -> null;
+        HeadlessGame game = new HeadlessGame(BoardLayout.fourPlayer(),
+                new ICommandGenerator[]{ idle, idle, idle, idle }, 16);
+        BotController bot = new BotController(engine, 1_000_000, 0);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> bot.decide(game.getGame().getBoard(), 2));
+        assertTrue(e.getMessage().contains("4"), e.getMessage());
+    }
+}
@@ -0,0 +1,63 @@
+package ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranspositionTableTest {
+
+    @Test
+    void testStoreAndProbe() {
+        TranspositionTable table = new TranspositionTable(1000);
+        table.store(0x1234_5678_9ABCL, 42 << 16 | 7, -350, 5, TranspositionTable.LOWER);
+
+        TranspositionTable.Entry e = table.probe(0x1234_5678_9ABCL);
+
+        assertEquals(1024, table.capacity());
+        assertNotNull(e);
+        assertEquals(42 << 16 | 7, e.move);
+        assertEquals(-350, e.score);
+        assertEquals(5, e.depth);
+        assertEquals(TranspositionTable.LOWER, e.bound);
+        assertNull(table.probe(0x1234_5678_9ABDL));
+    }
+
+    @Test
+    void testCollidingKeyReplacesEntry() {
+        TranspositionTable table = new TranspositionTable(16);
+        long a = 3;
+        long b = 3 + (1L << 40);
+        table.store(a, 1, 1, 1, TranspositionTable.EXACT);
+        table.store(b, 2, 2, 2, TranspositionTable.EXACT);
+
+        assertNull(table.probe(a));
+        assertEquals(2, table.probeMove(b, -1));
+        assertEquals(-1, table.probeMove(a, -1));
+    }
+
+    @Test
+    void testConcurrentWritersNeverExposeTornEntries() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(1);
+        AtomicBoolean torn = new AtomicBoolean();
+        Thread[] writers = new Thread[4];
+        for (int t = 0; t < writers.length; t++) {
+            final int id = t;
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    long key = id * 1_000_003L + 1;
+                    table.store(key, id, id, id, TranspositionTable.EXACT);
+                    TranspositionTable.Entry e = table.probe(key);
+                    if (e != null && (e.move != id || e.score != id || e.depth != id))
+                        torn.set(true);
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread w : writers)
+            w.join();
+
+        assertFalse(torn.get());
+    }
+}
@@ -0,0 +1,155 @@
+package archive;
+
+import interfaces.IPiece;
+import interfaces.IPlayer;
+import journal.GameJournal;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pieces.EPieceType;
+import simulation.HeadlessGame;
+import simulation.RandomCommandGenerator;
+import utils.LogUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameArchiveTest {
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void quiet() {
+        LogUtils.setEnabled(false);
+    }
+
+    private static GameRecorder play(long seed) {
+        HeadlessGame game = new HeadlessGame(new RandomCommandGenerator(seed), new RandomCommandGenerator(seed + 1),
+                HeadlessGame.DEFAULT_TICK_MILLIS);
+        GameRecorder recorder = new GameRecorder(game.getGame());
+        recorder.start();
+        game.run(20_000);
+        recorder.stop();
+        return recorder;
+    }
+
+    private static void assertSameGame(GameRecorder expected, ArchiveReader in) {
+        int n = expected.getEventCount();
+        assertEquals(n, in.getEventCount());
+        assertEquals(expected.getGame().getTick(), in.getLength());
+        assertEquals(expected.getGame().win() == null ? -1 : expected.getGame().win().getId(), in.getWinner());
+        assertEquals(expected.pieceTypes.length, in.getPieceCount());
+        assertArrayEquals(Arrays.copyOf(expected.ticks, n), Arrays.copyOf(in.ticks(), n));
+        assertArrayEquals(Arrays.copyOf(expected.types, n), Arrays.copyOf(in.types(), n));
+        assertArrayEquals(Arrays.copyOf(expected.pieces, n), Arrays.copyOf(in.pieces(), n));
+        assertArrayEquals(Arrays.copyOf(expected.to, n), Arrays.copyOf(in.to(), n));
+        assertArrayEquals(Arrays.copyOf(expected.from, n), Arrays.copyOf(in.from(), n));
+    }
+
+    @Test
+    void testRoundTripAndAppend() throws IOException {
+        Path file = dir.resolve("games" + ArchiveWriter.SUFFIX);
+        List<GameRecorder> games = new ArrayList<>();
+        try (ArchiveWriter out = new ArchiveWriter(file)) {
+            for (int i = 0; i < 5; i++) {
+                games.add(play(10 + i * 2));
+                out.append(games.get(i));
+            }
+        }
+        // Reopening appends after the games already there
+        try (ArchiveWriter out = new ArchiveWriter(file)) {
+            for (int i = 5; i < 8; i++) {
+                games.add(play(10 + i * 2));
+                out.append(games.get(i));
+            }
+        }
+
+        try (ArchiveReader in = new ArchiveReader(file)) {
+            for (GameRecorder expected : games) {
+                assertTrue(in.next());
+                assertSameGame(expected, in);
+                assertEquals(EPieceType.K, in.getPieceType(3));
+                assertEquals(1, in.getPieceOwner(in.getPieceCount() - 1));
+            }
+            assertFalse(in.next());
+        }
+    }
+
+    @Test
+    void testStatsMatchTheGames() throws Exception {
+        Path file = dir.resolve("games" + ArchiveWriter.SUFFIX);
+        long[] captured = new long[EPieceType.values().length];
+        long[] present = new long[captured.length];
+        long ticks = 0;
+        int events = 0;
+        try (ArchiveWriter out = new ArchiveWriter(file)) {
+            for (int i = 0; i < 20; i++) {
+                GameRecorder r = play(100 + i);
+                out.append(r);
+                ticks += r.getGame().getTick();
+                events += r.getEventCount();
+                for (IPlayer p : r.getGame().getBoard().getPlayers()) {
+                    for (IPiece piece : p.getPieces()) {
+                        present[piece.getType().ordinal()]++;
+                        if (piece.isCaptured())
+                            captured[piece.getType().ordinal()]++;
+                    }
+                }
+            }
+        }
+        // Columns compress to a few bytes per event
+        assertTrue(Files.size(file) < events * 5L, Files.size(file) + " bytes for " + events + " events");
+
+        ArchiveStats stats = ArchiveStats.scan(List.of(file, file), 2);
+        assertEquals(40, stats.getGames());
+        assertEquals((double) ticks / 20, stats.getAverageTicks(), 1e-9);
+        for (EPieceType t : EPieceType.values()) {
+            assertEquals(2 * captured[t.ordinal()], stats.getCaptured(t), t.name());
+            assertEquals((double) captured[t.ordinal()] / present[t.ordinal()], stats.getCaptureRate(t), 1e-9);
+        }
+    }
+
+    @Test
+    void testImportsFinishedJournals() throws Exception {
+        Path journal = dir.resolve("g1" + GameJournal.SUFFIX);
+        HeadlessGame game = new HeadlessGame(new RandomCommandGenerator(7), new RandomCommandGenerator(8),
+                HeadlessGame.DEFAULT_TICK_MILLIS);
+        GameRecorder live = new GameRecorder(game.getGame());
+        live.start();
+        GameJournal j = new GameJournal(journal, game.getGame());
+        j.start();
+        game.run(20_000);
+        j.close();
+        // An unfinished game is left out
+        HeadlessGame running = new HeadlessGame(new RandomCommandGenerator(9), new RandomCommandGenerator(10),
+                HeadlessGame.DEFAULT_TICK_MILLIS);
+        GameJournal j2 = new GameJournal(dir.resolve("g2" + GameJournal.SUFFIX), running.getGame());
+        j2.start();
+        running.run(100);
+        j2.close();
+
+        Path file = dir.resolve("imported" + ArchiveWriter.SUFFIX);
+        try (ArchiveWriter out = new ArchiveWriter(file)) {
+            assertEquals(1, ArchiveMain.importJournals(List.of(journal, dir.resolve("g2" + GameJournal.SUFFIX)),
+                    out, HeadlessGame.DEFAULT_TICK_MILLIS, 2));
+        }
+        try (ArchiveReader in = new ArchiveReader(file)) {
+            assertTrue(in.next());
+            assertSameGame(live, in);
+            assertFalse(in.next());
+        }
+    }
+
+    @Test
+    void testRejectsOtherFiles() throws IOException {
+        Path file = dir.resolve("x" + ArchiveWriter.SUFFIX);
+        Files.write(file, new byte[]{ 1, 2, 3, 4, 5, 6 });
+        assertThrows(IOException.class, () -> new ArchiveReader(file));
+    }
+}
@@ -0,0 +1,95 @@
+package assets;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import interfaces.EState;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pieces.EPieceType;
+import utils.LogUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AssetIndexTest {
+    @BeforeAll
+    static void quiet() {
+        LogUtils.setEnabled(false);
+    }
+
+    private static Path classesDir() throws Exception {
+        return Path.of(AssetIndex.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    @Test
+    void testGeneratedIndexListsEveryStateAndFrame() throws Exception {
+        assertNotNull(AssetIndex.class.getResource(AssetIndex.RESOURCE), "index not generated by the build");
+        AssetIndex index = AssetIndex.load();
+        assertEquals(EPieceType.values().length * EState.values().length * 2, index.getEntries().size());
+        for (AssetIndex.Entry e : index.getEntries())
+            assertTrue(e.getFrames() > 0, e.getType() + " " + e.getState() + " " + e.getPlayer());
+
+        AssetIndex scanned = AssetIndex.scan(classesDir().resolve("pieces"));
+        assertEquals(text(scanned), text(index));
+        assertEquals(5, index.frameCount(EPieceType.K, 1, EState.JUMP));
+        assertEquals(-1, new AssetIndex(List.of()).frameCount(EPieceType.K, 1, EState.JUMP));
+    }
+
+    @Test
+    void testRoundTripAndRejectsMalformedLines() throws IOException {
+        AssetIndex index = new AssetIndex(List.of(
+                new AssetIndex.Entry(EPieceType.Q, EState.SHORT_REST, 0, 3),
+                new AssetIndex.Entry(EPieceType.B, EState.IDLE, 1, 7)));
+        AssetIndex back = AssetIndex.read(new StringReader(text(index)));
+        assertEquals(text(index), text(back));
+        assertEquals("/pieces/Q/states/short_rest/config.json", back.getEntries().get(0).getConfigPath());
+
+        assertThrows(IOException.class, () -> AssetIndex.read(new StringReader("Q short_rest zero 3\n")));
+        assertThrows(IOException.class, () -> AssetIndex.read(new StringReader("Z idle 0 3\n")));
+    }
+
+    @Test
+    void testLoadsEveryPieceFromAJar(@TempDir Path dir) throws Exception {
+        Path jar = dir.resolve("game.jar");
+        Path classes = classesDir();
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar));
+             var files = Files.walk(classes)) {
+            for (Path f : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                out.putNextEntry(new JarEntry(classes.relativize(f).toString().replace('\\', '/')));
+                try (InputStream in = Files.newInputStream(f)) {
+                    in.transferTo(out);
+                }
+                out.closeEntry();
+            }
+        }
+
+        URL jackson = ObjectMapper.class.getProtectionDomain().getCodeSource().getLocation();
+        URL core = com.fasterxml.jackson.core.JsonParser.class.getProtectionDomain().getCodeSource().getLocation();
+        URL annotations = com.fasterxml.jackson.annotation.JsonProperty.class.getProtectionDomain().getCodeSource().getLocation();
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { jar.toUri().toURL(), jackson, core, annotations },
+                ClassLoader.getPlatformClassLoader())) {
+            assertEquals("jar", loader.getResource("pieces/assets.idx").getProtocol());
+            loader.loadClass("utils.LogUtils").getMethod("setEnabled", boolean.class).invoke(null, false);
+            Object loaderObj = loader.loadClass("assets.AssetLoader").getConstructor().newInstance();
+            Object catalog = loaderObj.getClass().getMethod("load").invoke(loaderObj);
+            assertEquals(EPieceType.values().length * 2, catalog.getClass().getMethod("size").invoke(catalog));
+        }
+    }
+
+    private static String text(AssetIndex index) throws IOException {
+        StringWriter out = new StringWriter();
+        index.write(out);
+        return out.toString();
+    }
+}
@@ -0,0 +1,123 @@
+package assets;
+
+import board.BoardConfig;
+import board.Dimension;
+import graphics.GraphicsLoader;
+import graphics.SpriteCache;
+import interfaces.EState;
+import interfaces.PiecesFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import pieces.EPieceType;
+import pieces.Piece;
+import pieces.Position;
+import state.GraphicsData;
+import state.PhysicsData;
+import utils.LogUtils;
+import utils.SimulatedClock;
+
+import java.awt.image.BufferedImage;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AssetLoaderTest {
+    @BeforeAll
+    static void quiet() {
+        LogUtils.setEnabled(false);
+    }
+
+    @Test
+    void testLoadsEveryPieceInParallelWithProgress() {
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger last = new AtomicInteger();
+        AtomicInteger total = new AtomicInteger();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        AssetCatalog catalog = new AssetLoader(pool, (done, all) -> {
+            calls.incrementAndGet();
+            last.accumulateAndGet(done, Math::max);
+            total.set(all);
+        }).load();
+        pool.shutdown();
+
+        assertEquals(EPieceType.values().length * 2, catalog.size());
+        assertEquals(total.get(), calls.get());
+        assertEquals(total.get(), last.get());
+        for (EPieceType type : EPieceType.values()) {
+            for (int player = 0; player < 2; player++) {
+                PieceTemplate t = catalog.get(type, player);
+                assertEquals(type, t.getType());
+                assertEquals(EState.values().length, t.getStates().size(), type + " " + player);
+                assertNotNull(t.getMoves());
+                for (StateTemplate s : t.getStates().values())
+                    assertTrue(s.getFrames().length > 0);
+            }
+        }
+        assertEquals(EState.LONG_REST, catalog.get(EPieceType.P, 0).getState(EState.MOVE).getNextStateWhenFinished());
+        assertThrows(UnsupportedOperationException.class, () -> catalog.get(EPieceType.P, 0).getStates().clear());
+    }
+
+    @Test
+    void testFactoryBuildsPiecesFromSharedTemplates() {
+        BoardConfig config = new BoardConfig(new Dimension(8), new Dimension(64 * 8));
+        Piece a = PiecesFactory.createPieceByCode(EPieceType.N, 0, new Position(0, 1), config);
+        Piece b = PiecesFactory.createPieceByCode(EPieceType.N, 0, new Position(0, 6), config);
+        assertSame(a.getMoves(), b.getMoves());
+        assertNotSame(a.getStates().get(EState.IDLE), b.getStates().get(EState.IDLE));
+        assertSame(AssetCatalog.shared().get(EPieceType.N, 0).getMoves(), a.getMoves());
+    }
+
+    @Test
+    void testPiecesShareStateTemplatesAndKeepOwnRuntimeData() {
+        BoardConfig config = new BoardConfig(new Dimension(8), new Dimension(64 * 8));
+        Piece a = PiecesFactory.createPieceByCode(EPieceType.R, 1, new Position(7, 0), config);
+        Piece b = PiecesFactory.createPieceByCode(EPieceType.R, 1, new Position(7, 7), config);
+        StateTemplate shared = AssetCatalog.shared().get(EPieceType.R, 1).getState(EState.MOVE);
+
+        PhysicsData pa = (PhysicsData) a.getStates().get(EState.MOVE).getPhysics();
+        PhysicsData pb = (PhysicsData) b.getStates().get(EState.MOVE).getPhysics();
+        GraphicsData ga = (GraphicsData) a.getStates().get(EState.MOVE).getGraphics();
+        assertSame(shared, pa.getTemplate());
+        assertSame(shared, pb.getTemplate());
+        assertSame(shared, ga.getTemplate());
+        assertSame(shared.getFrames()[0], ga.getCurrentFrame());
+
+        pa.setSpeedMetersPerSec(42);
+        assertEquals(42, pa.getSpeedMetersPerSec());
+        assertSame(shared, pb.getTemplate());
+        assertNotEquals(42, shared.getSpeedMetersPerSec());
+    }
+
+    @Test
+    void testFramesLoadOnFirstUseAndPrefetchTheNextStates() {
+        AtomicInteger loads = new AtomicInteger();
+        Map<EState, StateTemplate> states = new EnumMap<>(EState.class);
+        for (EState s : EState.values()) {
+            EState next = s == EState.MOVE ? EState.LONG_REST : s == EState.LONG_REST ? EState.IDLE : s;
+            FrameSource frames = FrameSource.lazy("test:" + s, 2, () -> {
+                loads.incrementAndGet();
+                return new BufferedImage[] { new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB),
+                        new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB) };
+            });
+            states.put(s, new StateTemplate(s, 1, next, 5, true, frames));
+        }
+        PieceTemplate piece = new PieceTemplate(EPieceType.B, 0, states, null);
+
+        GraphicsData graphics = new GraphicsData(piece.getState(EState.MOVE), new SimulatedClock());
+        assertEquals(2, graphics.getTotalFrames());
+        assertEquals(0, loads.get());
+
+        assertNotNull(graphics.getCurrentFrame());
+        SpriteCache sprites = GraphicsLoader.sprites();
+        assertTrue(sprites.contains("test:" + EState.MOVE));
+        assertTrue(sprites.contains("test:" + EState.LONG_REST));
+        assertTrue(sprites.contains("test:" + EState.IDLE));
+        assertFalse(sprites.contains("test:" + EState.JUMP));
+        sprites.prefetch("test:" + EState.LONG_REST, () -> null).join();
+        sprites.prefetch("test:" + EState.IDLE, () -> null).join();
+        assertEquals(3, loads.get());
+    }
+}
@@ -0,0 +1,97 @@
+package assets;
+
+import game.LoadPieces;
+import interfaces.EState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pieces.EPieceType;
+import utils.LogUtils;
+
+import java.awt.image.BufferedImage;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AssetPackTest {
+    private static AssetCatalog decoded;
+
+    @BeforeAll
+    static void quiet() {
+        LogUtils.setEnabled(false);
+        decoded = new AssetLoader().load();
+    }
+
+    @AfterEach
+    void clearProperty() {
+        System.clearProperty(AssetPack.PROPERTY);
+    }
+
+    @Test
+    void testBuiltPackMatchesDecodedAssets() {
+        assertNotNull(AssetPack.class.getResource(AssetPack.RESOURCE), "pack not generated by the build");
+        AssetCatalog packed = AssetPack.load();
+        assertNotNull(packed);
+        assertEquals(decoded.size(), packed.size());
+        for (PieceTemplate expected : decoded.getTemplates()) {
+            PieceTemplate actual = packed.get(expected.getType(), expected.getPlayer());
+            assertArrayEquals(expected.getMoves().getDeltas(), actual.getMoves().getDeltas());
+            assertEquals(expected.getMoves().getMoves().size(), actual.getMoves().getMoves().size());
+            assertEquals(expected.getStates().keySet(), actual.getStates().keySet());
+            for (StateTemplate e : expected.getStates().values()) {
+                StateTemplate a = actual.getState(e.getState());
+                assertEquals(e.getSpeedMetersPerSec(), a.getSpeedMetersPerSec());
+                assertEquals(e.getNextStateWhenFinished(), a.getNextStateWhenFinished());
+                assertEquals(e.getFramesPerSec(), a.getFramesPerSec());
+                assertEquals(e.isLoop(), a.isLoop());
+                assertEquals(e.getFrames().length, a.getFrames().length);
+                for (BufferedImage f : a.getFrames())
+                    assertTrue(Math.max(f.getWidth(), f.getHeight()) <= AssetPack.DEFAULT_MAX_EDGE);
+            }
+        }
+    }
+
+    @Test
+    void testBoardComesFromPackHead() throws Exception {
+        String[][] csv;
+        try (InputStream is = LoadPieces.class.getResourceAsStream("/board/board.csv")) {
+            csv = LoadPieces.parseCSV(is);
+        }
+        String[][] packed = AssetPack.readBoard();
+        assertNotNull(packed);
+        assertEquals(csv.length, packed.length);
+        for (int row = 0; row < csv.length; row++)
+            for (int col = 0; col < packed[row].length; col++)
+                assertEquals(col < csv[row].length ? csv[row][col] : null, packed[row][col]);
+        assertEquals("KB", LoadPieces.getBoardMatrix()[0][3]);
+    }
+
+    @Test
+    void testMapsPackFileNamedByProperty(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("custom.pack");
+        String[][] board = { { "KW", null }, { null, "KB" } };
+        AssetPack.write(decoded, board, 16, file);
+        System.setProperty(AssetPack.PROPERTY, file.toString());
+
+        AssetCatalog packed = AssetPack.load();
+        assertNotNull(packed);
+        BufferedImage frame = packed.get(EPieceType.Q, 1).getState(EState.IDLE).getFrames()[0];
+        assertEquals(16, Math.max(frame.getWidth(), frame.getHeight()));
+        BufferedImage source = AssetPack.scale(decoded.get(EPieceType.Q, 1).getState(EState.IDLE).getFrames()[0], 16);
+        assertEquals(source.getRGB(8, 8), frame.getRGB(8, 8));
+        assertArrayEquals(board[0], AssetPack.readBoard()[0]);
+        assertArrayEquals(board[1], AssetPack.readBoard()[1]);
+    }
+
+    @Test
+    void testRejectsFileThatIsNotAPack(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("junk.pack");
+        Files.write(file, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+        System.setProperty(AssetPack.PROPERTY, file.toString());
+        assertNull(AssetPack.load());
+        assertNull(AssetPack.readBoard());
+    }
+}
@@ -0,0 +1,75 @@
+package board;
+
+import game.LoadPieces;
+import interfaces.IBoard;
+import interfaces.IPiece;
+import interfaces.IPlayer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import pieces.EPieceType;
+import simulation.HeadlessGame;
+import simulation.RandomCommandGenerator;
+import simulation.SimulationResult;
+import utils.LogUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardLayoutTest {
+
+    @BeforeAll
+    static void quiet() {
+        LogUtils.setEnabled(false);
+    }
+
+    @Test
+    void testLayoutFromCsvMatchesTheStandardBoard() {
+        BoardLayout layout = LoadPieces.getLayout();
+
+        assertEquals(8, layout.getRows());
+        assertEquals(8, layout.getCols());
+        assertEquals(2, layout.getPlayerCount());
+        assertEquals(List.of(0, 1), layout.getRowsOfPlayer(0));
+        assertEquals(List.of(6, 7), layout.getRowsOfPlayer(1));
+        assertEquals(-1, layout.getPlayerOfRow(3));
+        assertEquals(16, layout.getPlacements(1).size());
+        assertEquals(EPieceType.K, layout.getPlacements(0).get(3).getType());
+    }
+
+    @Test
+    void testSizeComesFromTheCodes() {
+        String[][] codes = {
+                { "KB", null, null, null, null, null, null, null, null, null },
+                { null, null, null, null, null, null, null, null, null, null },
+                { null, null, null, null, null, null, null, null, null, "KW" },
+        };
+        BoardLayout layout = BoardLayout.fromCodes(codes);
+
+        assertEquals(3, layout.getRows());
+        assertEquals(10, layout.getCols());
+        assertEquals(2, layout.getPlacements(1).get(0).getRow());
+        assertEquals(9, layout.getPlacements(1).get(0).getCol());
+        assertThrows(IllegalArgumentException.class, () -> BoardLayout.fromCodes(new String[][]{ { "KX" } }));
+    }
+
+    @Test
+    void testMegaBoardGameRuns() {
+        BoardLayout layout = BoardLayout.tiled(256, 256);
+        HeadlessGame game = new HeadlessGame(layout, new RandomCommandGenerator(1), new RandomCommandGenerator(2), 16);
+        IBoard board = game.getGame().getBoard();
+
+        assertEquals(256, board.getROWS());
+        assertEquals(256, board.getCOLS());
+        for (IPlayer player : board.getPlayers())
+            assertEquals(512, player.getPieces().size());
+        IPiece far = board.getPiece(255, 255);
+        assertEquals(1, far.getPlayer());
+        assertEquals(1, board.getPlayerOf(far));
+        assertEquals(0, board.getPlayerOf(1));
+        assertEquals(1, board.getPlayerOf(254));
+
+        SimulationResult result = game.run(200);
+        assertTrue(result.ticks > 0);
+    }
+}
@@ -0,0 +1,118 @@
+package board;
+
+import interfaces.IBoard;
+import interfaces.IPiece;
+import interfaces.IPlayer;
+import interfaces.IState;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import simulation.HeadlessGame;
+import simulation.RandomCommandGenerator;
+import utils.LogUtils;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardSnapshotTest {
+    @BeforeAll
+    static void quiet() {
+        LogUtils.setEnabled(false);
+    }
+
+    private static HeadlessGame idleGame() {
+        return new HeadlessGame((p, b, t) -> null, (p, b, t) -> null, HeadlessGame.DEFAULT_TICK_MILLIS);
+    }
+
+    private static List<IPiece> pieces(IBoard board) {
+        List<IPiece> all = new ArrayList<>();
+        for (IPlayer p : board.getPlayers())
+            all.addAll(p.getPieces());
+        return all;
+    }
+
+    private static void assertSameBoard(IBoard expected, IBoard actual) {
+        assertEquals(expected.getHash(), actual.getHash());
+        List<IPiece> a = pieces(expected);
+        List<IPiece> b = pieces(actual);
+        for (int i = 0; i < a.size(); i++) {
+            IPiece p = a.get(i);
+            IPiece q = b.get(i);
+            String id = p.getId();
+            assertEquals(p.isCaptured(), q.isCaptured(), id);
+            assertEquals(p.getCurrentStateName(), q.getCurrentStateName(), id);
+            assertEquals(p.getRow(), q.getRow(), id);
+            assertEquals(p.getCol(), q.getCol(), id);
+            if (p.isCaptured())
+                continue;
+            IState s = p.getCurrentState();
+            IState t = q.getCurrentState();
+            assertEquals(s.getStartRow(), t.getStartRow(), id);
+            assertEquals(s.getTargetCol(), t.getTargetCol(), id);
+            assertEquals(s.getPhysics().getCurrentX(), t.getPhysics().getCurrentX(), id);
+            assertEquals(s.getPhysics().getCurrentY(), t.getPhysics().getCurrentY(), id);
+            assertEquals(s.getGraphics().getCurrentNumFrame(), t.getGraphics().getCurrentNumFrame(), id);
+        }
+        for (int r = 0; r < expected.getROWS(); r++)
+            for (int c = 0; c < expected.getCOLS(); c++) {
+                IPiece p = expected.getPiece(r, c);
+                IPiece q = actual.getPiece(r, c);
+                assertEquals(p == null ? null : p.getId(), q == null ? null : q.getId(), r + "," + c);
+            }
+    }
+
+    @Test
+    void testInitialBoardIsSmall() {
+        byte[] bytes = BoardSnapshot.toBytes(idleGame().getGame().getBoard());
+        assertTrue(bytes.length < 400, "snapshot takes " + bytes.length + " bytes");
+    }
+
+    @Test
+    void testRestoresPlayedGame() {
+        HeadlessGame original = new HeadlessGame(new RandomCommandGenerator(4), new RandomCommandGenerator(9),
+                HeadlessGame.DEFAULT_TICK_MILLIS);
+        for (int i = 0; i < 700; i++)
+            original.step();
+        byte[] checkpoint = original.checkpoint();
+        assertTrue(checkpoint.length < BoardSnapshot.maxSize(original.getGame().getBoard()));
+
+        HeadlessGame copy = idleGame();
+        copy.restore(checkpoint);
+        assertEquals(original.getTick(), copy.getTick());
+        assertEquals(original.getTick(), copy.getGame().getTick());
+        assertSameBoard(original.getGame().getBoard(), copy.getGame().getBoard());
+        assertTrue(checkpoint.length < 600, "checkpoint takes " + checkpoint.length + " bytes");
+    }
+
+    /** Timers and animations must line up once both games continue with the same commands. */
+    @Test
+    void testRestoredGameContinuesIdentically() {
+        HeadlessGame original = idleGame();
+        IBoard board = original.getGame().getBoard();
+        original.getGame().addCommand(new command.MoveCommand(new pieces.Position(1, 2), new pieces.Position(2, 2), board));
+        for (int i = 0; i < 20; i++)
+            original.step();
+        assertEquals(interfaces.EState.MOVE, board.getPiece(1, 2).getCurrentStateName());
+
+        HeadlessGame copy = idleGame();
+        copy.restore(original.checkpoint());
+        assertSameBoard(board, copy.getGame().getBoard());
+        for (int i = 0; i < 200; i++) {
+            original.step();
+            copy.step();
+        }
+        assertSameBoard(board, copy.getGame().getBoard());
+        assertNotNull(copy.getGame().getBoard().getPiece(2, 2));
+    }
+
+    @Test
+    void testRejectsOtherBoard() {
+        ByteBuffer buf = ByteBuffer.allocate(1024);
+        idleGame().getGame().getBoard().snapshot(buf);
+        buf.put(1, (byte) 9);
+        buf.flip();
+        assertThrows(IllegalArgumentException.class, () -> idleGame().getGame().getBoard().restore(buf));
+    }
+}
@@ -124,4 +124,41 @@ public class BoardTest {
         assertFalse(board.isPathClear(from, to));
     }
 
+    @Test
+    void testHashIsDeterministic() {
+        Board other = new Board(boardConfig, players);
+
+        assertNotEquals(0L, board.getHash());
+        assertEquals(board.getHash(), other.getHash());
+    }
+
+    @Test
+    void testHashFollowsStateChangeOnMove() {
+        long initial = board.getHash();
+        when(piece1.getCurrentStateName()).thenReturn(EState.IDLE, EState.MOVE);
+
+        board.move(new Position(1, 1), new Position(2, 1));
+
+        assertNotEquals(initial, board.getHash());
+        assertEquals(new Board(boardConfig, players).getHash(), board.getHash(),
+                "Incremental hash must match a hash computed from scratch");
+    }
+
+    @Test
+    void testHashDropsCapturedPiece() {
+        IState movingState = mock(IState.class);
+        when(movingState.isActionFinished()).thenReturn(true);
+        when(movingState.getTargetRow()).thenReturn(2);
+        when(movingState.getTargetCol()).thenReturn(2);
+        when(piece1.getCurrentState()).thenReturn(movingState);
+        when(piece2.canMoveOver()).thenReturn(true);
+        when(piece2.getCurrentStateName()).thenReturn(EState.LONG_REST);
+        Board resting = new Board(boardConfig, players);
+        long piece2Key = Zobrist.forSize(8, 8).key(2, 2, null, 1, EState.LONG_REST);
+
+        resting.updateAll();
+
+        verify(player2).markPieceCaptured(piece2);
+        assertEquals(new Board(boardConfig, players).getHash() ^ piece2Key, resting.getHash());
+    }
 }
@@ -0,0 +1,79 @@
+package board;
+
+import interfaces.IBoard;
+import interfaces.IPlayer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import simulation.HeadlessGame;
+import simulation.RandomCommandGenerator;
+import utils.LogUtils;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveGeneratorTest {
+
+    @BeforeAll
+    static void quiet() {
+        LogUtils.setEnabled(false);
+    }
+
+    @Test
+    void testInitialPositionCounts() {
+        HeadlessGame game = new HeadlessGame((p, b, t) -> null, (p, b, t) -> null, 16);
+        IBoard board = game.getGame().getBoard();
+        MoveBuffer buffer = new MoveBuffer();
+
+        for (IPlayer player : board.getPlayers()) {
+            MoveGenerator.generate(board, player, buffer);
+            int jumps = 0;
+            for (int i = 0; i < buffer.size(); i++)
+                if (MoveBuffer.isJump(buffer.get(i)))
+                    jumps++;
+
+            // 6 middle pawns x 4, 2 edge pawns x 3, 2 knights x 2; everything else is blocked
+            assertEquals(34, buffer.size() - jumps);
+            assertEquals(16, jumps);
+        }
+    }
+
+    @Test
+    void testMatchesIsMoveLegalDuringRandomGames() {
+        MoveBuffer buffer = new MoveBuffer(1);
+        for (int g = 0; g < 3; g++) {
+            HeadlessGame game = new HeadlessGame(new RandomCommandGenerator(g), new RandomCommandGenerator(g + 100), 16);
+            IBoard board = game.getGame().getBoard();
+            while (game.getGame().win() == null && game.getTick() < 3000) {
+                game.step();
+                if (game.getTick() % 25 != 0)
+                    continue;
+                for (IPlayer player : board.getPlayers()) {
+                    MoveGenerator.generate(board, player, buffer);
+                    Set<Integer> unique = new HashSet<>();
+                    for (int i = 0; i < buffer.size(); i++) {
+                        int m = buffer.get(i);
+                        assertTrue(unique.add(m), "duplicate move");
+                        if (!MoveBuffer.isJump(m))
+                            assertTrue(board.isMoveLegal(new pieces.Position(MoveBuffer.fromRow(m), MoveBuffer.fromCol(m)),
+                                    new pieces.Position(MoveBuffer.toRow(m), MoveBuffer.toCol(m))));
+                    }
+                    assertEquals(simulation.MoveGeneratorBenchmark.bruteForceCount(board, player), buffer.size());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testPackRoundTrip() {
+        int m = MoveBuffer.pack(200, 3, 7, 255);
+
+        assertEquals(200, MoveBuffer.fromRow(m));
+        assertEquals(3, MoveBuffer.fromCol(m));
+        assertEquals(7, MoveBuffer.toRow(m));
+        assertEquals(255, MoveBuffer.toCol(m));
+        assertFalse(MoveBuffer.isJump(m));
+        assertTrue(MoveBuffer.isJump(MoveBuffer.pack(4, 5, 4, 5)));
+    }
+}
@@ -0,0 +1,109 @@
+package board;
+
+import interfaces.IBoard;
+import interfaces.IBoardGrid;
+import interfaces.IPiece;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import simulation.HeadlessGame;
+import simulation.RandomCommandGenerator;
+import utils.LogUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class SparseGridTest {
+
+    @BeforeAll
+    static void quiet() {
+        LogUtils.setEnabled(false);
+    }
+
+    private static List<String> cells(IBoardGrid grid, int fromRow, int fromCol, int toRow, int toCol) {
+        List<String> out = new ArrayList<>();
+        grid.forEach(fromRow, fromCol, toRow, toCol, (r, c, p) -> out.add(r + "," + c + "=" + p.hashCode()));
+        out.sort(null);
+        return out;
+    }
+
+    @Test
+    void testMatchesDenseGridUnderRandomChanges() {
+        int rows = 40, cols = 70;
+        DenseGrid dense = new DenseGrid(rows, cols);
+        SparseGrid sparse = new SparseGrid(rows, cols);
+        IPiece[] pieces = new IPiece[20];
+        for (int i = 0; i < pieces.length; i++)
+            pieces[i] = mock(IPiece.class);
+
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < 20_000; i++) {
+            int r = random.nextInt(rows), c = random.nextInt(cols);
+            IPiece p = random.nextInt(3) == 0 ? null : pieces[random.nextInt(pieces.length)];
+            dense.set(r, c, p);
+            sparse.set(r, c, p);
+            assertSame(dense.get(r, c), sparse.get(r, c));
+        }
+
+        assertEquals(dense.size(), sparse.size());
+        assertEquals(cells(dense, 0, 0, rows, cols), cells(sparse, 0, 0, rows, cols));
+        assertEquals(cells(dense, 5, 10, 7, 13), cells(sparse, 5, 10, 7, 13));
+        assertEquals(cells(dense, -3, -3, 100, 100), cells(sparse, -3, -3, 100, 100));
+    }
+
+    @Test
+    void testSquaresCanBeEmptiedWhileIterating() {
+        SparseGrid grid = new SparseGrid(256, 256);
+        for (int i = 0; i < 1000; i++)
+            grid.set(i % 256, i / 256 * 7, mock(IPiece.class));
+
+        int[] visited = { 0 };
+        grid.forEach((r, c, p) -> {
+            visited[0]++;
+            if (r % 2 == 0)
+                grid.set(r, c, null);
+        });
+
+        assertEquals(1000, visited[0]);
+        assertEquals(500, grid.size());
+        assertNull(grid.get(0, 0));
+        assertNotNull(grid.get(1, 0));
+    }
+
+    @Test
+    void testSparseAndDenseBoardsPlayTheSameGame() {
+        String old = System.getProperty(Board.STORAGE_PROPERTY);
+        try {
+            byte[][] checkpoints = new byte[2][];
+            String[] storages = { "dense", "sparse" };
+            for (int i = 0; i < storages.length; i++) {
+                System.setProperty(Board.STORAGE_PROPERTY, storages[i]);
+                HeadlessGame game = new HeadlessGame(new RandomCommandGenerator(5), new RandomCommandGenerator(6), 16);
+                game.run(1500);
+                checkpoints[i] = game.checkpoint();
+            }
+            assertArrayEquals(checkpoints[0], checkpoints[1]);
+        } finally {
+            if (old == null)
+                System.clearProperty(Board.STORAGE_PROPERTY);
+            else
+                System.setProperty(Board.STORAGE_PROPERTY, old);
+        }
+    }
+
+    @Test
+    void testRegionVisitsOnlyVisiblePieces() {
+        IBoard board = new HeadlessGame(BoardLayout.tiled(128, 128), (p, b, t) -> null, (p, b, t) -> null, 16)
+                .getGame().getBoard();
+        List<IPiece> seen = new ArrayList<>();
+        board.forEachPiece(0, 0, 2, 4, (r, c, p) -> seen.add(p));
+
+        assertEquals(8, seen.size());
+        int[] all = { 0 };
+        board.forEachPiece((r, c, p) -> all[0]++);
+        assertEquals(4 * 128, all[0]);
+    }
+}
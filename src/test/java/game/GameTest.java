@@ -81,4 +81,42 @@ class GameTest {
         assertSame(player2, game.getPlayer2());
         assertNotNull(game.getBoard());
     }
+
+    @Test
+    void testLastPlayerStandingWinsAmongFour() {
+        IPlayer[] players = new IPlayer[4];
+        for (int i = 0; i < players.length; i++)
+            players[i] = mock(IPlayer.class);
+        Game four = new Game(boardConfig, players);
+
+        when(players[0].isFailed()).thenReturn(true);
+        when(players[3].isFailed()).thenReturn(true);
+        assertNull(four.win(), "Two players remain");
+
+        when(players[1].isFailed()).thenReturn(true);
+        assertSame(players[2], four.win());
+        assertEquals(4, four.getPlayers().length);
+    }
+
+    @Test
+    void testLastPlayersOutTogetherDecideTheWinner() {
+        IPlayer[] players = new IPlayer[4];
+        for (int i = 0; i < players.length; i++)
+            players[i] = mock(IPlayer.class);
+        Game four = new Game(boardConfig, players);
+
+        for (int t = 0; t <= 50; t++) {
+            if (t == 5)
+                when(players[2].isFailed()).thenReturn(true);
+            if (t == 10)
+                when(players[3].isFailed()).thenReturn(true);
+            if (t == 50) {
+                when(players[0].isFailed()).thenReturn(true);
+                when(players[1].isFailed()).thenReturn(true);
+            }
+            four.update();
+        }
+
+        assertSame(players[1], four.win(), "Only players 0 and 1 were still in on tick 50");
+    }
 }
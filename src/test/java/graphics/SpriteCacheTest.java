@@ -0,0 +1,136 @@
+package graphics;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import utils.LogUtils;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpriteCacheTest {
+    /** Bytes of one 10x10 ARGB frame. */
+    private static final long FRAME = 400;
+
+    @BeforeAll
+    static void quiet() {
+        LogUtils.setEnabled(false);
+    }
+
+    private static Supplier<BufferedImage[]> frames(int count, AtomicInteger loads) {
+        return () -> {
+            loads.incrementAndGet();
+            BufferedImage[] f = new BufferedImage[count];
+            for (int i = 0; i < count; i++)
+                f[i] = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+            return f;
+        };
+    }
+
+    @Test
+    void testConcurrentRequestsShareOneLoad() throws Exception {
+        SpriteCache cache = new SpriteCache(1 << 20, Runnable::run);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch go = new CountDownLatch(1);
+        Supplier<BufferedImage[]> slow = () -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return frames(3, loads).get();
+        };
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<BufferedImage[]>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++)
+            futures.add(pool.submit(() -> {
+                go.await();
+                return cache.get("k", slow);
+            }));
+        go.countDown();
+        BufferedImage[] first = futures.get(0).get();
+        for (Future<BufferedImage[]> f : futures)
+            assertSame(first, f.get());
+        pool.shutdown();
+
+        assertEquals(1, loads.get());
+        assertEquals(3 * FRAME, cache.getBytes());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedOverBudget() {
+        SpriteCache cache = new SpriteCache(2 * FRAME, Runnable::run);
+        AtomicInteger loads = new AtomicInteger();
+        BufferedImage[] a = cache.get("a", frames(1, loads));
+        cache.get("b", frames(1, loads));
+        assertSame(a, cache.get("a", frames(1, loads)));
+        cache.get("c", frames(1, loads));
+
+        assertTrue(cache.contains("a"));
+        assertFalse(cache.contains("b"));
+        assertTrue(cache.contains("c"));
+        assertEquals(2 * FRAME, cache.getBytes());
+        assertEquals(3, loads.get());
+
+        cache.get("b", frames(1, loads));
+        assertEquals(4, loads.get());
+        assertFalse(cache.contains("a"));
+    }
+
+    @Test
+    void testKeepsEntryLargerThanBudget() {
+        SpriteCache cache = new SpriteCache(FRAME, Runnable::run);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("small", frames(1, loads));
+        BufferedImage[] big = cache.get("big", frames(5, loads));
+        assertEquals(5, big.length);
+        assertTrue(cache.contains("big"));
+        assertFalse(cache.contains("small"));
+        assertEquals(5 * FRAME, cache.getBytes());
+    }
+
+    @Test
+    void testPrefetchRunsOnExecutorAndFailedLoadIsRetried() {
+        List<Runnable> queued = new ArrayList<>();
+        SpriteCache cache = new SpriteCache(1 << 20, queued::add);
+        AtomicInteger loads = new AtomicInteger();
+        var pending = cache.prefetch("p", frames(2, loads));
+        assertFalse(pending.isDone());
+        assertEquals(1, queued.size());
+        queued.get(0).run();
+        assertEquals(2, pending.join().length);
+        assertEquals(1, loads.get());
+
+        assertThrows(RuntimeException.class, () -> cache.get("bad", () -> { throw new IllegalStateException("x"); }));
+        assertFalse(cache.contains("bad"));
+        assertEquals(1, cache.get("bad", frames(1, loads)).length);
+    }
+
+    @Test
+    void testLoadedFramesAreFoundWithoutLoading() {
+        List<Runnable> queued = new ArrayList<>();
+        SpriteCache cache = new SpriteCache(2 * FRAME, queued::add);
+        AtomicInteger loads = new AtomicInteger();
+        var pending = cache.prefetch("a", frames(1, loads));
+        assertNull(cache.getIfLoaded("a"), "Still loading");
+        queued.get(0).run();
+        assertSame(pending.join(), cache.getIfLoaded("a"));
+        assertNull(cache.getIfLoaded("missing"));
+
+        cache.get("b", frames(1, loads));
+        assertNotNull(cache.getIfLoaded("a"));
+        cache.get("c", frames(1, loads));
+        assertTrue(cache.contains("a"), "A hit after the last load keeps the entry recent");
+        assertFalse(cache.contains("b"));
+        assertEquals(3, loads.get());
+    }
+}
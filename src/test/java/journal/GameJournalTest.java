@@ -0,0 +1,175 @@
+package journal;
+
+import interfaces.EState;
+import interfaces.ICommand;
+import interfaces.IGame;
+import interfaces.IGameListener;
+import interfaces.IPiece;
+import interfaces.IPlayer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import simulation.HeadlessGame;
+import simulation.RandomCommandGenerator;
+import utils.LogUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameJournalTest {
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void quiet() {
+        LogUtils.setEnabled(false);
+    }
+
+    private static HeadlessGame randomGame() {
+        return new HeadlessGame(new RandomCommandGenerator(11), new RandomCommandGenerator(12), HeadlessGame.DEFAULT_TICK_MILLIS);
+    }
+
+    /** Counts queued commands and tracks the last tick, independently of the journal. */
+    private static final class Counter implements IGameListener {
+        final AtomicInteger commands = new AtomicInteger();
+
+        @Override
+        public void onUpdate(IGame game, long tick) {
+        }
+
+        @Override
+        public void onCommand(IGame game, long tick, ICommand command) {
+            commands.incrementAndGet();
+        }
+    }
+
+    @Test
+    void testRecordsCommandsCapturesAndWin() throws IOException {
+        HeadlessGame game = randomGame();
+        Counter counter = new Counter();
+        game.getGame().addListener(counter);
+        Path file = dir.resolve("g1" + GameJournal.SUFFIX);
+        GameJournal journal = new GameJournal(file, game.getGame(), 4096, 16, Runnable::run);
+        journal.start();
+        game.run(20_000);
+        journal.close();
+        assertEquals(journal.size(), Files.size(file));
+
+        int commands = 0;
+        int captures = 0;
+        int wins = 0;
+        int states = 0;
+        long lastTick = 0;
+        try (JournalReader in = new JournalReader(file)) {
+            assertEquals(8, in.getRows());
+            assertEquals(8, in.getCols());
+            while (in.next()) {
+                assertTrue(in.getTick() >= lastTick);
+                lastTick = in.getTick();
+                switch (in.getType()) {
+                    case MOVE:
+                    case JUMP:
+                        commands++;
+                        break;
+                    case CAPTURE:
+                        captures++;
+                        break;
+                    case STATE:
+                        states++;
+                        break;
+                    case WIN:
+                        wins++;
+                        assertEquals(game.getGame().win().getId(), in.getPlayer());
+                        break;
+                }
+            }
+            assertFalse(in.isTruncated());
+        }
+
+        int captured = 0;
+        for (IPlayer p : game.getGame().getBoard().getPlayers())
+            for (IPiece piece : p.getPieces())
+                if (piece.isCaptured())
+                    captured++;
+        assertEquals(counter.commands.get(), commands);
+        assertEquals(captured, captures);
+        assertEquals(game.getGame().win() == null ? 0 : 1, wins);
+        assertTrue(states > 0);
+        assertTrue(lastTick <= game.getTick());
+    }
+
+    @Test
+    void testFirstMoveRecord() throws IOException {
+        HeadlessGame game = new HeadlessGame((p, b, t) -> null, (p, b, t) -> null, HeadlessGame.DEFAULT_TICK_MILLIS);
+        Path file = dir.resolve("g2" + GameJournal.SUFFIX);
+        GameJournal journal = new GameJournal(file, game.getGame());
+        journal.start();
+        game.step();
+        game.step();
+        game.getGame().addCommand(new command.MoveCommand(new pieces.Position(6, 0), new pieces.Position(5, 0), game.getGame().getBoard()));
+        game.step();
+        journal.close();
+
+        try (JournalReader in = new JournalReader(file)) {
+            assertTrue(in.next());
+            assertEquals(EJournalRecord.MOVE, in.getType());
+            assertEquals(2, in.getTick());
+            assertEquals(1, in.getPlayer());
+            assertEquals(6, in.getFromRow());
+            assertEquals(0, in.getFromCol());
+            assertEquals(5, in.getToRow());
+            assertTrue(in.next());
+            assertEquals(EJournalRecord.STATE, in.getType());
+            assertEquals(16, in.getPieceId());
+            assertEquals(EState.MOVE, in.getState());
+            assertFalse(in.next());
+        }
+    }
+
+    @Test
+    void testUnclosedJournalIsReadableAfterSync() throws IOException {
+        HeadlessGame game = randomGame();
+        Path file = dir.resolve("g3" + GameJournal.SUFFIX);
+        // Tiny segments so the file is extended many times
+        GameJournal journal = new GameJournal(file, game.getGame(), 256, 8, Runnable::run);
+        journal.start();
+        game.run(3_000);
+        journal.sync();
+
+        long records = 0;
+        try (JournalReader in = new JournalReader(file)) {
+            while (in.next())
+                records++;
+            assertFalse(in.isTruncated());
+            assertEquals(journal.size(), in.position());
+        }
+        assertEquals(journal.getRecordCount(), records);
+        assertTrue(records > 0);
+        journal.close();
+    }
+
+    @Test
+    void testTornTailIsDetected() throws IOException {
+        HeadlessGame game = randomGame();
+        Path file = dir.resolve("g4" + GameJournal.SUFFIX);
+        GameJournal journal = new GameJournal(file, game.getGame());
+        journal.start();
+        game.run(2_000);
+        journal.close();
+
+        byte[] bytes = Files.readAllBytes(file);
+        byte[] torn = java.util.Arrays.copyOf(bytes, bytes.length - 1);
+        Files.write(file, torn);
+        try (JournalReader in = new JournalReader(file)) {
+            long records = 0;
+            while (in.next())
+                records++;
+            assertEquals(journal.getRecordCount() - 1, records);
+            assertTrue(in.isTruncated());
+        }
+    }
+}
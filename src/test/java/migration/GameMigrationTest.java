@@ -0,0 +1,139 @@
+package migration;
+
+import command.MoveCommand;
+import interfaces.IBoard;
+import interfaces.IPlayer;
+import network.LineCodec;
+import network.Snapshot;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pieces.Position;
+import simulation.HeadlessGame;
+import simulation.ICommandGenerator;
+import utils.LogUtils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameMigrationTest {
+    private static final ICommandGenerator IDLE = (p, b, t) -> null;
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void quiet() {
+        LogUtils.setEnabled(false);
+    }
+
+    /** A game in the middle of things: pieces moving, a command queued, a cursor moved and a selection made. */
+    private static HeadlessGame busyGame() {
+        HeadlessGame game = new HeadlessGame(IDLE, IDLE, HeadlessGame.DEFAULT_TICK_MILLIS);
+        IBoard board = game.getGame().getBoard();
+        game.getGame().addCommand(new MoveCommand(new Position(1, 3), new Position(2, 3), board));
+        for (int i = 0; i < 30; i++)
+            game.step();
+        game.getGame().addCommand(new MoveCommand(new Position(6, 4), new Position(5, 4), board));
+        IPlayer p0 = board.getPlayers()[0];
+        p0.getCursor().moveDown();
+        p0.getCursor().moveRight();
+        p0.setPendingFrom(new Position(1, 1));
+        return game;
+    }
+
+    private static String fullState(HeadlessGame game) {
+        ByteBuffer buf = ByteBuffer.allocate(4096);
+        new LineCodec().encodeDelta(null, Snapshot.capture(game.getGame().getBoard(), game.getTick(), -1), buf);
+        return new String(buf.array(), 0, buf.position(), StandardCharsets.US_ASCII).trim();
+    }
+
+    @Test
+    void testResumedGameContinuesFromSameTick() {
+        HeadlessGame original = busyGame();
+        GameImage image = GameImage.fromBytes(GameImage.capture(original, new boolean[]{ false, true }).toBytes());
+        assertEquals(1, image.getQueuedCommandCount());
+        assertTrue(image.isBot(1));
+        assertEquals("player0", image.getPlayerName(0));
+
+        HeadlessGame resumed = image.resume(IDLE, IDLE);
+        assertEquals(original.getTick(), resumed.getTick());
+        IPlayer p0 = resumed.getGame().getBoard().getPlayers()[0];
+        assertEquals(1, p0.getCursor().getRow());
+        assertEquals(1, p0.getCursor().getCol());
+        assertEquals(1, p0.getPendingFrom().getCol());
+
+        for (int i = 0; i < 300; i++) {
+            original.step();
+            resumed.step();
+            assertEquals(fullState(original), fullState(resumed));
+        }
+        assertNotNull(resumed.getGame().getBoard().getPiece(5, 4));
+    }
+
+    @Test
+    void testRejectedImageKeepsSenderGame() throws Exception {
+        int port;
+        try (ServerSocket closed = new ServerSocket(0)) {
+            port = closed.getLocalPort();
+        }
+        assertThrows(java.io.IOException.class,
+                () -> MigrationLink.send(GameImage.capture(busyGame(), new boolean[2]), "localhost", port, 500));
+    }
+
+    /** Skips the child's startup chatter (sprite warnings and the like) up to the line with the given prefix. */
+    private static String readUntil(BufferedReader out, String prefix) throws java.io.IOException {
+        for (String line; (line = out.readLine()) != null; )
+            if (line.startsWith(prefix))
+                return line;
+        return fail("child exited before printing '" + prefix + "'");
+    }
+
+    /** Hands a game to a second JVM running the server, then reads its state back over the wire. */
+    @Test
+    void testMigratesToAnotherProcess() throws Exception {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        ProcessBuilder pb = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                "network.ServerMain", "--text", "--port", "0", "--accept-migration", "0");
+        pb.directory(dir.toFile());
+        pb.redirectErrorStream(true);
+        Process child = pb.start();
+        try {
+            BufferedReader out = new BufferedReader(new InputStreamReader(child.getInputStream(), StandardCharsets.US_ASCII));
+            String waiting = readUntil(out, "Waiting for migration on port ");
+            int migrationPort = Integer.parseInt(waiting.substring(waiting.lastIndexOf(' ') + 1));
+
+            HeadlessGame game = busyGame();
+            MigrationLink.send(GameImage.capture(game, new boolean[2]), "localhost", migrationPort, 10_000);
+
+            String serving = readUntil(out, "Serving on port ");
+            String[] parts = serving.split(" ");
+            assertEquals("Serving on port " + parts[3] + " from tick " + game.getTick(), serving);
+
+            try (Socket client = new Socket("localhost", Integer.parseInt(parts[3]))) {
+                client.setSoTimeout(10_000);
+                BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.US_ASCII));
+                assertEquals("WELCOME 0 8 8", in.readLine());
+                String remote = in.readLine();
+                long tick = Long.parseLong(remote.split(" ")[1]);
+                assertTrue(tick >= game.getTick());
+
+                while (game.getTick() < tick)
+                    game.step();
+                assertEquals(fullState(game), remote);
+            }
+        } finally {
+            child.destroyForcibly();
+            child.waitFor(10, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package network;
+
+import board.BoardLayout;
+import interfaces.IBoard;
+import interfaces.IPiece;
+import interfaces.IPlayer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import simulation.HeadlessGame;
+import simulation.RandomCommandGenerator;
+import utils.LogUtils;
+import utils.Varint;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryCodecTest {
+    private final BinaryCodec codec = new BinaryCodec(8, 8);
+
+    @BeforeAll
+    static void quiet() {
+        LogUtils.setEnabled(false);
+    }
+
+    private static ClientMessage randomMessage(SplittableRandom rnd) {
+        EClientMessageType type = EClientMessageType.values()[rnd.nextInt(EClientMessageType.values().length)];
+        switch (type) {
+            case MOVE: return ClientMessage.move(rnd.nextInt(8), rnd.nextInt(8), rnd.nextInt(8), rnd.nextInt(8));
+            case JUMP: return ClientMessage.jump(rnd.nextInt(8), rnd.nextInt(8));
+            case ACK: return ClientMessage.ack(rnd.nextLong(-1, Long.MAX_VALUE));
+            default: return ClientMessage.cursor(type);
+        }
+    }
+
+    @Test
+    void testMoveFitsInFiveBytes() {
+        ByteBuffer buf = ByteBuffer.allocate(64);
+        codec.encode(ClientMessage.move(1, 2, 7, 7), buf);
+        assertEquals(5, buf.position());
+
+        buf.flip();
+        assertEquals(ClientMessage.move(1, 2, 7, 7), codec.decode(buf));
+        assertFalse(buf.hasRemaining());
+    }
+
+    @Test
+    void testOversizedHeaderIsRejectedBeforeThePayload() {
+        ByteBuffer buf = ByteBuffer.allocate(2);
+        buf.putShort((short) 60000).flip();
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(buf));
+    }
+
+    @Test
+    void testStateRoundTrip() {
+        HeadlessGame game = new HeadlessGame(new RandomCommandGenerator(1), new RandomCommandGenerator(2), 16);
+        game.run(2000);
+        IBoard board = game.getGame().getBoard();
+
+        ByteBuffer buf = ByteBuffer.allocate(1024);
+        codec.encodeState(board, 123_456L, -1, buf);
+        assertTrue(buf.position() < 32 * 3 + 16, "state takes " + buf.position() + " bytes");
+        buf.flip();
+
+        StateFrame frame = new StateFrame();
+        assertEquals(BinaryCodec.STATE, codec.decodeServer(buf, frame));
+        assertEquals(123_456L, frame.tick);
+        assertEquals(-1, frame.winner);
+
+        int id = 0;
+        int live = 0;
+        for (IPlayer player : board.getPlayers()) {
+            for (IPiece p : player.getPieces()) {
+                int i = frame.indexOf(id++);
+                if (p.isCaptured()) {
+                    assertEquals(-1, i);
+                    continue;
+                }
+                live++;
+                assertEquals(player.getId(), frame.owners[i]);
+                assertEquals(p.getRow(), frame.rows[i]);
+                assertEquals(p.getCol(), frame.cols[i]);
+                assertEquals(p.getType(), frame.types[i]);
+                assertEquals(p.getCurrentStateName(), frame.states[i]);
+            }
+        }
+        assertEquals(live, frame.count);
+    }
+
+    @Test
+    void testFullDeltaOfThousandsOfPiecesFitsOneFrame() {
+        IBoard board = new HeadlessGame(BoardLayout.tiled(64, 1600), (p, b, t) -> null, (p, b, t) -> null, 16)
+                .getGame().getBoard();
+        BinaryCodec wide = new BinaryCodec(64, 1600);
+        ByteBuffer buf = ByteBuffer.allocate(wide.maxFrameSize(board));
+        wide.encodeWelcome(1, board, buf);
+        wide.encodeDelta(null, Snapshot.capture(board, 7, -1), buf);
+        assertTrue(buf.position() > 0xFFFF, "delta of " + buf.position() + " bytes");
+        assertTrue(buf.position() <= buf.capacity());
+        buf.flip();
+
+        StateFrame frame = new StateFrame();
+        SnapshotHistory history = new SnapshotHistory(4);
+        assertEquals(BinaryCodec.WELCOME, wide.decodeServer(buf, frame, history));
+        assertEquals(1600, frame.boardCols);
+        assertEquals(BinaryCodec.DELTA, wide.decodeServer(buf, frame, history));
+        assertEquals(4 * 1600, frame.snapshot.getPieceCount());
+        assertEquals(63 * 1600 + 1599, frame.snapshot.square[4 * 1600 - 1]);
+        assertFalse(buf.hasRemaining());
+    }
+
+    @Test
+    void testFuzzStreamedMessagesRoundTrip() {
+        SplittableRandom rnd = new SplittableRandom(31);
+        List<ClientMessage> sent = new ArrayList<>();
+        ByteBuffer wire = ByteBuffer.allocate(10_000 * 13);
+        for (int i = 0; i < 10_000; i++) {
+            ClientMessage m = randomMessage(rnd);
+            sent.add(m);
+            codec.encode(m, wire);
+        }
+        wire.flip();
+
+        // Feed the stream in random chunks, as TCP would deliver it
+        List<ClientMessage> received = new ArrayList<>();
+        ByteBuffer in = ByteBuffer.allocate(64);
+        while (wire.hasRemaining()) {
+            int chunk = Math.min(wire.remaining(), 1 + rnd.nextInt(Math.min(in.remaining(), 13)));
+            ByteBuffer slice = wire.duplicate();
+            slice.limit(wire.position() + chunk);
+            in.put(slice);
+            wire.position(wire.position() + chunk);
+
+            in.flip();
+            ClientMessage m;
+            while ((m = codec.decode(in)) != null)
+                received.add(m);
+            in.compact();
+        }
+        assertEquals(sent, received);
+    }
+
+    @Test
+    void testFuzzGarbageIsRejectedCleanly() {
+        SplittableRandom rnd = new SplittableRandom(77);
+        for (int i = 0; i < 50_000; i++) {
+            byte[] bytes = new byte[rnd.nextInt(24)];
+            rnd.nextBytes(bytes);
+            ByteBuffer in = ByteBuffer.wrap(bytes);
+            try {
+                while (codec.decode(in) != null)
+                    ;
+            } catch (IllegalArgumentException expected) {
+                // Malformed input must only ever surface as IllegalArgumentException
+            }
+        }
+    }
+
+    @Test
+    void testFuzzCorruptedStatesAreRejectedCleanly() {
+        HeadlessGame game = new HeadlessGame(new RandomCommandGenerator(3), new RandomCommandGenerator(4), 16);
+        game.run(500);
+        ByteBuffer valid = ByteBuffer.allocate(1024);
+        codec.encodeState(game.getGame().getBoard(), 500, -1, valid);
+        valid.flip();
+
+        SplittableRandom rnd = new SplittableRandom(5);
+        StateFrame frame = new StateFrame();
+        for (int i = 0; i < 20_000; i++) {
+            ByteBuffer in = ByteBuffer.allocate(valid.remaining());
+            in.put(valid.duplicate()).flip();
+            for (int flips = 1 + rnd.nextInt(3); flips > 0; flips--)
+                in.put(rnd.nextInt(in.limit()), (byte) rnd.nextInt(256));
+            try {
+                codec.decodeServer(in, frame);
+            } catch (IllegalArgumentException expected) {
+                // Detected corruption
+            }
+        }
+    }
+
+    @Test
+    void testVarintBoundaries() {
+        ByteBuffer buf = ByteBuffer.allocate(64);
+        int[] values = { 0, 1, 127, 128, 16_383, 16_384, Integer.MAX_VALUE, -1, Integer.MIN_VALUE };
+        for (int v : values) {
+            buf.clear();
+            Varint.writeInt(buf, v);
+            assertEquals(Varint.sizeOf(v), buf.position());
+            Varint.writeSignedInt(buf, v);
+            Varint.writeLong(buf, (long) v << 20);
+            buf.flip();
+            assertEquals(v, Varint.readInt(buf));
+            assertEquals(v, Varint.readSignedInt(buf));
+            assertEquals((long) v << 20, Varint.readLong(buf));
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package network;
+
+import board.BoardLayout;
+import interfaces.EState;
+import interfaces.IBoard;
+import interfaces.IGame;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import simulation.HeadlessGame;
+import simulation.ICommandGenerator;
+import utils.LogUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameServerTest {
+    private IGame game;
+    private GameServer server;
+    private final List<Socket> clients = new ArrayList<>();
+    private long tick;
+
+    @BeforeAll
+    static void quiet() {
+        LogUtils.setEnabled(false);
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        game = new HeadlessGame((p, b, t) -> null, (p, b, t) -> null, HeadlessGame.DEFAULT_TICK_MILLIS).getGame();
+        server = new GameServer(game, 0, new LineCodec(), 1);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (Socket s : clients)
+            s.close();
+        server.close();
+    }
+
+    private Socket connect() throws IOException {
+        Socket s = new Socket("localhost", server.getPort());
+        s.setSoTimeout(2000);
+        clients.add(s);
+        return s;
+    }
+
+    private static BufferedReader reader(Socket s) throws IOException {
+        return new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII));
+    }
+
+    private static void send(Socket s, String line) throws IOException {
+        PrintWriter out = new PrintWriter(s.getOutputStream(), true);
+        out.print(line + "\n");
+        out.flush();
+    }
+
+    /** Runs game ticks until the condition holds, as the game thread would. */
+    private void runUntil(BooleanSupplier done) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!done.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out");
+            server.tick(tick++);
+            game.update();
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void testClientsGetPlayersThenSpectate() throws Exception {
+        assertEquals("WELCOME 0 8 8", reader(connect()).readLine());
+        assertEquals("WELCOME 1 8 8", reader(connect()).readLine());
+        assertEquals("WELCOME -1 8 8", reader(connect()).readLine());
+    }
+
+    @Test
+    void testEveryPlayerOfAFourPlayerGameGetsASeat() throws Exception {
+        server.close();
+        ICommandGenerator idle = (p, b, t) -> null;
+        game = new HeadlessGame(BoardLayout.fourPlayer(), new ICommandGenerator[]{ idle, idle, idle, idle },
+                HeadlessGame.DEFAULT_TICK_MILLIS).getGame();
+        server = new GameServer(game, 0, new LineCodec(), 1);
+        server.start();
+
+        for (int i = 0; i < 4; i++)
+            assertEquals("WELCOME " + i + " 14 14", reader(connect()).readLine());
+        assertEquals("WELCOME -1 14 14", reader(connect()).readLine());
+    }
+
+    @Test
+    void testDirectMoveIsApplied() throws Exception {
+        Socket c = connect();
+        reader(c).readLine();
+        send(c, "MOVE 1 0 2 0");
+
+        IBoard board = game.getBoard();
+        runUntil(() -> board.getPiece(1, 0).getCurrentStateName() == EState.MOVE);
+    }
+
+    @Test
+    void testOpponentPiecesCannotBeMoved() throws Exception {
+        Socket c = connect();
+        reader(c).readLine();
+        send(c, "MOVE 6 0 5 0");
+        send(c, "JUMP 6 1");
+        send(c, "MOVE 1 1 2 1");
+
+        IBoard board = game.getBoard();
+        runUntil(() -> board.getPiece(1, 1).getCurrentStateName() == EState.MOVE);
+        assertEquals(EState.IDLE, board.getPiece(6, 0).getCurrentStateName());
+        assertEquals(EState.IDLE, board.getPiece(6, 1).getCurrentStateName());
+    }
+
+    @Test
+    void testCursorMessagesDriveTheCursor() throws Exception {
+        Socket c = connect();
+        reader(c).readLine();
+        send(c, "DOWN");
+        send(c, "right");
+
+        runUntil(() -> game.getPlayer1().getCursor().getRow() == 1 && game.getPlayer1().getCursor().getCol() == 1);
+    }
+
+    @Test
+    void testFullStateOnJoinThenDeltasAgainstAck() throws Exception {
+        Socket c = connect();
+        BufferedReader in = reader(c);
+        in.readLine();
+        server.tick(0);
+
+        String full = in.readLine();
+        assertTrue(full.startsWith("DELTA 0 -1 -1 "), full);
+        assertTrue(full.contains(" 8:1,0,P,IDLE,0,16,"), full);
+        assertTrue(full.contains(" 27:7,3,K,IDLE,48,112,"), full);
+        assertEquals(33, full.split(" ").length - 3);
+
+        // Without an acknowledgement the client keeps getting full states
+        server.tick(1);
+        assertTrue(in.readLine().startsWith("DELTA 1 -1 "));
+
+        send(c, "ACK 1");
+        send(c, "MOVE 1 0 2 0");
+        String delta = null;
+        for (long t = 2; delta == null || !delta.matches("DELTA \\d+ 1 -1 .+"); t++) {
+            Thread.sleep(5);
+            server.tick(t);
+            game.update();
+            delta = in.readLine();
+            assertTrue(t < 400, "no delta");
+        }
+        assertTrue(delta.matches("DELTA \\d+ 1 -1 8:1,0,P,MOVE,0,16,\\d+"), delta);
+    }
+
+    @Test
+    void testBadMessageClosesOnlyThatClient() throws Exception {
+        Socket bad = connect();
+        reader(bad).readLine();
+        Socket good = connect();
+        reader(good).readLine();
+
+        send(bad, "TELEPORT 1 2");
+        assertEquals(-1, bad.getInputStream().read());
+        runUntil(() -> server.getClientCount() == 1);
+    }
+
+    @Test
+    void testBinaryClientPlays() throws Exception {
+        server.close();
+        BinaryCodec codec = new BinaryCodec(8, 8);
+        server = new GameServer(game, 0, codec, 1);
+        server.start();
+
+        Socket c = connect();
+        sendBinary(c, codec, ClientMessage.move(1, 0, 2, 0));
+
+        ByteBuffer in = ByteBuffer.allocate(4096).flip();
+        StateFrame frame = new StateFrame();
+        int[] types = new int[4];
+        SnapshotHistory history = new SnapshotHistory(64);
+        IBoard board = game.getBoard();
+        runUntil(() -> {
+            readAvailable(c, in);
+            int type;
+            while ((type = codec.decodeServer(in, frame, history)) > 0)
+                types[type - BinaryCodec.WELCOME]++;
+            if (frame.snapshot != null)
+                sendBinary(c, codec, ClientMessage.ack(frame.snapshot.getTick()));
+            return frame.snapshot != null && frame.snapshot.getState(8) == EState.MOVE;
+        });
+        assertEquals(1, types[0]);
+        assertEquals(0, frame.playerId);
+        assertEquals(32, frame.snapshot.getPieceCount());
+        assertEquals(EState.MOVE, board.getPiece(1, 0).getCurrentStateName());
+    }
+
+    @Test
+    void testFullFramesOfALargeBoardFit() throws Exception {
+        server.close();
+        game = new HeadlessGame(BoardLayout.tiled(256, 256), (p, b, t) -> null, (p, b, t) -> null,
+                HeadlessGame.DEFAULT_TICK_MILLIS).getGame();
+        server = new GameServer(game, 0, new LineCodec(), 1);
+        server.start();
+
+        BufferedReader player = reader(connect());
+        assertEquals("WELCOME 0 256 256", player.readLine());
+        connect();
+        BufferedReader spectator = reader(connect());
+        runUntil(() -> server.getSpectatorCount() == 1);
+        server.tick(tick++);
+        game.update();
+
+        String full = player.readLine();
+        assertTrue(full.startsWith("DELTA 0 -1 -1 "), full.substring(0, 20));
+        assertEquals(4 * 256, full.split(" ").length - 4);
+        assertEquals("WELCOME -1 256 256", spectator.readLine());
+        assertEquals(4 * 256, spectator.readLine().split(" ").length - 4);
+
+        BinaryCodec codec = new BinaryCodec(256, 256);
+        ByteBuffer out = ByteBuffer.allocate(codec.maxFrameSize(game.getBoard()));
+        codec.encodeDelta(null, Snapshot.capture(game.getBoard(), 0, -1), out);
+        codec.encodeState(game.getBoard(), 0, -1, out.clear());
+    }
+
+    private static void sendBinary(Socket s, BinaryCodec codec, ClientMessage message) {
+        ByteBuffer out = ByteBuffer.allocate(16);
+        codec.encode(message, out);
+        try {
+            s.getOutputStream().write(out.array(), 0, out.position());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /** Appends whatever the socket has ready to a buffer kept in read mode. */
+    private static void readAvailable(Socket s, ByteBuffer in) {
+        try {
+            in.compact();
+            int n = s.getInputStream().available();
+            if (n > 0)
+                in.position(in.position() + s.getInputStream().read(in.array(), in.position(), Math.min(n, in.remaining())));
+            in.flip();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Test
+    void testLineCodecWaitsForCompleteLines() {
+        LineCodec codec = new LineCodec();
+        ByteBuffer buf = ByteBuffer.wrap("MOVE 1 2 3 4\nJU".getBytes(StandardCharsets.US_ASCII));
+
+        assertEquals(ClientMessage.move(1, 2, 3, 4), codec.decode(buf));
+        assertNull(codec.decode(buf));
+        assertEquals(2, buf.remaining());
+        assertThrows(IllegalArgumentException.class,
+                () -> codec.decode(ByteBuffer.wrap("JUMP 1\n".getBytes(StandardCharsets.US_ASCII))));
+    }
+}
@@ -0,0 +1,142 @@
+package network;
+
+import command.MoveCommand;
+import interfaces.EState;
+import interfaces.ICommand;
+import interfaces.IGame;
+import interfaces.IGameListener;
+import interfaces.IPiece;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pieces.Position;
+import simulation.HeadlessGame;
+import utils.LogUtils;
+
+import java.awt.geom.Point2D;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PredictingClientTest {
+    /** One way delay between client and server, in ticks. */
+    private static final int LATENCY = 5;
+
+    private HeadlessGame server;
+    private PredictingClient client;
+    /** Messages in flight, each delivered once the clock reaches its first element. */
+    private final Queue<Object[]> uplink = new ArrayDeque<>();
+    private final Queue<Object[]> downlink = new ArrayDeque<>();
+
+    @BeforeAll
+    static void quiet() {
+        LogUtils.setEnabled(false);
+    }
+
+    @BeforeEach
+    void setUp() {
+        server = new HeadlessGame((p, b, t) -> null, (p, b, t) -> null, HeadlessGame.DEFAULT_TICK_MILLIS);
+        client = new PredictingClient(0, HeadlessGame.DEFAULT_TICK_MILLIS);
+        server.getGame().addListener(new IGameListener() {
+            private final List<PlayerInput> inputs = new ArrayList<>();
+
+            @Override
+            public void onCommand(IGame game, long tick, ICommand command) {
+                ClientMessage m = ClientMessage.of(command);
+                IPiece piece = game.getBoard().getPiece(m.getFromRow(), m.getFromCol());
+                inputs.add(new PlayerInput(tick, game.getBoard().getPlayerOf(piece), m));
+            }
+
+            @Override
+            public void onUpdate(IGame game, long tick) {
+                if (!inputs.isEmpty())
+                    downlink.add(new Object[]{ tick + 1 + LATENCY, tick, new ArrayList<>(inputs) });
+                inputs.clear();
+            }
+        });
+    }
+
+    /** Advances server and client by one tick, the server snapshotting every few ticks. */
+    @SuppressWarnings("unchecked")
+    private void tick() {
+        long now = server.getTick();
+        while (!uplink.isEmpty() && (long) uplink.peek()[0] <= now) {
+            ClientMessage m = (ClientMessage) uplink.poll()[1];
+            server.getGame().addCommand(m.toCommand(server.getGame().getBoard()));
+        }
+        if (now % 10 == 0)
+            downlink.add(new Object[]{ now + LATENCY, Snapshot.capture(server.getGame().getBoard(), now, -1) });
+        server.step();
+
+        while (!downlink.isEmpty() && (long) downlink.peek()[0] <= now) {
+            Object[] m = downlink.poll();
+            if (m[1] instanceof Snapshot)
+                client.onSnapshot((Snapshot) m[1]);
+            else
+                client.onInputs((long) m[1], (List<PlayerInput>) m[2]);
+        }
+        client.step();
+    }
+
+    private void send(ClientMessage m) {
+        uplink.add(new Object[]{ server.getTick() + LATENCY, m });
+    }
+
+    @Test
+    void testOwnMoveIsShownImmediately() {
+        send(client.move(1, 0, 2, 0));
+        tick();
+
+        assertEquals(EState.MOVE, client.getPredictedBoard().getPiece(1, 0).getCurrentStateName());
+        assertEquals(EState.IDLE, server.getGame().getBoard().getPiece(1, 0).getCurrentStateName());
+        assertEquals(1, client.getPendingCount());
+    }
+
+    @Test
+    void testReconcilesWithServer() {
+        for (int t = 0; t < 600; t++) {
+            if (t == 10)
+                send(client.move(1, 0, 2, 0));
+            if (t == 12)
+                server.getGame().addCommand(new MoveCommand(new Position(6, 1), new Position(5, 1), server.getGame().getBoard()));
+            if (t == 300)
+                send(client.move(1, 1, 2, 1));
+            tick();
+        }
+
+        assertEquals(0, client.getDesyncs());
+        assertTrue(client.getRollbacks() > 0);
+        assertEquals(0, client.getPendingCount());
+        assertEquals(server.getTick(), client.getPredictedTick());
+        Snapshot expected = Snapshot.capture(server.getGame().getBoard(), server.getTick(), -1);
+        assertTrue(expected.sameContent(Snapshot.capture(client.getPredictedBoard(), server.getTick(), -1)));
+        assertNotNull(client.getPredictedBoard().getPiece(2, 1));
+    }
+
+    @Test
+    void testCorrectionFadesOut() {
+        IPiece pawn = null;
+        for (int t = 0; t < 40 && client.getRollbacks() == 0; t++) {
+            if (t == 2)
+                server.getGame().addCommand(new MoveCommand(new Position(6, 1), new Position(5, 1), server.getGame().getBoard()));
+            tick();
+            pawn = client.getPredictedBoard().getPiece(6, 1);
+        }
+        assertEquals(1, client.getRollbacks());
+
+        // The opponent's pawn had already travelled on the server; it is drawn where it was
+        int id = 17;
+        assertEquals(EState.MOVE, pawn.getCurrentStateName());
+        double actual = pawn.getCurrentState().getPhysics().getCurrentY();
+        Point2D.Double shown = client.getDisplayPosition(id);
+        assertTrue(shown.y > actual + 1, shown.y + " " + actual);
+
+        for (int t = 0; t < 40; t++)
+            tick();
+        actual = pawn.getCurrentState().getPhysics().getCurrentY();
+        assertEquals(actual, client.getDisplayPosition(id).y, 0.5);
+    }
+}
@@ -0,0 +1,103 @@
+package network;
+
+import interfaces.EState;
+import interfaces.IBoard;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import simulation.HeadlessGame;
+import simulation.RandomCommandGenerator;
+import simulation.ScriptedCommandGenerator;
+import utils.LogUtils;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotTest {
+    private final BinaryCodec codec = new BinaryCodec(8, 8);
+
+    @BeforeAll
+    static void quiet() {
+        LogUtils.setEnabled(false);
+    }
+
+    private ByteBuffer encode(Snapshot base, Snapshot current) {
+        ByteBuffer buf = ByteBuffer.allocate(1024);
+        codec.encodeDelta(base, current, buf);
+        return buf.flip();
+    }
+
+    @Test
+    void testOnlyChangedPiecesAreSent() {
+        HeadlessGame game = new HeadlessGame((p, b, t) -> null,
+                ScriptedCommandGenerator.fromLines(List.of("1,0,6,0,5,0"), 1), 16);
+        IBoard board = game.getGame().getBoard();
+        Snapshot before = Snapshot.capture(board, game.getTick(), -1);
+        for (int i = 0; i < 10; i++)
+            game.step();
+        Snapshot after = Snapshot.capture(board, game.getTick(), -1);
+
+        ByteBuffer full = encode(null, after);
+        ByteBuffer delta = encode(before, after);
+        assertTrue(delta.remaining() < 20, "delta takes " + delta.remaining() + " bytes");
+        assertTrue(full.remaining() > 32 * 5, "full state takes " + full.remaining() + " bytes");
+
+        int pawn = 16;
+        assertEquals(EState.MOVE, after.getState(pawn));
+        assertTrue(after.getY(pawn) < 6 * Snapshot.STEPS_PER_TILE);
+    }
+
+    @Test
+    void testClientRebuildsServerSnapshotsFromDeltas() {
+        HeadlessGame game = new HeadlessGame(new RandomCommandGenerator(11), new RandomCommandGenerator(12), 16);
+        IBoard board = game.getGame().getBoard();
+        SnapshotHistory server = new SnapshotHistory(128);
+        SnapshotHistory client = new SnapshotHistory(128);
+        StateFrame frame = new StateFrame();
+        long acked = -1;
+
+        for (int i = 0; i < 3000 && game.getGame().win() == null; i++) {
+            game.step();
+            Snapshot s = Snapshot.capture(board, game.getTick(), -1);
+            server.put(s);
+            // The client acknowledges every fifth frame, so deltas span several ticks
+            ByteBuffer wire = encode(server.get(acked), s);
+            if (i % 7 == 3)
+                continue; // frame lost, the next delta is still against the acknowledged baseline
+            assertEquals(BinaryCodec.DELTA, codec.decodeServer(wire, frame, client));
+            assertFalse(frame.desynced);
+            assertTrue(s.sameContent(frame.snapshot), "tick " + s.getTick());
+            if (i % 5 == 0)
+                acked = frame.snapshot.getTick();
+        }
+    }
+
+    @Test
+    void testUnknownBaselineIsReportedAsDesync() {
+        HeadlessGame game = new HeadlessGame((p, b, t) -> null, (p, b, t) -> null, 16);
+        IBoard board = game.getGame().getBoard();
+        Snapshot base = Snapshot.capture(board, 5, -1);
+        game.step();
+        Snapshot current = Snapshot.capture(board, 6, -1);
+
+        StateFrame frame = new StateFrame();
+        ByteBuffer wire = encode(base, current);
+        assertEquals(BinaryCodec.DELTA, codec.decodeServer(wire, frame, new SnapshotHistory(8)));
+        assertTrue(frame.desynced);
+        assertNull(frame.snapshot);
+        assertFalse(wire.hasRemaining());
+    }
+
+    @Test
+    void testHistoryForgetsOverwrittenTicks() {
+        SnapshotHistory history = new SnapshotHistory(4);
+        for (long t = 0; t < 10; t++)
+            history.put(new Snapshot(t, -1, 8, 1));
+
+        assertNull(history.get(5));
+        assertNull(history.get(-1));
+        assertEquals(9, history.get(9).getTick());
+        assertEquals(6, history.get(6).getTick());
+    }
+}
@@ -0,0 +1,183 @@
+package network;
+
+import interfaces.IBoard;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import simulation.HeadlessGame;
+import simulation.RandomCommandGenerator;
+import utils.LogUtils;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpectatorHubTest {
+    private final BinaryCodec codec = new BinaryCodec(8, 8);
+    private final BufferPool pool = new BufferPool(1024, 64);
+    private SpectatorHub hub;
+    private HeadlessGame game;
+
+    @BeforeAll
+    static void quiet() {
+        LogUtils.setEnabled(false);
+    }
+
+    @BeforeEach
+    void setUp() {
+        hub = new SpectatorHub(codec, pool, 1, s -> { });
+        game = new HeadlessGame(new RandomCommandGenerator(5), new RandomCommandGenerator(6), 16);
+    }
+
+    /** A spectator without a socket: frames are decoded straight from its slot. */
+    private static class Viewer {
+        final ClientSession session = new ClientSession(null, null, null);
+        final SnapshotHistory history = new SnapshotHistory(16);
+        final StateFrame frame = new StateFrame();
+        final List<SharedFrame> received = new ArrayList<>();
+
+        void drain(BinaryCodec codec) {
+            SharedFrame f = session.spectatorSlot.getAndSet(null);
+            if (f == null)
+                return;
+            received.add(f);
+            assertEquals(BinaryCodec.DELTA, codec.decodeServer(f.view(), frame, history));
+            assertFalse(frame.desynced);
+            f.release();
+        }
+    }
+
+    private Snapshot step() {
+        game.step();
+        IBoard board = game.getGame().getBoard();
+        return Snapshot.capture(board, game.getTick(), -1);
+    }
+
+    @Test
+    void testFrameIsEncodedOnceForAllSpectators() {
+        List<Viewer> viewers = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Viewer v = new Viewer();
+            viewers.add(v);
+            hub.add(v.session);
+        }
+
+        for (int round = 0; round < 50; round++) {
+            Snapshot s = step();
+            hub.fanOut(s);
+            for (Viewer v : viewers) {
+                v.drain(codec);
+                assertTrue(s.sameContent(v.frame.snapshot));
+            }
+        }
+        assertEquals(50, hub.getEncodedFrames());
+        // Everyone shared the same frame objects
+        assertSame(viewers.get(0).received.get(20), viewers.get(199).received.get(20));
+        assertEquals(0, viewers.get(0).received.get(20).refCount());
+    }
+
+    @Test
+    void testSlowSpectatorOnlyKeepsNewestFrame() {
+        Viewer fast = new Viewer();
+        Viewer slow = new Viewer();
+        hub.add(fast.session);
+        hub.add(slow.session);
+
+        hub.fanOut(step());
+        fast.drain(codec);
+        slow.drain(codec);
+
+        SharedFrame first = null;
+        Snapshot last = null;
+        for (int round = 0; round < 20; round++) {
+            last = step();
+            hub.fanOut(last);
+            fast.drain(codec);
+            if (first == null)
+                first = slow.session.spectatorSlot.get();
+        }
+        // The stale frames were released, only the newest is pending and it is a full state
+        assertEquals(0, first.refCount());
+        SharedFrame pending = slow.session.spectatorSlot.get();
+        assertTrue(pending.isFull());
+        assertEquals(1, pending.refCount());
+
+        slow.drain(codec);
+        assertTrue(last.sameContent(slow.frame.snapshot));
+
+        // Back in sync: plain deltas again
+        hub.fanOut(step());
+        assertFalse(slow.session.spectatorSlot.get().isFull());
+        slow.drain(codec);
+        fast.drain(codec);
+        assertTrue(fast.frame.snapshot.sameContent(slow.frame.snapshot));
+    }
+
+    @Test
+    void testResyncRequestGetsFullFrame() {
+        Viewer v = new Viewer();
+        hub.add(v.session);
+        hub.fanOut(step());
+        v.drain(codec);
+        hub.fanOut(step());
+        assertFalse(v.session.spectatorSlot.get().isFull());
+        v.drain(codec);
+
+        v.session.resync = true;
+        hub.fanOut(step());
+        assertTrue(v.session.spectatorSlot.get().isFull());
+    }
+
+    @Test
+    void testSharedFrameIsReadOnlyAndRecycled() {
+        ByteBuffer buf = pool.acquire();
+        buf.put((byte) 1).flip();
+        SharedFrame f = new SharedFrame(buf, pool, 1, -1);
+        assertTrue(f.view().isReadOnly());
+
+        int pooled = pool.getPooledCount();
+        f.retain();
+        f.release();
+        assertEquals(pooled, pool.getPooledCount());
+        f.release();
+        assertEquals(pooled + 1, pool.getPooledCount());
+        assertThrows(IllegalStateException.class, f::retain);
+    }
+
+    @Test
+    void testServerStreamsToSpectatorsFromGameUpdates() throws Exception {
+        HeadlessGame served = new HeadlessGame((p, b, t) -> null, (p, b, t) -> null, 16);
+        try (GameServer server = new GameServer(served.getGame(), 0, new LineCodec(), 1)) {
+            server.start();
+            List<BufferedReader> readers = new ArrayList<>();
+            List<Socket> sockets = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                Socket s = new Socket("localhost", server.getPort());
+                s.setSoTimeout(2000);
+                sockets.add(s);
+                BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII));
+                in.readLine();
+                readers.add(in);
+            }
+            long deadline = System.currentTimeMillis() + 2000;
+            while (server.getSpectatorCount() < 3 && System.currentTimeMillis() < deadline)
+                Thread.sleep(5);
+
+            // Ticks only come from the game: no server.tick() call is needed for spectators
+            for (int i = 0; i < 3; i++)
+                served.step();
+            for (int i = 2; i < 5; i++) {
+                String line = readers.get(i).readLine();
+                assertTrue(line.startsWith("DELTA "), line);
+            }
+            for (Socket s : sockets)
+                s.close();
+        }
+    }
+}
@@ -29,4 +29,13 @@ public class PiecesFactoryTest {
         Piece piece = PiecesFactory.createPieceByCode(EPieceType.B, 1, new Position(0, 0), config);
         assertNull(piece, "Expected null for non-existent piece resources");
     }
+
+    @Test
+    void testCreatedPieceKeepsItsOwner() {
+        BoardConfig config = new BoardConfig(new Dimension(8), new Dimension(64 * 8));
+        Piece piece = PiecesFactory.createPieceByCode(EPieceType.N, 1, new Position(7, 6), config);
+
+        assertEquals(1, piece.getPlayer());
+        assertEquals("7,6", piece.getId());
+    }
 }
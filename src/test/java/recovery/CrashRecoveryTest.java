@@ -0,0 +1,154 @@
+package recovery;
+
+import journal.GameJournal;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import replay.GameRecording;
+import replay.ReplayEngine;
+import simulation.HeadlessGame;
+import simulation.RandomCommandGenerator;
+import utils.LogUtils;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CrashRecoveryTest {
+    private static final int INTERVAL = 100;
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void quiet() {
+        LogUtils.setEnabled(false);
+    }
+
+    /**
+     * A journaled, checkpointed game that runs for a while and is then abandoned without closing anything,
+     * as if the JVM died. Keeps the state it had after every step.
+     */
+    private static final class Crashed {
+        final Path file;
+        final Map<Long, byte[]> states = new HashMap<>();
+        final GameJournal journal;
+
+        Crashed(Path dir, String name, long seed, long ticks) throws IOException {
+            file = dir.resolve(name + GameJournal.SUFFIX);
+            HeadlessGame game = new HeadlessGame(new RandomCommandGenerator(seed), new RandomCommandGenerator(seed + 1),
+                    HeadlessGame.DEFAULT_TICK_MILLIS);
+            journal = new GameJournal(file, game.getGame(), 4096, 16, Runnable::run);
+            journal.start();
+            Checkpointer checkpointer = new Checkpointer(file, game, journal, new boolean[]{ false, true }, INTERVAL);
+            while (game.getTick() < ticks && game.getGame().win() == null) {
+                game.step();
+                checkpointer.tick();
+                states.put(game.getTick(), game.checkpoint());
+            }
+        }
+    }
+
+    @Test
+    void testRecoversStateFromCheckpointAndJournalTail() throws Exception {
+        Crashed crashed = new Crashed(dir, "g1", 5, 350);
+        assertTrue(Files.exists(Checkpointer.fileFor(crashed.file)));
+
+        RecoveredGame recovered = new CrashRecovery(HeadlessGame.DEFAULT_TICK_MILLIS).recover(crashed.file);
+        assertNotNull(recovered);
+        assertEquals(301, recovered.getCheckpointTick());
+        assertTrue(recovered.getReplayedTicks() > 0);
+        assertArrayEquals(new boolean[]{ false, true }, recovered.getBots());
+        HeadlessGame game = recovered.getGame();
+        assertArrayEquals(crashed.states.get(game.getTick()), game.checkpoint());
+    }
+
+    @Test
+    void testRecoveredJournalReplaysAsOneGame() throws Exception {
+        Crashed crashed = new Crashed(dir, "g1", 7, 250);
+        RecoveredGame recovered = new CrashRecovery(HeadlessGame.DEFAULT_TICK_MILLIS).recover(crashed.file);
+        HeadlessGame game = recovered.getGame();
+        game.setGenerators(new RandomCommandGenerator(70), new RandomCommandGenerator(71));
+        game.run(20_000);
+        recovered.getJournal().close();
+
+        GameRecording recording = GameRecording.read(crashed.file);
+        assertNotNull(game.getGame().win());
+        assertTrue(new ReplayEngine(recording, HeadlessGame.DEFAULT_TICK_MILLIS).verify());
+        // The finished game is not recovered again
+        assertNull(new CrashRecovery(HeadlessGame.DEFAULT_TICK_MILLIS).recover(crashed.file));
+    }
+
+    @Test
+    void testTornTailIsCutOff() throws Exception {
+        Crashed crashed = new Crashed(dir, "g1", 9, 180);
+        long end = crashed.journal.size();
+        // Lose the last bytes, as if the machine died before the last flush
+        try (FileChannel ch = FileChannel.open(crashed.file, StandardOpenOption.WRITE)) {
+            ch.truncate(end - 3);
+        }
+
+        RecoveredGame recovered = new CrashRecovery(HeadlessGame.DEFAULT_TICK_MILLIS).recover(crashed.file);
+        HeadlessGame game = recovered.getGame();
+        assertTrue(game.getTick() <= 180);
+        assertArrayEquals(crashed.states.get(game.getTick()), game.checkpoint());
+        recovered.getJournal().close();
+        assertEquals(recovered.getJournal().size(), Files.size(crashed.file));
+    }
+
+    @Test
+    void testRecoversAllUnfinishedGamesInParallel() throws Exception {
+        Crashed[] games = new Crashed[6];
+        for (int i = 0; i < games.length; i++)
+            games[i] = new Crashed(dir, "g" + i, 100 + i * 2, 150 + i * 40);
+        // A finished game and a stray file are skipped
+        HeadlessGame done = new HeadlessGame(new RandomCommandGenerator(1), new RandomCommandGenerator(2), HeadlessGame.DEFAULT_TICK_MILLIS);
+        GameJournal doneJournal = new GameJournal(dir.resolve("done" + GameJournal.SUFFIX), done.getGame());
+        doneJournal.start();
+        done.run(20_000);
+        doneJournal.close();
+        Files.write(dir.resolve("notes.txt"), new byte[]{ 1, 2, 3 });
+
+        List<RecoveredGame> recovered = new CrashRecovery(HeadlessGame.DEFAULT_TICK_MILLIS).recoverAll(dir, 4);
+        assertEquals(games.length, recovered.size());
+        for (int i = 0; i < games.length; i++) {
+            RecoveredGame r = recovered.get(i);
+            assertEquals(games[i].file, r.getJournalFile());
+            assertArrayEquals(games[i].states.get(r.getGame().getTick()), r.getGame().checkpoint(), "game " + i);
+        }
+    }
+
+    @Test
+    void testGamesBeyondTheLimitAreLeftForAnotherNode() throws Exception {
+        Crashed[] games = new Crashed[4];
+        for (int i = 0; i < games.length; i++)
+            games[i] = new Crashed(dir, "g" + i, 40 + i * 2, 150 + i * 30);
+
+        List<RecoveredGame> first = new CrashRecovery(HeadlessGame.DEFAULT_TICK_MILLIS).recoverAll(dir, 4, 2);
+        assertEquals(2, first.size());
+        assertEquals(games[1].file, first.get(1).getJournalFile());
+        for (RecoveredGame r : first)
+            r.getJournal().close();
+
+        List<RecoveredGame> rest = new CrashRecovery(HeadlessGame.DEFAULT_TICK_MILLIS).recoverAll(dir, 4);
+        assertEquals(games.length, rest.size());
+        for (int i = 0; i < games.length; i++)
+            assertArrayEquals(games[i].states.get(rest.get(i).getGame().getTick()), rest.get(i).getGame().checkpoint(), "game " + i);
+    }
+
+    @Test
+    void testBrokenJournalIsReportedNotRecovered() throws Exception {
+        new Crashed(dir, "g1", 3, 120);
+        Files.write(dir.resolve("bad" + GameJournal.SUFFIX), new byte[]{ 0, 1, 2, 3 });
+
+        List<RecoveredGame> recovered = new CrashRecovery(HeadlessGame.DEFAULT_TICK_MILLIS).recoverAll(dir, 2);
+        assertEquals(1, recovered.size());
+    }
+}
@@ -0,0 +1,81 @@
+package replay;
+
+import journal.GameJournal;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import simulation.HeadlessGame;
+import simulation.RandomCommandGenerator;
+import utils.LogUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplayEngineTest {
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void quiet() {
+        LogUtils.setEnabled(false);
+    }
+
+    /** Plays a random game with a journal and returns the journal file. */
+    private Path record(String name, long seed) throws IOException {
+        HeadlessGame game = new HeadlessGame(new RandomCommandGenerator(seed), new RandomCommandGenerator(seed + 1),
+                HeadlessGame.DEFAULT_TICK_MILLIS);
+        Path file = dir.resolve(name + GameJournal.SUFFIX);
+        GameJournal journal = new GameJournal(file, game.getGame(), 1 << 16, 64, Runnable::run);
+        journal.start();
+        game.run(20_000);
+        journal.close();
+        return file;
+    }
+
+    @Test
+    void testReplayReproducesGame() throws IOException {
+        GameRecording recording = GameRecording.read(record("a", 3));
+        assertFalse(recording.getCommands().isEmpty());
+        assertFalse(recording.getOutcomes().isEmpty());
+
+        ReplayEngine engine = new ReplayEngine(recording, HeadlessGame.DEFAULT_TICK_MILLIS);
+        assertTrue(engine.verify());
+        assertTrue(engine.isFinished());
+        assertEquals(recording.getOutcomes(), engine.getOutcomes());
+    }
+
+    @Test
+    void testSeekMatchesStraightReplay() throws IOException {
+        GameRecording recording = GameRecording.read(record("b", 7));
+        long middle = recording.getLastTick() / 2;
+
+        ReplayEngine straight = new ReplayEngine(recording, HeadlessGame.DEFAULT_TICK_MILLIS);
+        straight.seek(middle);
+        long hash = straight.getGame().getBoard().getHash();
+
+        ReplayEngine seeking = new ReplayEngine(recording, HeadlessGame.DEFAULT_TICK_MILLIS);
+        seeking.fastForward(recording.getLastTick());
+        seeking.seek(middle);
+        assertEquals(middle, seeking.getTick());
+        assertEquals(hash, seeking.getGame().getBoard().getHash());
+        seeking.seek(middle + 10);
+        straight.fastForward(10);
+        assertEquals(straight.getGame().getBoard().getHash(), seeking.getGame().getBoard().getHash());
+    }
+
+    @Test
+    void testWrongTickLengthIsDetected() throws IOException {
+        GameRecording recording = GameRecording.read(record("c", 11));
+        assertFalse(new ReplayEngine(recording, HeadlessGame.DEFAULT_TICK_MILLIS * 2).verify());
+    }
+
+    @Test
+    void testBulkVerify() throws Exception {
+        List<Path> files = List.of(record("d", 1), record("e", 2), record("f", 5));
+        int[] result = ReplayMain.verifyAll(files, HeadlessGame.DEFAULT_TICK_MILLIS, 2);
+        assertArrayEquals(new int[]{ 3, 0, 0 }, result);
+    }
+}
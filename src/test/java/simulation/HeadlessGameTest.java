@@ -0,0 +1,105 @@
+package simulation;
+
+import board.BoardLayout;
+import interfaces.EState;
+import interfaces.IBoard;
+import interfaces.IPiece;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import pieces.Position;
+import utils.LogUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HeadlessGameTest {
+
+    @BeforeAll
+    static void quiet() {
+        LogUtils.setEnabled(false);
+    }
+
+    @Test
+    void testScriptedMoveCompletesOnSimulatedTime() {
+        ICommandGenerator idle = (player, board, tick) -> null;
+        ScriptedCommandGenerator script = ScriptedCommandGenerator.fromLines(List.of("1,0,6,0,5,0"), 1);
+        HeadlessGame game = new HeadlessGame(idle, script, HeadlessGame.DEFAULT_TICK_MILLIS);
+
+        game.step();
+        IPiece pawn = game.getGame().getBoard().getPiece(6, 0);
+        assertEquals(EState.MOVE, pawn.getCurrentStateName());
+
+        for (int i = 0; i < 200 && pawn.getCurrentStateName() == EState.MOVE; i++)
+            game.step();
+
+        assertEquals(5, pawn.getRow());
+        assertSame(pawn, game.getGame().getBoard().getPiece(5, 0));
+    }
+
+    @Test
+    void testRandomGamesAreReproducible() {
+        SimulationResult a = new HeadlessGame(new RandomCommandGenerator(7), new RandomCommandGenerator(8), 16).run(3000);
+        SimulationResult b = new HeadlessGame(new RandomCommandGenerator(7), new RandomCommandGenerator(8), 16).run(3000);
+
+        assertEquals(a.winner, b.winner);
+        assertEquals(a.ticks, b.ticks);
+        assertArrayEquals(a.captured, b.captured);
+    }
+
+    @Test
+    void testReportAggregatesResults() {
+        SimulationReport r1 = new SimulationReport();
+        r1.add(new SimulationResult(0, 100, new int[]{ 1, 16 }));
+        SimulationReport r2 = new SimulationReport();
+        r2.add(new SimulationResult(-1, 300, new int[]{ 3, 2 }));
+        r1.merge(r2);
+
+        assertEquals(2, r1.getGames());
+        assertEquals(1, r1.getWins(0));
+        assertEquals(1, r1.getUnfinished());
+        assertEquals(200.0, r1.getAverageTicks());
+        assertEquals(9.0, r1.getAverageCaptured(1));
+    }
+
+    @Test
+    void testFourPlayerGameMovesSidePlayersAlongTheRows() {
+        ICommandGenerator idle = (player, board, tick) -> null;
+        ScriptedCommandGenerator script = ScriptedCommandGenerator.fromLines(List.of("2,0,3,1,3,2"), 2);
+        HeadlessGame game = new HeadlessGame(BoardLayout.fourPlayer(),
+                new ICommandGenerator[]{ idle, idle, script, idle }, HeadlessGame.DEFAULT_TICK_MILLIS);
+        IBoard board = game.getGame().getBoard();
+
+        assertEquals(4, board.getPlayers().length);
+        IPiece pawn = board.getPiece(3, 1);
+        assertEquals(2, pawn.getPlayer());
+        assertEquals(2, board.getPlayerOf(pawn));
+        assertEquals(3, board.getPiece(3, 12).getPlayer());
+        assertFalse(board.isMoveLegal(new Position(3, 1), new Position(4, 1)));
+
+        game.step();
+        for (int i = 0; i < 200 && pawn.getCurrentStateName() == EState.MOVE; i++)
+            game.step();
+        assertSame(pawn, board.getPiece(3, 2));
+
+        SimulationResult result = new HeadlessGame(BoardLayout.fourPlayer(), new ICommandGenerator[]{
+                new RandomCommandGenerator(1), new RandomCommandGenerator(2),
+                new RandomCommandGenerator(3), new RandomCommandGenerator(4) }, 16).run(3000);
+        assertEquals(4, result.captured.length);
+    }
+
+    @Test
+    void testGeneratorsAreReplacedForEveryPlayer() {
+        ICommandGenerator idle = (player, board, tick) -> null;
+        HeadlessGame game = new HeadlessGame(BoardLayout.fourPlayer(),
+                new ICommandGenerator[]{ idle, idle, idle, idle }, HeadlessGame.DEFAULT_TICK_MILLIS);
+        IPiece pawn = game.getGame().getBoard().getPiece(3, 12);
+
+        assertThrows(IllegalArgumentException.class, () -> game.setGenerators(idle, idle));
+        game.setGenerators(idle, idle, idle, ScriptedCommandGenerator.fromLines(List.of("3,0,3,12,3,11"), 3));
+        game.step();
+        for (int i = 0; i < 200 && pawn.getCurrentStateName() == EState.MOVE; i++)
+            game.step();
+        assertSame(pawn, game.getGame().getBoard().getPiece(3, 11));
+    }
+}
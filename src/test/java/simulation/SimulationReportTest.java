@@ -0,0 +1,36 @@
+package simulation;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import utils.LogUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulationReportTest {
+
+    @BeforeAll
+    static void quiet() {
+        LogUtils.setEnabled(false);
+    }
+
+    @Test
+    void testCountsEveryPlayerOfLargerGames() {
+        SimulationReport twoPlayers = new SimulationReport();
+        twoPlayers.add(new SimulationResult(1, 100, new int[]{ 3, 1 }));
+        SimulationReport fourPlayers = new SimulationReport();
+        fourPlayers.add(new SimulationResult(3, 300, new int[]{ 2, 4, 6, 8 }));
+        fourPlayers.add(new SimulationResult(-1, 200, new int[]{ 0, 0, 2, 0 }));
+
+        twoPlayers.merge(fourPlayers);
+
+        assertEquals(3, twoPlayers.getGames());
+        assertEquals(4, twoPlayers.getPlayerCount());
+        assertEquals(1, twoPlayers.getWins(1));
+        assertEquals(1, twoPlayers.getWins(3));
+        assertEquals(1, twoPlayers.getUnfinished());
+        assertEquals(8 / 3.0, twoPlayers.getAverageCaptured(2), 1e-9);
+        String text = twoPlayers.format(1, 16);
+        assertTrue(text.contains("player3=1 unfinished=1"), text);
+        assertTrue(text.contains("player3=2.67") || text.contains("player3=2,67"), text);
+    }
+}
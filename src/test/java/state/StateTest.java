@@ -48,6 +48,15 @@ public class StateTest {
         public double getCurrentX() { return currentX; }
         @Override
         public double getCurrentY() { return currentY; }
+        @Override
+        public Position getStartPos() { return null; }
+        @Override
+        public long getStartTimeNanos() { return 0; }
+        @Override
+        public void setCurrentPosition(double x, double y) {
+            currentX = x;
+            currentY = y;
+        }
     }
 
     private static class DummyGraphics implements IGraphicsData {
@@ -68,6 +77,10 @@ public class StateTest {
         public boolean isLoop() { return false; }
         @Override
         public java.awt.image.BufferedImage getCurrentFrame() { return null; }
+        @Override
+        public long getLastFrameTimeNanos() { return 0; }
+        @Override
+        public void restore(int frame, long lastFrameTimeNanos) {}
     }
 
     @BeforeEach
@@ -0,0 +1,60 @@
+package utils;
+
+import assets.FrameSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StartupProfilerTest {
+    @BeforeAll
+    static void quiet() {
+        LogUtils.setEnabled(false);
+    }
+
+    @AfterEach
+    void off() {
+        StartupProfiler.setEnabled(false);
+        StartupProfiler.reset();
+    }
+
+    @Test
+    void testSumsRepeatedPhasesInFirstSeenOrder() throws InterruptedException {
+        StartupProfiler.reset();
+        StartupProfiler.setEnabled(true);
+        long a = StartupProfiler.start();
+        Thread.sleep(5);
+        StartupProfiler.end("assets", a);
+        for (int i = 0; i < 2; i++)
+            StartupProfiler.end("players", StartupProfiler.start());
+
+        String report = StartupProfiler.report("first tick", 1_500_000_000L);
+        assertTrue(report.indexOf("assets") < report.indexOf("players"), report);
+        assertTrue(report.contains("(2 times)"), report);
+        assertTrue(report.contains("JVM start to first tick"), report);
+        assertTrue(report.contains("1500.0 ms"), report);
+    }
+
+    @Test
+    void testRecordsNothingWhenDisabled() {
+        StartupProfiler.reset();
+        StartupProfiler.setEnabled(false);
+        StartupProfiler.end("assets", StartupProfiler.start());
+        assertFalse(StartupProfiler.report("first tick", -1).contains("assets"));
+    }
+
+    @Test
+    void testLazySpriteLoadsAreReportedAsDecoding() {
+        StartupProfiler.reset();
+        StartupProfiler.setEnabled(true);
+        FrameSource frames = FrameSource.lazy("profiler-test-" + System.nanoTime(), 1,
+                () -> new BufferedImage[]{ new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB) });
+        assertEquals(1, frames.get().length);
+
+        String report = StartupProfiler.report("first tick", -1);
+        assertTrue(report.contains(FrameSource.PROFILE_PHASE), report);
+    }
+}